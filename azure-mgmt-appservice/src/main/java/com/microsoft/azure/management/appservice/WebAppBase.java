@@ -254,6 +254,13 @@ public interface WebAppBase extends
      */
     String linuxFxVersion();
 
+    /**
+     * @return the time in milliseconds taken by each stage of the last create or update of the web app,
+     * in the order the stages completed; empty if the web app was not created or updated through this instance
+     */
+    @Beta(Beta.SinceVersion.V1_4_0)
+    Map<String, Long> lastApplyStageDurations();
+
     /**
      * @return the mapping from host names and the host name bindings
      */
@@ -42,6 +42,8 @@ import com.microsoft.azure.management.resources.fluentcore.utils.SdkContext;
 import com.microsoft.azure.management.resources.fluentcore.utils.Utils;
 import org.joda.time.DateTime;
 import rx.Observable;
+import rx.functions.Action0;
+import rx.functions.Func0;
 import rx.functions.Func1;
 import rx.functions.Func2;
 import rx.functions.Func4;
@@ -51,10 +53,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.Callable;
 
 /**
  * The implementation for WebAppBase.
@@ -100,6 +102,7 @@ abstract class WebAppBaseImpl<
     private MSDeployInner msDeploy;
     private WebAppAuthenticationImpl<FluentT, FluentImplT> authentication;
     private boolean authenticationToUpdate;
+    private final Map<String, Long> stageDurations = Collections.synchronizedMap(new LinkedHashMap<String, Long>());
 
     WebAppBaseImpl(String name, SiteInner innerObject, SiteConfigResourceInner configObject, AppServiceManager manager) {
         super(name, innerObject, manager);
@@ -509,73 +512,76 @@ abstract class WebAppBaseImpl<
         if (hostNameSslStateMap.size() > 0) {
             inner().withHostNameSslStates(new ArrayList<>(hostNameSslStateMap.values()));
         }
-        return submitSite(inner())
-        // Submit hostname bindings
+        stageDurations.clear();
+        // The site must be refreshed only if the host name bindings changed, otherwise the site
+        // returned from the PUT is already up to date
+        final boolean refreshAfterHostNameBindings = !hostNameBindingsToCreate.isEmpty() || !hostNameBindingsToDelete.isEmpty();
+        return stage("site", submitSite(inner()))
         .flatMap(new Func1<SiteInner, Observable<SiteInner>>() {
             @Override
-            public Observable<SiteInner> call(final SiteInner inner) {
-                return submitHostNameBindings(inner);
-            }
-        })
-        // refresh after hostname bindings
-        .flatMap(new Func1<SiteInner, Observable<SiteInner>>() {
-            @Override
-            public Observable<SiteInner> call(SiteInner inner) {
-                return getInner();
-            }
-        })
-        // Submit SSL bindings
-        .flatMap(new Func1<SiteInner, Observable<SiteInner>>() {
-            @Override
-            public Observable<SiteInner> call(final SiteInner inner) {
-                return submitSslBindings(inner);
-            }
-        })
-        // submit config
-        .flatMap(new Func1<SiteInner, Observable<SiteInner>>() {
-            @Override
-            public Observable<SiteInner> call(final SiteInner inner) {
-                return submitSiteConfig(inner);
-            }
-        })
-        // app settings and connection strings
-        .flatMap(new Func1<SiteInner, Observable<SiteInner>>() {
-            @Override
-            public Observable<SiteInner> call(final SiteInner inner) {
-                return submitAppSettings(inner).zipWith(submitConnectionStrings(inner), new Func2<SiteInner, SiteInner, SiteInner>() {
-                    @Override
-                    public SiteInner call(SiteInner siteInner, SiteInner siteInner2) {
-                        return inner;
-                    }
-                });
-            }
-        })
-        // app setting & connection string stickiness
-        .flatMap(new Func1<SiteInner, Observable<SiteInner>>() {
-            @Override
-            public Observable<SiteInner> call(final SiteInner inner) {
-                return submitStickiness(inner);
-            }
-        })
-        // delete source control
-        .flatMap(new Func1<SiteInner, Observable<SiteInner>>() {
-            @Override
-            public Observable<SiteInner> call(final SiteInner inner) {
-                return submitSourceControlToDelete(inner);
-            }
-        })
-        // create source control
-        .flatMap(new Func1<SiteInner, Observable<SiteInner>>() {
-            @Override
-            public Observable<SiteInner> call(final SiteInner inner) {
-                return submitSourceControlToCreate(inner);
-            }
-        })
-        // authentication
-        .flatMap(new Func1<SiteInner, Observable<SiteInner>>() {
-            @Override
-            public Observable<SiteInner> call(SiteInner inner) {
-                return submitAuthentication(inner);
+            public Observable<SiteInner> call(final SiteInner site) {
+                // The host name bindings, SSL bindings and site config are submitted in sequence, as the
+                // SSL bindings depend on the host names and each of them updates the site itself
+                final Observable<SiteInner> siteUpdates = stage("hostNameBindings", submitHostNameBindings(site))
+                    .flatMap(new Func1<SiteInner, Observable<SiteInner>>() {
+                        @Override
+                        public Observable<SiteInner> call(SiteInner inner) {
+                            if (!refreshAfterHostNameBindings) {
+                                return Observable.just(inner);
+                            }
+                            return stage("refresh", getInner());
+                        }
+                    })
+                    .flatMap(new Func1<SiteInner, Observable<SiteInner>>() {
+                        @Override
+                        public Observable<SiteInner> call(SiteInner inner) {
+                            return stage("sslBindings", submitSslBindings(inner));
+                        }
+                    })
+                    .flatMap(new Func1<SiteInner, Observable<SiteInner>>() {
+                        @Override
+                        public Observable<SiteInner> call(SiteInner inner) {
+                            return stage("siteConfig", submitSiteConfig(inner));
+                        }
+                    });
+                // App settings, connection strings and authentication are separate configuration
+                // resources of the site, stickiness names the app settings and connection strings
+                // hence it is submitted once both are in place
+                Observable<SiteInner> settings = Observable.zip(
+                        concurrently(stage("appSettings", submitAppSettings(site))),
+                        concurrently(stage("connectionStrings", submitConnectionStrings(site))),
+                        new Func2<SiteInner, SiteInner, SiteInner>() {
+                            @Override
+                            public SiteInner call(SiteInner siteInner, SiteInner ignored) {
+                                return siteInner;
+                            }
+                        })
+                    .flatMap(new Func1<SiteInner, Observable<SiteInner>>() {
+                        @Override
+                        public Observable<SiteInner> call(SiteInner inner) {
+                            return stage("stickiness", submitStickiness(inner));
+                        }
+                    });
+                // The removal of the previous source control only touches the source control resource,
+                // hence it runs alongside the other updates. The new source control triggers a deployment,
+                // so it is created once all of them are complete
+                return Observable.zip(
+                        concurrently(siteUpdates),
+                        concurrently(settings),
+                        concurrently(stage("authentication", submitAuthentication(site))),
+                        concurrently(stage("sourceControlToDelete", submitSourceControlToDelete(site))),
+                        new Func4<SiteInner, SiteInner, SiteInner, SiteInner, SiteInner>() {
+                            @Override
+                            public SiteInner call(SiteInner siteInner, SiteInner ignored1, SiteInner ignored2, SiteInner ignored3) {
+                                return siteInner;
+                            }
+                        })
+                    .flatMap(new Func1<SiteInner, Observable<SiteInner>>() {
+                        @Override
+                        public Observable<SiteInner> call(SiteInner inner) {
+                            return stage("sourceControlToCreate", submitSourceControlToCreate(inner));
+                        }
+                    });
             }
         })
         // convert from inner
@@ -593,6 +599,47 @@ abstract class WebAppBaseImpl<
         });
     }
 
+    /**
+     * Records the time taken by a stage of the create or update.
+     *
+     * @param name the name of the stage
+     * @param stage the stage
+     * @return the timed stage
+     */
+    private Observable<SiteInner> stage(final String name, final Observable<SiteInner> stage) {
+        return Observable.defer(new Func0<Observable<SiteInner>>() {
+            @Override
+            public Observable<SiteInner> call() {
+                final long start = System.currentTimeMillis();
+                return stage.doOnCompleted(new Action0() {
+                    @Override
+                    public void call() {
+                        stageDurations.put(name, System.currentTimeMillis() - start);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Subscribes to a branch of the create or update on the SDK scheduler. The requests are sent on
+     * the subscribing thread, so the branches zipped together only run concurrently when each of
+     * them is subscribed on its own thread.
+     *
+     * @param branch the branch
+     * @return the branch subscribed on the SDK scheduler
+     */
+    private static Observable<SiteInner> concurrently(Observable<SiteInner> branch) {
+        return branch.subscribeOn(SdkContext.getRxScheduler());
+    }
+
+    @Override
+    public Map<String, Long> lastApplyStageDurations() {
+        synchronized (stageDurations) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(stageDurations));
+        }
+    }
+
     Observable<SiteInner> submitSite(final SiteInner site) {
         site.withSiteConfig(new SiteConfig());
         // Construct web app observable
@@ -788,16 +835,11 @@ abstract class WebAppBaseImpl<
                     return createOrUpdateSourceControl(sourceControl.inner());
                 }
             })
-            .delay(new Func1<SiteSourceControlInner, Observable<Long>>() {
+            // Give the deployment triggered by the source control time to start, without blocking a thread
+            .flatMap(new Func1<SiteSourceControlInner, Observable<SiteSourceControlInner>>() {
                 @Override
-                public Observable<Long> call(SiteSourceControlInner siteSourceControlInner) {
-                    return Observable.fromCallable(new Callable<Long>() {
-                        @Override
-                        public Long call() throws Exception {
-                            SdkContext.sleep(30000);
-                            return 30000L;
-                        }
-                    });
+                public Observable<SiteSourceControlInner> call(SiteSourceControlInner siteSourceControlInner) {
+                    return SdkContext.delayedEmitAsync(siteSourceControlInner, 30000);
                 }
             })
             .map(new Func1<SiteSourceControlInner, SiteInner>() {
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.appservice;
+
+import com.microsoft.azure.management.appservice.implementation.AppServiceManager;
+import com.microsoft.azure.management.resources.core.MockArmServer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the stages of a web app update against the recorded responses of canCRUDWebAppConfig.
+ */
+public class WebAppStagesTests {
+    private static final String ZERO_SUBSCRIPTION = "00000000-0000-0000-0000-000000000000";
+    private static final String ZERO_TENANT = "00000000-0000-0000-0000-000000000000";
+    private static final String RG_NAME = "javacsmrgc0724347d";
+    private static final String WEBAPP_NAME = "java-webapp-126622";
+    private static final long LATENCY_IN_MILLISECONDS = 50;
+
+    @Test
+    public void canWriteSettingsConcurrently() throws Exception {
+        try (MockArmServer server = new MockArmServer()
+                .withRecords("canCRUDWebAppConfig")
+                .withLatency(LATENCY_IN_MILLISECONDS, TimeUnit.MILLISECONDS)
+                .withServedRequests(100)
+                .start()) {
+            AppServiceManager appServiceManager = AppServiceManager.authenticate(server.restClient(), ZERO_TENANT, ZERO_SUBSCRIPTION);
+            WebApp webApp = appServiceManager.webApps().getByResourceGroup(RG_NAME, WEBAPP_NAME);
+            int requestsBeforeUpdate = server.servedRequests().size();
+
+            webApp.update()
+                    .withJavaVersion(JavaVersion.JAVA_1_7_0_51)
+                    .withWebContainer(WebContainer.TOMCAT_7_0_50)
+                    .withAppSetting("appkey", "appvalue")
+                    .withStickyAppSetting("stickykey", "stickyvalue")
+                    .withConnectionString("connectionName", "connectionValue", ConnectionStringType.CUSTOM)
+                    .apply();
+
+            List<MockArmServer.ServedRequest> requests = server.servedRequests();
+            Map<String, Long> configWrites = new HashMap<>();
+            for (MockArmServer.ServedRequest request : requests.subList(requestsBeforeUpdate, requests.size())) {
+                String path = request.path().toLowerCase(Locale.ROOT);
+                if (request.method().equals("PUT") && path.contains("/config/")) {
+                    configWrites.put(path.substring(path.lastIndexOf("/config/") + "/config/".length()), request.receivedAtMillis());
+                }
+            }
+            Assert.assertEquals(new HashSet<>(Arrays.asList("web", "appsettings", "connectionstrings", "slotconfignames")),
+                    configWrites.keySet());
+            // The app settings and connection strings are written at the same time, the stickiness once
+            // both responses are received
+            long appSettings = configWrites.get("appsettings");
+            long connectionStrings = configWrites.get("connectionstrings");
+            Assert.assertTrue(Math.abs(appSettings - connectionStrings) < LATENCY_IN_MILLISECONDS);
+            Assert.assertTrue(configWrites.get("slotconfignames") - Math.max(appSettings, connectionStrings)
+                    >= LATENCY_IN_MILLISECONDS);
+        }
+    }
+
+    @Test
+    public void canReportLastApplyStageDurations() throws Exception {
+        try (MockArmServer server = new MockArmServer()
+                .withRecords("canCRUDWebAppConfig")
+                .withLatency(LATENCY_IN_MILLISECONDS, TimeUnit.MILLISECONDS)
+                .start()) {
+            AppServiceManager appServiceManager = AppServiceManager.authenticate(server.restClient(), ZERO_TENANT, ZERO_SUBSCRIPTION);
+            WebApp webApp = appServiceManager.webApps().getByResourceGroup(RG_NAME, WEBAPP_NAME);
+            Assert.assertTrue(webApp.lastApplyStageDurations().isEmpty());
+
+            webApp.update()
+                    .withAppSetting("appkey", "appvalue")
+                    .apply();
+
+            Map<String, Long> durations = webApp.lastApplyStageDurations();
+            List<String> stages = new ArrayList<>(durations.keySet());
+            // The site updates complete in sequence, the settings before their stickiness
+            assertCompletedInOrder(stages, "site", "hostNameBindings", "sslBindings", "siteConfig");
+            assertCompletedInOrder(stages, "appSettings", "stickiness");
+            assertCompletedInOrder(stages, "connectionStrings", "stickiness");
+            Assert.assertTrue(stages.contains("authentication"));
+            Assert.assertTrue(stages.contains("sourceControlToDelete"));
+            Assert.assertEquals("sourceControlToCreate", stages.get(stages.size() - 1));
+            // The stages sending a request take at least the latency of the server
+            Assert.assertTrue(durations.get("site") >= LATENCY_IN_MILLISECONDS);
+            Assert.assertTrue(durations.get("appSettings") >= LATENCY_IN_MILLISECONDS);
+
+            // The durations are those of the last apply only
+            webApp.update()
+                    .withAppSetting("appkey", "appvalue2")
+                    .apply();
+            Assert.assertEquals(durations.keySet(), webApp.lastApplyStageDurations().keySet());
+        }
+    }
+
+    private static void assertCompletedInOrder(List<String> stages, String... expected) {
+        int previous = -1;
+        for (String stage : expected) {
+            int index = stages.indexOf(stage);
+            Assert.assertTrue(stage + " completed out of order in " + stages, index > previous);
+            previous = index;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.benchmarks;
+
+import com.microsoft.azure.management.Azure;
+import com.microsoft.azure.management.appservice.implementation.AppServiceManager;
+import com.microsoft.azure.management.batch.implementation.BatchManager;
+import com.microsoft.azure.management.cdn.implementation.CdnManager;
+import com.microsoft.azure.management.compute.implementation.ComputeManager;
+import com.microsoft.azure.management.containerinstance.implementation.ContainerInstanceManager;
+import com.microsoft.azure.management.containerregistry.implementation.ContainerRegistryManager;
+import com.microsoft.azure.management.cosmosdb.implementation.CosmosDBManager;
+import com.microsoft.azure.management.dns.implementation.DnsZoneManager;
+import com.microsoft.azure.management.graphrbac.implementation.GraphRbacManager;
+import com.microsoft.azure.management.keyvault.implementation.KeyVaultManager;
+import com.microsoft.azure.management.network.implementation.NetworkManager;
+import com.microsoft.azure.management.redis.implementation.RedisManager;
+import com.microsoft.azure.management.resources.implementation.ResourceManager;
+import com.microsoft.azure.management.search.implementation.SearchServiceManager;
+import com.microsoft.azure.management.servicebus.implementation.ServiceBusManager;
+import com.microsoft.azure.management.sql.implementation.SqlServerManager;
+import com.microsoft.azure.management.storage.implementation.StorageManager;
+import com.microsoft.azure.management.trafficmanager.implementation.TrafficManager;
+import com.microsoft.rest.RestClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for creating the {@link Azure} entry point, the service managers are created on first
+ * access so creating the entry point should be cheap regardless of the number of services.
+ * <p>
+ * {@link #eagerBaseline()} creates all the managers the way the entry point did before they were
+ * created on first access, so that the time to the first call can be compared with it. Run with the
+ * GC profiler (-prof gc, or the main method of this class) to compare the bytes allocated per
+ * operation, see {@link AzureStartupFootprint} for the heap retained by an entry point.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AzureStartupBenchmark {
+    private RestClient restClient;
+
+    /**
+     * Builds the REST client shared by the entry points, no request is sent.
+     */
+    @Setup
+    public void setup() {
+        restClient = BenchmarkClients.restClientBuilder("https://management.azure.com/").build();
+    }
+
+    /**
+     * @return the entry point
+     */
+    @Benchmark
+    public Azure authenticate() {
+        return Azure.authenticate(restClient, BenchmarkClients.TENANT_ID)
+                .withSubscription(BenchmarkClients.SUBSCRIPTION_ID);
+    }
+
+    /**
+     * @return the entry point after the compute manager is created
+     */
+    @Benchmark
+    public Object authenticateAndFirstService() {
+        Azure azure = authenticate();
+        return azure.virtualMachines();
+    }
+
+    /**
+     * @return the entry point after the commonly used managers are created
+     */
+    @Benchmark
+    public Azure authenticateAndCommonServices() {
+        Azure azure = authenticate();
+        azure.virtualMachines();
+        azure.networks();
+        azure.storageAccounts();
+        azure.webApps();
+        return azure;
+    }
+
+    /**
+     * @return the managers created the way the entry point created them before they were lazy
+     */
+    @Benchmark
+    public Object[] eagerBaseline() {
+        return createAllManagers(restClient);
+    }
+
+    /**
+     * Creates all the service managers, as the entry point did on construction before the managers
+     * were created on first access.
+     *
+     * @param restClient the REST client
+     * @return the managers
+     */
+    static Object[] createAllManagers(RestClient restClient) {
+        String tenantId = BenchmarkClients.TENANT_ID;
+        String subscriptionId = BenchmarkClients.SUBSCRIPTION_ID;
+        return new Object[] {
+            GraphRbacManager.authenticate(restClient, tenantId),
+            ResourceManager.authenticate(restClient).withSubscription(subscriptionId),
+            StorageManager.authenticate(restClient, subscriptionId),
+            ComputeManager.authenticate(restClient, subscriptionId),
+            NetworkManager.authenticate(restClient, subscriptionId),
+            KeyVaultManager.authenticate(restClient, tenantId, subscriptionId),
+            BatchManager.authenticate(restClient, subscriptionId),
+            TrafficManager.authenticate(restClient, subscriptionId),
+            RedisManager.authenticate(restClient, subscriptionId),
+            CdnManager.authenticate(restClient, subscriptionId),
+            DnsZoneManager.authenticate(restClient, subscriptionId),
+            AppServiceManager.authenticate(restClient, tenantId, subscriptionId),
+            SqlServerManager.authenticate(restClient, subscriptionId),
+            ServiceBusManager.authenticate(restClient, subscriptionId),
+            ContainerInstanceManager.authenticate(restClient, subscriptionId),
+            ContainerRegistryManager.authenticate(restClient, subscriptionId),
+            CosmosDBManager.authenticate(restClient, subscriptionId),
+            SearchServiceManager.authenticate(restClient, subscriptionId)
+        };
+    }
+
+    /**
+     * Runs the startup benchmarks with the GC profiler, which reports the bytes allocated per
+     * operation as gc.alloc.rate.norm.
+     *
+     * @param args not used
+     * @throws RunnerException exception thrown from JMH
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AzureStartupBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
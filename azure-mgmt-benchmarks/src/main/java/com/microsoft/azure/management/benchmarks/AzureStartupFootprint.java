@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.benchmarks;
+
+import com.microsoft.azure.management.Azure;
+import com.microsoft.rest.RestClient;
+import rx.functions.Func0;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Measures the heap retained by an {@link Azure} entry point, with the managers created on first
+ * access and with all the managers created up front as the entry point did before.
+ * <p>
+ * A number of instances are created and kept reachable, the retained size per instance is the
+ * growth of the used heap after a full collection divided by the number of instances.
+ * <pre>
+ * java -cp azure-mgmt-benchmarks/target/benchmarks.jar com.microsoft.azure.management.benchmarks.AzureStartupFootprint
+ * </pre>
+ */
+public final class AzureStartupFootprint {
+    private static final int INSTANCE_COUNT = 200;
+
+    private AzureStartupFootprint() {
+    }
+
+    /**
+     * Prints the retained heap per entry point.
+     *
+     * @param args not used
+     * @throws InterruptedException thrown if interrupted while waiting for the collections
+     */
+    public static void main(String[] args) throws InterruptedException {
+        final RestClient restClient = BenchmarkClients.restClientBuilder("https://management.azure.com/").build();
+        final AzureStartupBenchmark benchmark = new AzureStartupBenchmark();
+        benchmark.setup();
+
+        // Loads the classes of all the services so that only the instances are measured
+        benchmark.eagerBaseline();
+        benchmark.authenticateAndCommonServices();
+
+        report("lazy entry point", new Func0<Object>() {
+            @Override
+            public Object call() {
+                return benchmark.authenticate();
+            }
+        });
+        report("lazy entry point, first service", new Func0<Object>() {
+            @Override
+            public Object call() {
+                return benchmark.authenticateAndFirstService();
+            }
+        });
+        report("lazy entry point, common services", new Func0<Object>() {
+            @Override
+            public Object call() {
+                return benchmark.authenticateAndCommonServices();
+            }
+        });
+        report("eager baseline, all managers", new Func0<Object>() {
+            @Override
+            public Object call() {
+                return AzureStartupBenchmark.createAllManagers(restClient);
+            }
+        });
+    }
+
+    private static void report(String scenario, Func0<Object> factory) throws InterruptedException {
+        System.out.println(String.format("%-36s %,12d bytes retained per instance", scenario, retainedBytesPerInstance(factory)));
+    }
+
+    /**
+     * Gets the heap retained by the objects created by a factory.
+     *
+     * @param factory the factory
+     * @return the number of bytes retained per object created
+     * @throws InterruptedException thrown if interrupted while waiting for the collections
+     */
+    static long retainedBytesPerInstance(Func0<Object> factory) throws InterruptedException {
+        Object[] instances = new Object[INSTANCE_COUNT];
+        long before = usedHeapAfterGc();
+        for (int i = 0; i < INSTANCE_COUNT; i++) {
+            instances[i] = factory.call();
+        }
+        long after = usedHeapAfterGc();
+        // Keeps the instances reachable until the heap is measured
+        if (instances[INSTANCE_COUNT - 1] == null) {
+            throw new IllegalStateException("The factory returned null");
+        }
+        return (after - before) / INSTANCE_COUNT;
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        // Collects until the used heap stops shrinking, a single System.gc() is only a hint
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            Thread.sleep(50);
+            long current = memory.getHeapMemoryUsage().getUsed();
+            if (current >= used) {
+                break;
+            }
+            used = current;
+        }
+        return used;
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.benchmarks;
+
+import com.microsoft.azure.AzureEnvironment;
+import com.microsoft.azure.AzureResponseBuilder;
+import com.microsoft.azure.credentials.AzureTokenCredentials;
+import com.microsoft.azure.serializer.AzureJacksonAdapter;
+import com.microsoft.rest.LogLevel;
+import com.microsoft.rest.RestClient;
+
+/**
+ * Factory of the clients used by the benchmarks, the clients do not authenticate.
+ */
+final class BenchmarkClients {
+    static final String TENANT_ID = "00000000-0000-0000-0000-000000000000";
+    static final String SUBSCRIPTION_ID = "00000000-0000-0000-0000-000000000000";
+
+    private BenchmarkClients() {
+    }
+
+    /**
+     * @return credentials that return a constant token
+     */
+    static AzureTokenCredentials credentials() {
+        return new AzureTokenCredentials(AzureEnvironment.AZURE, TENANT_ID) {
+            @Override
+            public String getToken(String resource) {
+                return "benchmark-token";
+            }
+        };
+    }
+
+    /**
+     * Creates a REST client builder configured the same way as the management clients.
+     *
+     * @param baseUrl the base url
+     * @return the builder
+     */
+    static RestClient.Builder restClientBuilder(String baseUrl) {
+        return new RestClient.Builder()
+                .withBaseUrl(baseUrl)
+                .withSerializerAdapter(new AzureJacksonAdapter())
+                .withResponseBuilderFactory(new AzureResponseBuilder.Factory())
+                .withCredentials(credentials())
+                .withLogLevel(LogLevel.NONE);
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Entry point of the benchmarks jar.
+ * <p>
+ * Accepts the standard JMH command line options, unless an explicit result file is given the results
+ * are written as JSON to target/benchmarks/jmh-result-[version].json so that the results of different
+ * releases can be compared side by side.
+ * <pre>
+ * mvn package -pl azure-mgmt-benchmarks -am -DskipTests
+ * java -jar azure-mgmt-benchmarks/target/benchmarks.jar [JMH options, e.g. DAGraphBenchmark -p nodeCount=1000]
+ * </pre>
+ */
+public final class BenchmarkRunner {
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args the JMH command line options
+     * @throws Exception exception thrown from JMH
+     */
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLineOptions);
+        if (!commandLineOptions.getResult().hasValue()) {
+            File resultFile = new File("target/benchmarks", "jmh-result-" + version() + ".json");
+            resultFile.getParentFile().mkdirs();
+            options.result(resultFile.getPath());
+        }
+        if (!commandLineOptions.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        new Runner(options.build()).run();
+    }
+
+    private static String version() {
+        String version = BenchmarkRunner.class.getPackage().getImplementationVersion();
+        return version == null ? "dev" : version;
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The preparation and traversal of a DAG the way {@code DAGraph} and {@code Graph} did them before
+ * the nodes were indexed densely, kept as the baseline of {@link DAGraphBenchmark}.
+ * <p>
+ * Every preparation runs a recursive DFS that tracks the visited nodes, the entry and exit times
+ * and the tree parents in hash maps keyed by the node keys to classify the edges, and records the
+ * dependents of each node as keys. The ready queue holds keys, which are looked up again when polled.
+ */
+final class DAGraphBaseline {
+    private final Map<String, Node> graph = new HashMap<>();
+    private final ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<>();
+    private final Set<String> visited = new HashSet<>();
+    private final Set<String> processed = new HashSet<>();
+    private final Map<String, Integer> entryTime = new HashMap<>();
+    private final Map<String, Integer> exitTime = new HashMap<>();
+    private final Map<String, String> parent = new HashMap<>();
+    private int time;
+
+    DAGraphBaseline(Node rootNode) {
+        addNode(rootNode);
+    }
+
+    void addNode(Node node) {
+        graph.put(node.key, node);
+    }
+
+    int size() {
+        return graph.size();
+    }
+
+    void prepare() {
+        for (Node node : graph.values()) {
+            node.toBeResolved = node.dependencyKeys.size();
+            node.dependentKeys.clear();
+        }
+        for (Map.Entry<String, Node> entry : graph.entrySet()) {
+            if (!visited.contains(entry.getKey())) {
+                dfs(entry.getValue());
+            }
+        }
+        visited.clear();
+        processed.clear();
+        entryTime.clear();
+        exitTime.clear();
+        parent.clear();
+        time = 0;
+        queue.clear();
+        for (Map.Entry<String, Node> entry : graph.entrySet()) {
+            if (entry.getValue().dependencyKeys.isEmpty()) {
+                queue.add(entry.getKey());
+            }
+        }
+    }
+
+    Node getNext() {
+        String key = queue.poll();
+        return key == null ? null : graph.get(key);
+    }
+
+    void reportCompletion(Node completed) {
+        for (String dependentKey : graph.get(completed.key).dependentKeys) {
+            Node dependent = graph.get(dependentKey);
+            dependent.lock.lock();
+            try {
+                dependent.toBeResolved--;
+                if (dependent.toBeResolved == 0) {
+                    queue.add(dependent.key);
+                }
+            } finally {
+                dependent.lock.unlock();
+            }
+        }
+    }
+
+    private void dfs(Node node) {
+        for (String dependencyKey : node.dependencyKeys) {
+            graph.get(dependencyKey).dependentKeys.add(node.key);
+        }
+        String fromKey = node.key;
+        visited.add(fromKey);
+        entryTime.put(fromKey, ++time);
+        for (String toKey : node.dependencyKeys) {
+            if (!visited.contains(toKey)) {
+                parent.put(toKey, fromKey);
+                checkEdge(fromKey, toKey);
+                dfs(graph.get(toKey));
+            } else {
+                checkEdge(fromKey, toKey);
+            }
+        }
+        exitTime.put(fromKey, ++time);
+        processed.add(fromKey);
+    }
+
+    private void checkEdge(String fromKey, String toKey) {
+        if (parent.containsKey(toKey) && parent.get(toKey).equals(fromKey)) {
+            return;
+        }
+        if (visited.contains(toKey) && !processed.contains(toKey)) {
+            throw new IllegalStateException("Detected circular dependency");
+        }
+        if (!entryTime.get(toKey).equals(entryTime.get(fromKey))) {
+            return;
+        }
+        throw new IllegalStateException("Unable to locate the edge type {" + fromKey + ", " + toKey + "}");
+    }
+
+    /**
+     * A node of the baseline graph.
+     */
+    static final class Node {
+        private final String key;
+        private final List<String> dependencyKeys = new ArrayList<>();
+        private final List<String> dependentKeys = new ArrayList<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private int toBeResolved;
+
+        Node(String key) {
+            this.key = key;
+        }
+
+        String key() {
+            return key;
+        }
+
+        void addDependency(String dependencyKey) {
+            dependencyKeys.add(dependencyKey);
+        }
+    }
+}
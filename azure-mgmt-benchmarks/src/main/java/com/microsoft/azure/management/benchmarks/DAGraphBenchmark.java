@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.benchmarks;
+
+import com.microsoft.azure.management.resources.fluentcore.dag.DAGNode;
+import com.microsoft.azure.management.resources.fluentcore.dag.DAGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for preparing and traversing a {@link DAGraph}.
+ * <p>
+ * The baseline benchmarks run the same operations on {@link DAGraphBaseline}, which prepares the
+ * graph the way DAGraph did before the nodes were indexed densely, so that the two can be compared
+ * for each size and shape. The baseline explores the graph recursively, so a long enough chain
+ * overflows its stack.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DAGraphBenchmark {
+    @Param({ "10", "100", "1000", "10000" })
+    private int nodeCount;
+
+    /**
+     * tree: every node depends on two child nodes, wide: the root depends on all the other nodes,
+     * chain: every node depends on the next node.
+     */
+    @Param({ "tree", "wide", "chain" })
+    private String shape;
+
+    private DAGraph<String, BenchmarkNode> dag;
+    private DAGraphBaseline baseline;
+
+    /**
+     * Builds the graphs, the same graphs are prepared again on each invocation.
+     */
+    @Setup
+    public void setup() {
+        dag = buildGraph(nodeCount, shape);
+        baseline = buildBaseline(nodeCount, shape);
+    }
+
+    /**
+     * Prepares the graph and traverses it, reporting each node as completed.
+     *
+     * @return the number of nodes visited
+     */
+    @Benchmark
+    public int prepareAndTraverse() {
+        dag.prepare();
+        int visited = 0;
+        BenchmarkNode node = dag.getNext();
+        while (node != null) {
+            visited++;
+            dag.reportCompletion(node);
+            node = dag.getNext();
+        }
+        return visited;
+    }
+
+    /**
+     * Prepares the graph, the structure of the graph is unchanged since the previous preparation.
+     *
+     * @return the number of nodes in the graph after preparation
+     */
+    @Benchmark
+    public int prepare() {
+        dag.prepare();
+        return dag.getNodes().size();
+    }
+
+    /**
+     * Builds a new graph and prepares it, the dependents of all nodes are computed.
+     *
+     * @return the number of nodes in the graph after preparation
+     */
+    @Benchmark
+    public int buildAndPrepare() {
+        DAGraph<String, BenchmarkNode> newDag = buildGraph(nodeCount, shape);
+        newDag.prepare();
+        return newDag.getNodes().size();
+    }
+
+    /**
+     * Prepares the baseline graph and traverses it, reporting each node as completed.
+     *
+     * @return the number of nodes visited
+     */
+    @Benchmark
+    public int prepareAndTraverseBaseline() {
+        baseline.prepare();
+        int visited = 0;
+        DAGraphBaseline.Node node = baseline.getNext();
+        while (node != null) {
+            visited++;
+            baseline.reportCompletion(node);
+            node = baseline.getNext();
+        }
+        return visited;
+    }
+
+    /**
+     * Prepares the baseline graph, which computes the dependents of all nodes on every preparation.
+     *
+     * @return the number of nodes in the graph after preparation
+     */
+    @Benchmark
+    public int prepareBaseline() {
+        baseline.prepare();
+        return baseline.size();
+    }
+
+    /**
+     * Builds a new baseline graph and prepares it.
+     *
+     * @return the number of nodes in the graph after preparation
+     */
+    @Benchmark
+    public int buildAndPrepareBaseline() {
+        DAGraphBaseline newBaseline = buildBaseline(nodeCount, shape);
+        newBaseline.prepare();
+        return newBaseline.size();
+    }
+
+    static DAGraph<String, BenchmarkNode> buildGraph(int nodeCount, String shape) {
+        BenchmarkNode[] nodes = new BenchmarkNode[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            nodes[i] = new BenchmarkNode("node" + i);
+        }
+        for (int i = 1; i < nodeCount; i++) {
+            nodes[dependentOf(i, shape)].addDependency(nodes[i].key());
+        }
+        DAGraph<String, BenchmarkNode> dag = new DAGraph<>(nodes[0]);
+        for (int i = 1; i < nodeCount; i++) {
+            dag.addNode(nodes[i]);
+        }
+        return dag;
+    }
+
+    static DAGraphBaseline buildBaseline(int nodeCount, String shape) {
+        DAGraphBaseline.Node[] nodes = new DAGraphBaseline.Node[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            nodes[i] = new DAGraphBaseline.Node("node" + i);
+        }
+        for (int i = 1; i < nodeCount; i++) {
+            nodes[dependentOf(i, shape)].addDependency(nodes[i].key());
+        }
+        DAGraphBaseline baseline = new DAGraphBaseline(nodes[0]);
+        for (int i = 1; i < nodeCount; i++) {
+            baseline.addNode(nodes[i]);
+        }
+        return baseline;
+    }
+
+    private static int dependentOf(int i, String shape) {
+        if (shape.equals("tree")) {
+            return (i - 1) / 2;
+        } else if (shape.equals("chain")) {
+            return i - 1;
+        }
+        return 0;
+    }
+
+    /**
+     * The graph node used by the benchmarks.
+     */
+    static final class BenchmarkNode extends DAGNode<String, BenchmarkNode> {
+        BenchmarkNode(String key) {
+            super(key, key);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.benchmarks;
+
+import com.microsoft.azure.management.resources.fluentcore.utils.ProviderRegistrationInterceptor;
+import com.microsoft.azure.management.resources.fluentcore.utils.ResourceManagerRateLimiter;
+import com.microsoft.azure.management.resources.fluentcore.utils.ResourceManagerThrottlingInterceptor;
+import com.microsoft.rest.RestClient;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for a request going through the OkHttp interceptor chain of the management clients,
+ * against a local {@link MockWebServer} returning a canned response.
+ * <p>
+ * The "none" configuration measures the base client (credentials, user agent, base url), "arm" adds
+ * the interceptors that are added to the Azure Resource Manager clients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class InterceptorChainBenchmark {
+    private static final String BODY = "{\"id\":\"/subscriptions/" + BenchmarkClients.SUBSCRIPTION_ID
+            + "/resourceGroups/rg1\",\"name\":\"rg1\",\"location\":\"westus\",\"properties\":{\"provisioningState\":\"Succeeded\"}}";
+
+    @Param({ "none", "arm" })
+    private String interceptors;
+
+    private MockWebServer server;
+    private OkHttpClient httpClient;
+    private String url;
+
+    /**
+     * Starts the server and builds the client.
+     *
+     * @throws IOException exception thrown when the server cannot be started
+     */
+    @Setup
+    public void setup() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setResponseCode(200)
+                        .setHeader("Content-Type", "application/json; charset=utf-8")
+                        .setHeader("x-ms-ratelimit-remaining-subscription-reads", "14999")
+                        .setBody(BODY);
+            }
+        });
+        server.start();
+        String baseUrl = server.url("/").toString();
+        RestClient.Builder builder = BenchmarkClients.restClientBuilder(baseUrl);
+        if (interceptors.equals("arm")) {
+            builder.withInterceptor(new ProviderRegistrationInterceptor(BenchmarkClients.credentials()))
+                    // Generous limits so that the benchmark measures the interceptor and not the pacing
+                    .withInterceptor(new ResourceManagerThrottlingInterceptor(
+                            new ResourceManagerRateLimiter(Integer.MAX_VALUE, Integer.MAX_VALUE)));
+        }
+        httpClient = builder.build().httpClient();
+        url = baseUrl + "subscriptions/" + BenchmarkClients.SUBSCRIPTION_ID + "/resourcegroups/rg1?api-version=2016-09-01";
+    }
+
+    /**
+     * Stops the server.
+     *
+     * @throws IOException exception thrown when the server cannot be stopped
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    /**
+     * @return the length of the response body
+     * @throws IOException exception thrown from the call
+     */
+    @Benchmark
+    public int get() throws IOException {
+        Response response = httpClient.newCall(new Request.Builder().url(url).get().build()).execute();
+        try {
+            return response.body().string().length();
+        } finally {
+            response.close();
+        }
+    }
+}
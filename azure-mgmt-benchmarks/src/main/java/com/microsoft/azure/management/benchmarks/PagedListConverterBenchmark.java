@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.benchmarks;
+
+import com.microsoft.azure.Page;
+import com.microsoft.azure.PagedList;
+import com.microsoft.azure.management.resources.fluentcore.utils.PagedListConverter;
+import com.microsoft.azure.management.resources.implementation.PageImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rx.Observable;
+import rx.functions.Action1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for converting paged lists of inner models into fluent models with {@link PagedListConverter}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PagedListConverterBenchmark {
+    @Param({ "1", "10", "100" })
+    private int pageCount;
+
+    @Param({ "100", "1000" })
+    private int pageSize;
+
+    @Param({ "0", "2" })
+    private int prefetch;
+
+    private List<List<String>> pages;
+
+    /**
+     * Creates the content of the pages.
+     */
+    @Setup
+    public void setup() {
+        pages = new ArrayList<>();
+        for (int p = 0; p < pageCount; p++) {
+            List<String> items = new ArrayList<>();
+            for (int i = 0; i < pageSize; i++) {
+                items.add("item" + p + "-" + i);
+            }
+            pages.add(items);
+        }
+    }
+
+    /**
+     * Converts the list and iterates all the converted items.
+     *
+     * @param blackhole the blackhole consuming the items
+     */
+    @Benchmark
+    public void convertPagedList(Blackhole blackhole) {
+        PagedList<Wrapper> converted = converter().withPrefetch(prefetch).convert(innerList());
+        for (Wrapper wrapper : converted) {
+            blackhole.consume(wrapper);
+        }
+    }
+
+    /**
+     * Converts the items one at a time as an observable, without collecting them into pages.
+     *
+     * @param blackhole the blackhole consuming the items
+     */
+    @Benchmark
+    public void convertObservable(final Blackhole blackhole) {
+        converter().convert(Observable.from(innerList())).toBlocking().forEach(new Action1<Wrapper>() {
+            @Override
+            public void call(Wrapper wrapper) {
+                blackhole.consume(wrapper);
+            }
+        });
+    }
+
+    private PagedListConverter<String, Wrapper> converter() {
+        return new PagedListConverter<String, Wrapper>() {
+            @Override
+            public Wrapper typeConvert(String inner) {
+                return new Wrapper(inner);
+            }
+        };
+    }
+
+    private PagedList<String> innerList() {
+        return new PagedList<String>(page(0)) {
+            @Override
+            public Page<String> nextPage(String nextPageLink) {
+                return page(Integer.parseInt(nextPageLink));
+            }
+        };
+    }
+
+    private Page<String> page(int index) {
+        PageImpl<String> page = new PageImpl<>();
+        page.setItems(new ArrayList<>(pages.get(index)));
+        page.setNextPageLink(index + 1 < pageCount ? Integer.toString(index + 1) : null);
+        return page;
+    }
+
+    /**
+     * Stand-in for a fluent model wrapping an inner model.
+     */
+    static final class Wrapper {
+        private final String inner;
+
+        Wrapper(String inner) {
+            this.inner = inner;
+        }
+
+        String inner() {
+            return inner;
+        }
+    }
+}
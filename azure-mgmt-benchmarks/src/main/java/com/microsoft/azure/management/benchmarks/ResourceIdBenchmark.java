@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.benchmarks;
+
+import com.microsoft.azure.management.resources.fluentcore.arm.ResourceId;
+import com.microsoft.azure.management.resources.fluentcore.arm.ResourceUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for parsing resource ids with {@link ResourceId} and {@link ResourceUtils}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceIdBenchmark {
+    @Param({ "topLevel", "child" })
+    private String shape;
+
+    private String id;
+
+    /**
+     * Selects the resource id to parse.
+     */
+    @Setup
+    public void setup() {
+        if (shape.equals("topLevel")) {
+            id = "/subscriptions/9657ab5d-4a4a-4fd2-ae7a-4cd9fbd030ef/resourceGroups/javacsmrg"
+                    + "/providers/Microsoft.Compute/virtualMachines/vm1";
+        } else {
+            id = "/subscriptions/9657ab5d-4a4a-4fd2-ae7a-4cd9fbd030ef/resourceGroups/javacsmrg"
+                    + "/providers/Microsoft.Network/applicationGateways/appgw1/backendAddressPools/pool1";
+        }
+    }
+
+    /**
+     * @return the parsed resource id
+     */
+    @Benchmark
+    public ResourceId fromString() {
+        return ResourceId.fromString(id);
+    }
+
+    /**
+     * @return the parent of the parsed resource id
+     */
+    @Benchmark
+    public ResourceId fromStringWithParent() {
+        return ResourceId.fromString(id).parent();
+    }
+
+    /**
+     * @return the resource group name
+     */
+    @Benchmark
+    public String groupFromResourceId() {
+        return ResourceUtils.groupFromResourceId(id);
+    }
+
+    /**
+     * @return the resource name
+     */
+    @Benchmark
+    public String nameFromResourceId() {
+        return ResourceUtils.nameFromResourceId(id);
+    }
+
+    /**
+     * @return the resource provider namespace
+     */
+    @Benchmark
+    public String resourceProviderFromResourceId() {
+        return ResourceUtils.resourceProviderFromResourceId(id);
+    }
+
+    /**
+     * @return the resource type
+     */
+    @Benchmark
+    public String resourceTypeFromResourceId() {
+        return ResourceUtils.resourceTypeFromResourceId(id);
+    }
+
+    /**
+     * @return the parent resource id
+     */
+    @Benchmark
+    public String parentResourceIdFromResourceId() {
+        return ResourceUtils.parentResourceIdFromResourceId(id);
+    }
+}
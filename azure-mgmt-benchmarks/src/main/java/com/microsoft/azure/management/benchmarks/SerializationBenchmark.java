@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.benchmarks;
+
+import com.microsoft.azure.management.appservice.implementation.SiteInner;
+import com.microsoft.azure.management.compute.implementation.VirtualMachineInner;
+import com.microsoft.azure.serializer.AzureJacksonAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for Jackson (de)serialization of inner models with the adapter used by the clients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({ "VirtualMachineInner", "SiteInner" })
+    private String model;
+
+    private AzureJacksonAdapter adapter;
+    private Class<?> modelType;
+    private String json;
+    private Object instance;
+
+    /**
+     * Loads the recorded response body of the model.
+     *
+     * @throws IOException exception thrown when the resource cannot be read
+     */
+    @Setup
+    public void setup() throws IOException {
+        adapter = new AzureJacksonAdapter();
+        String resource;
+        if (model.equals("VirtualMachineInner")) {
+            modelType = VirtualMachineInner.class;
+            resource = "benchmarks/virtualMachine.json";
+        } else {
+            modelType = SiteInner.class;
+            resource = "benchmarks/site.json";
+        }
+        json = readResource(resource);
+        instance = adapter.deserialize(json, modelType);
+    }
+
+    /**
+     * @return the deserialized model
+     * @throws IOException exception thrown from deserialization
+     */
+    @Benchmark
+    public Object deserialize() throws IOException {
+        return adapter.deserialize(json, modelType);
+    }
+
+    /**
+     * @return the serialized model
+     * @throws IOException exception thrown from serialization
+     */
+    @Benchmark
+    public String serialize() throws IOException {
+        return adapter.serialize(instance);
+    }
+
+    /**
+     * @return the serialized model after a deserialization
+     * @throws IOException exception thrown from (de)serialization
+     */
+    @Benchmark
+    public String roundTrip() throws IOException {
+        return adapter.serialize(adapter.deserialize(json, modelType));
+    }
+
+    private static String readResource(String name) throws IOException {
+        InputStream stream = SerializationBenchmark.class.getClassLoader().getResourceAsStream(name);
+        if (stream == null) {
+            throw new IOException("Resource not found: " + name);
+        }
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            byte[] chunk = new byte[4096];
+            int read;
+            while ((read = stream.read(chunk)) != -1) {
+                buffer.write(chunk, 0, read);
+            }
+            return buffer.toString("UTF-8");
+        } finally {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.benchmarks;
+
+import com.microsoft.azure.management.resources.fluentcore.dag.TaskGroup;
+import com.microsoft.azure.management.resources.fluentcore.dag.TaskGroupTerminateOnErrorStrategy;
+import com.microsoft.azure.management.resources.fluentcore.dag.TaskItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rx.Observable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link TaskGroup#executeAsync()} with stubbed tasks that complete immediately,
+ * measuring the overhead of the task group itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskGroupBenchmark {
+    @Param({ "10", "100", "1000" })
+    private int taskCount;
+
+    private TaskGroup<String, StubTask> rootGroup;
+
+    /**
+     * Builds a task group where every task depends on two other tasks.
+     */
+    @Setup
+    public void setup() {
+        @SuppressWarnings("unchecked")
+        TaskGroup<String, StubTask>[] groups = new TaskGroup[taskCount];
+        for (int i = 0; i < taskCount; i++) {
+            groups[i] = new TaskGroup<>("task" + i,
+                    new StubTask("task" + i),
+                    TaskGroupTerminateOnErrorStrategy.TERMINATE_ON_HITTING_LCA_TASK);
+        }
+        // Merge bottom-up so that a parent group receives the already merged graph of its children
+        for (int i = taskCount - 1; i > 0; i--) {
+            groups[i].merge(groups[(i - 1) / 2]);
+        }
+        rootGroup = groups[0];
+    }
+
+    /**
+     * @return the result of the last task completed, i.e. the root task
+     */
+    @Benchmark
+    public String executeAsync() {
+        return rootGroup.executeAsync().toBlocking().last();
+    }
+
+    /**
+     * A task that completes immediately with a constant result.
+     */
+    static final class StubTask implements TaskItem<String> {
+        private final String result;
+
+        StubTask(String result) {
+            this.result = result;
+        }
+
+        @Override
+        public String result() {
+            return result;
+        }
+
+        @Override
+        public void prepare() {
+        }
+
+        @Override
+        public boolean isHot() {
+            return false;
+        }
+
+        @Override
+        public Observable<String> executeAsync() {
+            return Observable.just(result);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.cdn;
+
+import com.microsoft.azure.management.apigeneration.Beta;
+import com.microsoft.azure.management.apigeneration.Beta.SinceVersion;
+import com.microsoft.azure.management.apigeneration.Fluent;
+import rx.Observable;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A purge or preload of many content paths of a CDN endpoint. The paths are deduplicated, the paths
+ * covered by a directory wild card of the same request are dropped, and the rest is split into chunks
+ * submitted as separate long running operations with bounded concurrency.
+ * <p>
+ * A failed chunk does not stop the other chunks, it is reported with its error.
+ */
+@Fluent
+@Beta(SinceVersion.V1_4_0)
+public interface CdnBulkContentOperation {
+    /**
+     * Specifies the max number of paths in a chunk, by default 100 for a purge and 10 for a preload.
+     *
+     * @param chunkSize the max number of paths in a chunk
+     * @return the bulk operation
+     */
+    CdnBulkContentOperation withChunkSize(int chunkSize);
+
+    /**
+     * Specifies the max number of chunks in flight, by default 4.
+     *
+     * @param concurrency the max number of chunks in flight
+     * @return the bulk operation
+     */
+    CdnBulkContentOperation withConcurrency(int concurrency);
+
+    /**
+     * Specifies that the file paths of a directory are replaced by the wild card of the directory once
+     * there are at least the given number of them, which purges more content with fewer paths.
+     * Applies to purges only, disabled by default.
+     *
+     * @param threshold the min number of file paths of a directory collapsed into its wild card
+     * @return the bulk operation
+     */
+    CdnBulkContentOperation withWildcardCollapseThreshold(int threshold);
+
+    /**
+     * Applies the operation to the content paths.
+     *
+     * @param contentPaths the content paths
+     * @return an observable that emits each chunk once its operation completes or fails
+     */
+    Observable<Chunk> executeAsync(Collection<String> contentPaths);
+
+    /**
+     * A completed chunk of a bulk content operation.
+     */
+    interface Chunk {
+        /**
+         * @return the index of the chunk, chunks are numbered in the order of the sorted paths
+         */
+        int index();
+
+        /**
+         * @return the number of chunks of the bulk operation
+         */
+        int chunkCount();
+
+        /**
+         * @return the content paths in the chunk
+         */
+        List<String> contentPaths();
+
+        /**
+         * @return the error the operation for the chunk failed with, null if it succeeded
+         */
+        Throwable error();
+    }
+}
@@ -0,0 +1,22 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.cdn;
+
+import com.microsoft.azure.management.apigeneration.Beta;
+import com.microsoft.azure.management.apigeneration.Beta.SinceVersion;
+
+/**
+ * The operations that can be applied to the content of a CDN endpoint in bulk.
+ */
+@Beta(SinceVersion.V1_4_0)
+public enum CdnContentOperation {
+    /** Forcibly purges the content, the paths can be file paths or directory wild cards. */
+    PURGE,
+
+    /** Forcibly preloads the content, the paths must be file paths. Supported for Verizon profiles only. */
+    LOAD
+}
@@ -7,6 +7,7 @@
 package com.microsoft.azure.management.cdn;
 
 import com.microsoft.azure.PagedList;
+import com.microsoft.azure.management.apigeneration.Beta;
 import com.microsoft.azure.management.apigeneration.Fluent;
 import com.microsoft.azure.management.apigeneration.Method;
 import com.microsoft.azure.management.cdn.implementation.EndpointInner;
@@ -207,6 +208,15 @@ public interface CdnEndpoint extends
      */
     ServiceFuture<Void> loadContentAsync(Set<String> contentPaths, ServiceCallback<Void> callback);
 
+    /**
+     * Begins the definition of a purge or preload of many content paths, applied in chunks.
+     *
+     * @param operation the operation to apply to the content
+     * @return the bulk operation
+     */
+    @Beta(Beta.SinceVersion.V1_4_0)
+    CdnBulkContentOperation bulkContentOperation(CdnContentOperation operation);
+
     /**
      * Validates a custom domain mapping to ensure it maps to the correct CNAME in DNS for current endpoint.
      *
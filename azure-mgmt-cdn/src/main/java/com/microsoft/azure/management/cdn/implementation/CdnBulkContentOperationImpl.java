@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.cdn.implementation;
+
+import com.microsoft.azure.management.apigeneration.LangDefinition;
+import com.microsoft.azure.management.cdn.CdnBulkContentOperation;
+import com.microsoft.azure.management.cdn.CdnContentOperation;
+import com.microsoft.azure.management.resources.fluentcore.utils.ChunkedOperation;
+import rx.Observable;
+import rx.functions.Func1;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * The implementation for {@link CdnBulkContentOperation}.
+ */
+@LangDefinition
+class CdnBulkContentOperationImpl implements CdnBulkContentOperation {
+    private static final String WILDCARD = "*";
+
+    private final CdnEndpointImpl endpoint;
+    private final CdnContentOperation operation;
+    private int chunkSize;
+    private int concurrency = 4;
+    private int collapseThreshold;
+
+    CdnBulkContentOperationImpl(CdnEndpointImpl endpoint, CdnContentOperation operation) {
+        this.endpoint = endpoint;
+        this.operation = operation;
+        this.chunkSize = operation == CdnContentOperation.LOAD ? 10 : 100;
+    }
+
+    @Override
+    public CdnBulkContentOperationImpl withChunkSize(int chunkSize) {
+        this.chunkSize = Math.max(1, chunkSize);
+        return this;
+    }
+
+    @Override
+    public CdnBulkContentOperationImpl withConcurrency(int concurrency) {
+        this.concurrency = Math.max(1, concurrency);
+        return this;
+    }
+
+    @Override
+    public CdnBulkContentOperationImpl withWildcardCollapseThreshold(int threshold) {
+        this.collapseThreshold = Math.max(0, threshold);
+        return this;
+    }
+
+    @Override
+    public Observable<Chunk> executeAsync(Collection<String> contentPaths) {
+        if (contentPaths == null || contentPaths.isEmpty()) {
+            return Observable.empty();
+        }
+        List<String> paths = reduce(contentPaths,
+                this.operation == CdnContentOperation.PURGE,
+                this.operation == CdnContentOperation.PURGE ? this.collapseThreshold : 0);
+        return new ChunkedOperation<String, Chunk>() {
+            @Override
+            protected Observable<Chunk> executeChunkAsync(int index, int chunkCount, List<String> contentPaths) {
+                final ChunkImpl chunk = new ChunkImpl(index, chunkCount, contentPaths);
+                return submitAsync(contentPaths)
+                        .toCompletable()
+                        .andThen(Observable.<Chunk>just(chunk))
+                        .onErrorReturn(new Func1<Throwable, Chunk>() {
+                            @Override
+                            public Chunk call(Throwable throwable) {
+                                // The failure is reported with the chunk, the other chunks carry on
+                                chunk.error = throwable;
+                                return chunk;
+                            }
+                        });
+            }
+        }.executeAsync(paths, this.chunkSize, this.concurrency);
+    }
+
+    private Observable<Void> submitAsync(List<String> contentPaths) {
+        EndpointsInner client = this.endpoint.parent().manager().inner().endpoints();
+        String resourceGroupName = this.endpoint.parent().resourceGroupName();
+        String profileName = this.endpoint.parent().name();
+        if (this.operation == CdnContentOperation.LOAD) {
+            return client.loadContentAsync(resourceGroupName, profileName, this.endpoint.name(), contentPaths);
+        }
+        return client.purgeContentAsync(resourceGroupName, profileName, this.endpoint.name(), contentPaths);
+    }
+
+    /**
+     * Sorts and deduplicates the content paths. When wild cards are allowed, the file paths of directories
+     * with at least the threshold number of them are collapsed into the wild card of the directory, and the
+     * paths covered by a wild card are dropped.
+     *
+     * @param contentPaths the content paths
+     * @param allowWildcards whether the paths can be directory wild cards
+     * @param collapseThreshold the min number of file paths of a directory collapsed into its wild card, 0 to disable
+     * @return the reduced paths, sorted
+     */
+    static List<String> reduce(Collection<String> contentPaths, boolean allowWildcards, int collapseThreshold) {
+        TreeSet<String> paths = new TreeSet<>();
+        for (String contentPath : contentPaths) {
+            if (contentPath == null || contentPath.trim().isEmpty()) {
+                continue;
+            }
+            String path = contentPath.trim();
+            paths.add(path.startsWith("/") ? path : "/" + path);
+        }
+        if (!allowWildcards) {
+            return new ArrayList<>(paths);
+        }
+        if (collapseThreshold > 0) {
+            Map<String, Integer> filesPerDirectory = new HashMap<>();
+            for (String path : paths) {
+                if (!path.endsWith("/" + WILDCARD)) {
+                    String directory = path.substring(0, path.lastIndexOf('/') + 1);
+                    Integer count = filesPerDirectory.get(directory);
+                    filesPerDirectory.put(directory, count == null ? 1 : count + 1);
+                }
+            }
+            for (Map.Entry<String, Integer> entry : filesPerDirectory.entrySet()) {
+                if (entry.getValue() >= collapseThreshold) {
+                    paths.add(entry.getKey() + WILDCARD);
+                }
+            }
+        }
+        List<String> reduced = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            if (!isCovered(path, paths)) {
+                reduced.add(path);
+            }
+        }
+        return reduced;
+    }
+
+    /**
+     * Checks whether a path is covered by the wild card of one of its ancestor directories.
+     *
+     * @param path the content path
+     * @param paths the content paths, including the wild cards
+     * @return true if a wild card in the paths covers the path
+     */
+    static boolean isCovered(String path, TreeSet<String> paths) {
+        // The wild card of the directory of a file path covers it, but a wild card does not cover itself
+        int end = path.endsWith("/" + WILDCARD)
+                ? path.lastIndexOf('/', path.length() - 2 - 1)
+                : path.lastIndexOf('/');
+        while (end >= 0) {
+            if (paths.contains(path.substring(0, end + 1) + WILDCARD)) {
+                return true;
+            }
+            end = end == 0 ? -1 : path.lastIndexOf('/', end - 1);
+        }
+        return false;
+    }
+
+    /**
+     * The implementation for {@link Chunk}.
+     */
+    private static class ChunkImpl implements Chunk {
+        private final int index;
+        private final int chunkCount;
+        private final List<String> contentPaths;
+        private volatile Throwable error;
+
+        ChunkImpl(int index, int chunkCount, List<String> contentPaths) {
+            this.index = index;
+            this.chunkCount = chunkCount;
+            this.contentPaths = contentPaths;
+        }
+
+        @Override
+        public int index() {
+            return this.index;
+        }
+
+        @Override
+        public int chunkCount() {
+            return this.chunkCount;
+        }
+
+        @Override
+        public List<String> contentPaths() {
+            return Collections.unmodifiableList(this.contentPaths);
+        }
+
+        @Override
+        public Throwable error() {
+            return this.error;
+        }
+    }
+}
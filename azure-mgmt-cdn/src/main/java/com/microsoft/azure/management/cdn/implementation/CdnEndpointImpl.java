@@ -11,6 +11,8 @@ import com.google.common.collect.Lists;
 import com.microsoft.azure.Page;
 import com.microsoft.azure.PagedList;
 import com.microsoft.azure.management.apigeneration.LangDefinition;
+import com.microsoft.azure.management.cdn.CdnBulkContentOperation;
+import com.microsoft.azure.management.cdn.CdnContentOperation;
 import com.microsoft.azure.management.cdn.CdnEndpoint;
 import com.microsoft.azure.management.cdn.CdnProfile;
 import com.microsoft.azure.management.cdn.CustomDomainValidationResult;
@@ -405,6 +407,11 @@ class CdnEndpointImpl extends ExternalChildResourceImpl<CdnEndpoint,
         return ServiceFuture.fromBody(this.loadContentAsync(contentPaths), callback);
     }
 
+    @Override
+    public CdnBulkContentOperation bulkContentOperation(CdnContentOperation operation) {
+        return new CdnBulkContentOperationImpl(this, operation);
+    }
+
     @Override
     public CustomDomainValidationResult validateCustomDomain(String hostName) {
         return this.validateCustomDomainAsync(hostName).toBlocking().last();
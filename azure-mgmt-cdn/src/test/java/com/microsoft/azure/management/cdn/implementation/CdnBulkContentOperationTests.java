@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.cdn.implementation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+public class CdnBulkContentOperationTests {
+    @Test
+    public void canSortAndDeduplicatePaths() {
+        List<String> reduced = CdnBulkContentOperationImpl.reduce(
+                Arrays.asList("b/2.js", "/a/1.css", " /b/2.js ", "", null, "/a/*"), false, 0);
+
+        // Without wild cards no path is dropped, the wild card is a plain path
+        Assert.assertEquals(Arrays.asList("/a/*", "/a/1.css", "/b/2.js"), reduced);
+    }
+
+    @Test
+    public void canDropPathsCoveredByWildcards() {
+        List<String> reduced = CdnBulkContentOperationImpl.reduce(Arrays.asList(
+                "/a/*", "/a/1.css", "/a/b/2.css", "/a/b/*", "/ab/3.css", "/c/d/*", "/c/d/e/*", "/c/4.css"), true, 0);
+
+        // A wild card covers the nested files and wild cards, not the sibling directories sharing its prefix
+        Assert.assertEquals(Arrays.asList("/a/*", "/ab/3.css", "/c/4.css", "/c/d/*"), reduced);
+    }
+
+    @Test
+    public void canCheckCoverage() {
+        TreeSet<String> paths = new TreeSet<>(Arrays.asList("/a/*", "/a/b/*", "/c/1.js"));
+
+        Assert.assertFalse(CdnBulkContentOperationImpl.isCovered("/a/*", paths));
+        Assert.assertTrue(CdnBulkContentOperationImpl.isCovered("/a/b/*", paths));
+        Assert.assertTrue(CdnBulkContentOperationImpl.isCovered("/a/b/c/2.js", paths));
+        Assert.assertTrue(CdnBulkContentOperationImpl.isCovered("/a/3.js", paths));
+        Assert.assertFalse(CdnBulkContentOperationImpl.isCovered("/ab/4.js", paths));
+        Assert.assertFalse(CdnBulkContentOperationImpl.isCovered("/c/1.js", paths));
+        Assert.assertFalse(CdnBulkContentOperationImpl.isCovered("/5.js", paths));
+
+        // The root wild card covers every other path, but not itself
+        paths.add("/*");
+        Assert.assertFalse(CdnBulkContentOperationImpl.isCovered("/*", paths));
+        Assert.assertTrue(CdnBulkContentOperationImpl.isCovered("/5.js", paths));
+        Assert.assertTrue(CdnBulkContentOperationImpl.isCovered("/c/1.js", paths));
+        Assert.assertTrue(CdnBulkContentOperationImpl.isCovered("/a/*", paths));
+    }
+
+    @Test
+    public void canCollapseDirectoriesAtThreshold() {
+        List<String> paths = Arrays.asList("/a/1.css", "/a/2.css", "/a/3.css", "/a/b/4.css", "/b/5.css", "/b/6.css");
+
+        // Directories with 3 files or more are collapsed, the files of nested directories are counted apart
+        Assert.assertEquals(Arrays.asList("/a/*", "/b/5.css", "/b/6.css"),
+                CdnBulkContentOperationImpl.reduce(paths, true, 3));
+        Assert.assertEquals(Arrays.asList("/a/*", "/b/*"),
+                CdnBulkContentOperationImpl.reduce(paths, true, 2));
+        Assert.assertEquals(Arrays.asList("/a/1.css", "/a/2.css", "/a/3.css", "/a/b/4.css", "/b/5.css", "/b/6.css"),
+                CdnBulkContentOperationImpl.reduce(paths, true, 4));
+        // Collapsing needs wild cards
+        Assert.assertEquals(paths, CdnBulkContentOperationImpl.reduce(paths, false, 2));
+    }
+
+    @Test
+    public void canCollapseRootFiles() {
+        List<String> paths = Arrays.asList("/index.html", "favicon.ico", "/a/1.css", "/a/b/*");
+
+        Assert.assertEquals(Arrays.asList("/a/1.css", "/a/b/*", "/favicon.ico", "/index.html"),
+                CdnBulkContentOperationImpl.reduce(paths, true, 3));
+        // The root files reach the threshold, their wild card covers every path
+        Assert.assertEquals(Collections.singletonList("/*"),
+                CdnBulkContentOperationImpl.reduce(paths, true, 2));
+        // Wild cards are not counted as files of their parent directory
+        Assert.assertEquals(Arrays.asList("/a/1.css", "/a/b/*"),
+                CdnBulkContentOperationImpl.reduce(Arrays.asList("/a/b/*", "/a/1.css"), true, 2));
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+package com.microsoft.azure.management.compute;
+
+import com.microsoft.azure.management.apigeneration.Beta;
+import com.microsoft.azure.management.apigeneration.Beta.SinceVersion;
+import com.microsoft.azure.management.apigeneration.Fluent;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cache for the compute catalog data: virtual machine sizes, image publishers, offers, SKUs,
+ * versions and extension images of a region, and the compute resource SKUs of the subscription.
+ * <p>
+ * The catalog rarely changes, the cache serves repeated catalog lookups locally until the configured
+ * time to live elapses. A cache is created by
+ * {@link com.microsoft.azure.management.compute.implementation.ComputeManager#createCatalogCache()}
+ * and used by the clients configured with
+ * {@link com.microsoft.azure.management.compute.implementation.ComputeManager.Configurable#withCatalogCache(ComputeCatalogCache)}.
+ */
+@Fluent
+@Beta(SinceVersion.V1_4_0)
+public interface ComputeCatalogCache {
+    /**
+     * Specifies the time after which a cached entry is requested again from the service, 1 hour by default.
+     *
+     * @param timeToLive the time to live of the entries
+     * @param unit the time unit of the time to live
+     * @return the cache
+     */
+    ComputeCatalogCache withTimeToLive(long timeToLive, TimeUnit unit);
+
+    /**
+     * Specifies the max number of cached responses, 10,000 by default.
+     *
+     * @param maxEntries the max number of entries
+     * @return the cache
+     */
+    ComputeCatalogCache withMaxEntries(int maxEntries);
+
+    /**
+     * Specifies the file backing the cache, the entries in the file that are not expired are loaded.
+     *
+     * @param snapshotFile the snapshot file
+     * @return the cache
+     * @throws IOException exception thrown when the snapshot cannot be read
+     */
+    ComputeCatalogCache withSnapshotFile(File snapshotFile) throws IOException;
+
+    /**
+     * Writes the entries that are not expired to the snapshot file.
+     *
+     * @throws IOException exception thrown when the snapshot cannot be written
+     */
+    void saveSnapshot() throws IOException;
+
+    /**
+     * Removes all the entries.
+     */
+    void invalidate();
+
+    /**
+     * Removes the entries of a region, the compute resource SKUs of the subscription are not
+     * specific to a region and are only removed by {@link #invalidate()}.
+     *
+     * @param regionName the name of the region
+     */
+    void invalidate(String regionName);
+
+    /**
+     * @return the number of cached responses, including the expired ones not yet evicted
+     */
+    int size();
+}
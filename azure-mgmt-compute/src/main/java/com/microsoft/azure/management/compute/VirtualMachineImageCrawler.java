@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+package com.microsoft.azure.management.compute;
+
+import com.microsoft.azure.management.apigeneration.Beta;
+import com.microsoft.azure.management.apigeneration.Beta.SinceVersion;
+import com.microsoft.azure.management.apigeneration.Fluent;
+import com.microsoft.azure.management.resources.fluentcore.arm.Region;
+import rx.Observable;
+import rx.functions.Action1;
+
+/**
+ * Type to enumerate the virtual machine images available in a region, walking the publishers,
+ * offers, SKUs and versions concurrently with a bounded number of requests in flight per level.
+ */
+@Fluent
+@Beta(SinceVersion.V1_4_0)
+public interface VirtualMachineImageCrawler {
+    /**
+     * Specifies the max number of concurrent requests at each level of the catalog in the whole
+     * crawl, by default 4 publishers and 2 offers, SKUs and images.
+     *
+     * @param publishers the max number of publishers whose offers are listed concurrently
+     * @param offers the max number of offers whose SKUs are listed concurrently
+     * @param skus the max number of SKUs whose versions are listed concurrently
+     * @param images the max number of images retrieved concurrently
+     * @return the crawler
+     */
+    VirtualMachineImageCrawler withConcurrency(int publishers, int offers, int skus, int images);
+
+    /**
+     * Specifies that the images are emitted in catalog order (publisher, offer, SKU, version),
+     * by default the images are emitted as soon as they are retrieved.
+     *
+     * @return the crawler
+     */
+    VirtualMachineImageCrawler withOrderedEmission();
+
+    /**
+     * Specifies that a failure to enumerate the images of a publisher does not fail the crawl,
+     * the publisher is skipped and the failure is reported to the progress listener.
+     *
+     * @return the crawler
+     */
+    VirtualMachineImageCrawler withFailureIsolation();
+
+    /**
+     * Specifies the listener notified each time the enumeration of a publisher completes, the
+     * listener may be called concurrently from multiple threads.
+     *
+     * @param listener the progress listener
+     * @return the crawler
+     */
+    VirtualMachineImageCrawler withProgressListener(Action1<Progress> listener);
+
+    /**
+     * Enumerates the virtual machine images available in a region.
+     *
+     * @param region the region
+     * @return an observable that emits the images
+     */
+    Observable<VirtualMachineImage> crawlAsync(Region region);
+
+    /**
+     * Enumerates the virtual machine images available in a region.
+     *
+     * @param regionName the name of the region
+     * @return an observable that emits the images
+     */
+    Observable<VirtualMachineImage> crawlAsync(String regionName);
+
+    /**
+     * The progress of a crawl, reported once the enumeration of a publisher completes.
+     */
+    interface Progress {
+        /**
+         * @return the name of the publisher whose enumeration completed
+         */
+        String publisherName();
+
+        /**
+         * @return the failure enumerating the publisher, null if the enumeration succeeded
+         */
+        Throwable error();
+
+        /**
+         * @return the number of publishers whose enumeration completed so far
+         */
+        int completedPublishers();
+
+        /**
+         * @return the number of publishers in the region, -1 until all the publishers are listed
+         */
+        int totalPublishers();
+
+        /**
+         * @return the number of images retrieved so far
+         */
+        int images();
+    }
+}
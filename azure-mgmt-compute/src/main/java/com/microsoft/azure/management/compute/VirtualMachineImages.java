@@ -46,4 +46,10 @@ public interface VirtualMachineImages extends
      * @return entry point to virtual machine image publishers
      */
     VirtualMachinePublishers publishers();
+
+    /**
+     * @return a new crawler to enumerate the virtual machine images available in a region concurrently
+     */
+    @Beta(SinceVersion.V1_4_0)
+    VirtualMachineImageCrawler crawler();
 }
@@ -9,6 +9,7 @@ package com.microsoft.azure.management.compute;
 import com.microsoft.azure.PagedList;
 import com.microsoft.azure.management.apigeneration.Beta;
 import com.microsoft.azure.management.apigeneration.Fluent;
+import com.microsoft.azure.management.apigeneration.Method;
 import com.microsoft.azure.management.compute.implementation.ComputeManager;
 import com.microsoft.azure.management.compute.implementation.VirtualMachineScaleSetInner;
 import com.microsoft.azure.management.graphrbac.BuiltInRole;
@@ -28,6 +29,7 @@ import com.microsoft.azure.management.storage.StorageAccount;
 import com.microsoft.rest.ServiceCallback;
 import com.microsoft.rest.ServiceFuture;
 import rx.Completable;
+import rx.Observable;
 
 import java.io.IOException;
 import java.util.List;
@@ -257,6 +259,20 @@ public interface VirtualMachineScaleSet extends
      */
     Map<String, LoadBalancerInboundNatPool> listPrimaryInternalLoadBalancerInboundNatPools() throws IOException;
 
+    /**
+     * Resolves the virtual network and the load balancers associated with the primary network interface
+     * of the virtual machines in the scale set, the resources are fetched concurrently.
+     * <p>
+     * The resolved topology is memoised: it is reused until the network references of the primary IP
+     * configuration change or the scale set is refreshed, a failed resolution is not reused. The getters
+     * of the primary network and load balancers do not read from it.
+     *
+     * @return an observable that emits the network topology
+     */
+    @Beta(Beta.SinceVersion.V1_4_0)
+    @Method
+    Observable<VirtualMachineScaleSetNetworkTopology> resolveNetworkTopologyAsync();
+
     /**
      * @return the list of IDs of the public IP addresses associated with the primary Internet-facing load balancer
      * of the scale set
@@ -306,6 +322,26 @@ public interface VirtualMachineScaleSet extends
      */
     PagedList<VirtualMachineScaleSetNetworkInterface> listNetworkInterfacesByInstanceId(String virtualMachineInstanceId);
 
+    /**
+     * Gets a snapshot of the power state, provisioning state and model state of all the virtual machine
+     * instances in the scale set, the instances are listed along with their instance views in one pass.
+     *
+     * @return the snapshot of the instances
+     */
+    @Beta(Beta.SinceVersion.V1_4_0)
+    @Method
+    VirtualMachineScaleSetInstanceSnapshot getInstanceSnapshot();
+
+    /**
+     * Gets a snapshot of the power state, provisioning state and model state of all the virtual machine
+     * instances in the scale set, the instances are listed along with their instance views in one pass.
+     *
+     * @return an observable that emits the snapshot of the instances
+     */
+    @Beta(Beta.SinceVersion.V1_4_0)
+    @Method
+    Observable<VirtualMachineScaleSetInstanceSnapshot> getInstanceSnapshotAsync();
+
     /**
      * @return true if managed disk is used for the virtual machine scale set's disks (os, data)
      */
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.compute;
+
+import com.microsoft.azure.management.apigeneration.Beta;
+import com.microsoft.azure.management.apigeneration.Beta.SinceVersion;
+import com.microsoft.azure.management.apigeneration.Fluent;
+import rx.Observable;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * An operation applied to many virtual machine instances of a scale set, the instances are split
+ * into chunks that are submitted as separate long running operations with bounded concurrency.
+ * <p>
+ * Once a chunk fails no further chunk is started and the operation fails.
+ */
+@Fluent
+@Beta(SinceVersion.V1_4_0)
+public interface VirtualMachineScaleSetBulkOperation {
+    /**
+     * Specifies the max number of instances in a chunk, by default 20.
+     *
+     * @param chunkSize the max number of instances in a chunk
+     * @return the bulk operation
+     */
+    VirtualMachineScaleSetBulkOperation withChunkSize(int chunkSize);
+
+    /**
+     * Specifies the max number of chunks in flight, by default 1.
+     *
+     * @param concurrency the max number of chunks in flight
+     * @return the bulk operation
+     */
+    VirtualMachineScaleSetBulkOperation withConcurrency(int concurrency);
+
+    /**
+     * Specifies rolling semantics, at most the given percentage of the scale set capacity is in
+     * flight at any time. The chunk size and the concurrency are reduced as needed to honour it.
+     *
+     * @param percentage the max percentage of the capacity in flight, between 1 and 100
+     * @return the bulk operation
+     */
+    VirtualMachineScaleSetBulkOperation withMaxInFlightPercentage(int percentage);
+
+    /**
+     * Applies the operation to the instances.
+     *
+     * @param instanceIds the instance ids
+     * @return an observable that emits each chunk once its operation completes
+     */
+    Observable<Chunk> executeAsync(Collection<String> instanceIds);
+
+    /**
+     * Applies the operation to the instances.
+     *
+     * @param instanceIds the instance ids
+     * @return an observable that emits each chunk once its operation completes
+     */
+    Observable<Chunk> executeAsync(String... instanceIds);
+
+    /**
+     * A completed chunk of a bulk operation.
+     */
+    interface Chunk {
+        /**
+         * @return the index of the chunk, chunks are numbered in the order of the instance ids
+         */
+        int index();
+
+        /**
+         * @return the number of chunks of the bulk operation
+         */
+        int chunkCount();
+
+        /**
+         * @return the ids of the instances in the chunk
+         */
+        List<String> instanceIds();
+
+        /**
+         * @return the status of the operation for the chunk, as reported by the service
+         */
+        String status();
+    }
+}
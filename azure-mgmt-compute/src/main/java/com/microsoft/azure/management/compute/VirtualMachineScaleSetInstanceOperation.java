@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.compute;
+
+import com.microsoft.azure.management.apigeneration.LangDefinition;
+
+/**
+ * The operations that can be applied in bulk to the virtual machine instances of a scale set.
+ */
+@LangDefinition
+public enum VirtualMachineScaleSetInstanceOperation {
+    /**
+     * Deallocates the instances.
+     */
+    DEALLOCATE,
+    /**
+     * Powers off the instances.
+     */
+    POWER_OFF,
+    /**
+     * Restarts the instances.
+     */
+    RESTART,
+    /**
+     * Starts the instances.
+     */
+    START,
+    /**
+     * Reimages the OS disk of the instances.
+     */
+    REIMAGE,
+    /**
+     * Reimages all the disks of the instances.
+     */
+    REIMAGE_ALL,
+    /**
+     * Applies the latest scale set model to the instances.
+     */
+    UPDATE,
+    /**
+     * Deletes the instances.
+     */
+    DELETE
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+package com.microsoft.azure.management.compute;
+
+import com.microsoft.azure.management.apigeneration.Beta;
+import com.microsoft.azure.management.apigeneration.Beta.SinceVersion;
+import com.microsoft.azure.management.apigeneration.Fluent;
+
+/**
+ * A point in time snapshot of the state of all the virtual machine instances in a scale set.
+ * <p>
+ * The instances are ordered by instance id, and are addressed either by their index in the
+ * snapshot or by their instance id.
+ */
+@Fluent
+@Beta(SinceVersion.V1_4_0)
+public interface VirtualMachineScaleSetInstanceSnapshot {
+    /**
+     * @return the time the snapshot was taken, in milliseconds since the epoch
+     */
+    long timestamp();
+
+    /**
+     * @return the number of virtual machine instances
+     */
+    int size();
+
+    /**
+     * Gets the index of a virtual machine instance in the snapshot.
+     *
+     * @param instanceId the instance id
+     * @return the index of the instance, a negative value if the instance is not in the snapshot
+     */
+    int indexOf(String instanceId);
+
+    /**
+     * @param index the index of the instance in the snapshot
+     * @return the instance id
+     */
+    String instanceId(int index);
+
+    /**
+     * @param index the index of the instance in the snapshot
+     * @return the power state of the instance, null if not reported
+     */
+    PowerState powerState(int index);
+
+    /**
+     * @param index the index of the instance in the snapshot
+     * @return the provisioning state of the instance
+     */
+    String provisioningState(int index);
+
+    /**
+     * @param index the index of the instance in the snapshot
+     * @return true if the latest scale set model is applied to the instance
+     */
+    boolean isLatestModelApplied(int index);
+
+    /**
+     * @param powerState the power state
+     * @return the number of instances in the power state
+     */
+    int count(PowerState powerState);
+}
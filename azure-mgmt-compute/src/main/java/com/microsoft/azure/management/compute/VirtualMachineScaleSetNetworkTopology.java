@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+package com.microsoft.azure.management.compute;
+
+import com.microsoft.azure.management.apigeneration.Beta;
+import com.microsoft.azure.management.apigeneration.Beta.SinceVersion;
+import com.microsoft.azure.management.apigeneration.Fluent;
+import com.microsoft.azure.management.network.LoadBalancer;
+import com.microsoft.azure.management.network.Network;
+
+/**
+ * The network resources the primary network interface of the virtual machines in a scale set
+ * is associated with, resolved together.
+ */
+@Fluent
+@Beta(SinceVersion.V1_4_0)
+public interface VirtualMachineScaleSetNetworkTopology {
+    /**
+     * @return the virtual network of the primary network interface, null if the scale set
+     * is not associated with a subnet yet
+     */
+    Network primaryNetwork();
+
+    /**
+     * @return the Internet-facing load balancer associated with the primary network interface, null if none
+     */
+    LoadBalancer primaryInternetFacingLoadBalancer();
+
+    /**
+     * @return the internal load balancer associated with the primary network interface, null if none
+     */
+    LoadBalancer primaryInternalLoadBalancer();
+}
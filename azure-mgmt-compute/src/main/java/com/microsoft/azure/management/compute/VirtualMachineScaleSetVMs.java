@@ -73,4 +73,13 @@ public interface VirtualMachineScaleSetVMs extends
      */
     @Beta(Beta.SinceVersion.V1_4_0)
     void updateInstances(String... instanceIds);
+
+    /**
+     * Begins the definition of an operation applied to many instances in chunks.
+     *
+     * @param operation the operation to apply to the instances
+     * @return the bulk operation
+     */
+    @Beta(Beta.SinceVersion.V1_4_0)
+    VirtualMachineScaleSetBulkOperation bulkOperation(VirtualMachineScaleSetInstanceOperation operation);
 }
@@ -10,14 +10,10 @@ import com.microsoft.azure.management.apigeneration.LangDefinition;
 import com.microsoft.azure.management.compute.AvailabilitySet;
 import com.microsoft.azure.management.compute.AvailabilitySetSkuTypes;
 import com.microsoft.azure.management.compute.AvailabilitySets;
-import com.microsoft.azure.management.resources.ResourceGroup;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.GroupableResourcesImpl;
-import com.microsoft.azure.management.resources.fluentcore.arm.models.implementation.GroupPagedList;
+import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.ResourceGroupFanOut;
 import rx.Completable;
 import rx.Observable;
-import rx.functions.Func1;
-
-import java.util.List;
 
 /**
  * The implementation for AvailabilitySets.
@@ -38,24 +34,12 @@ class AvailabilitySetsImpl
 
     @Override
     public PagedList<AvailabilitySet> list() {
-        final AvailabilitySetsImpl self = this;
-        return new GroupPagedList<AvailabilitySet>(this.manager().resourceManager().resourceGroups().list()) {
-            @Override
-            public List<AvailabilitySet> listNextGroup(String resourceGroupName) {
-                return wrapList(self.inner().listByResourceGroup(resourceGroupName));
-            }
-        };
+        return ResourceGroupFanOut.of(this.manager().resourceManager().resourceGroups(), this).ordered().list();
     }
 
     @Override
     public Observable<AvailabilitySet> listAsync() {
-        return this.manager().resourceManager().resourceGroups().listAsync()
-                .flatMap(new Func1<ResourceGroup, Observable<AvailabilitySet>>() {
-                    @Override
-                    public Observable<AvailabilitySet> call(ResourceGroup resourceGroup) {
-                        return wrapPageAsync(inner().listByResourceGroupAsync(resourceGroup.name()));
-                    }
-                });
+        return ResourceGroupFanOut.of(this.manager().resourceManager().resourceGroups(), this).listAsync();
     }
 
     @Override
@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+package com.microsoft.azure.management.compute.implementation;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.azure.management.apigeneration.LangDefinition;
+import com.microsoft.azure.management.compute.ComputeCatalogCache;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The implementation for {@link ComputeCatalogCache}, keyed by region.
+ * <p>
+ * The cache is an interceptor added to the client by
+ * {@link ComputeManager.Configurable#withCatalogCache(ComputeCatalogCache)}, only GET requests to the
+ * catalog endpoints are cached: the location scoped publishers and vmSizes, and the subscription
+ * scoped skus listed by {@link com.microsoft.azure.management.compute.VirtualMachineSkus}. The least
+ * recently used entries are evicted once the cache is full. The response headers, e.g. x-ms-request-id, are cached with the body and replayed on a hit, except
+ * for the headers describing the transfer of the original response.
+ * <p>
+ * The cache can optionally be backed by a snapshot file, loaded when the file is specified and written
+ * by {@link #saveSnapshot()}, so that the catalog survives process restarts.
+ */
+@LangDefinition
+final class ComputeCatalogCacheImpl implements ComputeCatalogCache, Interceptor {
+    private static final Pattern CATALOG_PATH_PATTERN = Pattern.compile(
+            "/subscriptions/[^/]+/providers/microsoft\\.compute/(?:locations/([^/]+)/(?:publishers|vmsizes)(?:/.*)?|skus)",
+            Pattern.CASE_INSENSITIVE);
+    // The region of the entries not specific to a region
+    private static final String NO_REGION = "";
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+    private static final Set<String> TRANSFER_HEADERS = new HashSet<>(Arrays.asList(
+            "connection", "content-encoding", "content-length", "keep-alive", "transfer-encoding"));
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final LinkedHashMap<String, Entry> entries;
+    private long timeToLiveInMillis = TimeUnit.HOURS.toMillis(1);
+    private int maxEntries = 10000;
+    private File snapshotFile;
+
+    /**
+     * Creates a cache with a time to live of 1 hour, bounded to 10,000 entries.
+     */
+    ComputeCatalogCacheImpl() {
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public ComputeCatalogCacheImpl withTimeToLive(long timeToLive, TimeUnit unit) {
+        this.timeToLiveInMillis = unit.toMillis(timeToLive);
+        return this;
+    }
+
+    @Override
+    public ComputeCatalogCacheImpl withMaxEntries(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        return this;
+    }
+
+    @Override
+    public ComputeCatalogCacheImpl withSnapshotFile(File snapshotFile) throws IOException {
+        this.snapshotFile = snapshotFile;
+        if (snapshotFile.isFile()) {
+            List<Entry> snapshot = mapper.readValue(snapshotFile, new TypeReference<List<Entry>>() { });
+            long now = System.currentTimeMillis();
+            synchronized (entries) {
+                for (Entry entry : snapshot) {
+                    if (!isExpired(entry, now)) {
+                        entries.put(entry.key, entry);
+                    }
+                }
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void saveSnapshot() throws IOException {
+        if (snapshotFile == null) {
+            throw new IllegalStateException("The snapshot file is not specified");
+        }
+        List<Entry> snapshot = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            for (Entry entry : entries.values()) {
+                if (!isExpired(entry, now)) {
+                    snapshot.add(entry);
+                }
+            }
+        }
+        File parent = snapshotFile.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        mapper.writeValue(snapshotFile, snapshot);
+    }
+
+    @Override
+    public void invalidate() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @Override
+    public void invalidate(String regionName) {
+        String region = regionName.replace(" ", "").toLowerCase(Locale.ROOT);
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().region.equals(region)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!"GET".equals(request.method())) {
+            return chain.proceed(request);
+        }
+        Matcher matcher = CATALOG_PATH_PATTERN.matcher(request.url().encodedPath());
+        if (!matcher.matches()) {
+            return chain.proceed(request);
+        }
+        String key = keyOf(request);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        long now = System.currentTimeMillis();
+        if (entry != null && !isExpired(entry, now)) {
+            Response.Builder cached = new Response.Builder()
+                    .request(request)
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(200)
+                    .message("OK");
+            if (entry.headers != null) {
+                for (Map.Entry<String, List<String>> header : entry.headers.entrySet()) {
+                    for (String value : header.getValue()) {
+                        cached.addHeader(header.getKey(), value);
+                    }
+                }
+            }
+            MediaType contentType = entry.contentType == null ? JSON : MediaType.parse(entry.contentType);
+            cached.header("Content-Type", contentType.toString());
+            return cached.body(ResponseBody.create(contentType, entry.body)).build();
+        }
+        Response response = chain.proceed(request);
+        if (response.code() != 200 || response.body() == null) {
+            return response;
+        }
+        MediaType contentType = response.body().contentType();
+        String body = response.body().string();
+        Entry newEntry = new Entry();
+        newEntry.key = key;
+        newEntry.region = matcher.group(1) == null ? NO_REGION : matcher.group(1).toLowerCase(Locale.ROOT);
+        newEntry.createdAt = now;
+        newEntry.body = body;
+        newEntry.contentType = contentType == null ? null : contentType.toString();
+        newEntry.headers = new LinkedHashMap<>();
+        for (String name : response.headers().names()) {
+            String headerName = name.toLowerCase(Locale.ROOT);
+            if (!TRANSFER_HEADERS.contains(headerName)) {
+                newEntry.headers.put(headerName, response.headers(name));
+            }
+        }
+        synchronized (entries) {
+            entries.put(key, newEntry);
+        }
+        return response.newBuilder().body(ResponseBody.create(contentType, body)).build();
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.createdAt > timeToLiveInMillis;
+    }
+
+    private static String keyOf(Request request) {
+        String query = request.url().encodedQuery();
+        String path = request.url().encodedPath().toLowerCase(Locale.ROOT);
+        return query == null ? path : path + "?" + query;
+    }
+
+    /**
+     * A cached response.
+     */
+    private static final class Entry {
+        @JsonProperty
+        private String key;
+        @JsonProperty
+        private String region;
+        @JsonProperty
+        private long createdAt;
+        @JsonProperty
+        private String body;
+        @JsonProperty
+        private String contentType;
+        @JsonProperty
+        private Map<String, List<String>> headers;
+    }
+}
@@ -7,11 +7,11 @@
 package com.microsoft.azure.management.compute.implementation;
 
 import com.microsoft.azure.AzureEnvironment;
-import com.microsoft.azure.AzureResponseBuilder;
 import com.microsoft.azure.credentials.AzureTokenCredentials;
 import com.microsoft.azure.management.apigeneration.Beta;
 import com.microsoft.azure.management.apigeneration.Beta.SinceVersion;
 import com.microsoft.azure.management.compute.AvailabilitySets;
+import com.microsoft.azure.management.compute.ComputeCatalogCache;
 import com.microsoft.azure.management.compute.ComputeUsages;
 import com.microsoft.azure.management.compute.Disks;
 import com.microsoft.azure.management.compute.Snapshots;
@@ -26,6 +26,7 @@ import com.microsoft.azure.management.network.implementation.NetworkManager;
 import com.microsoft.azure.management.resources.fluentcore.arm.AzureConfigurable;
 import com.microsoft.azure.management.resources.fluentcore.arm.implementation.AzureConfigurableImpl;
 import com.microsoft.azure.management.resources.fluentcore.arm.implementation.Manager;
+import com.microsoft.azure.management.resources.fluentcore.utils.CachedResponseBuilderFactory;
 import com.microsoft.azure.management.resources.fluentcore.utils.ProviderRegistrationInterceptor;
 import com.microsoft.azure.management.resources.fluentcore.utils.ResourceManagerThrottlingInterceptor;
 import com.microsoft.azure.management.storage.implementation.StorageManager;
@@ -74,7 +75,7 @@ public final class ComputeManager extends Manager<ComputeManager, ComputeManagem
                 .withBaseUrl(credentials.environment(), AzureEnvironment.Endpoint.RESOURCE_MANAGER)
                 .withCredentials(credentials)
                 .withSerializerAdapter(new AzureJacksonAdapter())
-                .withResponseBuilderFactory(new AzureResponseBuilder.Factory())
+                .withResponseBuilderFactory(new CachedResponseBuilderFactory())
                 .withInterceptor(new ProviderRegistrationInterceptor(credentials))
                 .withInterceptor(new ResourceManagerThrottlingInterceptor())
                 .build(), subscriptionId);
@@ -91,6 +92,17 @@ public final class ComputeManager extends Manager<ComputeManager, ComputeManagem
         return new ComputeManager(restClient, subscriptionId);
     }
 
+    /**
+     * Creates a cache for the compute catalog lookups, to be shared by the managers configured with
+     * {@link Configurable#withCatalogCache(ComputeCatalogCache)}.
+     *
+     * @return the catalog cache
+     */
+    @Beta(SinceVersion.V1_4_0)
+    public static ComputeCatalogCache createCatalogCache() {
+        return new ComputeCatalogCacheImpl();
+    }
+
     /**
      * The interface allowing configurations to be set.
      */
@@ -103,6 +115,15 @@ public final class ComputeManager extends Manager<ComputeManager, ComputeManagem
          * @return the ComputeManager
          */
         ComputeManager authenticate(AzureTokenCredentials credentials, String subscriptionId);
+
+        /**
+         * Specifies the cache serving the compute catalog lookups, such as virtual machine sizes and images.
+         *
+         * @param catalogCache the catalog cache, created by {@link ComputeManager#createCatalogCache()}
+         * @return the configurable object
+         */
+        @Beta(SinceVersion.V1_4_0)
+        Configurable withCatalogCache(ComputeCatalogCache catalogCache);
     }
 
     /**
@@ -113,6 +134,11 @@ public final class ComputeManager extends Manager<ComputeManager, ComputeManagem
         public ComputeManager authenticate(AzureTokenCredentials credentials, String subscriptionId) {
             return ComputeManager.authenticate(buildRestClient(credentials), subscriptionId);
         }
+
+        @Override
+        public Configurable withCatalogCache(ComputeCatalogCache catalogCache) {
+            return withInterceptor((ComputeCatalogCacheImpl) catalogCache);
+        }
     }
 
     private ComputeManager(RestClient restClient, String subscriptionId) {
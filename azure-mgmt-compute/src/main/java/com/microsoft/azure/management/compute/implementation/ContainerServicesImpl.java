@@ -9,14 +9,10 @@ import com.microsoft.azure.PagedList;
 import com.microsoft.azure.management.apigeneration.LangDefinition;
 import com.microsoft.azure.management.compute.ContainerService;
 import com.microsoft.azure.management.compute.ContainerServices;
-import com.microsoft.azure.management.resources.ResourceGroup;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.GroupableResourcesImpl;
-import com.microsoft.azure.management.resources.fluentcore.arm.models.implementation.GroupPagedList;
+import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.ResourceGroupFanOut;
 import rx.Completable;
 import rx.Observable;
-import rx.functions.Func1;
-
-import java.util.List;
 
 /**
  * The implementation for ContainerServices.
@@ -38,24 +34,12 @@ public class ContainerServicesImpl
 
     @Override
     public PagedList<ContainerService> list() {
-        final ContainerServicesImpl self = this;
-        return new GroupPagedList<ContainerService>(this.manager().resourceManager().resourceGroups().list()) {
-            @Override
-            public List<ContainerService> listNextGroup(String resourceGroupName) {
-                return wrapList(self.inner().listByResourceGroup(resourceGroupName));
-            }
-        };
+        return ResourceGroupFanOut.of(this.manager().resourceManager().resourceGroups(), this).ordered().list();
     }
 
     @Override
     public Observable<ContainerService> listAsync() {
-        return this.manager().resourceManager().resourceGroups().listAsync()
-                .flatMap(new Func1<ResourceGroup, Observable<ContainerService>>() {
-                    @Override
-                    public Observable<ContainerService> call(ResourceGroup resourceGroup) {
-                        return wrapPageAsync(inner().listByResourceGroupAsync(resourceGroup.name()));
-                    }
-                });
+        return ResourceGroupFanOut.of(this.manager().resourceManager().resourceGroups(), this).listAsync();
     }
 
     @Override
@@ -0,0 +1,305 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+package com.microsoft.azure.management.compute.implementation;
+
+import com.microsoft.azure.management.apigeneration.LangDefinition;
+import com.microsoft.azure.management.compute.VirtualMachineImage;
+import com.microsoft.azure.management.compute.VirtualMachineImageCrawler;
+import com.microsoft.azure.management.compute.VirtualMachineOffer;
+import com.microsoft.azure.management.compute.VirtualMachinePublisher;
+import com.microsoft.azure.management.compute.VirtualMachinePublishers;
+import com.microsoft.azure.management.compute.VirtualMachineSku;
+import com.microsoft.azure.management.resources.fluentcore.arm.Region;
+import com.microsoft.azure.management.resources.fluentcore.utils.SdkContext;
+import rx.Observable;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The implementation for {@link VirtualMachineImageCrawler}.
+ */
+@LangDefinition
+class VirtualMachineImageCrawlerImpl implements VirtualMachineImageCrawler {
+    private final VirtualMachinePublishers publishers;
+    private final VirtualMachineImagesInner client;
+    // Each level is bounded across the crawl, by default at most 4 + 2 + 2 + 2 requests are in flight
+    private int publisherConcurrency = 4;
+    private int offerConcurrency = 2;
+    private int skuConcurrency = 2;
+    private int imageConcurrency = 2;
+    private boolean ordered;
+    private boolean failureIsolation;
+    private Action1<Progress> progressListener;
+
+    VirtualMachineImageCrawlerImpl(VirtualMachinePublishers publishers, VirtualMachineImagesInner client) {
+        this.publishers = publishers;
+        this.client = client;
+    }
+
+    @Override
+    public VirtualMachineImageCrawlerImpl withConcurrency(int publishers, int offers, int skus, int images) {
+        this.publisherConcurrency = Math.max(1, publishers);
+        this.offerConcurrency = Math.max(1, offers);
+        this.skuConcurrency = Math.max(1, skus);
+        this.imageConcurrency = Math.max(1, images);
+        return this;
+    }
+
+    @Override
+    public VirtualMachineImageCrawlerImpl withOrderedEmission() {
+        this.ordered = true;
+        return this;
+    }
+
+    @Override
+    public VirtualMachineImageCrawlerImpl withFailureIsolation() {
+        this.failureIsolation = true;
+        return this;
+    }
+
+    @Override
+    public VirtualMachineImageCrawlerImpl withProgressListener(Action1<Progress> listener) {
+        this.progressListener = listener;
+        return this;
+    }
+
+    @Override
+    public Observable<VirtualMachineImage> crawlAsync(Region region) {
+        return crawlAsync(region.name());
+    }
+
+    @Override
+    public Observable<VirtualMachineImage> crawlAsync(final String regionName) {
+        return Observable.defer(new Func0<Observable<VirtualMachineImage>>() {
+            @Override
+            public Observable<VirtualMachineImage> call() {
+                final CrawlProgress progress = new CrawlProgress();
+                Observable<PublisherCrawl> publisherList = publishers.listByRegionAsync(regionName)
+                        .map(new Func1<VirtualMachinePublisher, PublisherCrawl>() {
+                            @Override
+                            public PublisherCrawl call(VirtualMachinePublisher publisher) {
+                                progress.listedPublishers.incrementAndGet();
+                                return new PublisherCrawl(publisher, progress);
+                            }
+                        })
+                        .doOnCompleted(new Action0() {
+                            @Override
+                            public void call() {
+                                progress.totalPublishers = progress.listedPublishers.get();
+                            }
+                        });
+                // Each level is a single fan out over the items of all the publishers, so that the
+                // concurrency of a level bounds the requests of the level in the whole crawl
+                Observable<Step<VirtualMachineOffer>> offers = fanOut(publisherList,
+                        new Func1<PublisherCrawl, Observable<Step<VirtualMachineOffer>>>() {
+                            @Override
+                            public Observable<Step<VirtualMachineOffer>> call(PublisherCrawl crawl) {
+                                return crawl.children(crawl.publisher.offers().listAsync());
+                            }
+                        }, publisherConcurrency);
+                Observable<Step<VirtualMachineSku>> skus = fanOut(offers,
+                        new Func1<Step<VirtualMachineOffer>, Observable<Step<VirtualMachineSku>>>() {
+                            @Override
+                            public Observable<Step<VirtualMachineSku>> call(Step<VirtualMachineOffer> offer) {
+                                return offer.crawl.children(offer.item.skus().listAsync());
+                            }
+                        }, offerConcurrency);
+                Observable<Step<ImageVersion>> versions = fanOut(skus,
+                        new Func1<Step<VirtualMachineSku>, Observable<Step<ImageVersion>>>() {
+                            @Override
+                            public Observable<Step<ImageVersion>> call(Step<VirtualMachineSku> sku) {
+                                // The images are listed and read the same way as VirtualMachineSku.images()
+                                final VirtualMachineImagesInSkuImpl images = new VirtualMachineImagesInSkuImpl(sku.item, client);
+                                return sku.crawl.children(images.listVersionsAsync()
+                                        .map(new Func1<VirtualMachineImageResourceInner, ImageVersion>() {
+                                            @Override
+                                            public ImageVersion call(VirtualMachineImageResourceInner version) {
+                                                return new ImageVersion(images, version);
+                                            }
+                                        }));
+                            }
+                        }, skuConcurrency);
+                return fanOut(versions,
+                        new Func1<Step<ImageVersion>, Observable<VirtualMachineImage>>() {
+                            @Override
+                            public Observable<VirtualMachineImage> call(Step<ImageVersion> version) {
+                                return version.crawl.image(version.item.images.getImageAsync(version.item.version));
+                            }
+                        }, imageConcurrency);
+            }
+        });
+    }
+
+    /**
+     * Maps each item to the observable of its children, subscribing to at most the given number
+     * of them at a time. The subscriptions happen on the SDK scheduler so that the requests of
+     * sibling items are sent concurrently.
+     */
+    private <T, R> Observable<R> fanOut(Observable<T> items, final Func1<T, Observable<R>> children, int concurrency) {
+        Func1<T, Observable<R>> scheduled = new Func1<T, Observable<R>>() {
+            @Override
+            public Observable<R> call(T item) {
+                return children.call(item).subscribeOn(SdkContext.getRxScheduler());
+            }
+        };
+        if (ordered) {
+            return items.concatMapEager(scheduled, concurrency, concurrency);
+        }
+        return items.flatMap(scheduled, concurrency);
+    }
+
+    /**
+     * An item of a level of the catalog, with the crawl of the publisher it belongs to.
+     *
+     * @param <T> the type of the item
+     */
+    private static class Step<T> {
+        private final PublisherCrawl crawl;
+        private final T item;
+
+        Step(PublisherCrawl crawl, T item) {
+            this.crawl = crawl;
+            this.item = item;
+        }
+    }
+
+    /**
+     * A version of the images of a SKU.
+     */
+    private static class ImageVersion {
+        private final VirtualMachineImagesInSkuImpl images;
+        private final VirtualMachineImageResourceInner version;
+
+        ImageVersion(VirtualMachineImagesInSkuImpl images, VirtualMachineImageResourceInner version) {
+            this.images = images;
+            this.version = version;
+        }
+    }
+
+    /**
+     * The crawl of a publisher, completed once the requests for all its offers, SKUs and versions
+     * are complete, whichever their order across the publishers.
+     */
+    private class PublisherCrawl {
+        private final VirtualMachinePublisher publisher;
+        private final CrawlProgress progress;
+        // The requests not complete yet, starting with the list of offers
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private volatile Throwable error;
+
+        PublisherCrawl(VirtualMachinePublisher publisher, CrawlProgress progress) {
+            this.publisher = publisher;
+            this.progress = progress;
+        }
+
+        /**
+         * Lists the children of an item of the publisher, each child requests the next level once emitted.
+         */
+        <T> Observable<Step<T>> children(Observable<T> list) {
+            return guard(list.map(new Func1<T, Step<T>>() {
+                @Override
+                public Step<T> call(T item) {
+                    pending.incrementAndGet();
+                    return new Step<>(PublisherCrawl.this, item);
+                }
+            }));
+        }
+
+        /**
+         * Gets an image of the publisher.
+         */
+        Observable<VirtualMachineImage> image(Observable<VirtualMachineImage> image) {
+            return guard(image.doOnNext(new Action1<VirtualMachineImage>() {
+                @Override
+                public void call(VirtualMachineImage image) {
+                    progress.images.incrementAndGet();
+                }
+            }));
+        }
+
+        private <T> Observable<T> guard(Observable<T> request) {
+            if (error != null) {
+                // The rest of a failed publisher is skipped, the images already emitted for it are kept
+                complete();
+                return Observable.empty();
+            }
+            Observable<T> completed = request.doOnCompleted(new Action0() {
+                @Override
+                public void call() {
+                    complete();
+                }
+            });
+            if (!failureIsolation) {
+                return completed;
+            }
+            return completed.onErrorResumeNext(new Func1<Throwable, Observable<T>>() {
+                @Override
+                public Observable<T> call(Throwable throwable) {
+                    if (error == null) {
+                        error = throwable;
+                    }
+                    complete();
+                    return Observable.empty();
+                }
+            });
+        }
+
+        private void complete() {
+            if (pending.decrementAndGet() == 0) {
+                progress.onPublisherCompleted(publisher.name(), error);
+            }
+        }
+    }
+
+    /**
+     * The progress of a crawl.
+     */
+    private class CrawlProgress {
+        private final AtomicInteger listedPublishers = new AtomicInteger();
+        private final AtomicInteger completedPublishers = new AtomicInteger();
+        private final AtomicInteger images = new AtomicInteger();
+        private volatile int totalPublishers = -1;
+
+        void onPublisherCompleted(final String publisherName, final Throwable error) {
+            final int completed = completedPublishers.incrementAndGet();
+            if (progressListener == null) {
+                return;
+            }
+            final int total = totalPublishers;
+            final int imageCount = images.get();
+            progressListener.call(new Progress() {
+                @Override
+                public String publisherName() {
+                    return publisherName;
+                }
+
+                @Override
+                public Throwable error() {
+                    return error;
+                }
+
+                @Override
+                public int completedPublishers() {
+                    return completed;
+                }
+
+                @Override
+                public int totalPublishers() {
+                    return total;
+                }
+
+                @Override
+                public int images() {
+                    return imageCount;
+                }
+            });
+        }
+    }
+}
@@ -8,6 +8,7 @@ package com.microsoft.azure.management.compute.implementation;
 import com.microsoft.azure.PagedList;
 import com.microsoft.azure.management.apigeneration.LangDefinition;
 import com.microsoft.azure.management.compute.VirtualMachineImage;
+import com.microsoft.azure.management.compute.VirtualMachineImageCrawler;
 import com.microsoft.azure.management.compute.VirtualMachineImages;
 import com.microsoft.azure.management.compute.VirtualMachineOffer;
 import com.microsoft.azure.management.compute.VirtualMachinePublisher;
@@ -15,7 +16,6 @@ import com.microsoft.azure.management.compute.VirtualMachinePublishers;
 import com.microsoft.azure.management.compute.VirtualMachineSku;
 import com.microsoft.azure.management.resources.fluentcore.arm.Region;
 import rx.Observable;
-import rx.functions.Func1;
 
 import java.util.List;
 
@@ -110,23 +110,12 @@ class VirtualMachineImagesImpl
 
     @Override
     public Observable<VirtualMachineImage> listByRegionAsync(String regionName) {
-        return this.publishers().listByRegionAsync(regionName)
-                .flatMap(new Func1<VirtualMachinePublisher, Observable<VirtualMachineOffer>>() {
-                    @Override
-                    public Observable<VirtualMachineOffer> call(VirtualMachinePublisher virtualMachinePublisher) {
-                        return virtualMachinePublisher.offers().listAsync();
-                    }
-                }).flatMap(new Func1<VirtualMachineOffer, Observable<VirtualMachineSku>>() {
-                    @Override
-                    public Observable<VirtualMachineSku> call(VirtualMachineOffer virtualMachineExtensionImageType) {
-                        return virtualMachineExtensionImageType.skus().listAsync();
-                    }
-                }).flatMap(new Func1<VirtualMachineSku, Observable<VirtualMachineImage>>() {
-                    @Override
-                    public Observable<VirtualMachineImage> call(VirtualMachineSku virtualMachineSku) {
-                        return virtualMachineSku.images().listAsync();
-                    }
-                });
+        return this.crawler().crawlAsync(regionName);
+    }
+
+    @Override
+    public VirtualMachineImageCrawler crawler() {
+        return new VirtualMachineImageCrawlerImpl(this.publishers(), this.client);
     }
 
     @Override
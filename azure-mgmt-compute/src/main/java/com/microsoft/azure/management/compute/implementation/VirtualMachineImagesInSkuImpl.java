@@ -76,29 +76,46 @@ class VirtualMachineImagesInSkuImpl implements VirtualMachineImagesInSku {
 
     @Override
     public Observable<VirtualMachineImage> listAsync() {
-        final VirtualMachineImagesInSkuImpl self = this;
+        return listVersionsAsync().flatMap(new Func1<VirtualMachineImageResourceInner, Observable<VirtualMachineImage>>() {
+            @Override
+            public Observable<VirtualMachineImage> call(VirtualMachineImageResourceInner version) {
+                return getImageAsync(version);
+            }
+        });
+    }
+
+    /**
+     * @return an observable that emits the versions of the images in the SKU
+     */
+    Observable<VirtualMachineImageResourceInner> listVersionsAsync() {
         return ReadableWrappersImpl.convertListToInnerAsync(innerCollection.listAsync(this.sku.region().toString(),
                 this.sku.publisher().name(),
                 this.sku.offer().name(),
-                this.sku.name())).flatMap(new Func1<VirtualMachineImageResourceInner, Observable<VirtualMachineImage>>() {
+                this.sku.name()));
+    }
+
+    /**
+     * Gets the image of a version in the SKU.
+     *
+     * @param version the version
+     * @return an observable that emits the image
+     */
+    Observable<VirtualMachineImage> getImageAsync(final VirtualMachineImageResourceInner version) {
+        final VirtualMachineImagesInSkuImpl self = this;
+        return innerCollection.getAsync(self.sku.region().toString(),
+                self.sku.publisher().name(),
+                self.sku.offer().name(),
+                self.sku.name(),
+                version.name()).map(new Func1<VirtualMachineImageInner, VirtualMachineImage>() {
             @Override
-            public Observable<VirtualMachineImage> call(final VirtualMachineImageResourceInner virtualMachineImageResourceInner) {
-                return innerCollection.getAsync(self.sku.region().toString(),
+            public VirtualMachineImage call(VirtualMachineImageInner virtualMachineImageInner) {
+                return new VirtualMachineImageImpl(
+                        self.sku.region(),
                         self.sku.publisher().name(),
                         self.sku.offer().name(),
                         self.sku.name(),
-                        virtualMachineImageResourceInner.name()).map(new Func1<VirtualMachineImageInner, VirtualMachineImage>() {
-                    @Override
-                    public VirtualMachineImage call(VirtualMachineImageInner virtualMachineImageInner) {
-                        return new VirtualMachineImageImpl(
-                                self.sku.region(),
-                                self.sku.publisher().name(),
-                                self.sku.offer().name(),
-                                self.sku.name(),
-                                virtualMachineImageResourceInner.name(),
-                                virtualMachineImageInner);
-                    }
-                });
+                        version.name(),
+                        virtualMachineImageInner);
             }
         });
     }
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+package com.microsoft.azure.management.compute.implementation;
+
+import com.microsoft.azure.management.apigeneration.LangDefinition;
+import com.microsoft.azure.management.compute.VirtualMachineScaleSetBulkOperation;
+import com.microsoft.azure.management.compute.VirtualMachineScaleSetInstanceOperation;
+import com.microsoft.azure.management.resources.fluentcore.utils.ChunkedOperation;
+import rx.Observable;
+import rx.functions.Func1;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The implementation for {@link VirtualMachineScaleSetBulkOperation}.
+ */
+@LangDefinition
+class VirtualMachineScaleSetBulkOperationImpl implements VirtualMachineScaleSetBulkOperation {
+    private final VirtualMachineScaleSetImpl scaleSet;
+    private final VirtualMachineScaleSetInstanceOperation operation;
+    private int chunkSize = 20;
+    private int concurrency = 1;
+    private int maxInFlightPercentage = 100;
+
+    VirtualMachineScaleSetBulkOperationImpl(VirtualMachineScaleSetImpl scaleSet, VirtualMachineScaleSetInstanceOperation operation) {
+        this.scaleSet = scaleSet;
+        this.operation = operation;
+    }
+
+    @Override
+    public VirtualMachineScaleSetBulkOperationImpl withChunkSize(int chunkSize) {
+        this.chunkSize = Math.max(1, chunkSize);
+        return this;
+    }
+
+    @Override
+    public VirtualMachineScaleSetBulkOperationImpl withConcurrency(int concurrency) {
+        this.concurrency = Math.max(1, concurrency);
+        return this;
+    }
+
+    @Override
+    public VirtualMachineScaleSetBulkOperationImpl withMaxInFlightPercentage(int percentage) {
+        this.maxInFlightPercentage = Math.max(1, Math.min(100, percentage));
+        return this;
+    }
+
+    @Override
+    public Observable<Chunk> executeAsync(String... instanceIds) {
+        return executeAsync(Arrays.asList(instanceIds));
+    }
+
+    @Override
+    public Observable<Chunk> executeAsync(Collection<String> instanceIds) {
+        if (instanceIds == null || instanceIds.isEmpty()) {
+            return Observable.empty();
+        }
+        int effectiveChunkSize = this.chunkSize;
+        int effectiveConcurrency = this.concurrency;
+        if (this.maxInFlightPercentage < 100) {
+            int maxInFlight = Math.max(1, this.scaleSet.capacity() * this.maxInFlightPercentage / 100);
+            effectiveChunkSize = Math.min(effectiveChunkSize, maxInFlight);
+            effectiveConcurrency = Math.max(1, Math.min(effectiveConcurrency, maxInFlight / effectiveChunkSize));
+        }
+        return new ChunkedOperation<String, Chunk>() {
+            @Override
+            protected Observable<Chunk> executeChunkAsync(int index, int chunkCount, List<String> ids) {
+                final ChunkImpl chunk = new ChunkImpl(index, chunkCount, ids);
+                return submitAsync(ids)
+                        .last()
+                        .map(new Func1<OperationStatusResponseInner, Chunk>() {
+                            @Override
+                            public Chunk call(OperationStatusResponseInner status) {
+                                chunk.status = status != null ? status.status() : null;
+                                return chunk;
+                            }
+                        });
+            }
+        }.executeAsync(instanceIds, effectiveChunkSize, effectiveConcurrency);
+    }
+
+    private Observable<OperationStatusResponseInner> submitAsync(List<String> instanceIds) {
+        VirtualMachineScaleSetsInner client = this.scaleSet.manager().inner().virtualMachineScaleSets();
+        String resourceGroupName = this.scaleSet.resourceGroupName();
+        String name = this.scaleSet.name();
+        switch (this.operation) {
+            case DEALLOCATE:
+                return client.deallocateAsync(resourceGroupName, name, instanceIds);
+            case POWER_OFF:
+                return client.powerOffAsync(resourceGroupName, name, instanceIds);
+            case RESTART:
+                return client.restartAsync(resourceGroupName, name, instanceIds);
+            case START:
+                return client.startAsync(resourceGroupName, name, instanceIds);
+            case REIMAGE:
+                return client.reimageAsync(resourceGroupName, name, instanceIds);
+            case REIMAGE_ALL:
+                return client.reimageAllAsync(resourceGroupName, name, instanceIds);
+            case UPDATE:
+                return client.updateInstancesAsync(resourceGroupName, name, instanceIds);
+            case DELETE:
+                return client.deleteInstancesAsync(resourceGroupName, name, instanceIds);
+            default:
+                throw new IllegalStateException("Unknown operation " + this.operation);
+        }
+    }
+
+    /**
+     * The implementation for {@link Chunk}.
+     */
+    private static class ChunkImpl implements Chunk {
+        private final int index;
+        private final int chunkCount;
+        private final List<String> instanceIds;
+        private volatile String status;
+
+        ChunkImpl(int index, int chunkCount, List<String> instanceIds) {
+            this.index = index;
+            this.chunkCount = chunkCount;
+            this.instanceIds = instanceIds;
+        }
+
+        @Override
+        public int index() {
+            return this.index;
+        }
+
+        @Override
+        public int chunkCount() {
+            return this.chunkCount;
+        }
+
+        @Override
+        public List<String> instanceIds() {
+            return Collections.unmodifiableList(this.instanceIds);
+        }
+
+        @Override
+        public String status() {
+            return this.status;
+        }
+    }
+}
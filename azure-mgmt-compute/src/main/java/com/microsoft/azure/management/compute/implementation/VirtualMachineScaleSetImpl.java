@@ -6,6 +6,7 @@
 
 package com.microsoft.azure.management.compute.implementation;
 
+import com.microsoft.azure.Page;
 import com.microsoft.azure.PagedList;
 import com.microsoft.azure.SubResource;
 import com.microsoft.azure.management.apigeneration.LangDefinition;
@@ -30,8 +31,10 @@ import com.microsoft.azure.management.compute.VirtualMachineScaleSet;
 import com.microsoft.azure.management.compute.VirtualMachineScaleSetDataDisk;
 import com.microsoft.azure.management.compute.VirtualMachineScaleSetExtension;
 import com.microsoft.azure.management.compute.VirtualMachineScaleSetExtensionProfile;
+import com.microsoft.azure.management.compute.VirtualMachineScaleSetInstanceSnapshot;
 import com.microsoft.azure.management.compute.VirtualMachineScaleSetManagedDiskParameters;
 import com.microsoft.azure.management.compute.VirtualMachineScaleSetNetworkProfile;
+import com.microsoft.azure.management.compute.VirtualMachineScaleSetNetworkTopology;
 import com.microsoft.azure.management.compute.VirtualMachineScaleSetOSDisk;
 import com.microsoft.azure.management.compute.VirtualMachineScaleSetOSProfile;
 import com.microsoft.azure.management.compute.VirtualMachineScaleSetSku;
@@ -66,8 +69,11 @@ import com.microsoft.rest.ServiceCallback;
 import com.microsoft.rest.ServiceFuture;
 import rx.Completable;
 import rx.Observable;
+import rx.functions.Action1;
+import rx.functions.Action2;
 import rx.functions.Func0;
 import rx.functions.Func1;
+import rx.functions.Func3;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -118,6 +124,9 @@ public class VirtualMachineScaleSetImpl
     // reference to the primary and internal Internet facing load balancer
     private LoadBalancer primaryInternetFacingLoadBalancer;
     private LoadBalancer primaryInternalLoadBalancer;
+    // the resolved network topology and the network references of the primary ip configuration it was resolved from
+    private Observable<VirtualMachineScaleSetNetworkTopology> networkTopology;
+    private String networkTopologyKey;
     // Load balancer specific variables used during update
     private boolean removePrimaryInternetFacingLoadBalancerOnUpdate;
     private boolean removePrimaryInternalLoadBalancerOnUpdate;
@@ -306,11 +315,7 @@ public class VirtualMachineScaleSetImpl
 
     @Override
     public Network getPrimaryNetwork() throws IOException {
-        String subnetId = primaryNicDefaultIPConfiguration().subnet().id();
-        String virtualNetworkId = ResourceUtils.parentResourceIdFromResourceId(subnetId);
-        return this.networkManager
-                    .networks()
-                    .getById(virtualNetworkId);
+        return resolveNetworkTopologyAsync().toBlocking().last().primaryNetwork();
     }
 
     @Override
@@ -421,6 +426,35 @@ public class VirtualMachineScaleSetImpl
                         virtualMachineInstanceId);
     }
 
+    @Override
+    public VirtualMachineScaleSetInstanceSnapshot getInstanceSnapshot() {
+        return this.getInstanceSnapshotAsync().toBlocking().last();
+    }
+
+    @Override
+    public Observable<VirtualMachineScaleSetInstanceSnapshot> getInstanceSnapshotAsync() {
+        return this.manager().inner().virtualMachineScaleSetVMs()
+                .listAsync(this.resourceGroupName(), this.name(), null, null, "instanceView")
+                .collect(new Func0<VirtualMachineScaleSetInstanceSnapshotImpl.Builder>() {
+                    @Override
+                    public VirtualMachineScaleSetInstanceSnapshotImpl.Builder call() {
+                        return new VirtualMachineScaleSetInstanceSnapshotImpl.Builder();
+                    }
+                }, new Action2<VirtualMachineScaleSetInstanceSnapshotImpl.Builder, Page<VirtualMachineScaleSetVMInner>>() {
+                    @Override
+                    public void call(VirtualMachineScaleSetInstanceSnapshotImpl.Builder builder, Page<VirtualMachineScaleSetVMInner> page) {
+                        // Each page is reduced to the states as it arrives, the inner models are not retained
+                        builder.withInstances(page.items());
+                    }
+                })
+                .map(new Func1<VirtualMachineScaleSetInstanceSnapshotImpl.Builder, VirtualMachineScaleSetInstanceSnapshot>() {
+                    @Override
+                    public VirtualMachineScaleSetInstanceSnapshot call(VirtualMachineScaleSetInstanceSnapshotImpl.Builder builder) {
+                        return builder.build();
+                    }
+                });
+    }
+
     // Fluent setters
 
     @Override
@@ -1676,69 +1710,107 @@ public class VirtualMachineScaleSetImpl
     private void clearCachedProperties() {
         this.primaryInternetFacingLoadBalancer = null;
         this.primaryInternalLoadBalancer = null;
+        synchronized (this) {
+            this.networkTopology = null;
+            this.networkTopologyKey = null;
+        }
     }
 
     private void loadCurrentPrimaryLoadBalancersIfAvailable() throws IOException {
         if (this.primaryInternetFacingLoadBalancer != null && this.primaryInternalLoadBalancer != null) {
             return;
         }
-
-        String firstLoadBalancerId = null;
-        VirtualMachineScaleSetIPConfigurationInner ipConfig = primaryNicDefaultIPConfiguration();
-        if (!ipConfig.loadBalancerBackendAddressPools().isEmpty()) {
-            firstLoadBalancerId = ResourceUtils
-                    .parentResourceIdFromResourceId(ipConfig.loadBalancerBackendAddressPools().get(0).id());
+        if (primaryLoadBalancerIds(primaryNicDefaultIPConfiguration())[0] == null) {
+            return;
         }
-
-        if (firstLoadBalancerId == null && !ipConfig.loadBalancerInboundNatPools().isEmpty()) {
-            firstLoadBalancerId = ResourceUtils
-                    .parentResourceIdFromResourceId(ipConfig.loadBalancerInboundNatPools().get(0).id());
+        VirtualMachineScaleSetNetworkTopology loadBalancers = resolveNetworkTopologyAsync().toBlocking().last();
+        if (loadBalancers.primaryInternetFacingLoadBalancer() != null) {
+            this.primaryInternetFacingLoadBalancer = loadBalancers.primaryInternetFacingLoadBalancer();
         }
-
-        if (firstLoadBalancerId == null) {
-            return;
+        if (loadBalancers.primaryInternalLoadBalancer() != null) {
+            this.primaryInternalLoadBalancer = loadBalancers.primaryInternalLoadBalancer();
         }
+    }
 
-        LoadBalancer loadBalancer1 = this.networkManager
-                .loadBalancers()
-                .getById(firstLoadBalancerId);
-        if (loadBalancer1.publicIPAddressIds() != null && loadBalancer1.publicIPAddressIds().size() > 0) {
-            this.primaryInternetFacingLoadBalancer = loadBalancer1;
-        } else {
-            this.primaryInternalLoadBalancer = loadBalancer1;
-        }
+    @Override
+    public Observable<VirtualMachineScaleSetNetworkTopology> resolveNetworkTopologyAsync() {
+        VirtualMachineScaleSetIPConfigurationInner ipConfig = primaryNicDefaultIPConfiguration();
+        String virtualNetworkId = null;
+        if (ipConfig.subnet() != null && ipConfig.subnet().id() != null) {
+            virtualNetworkId = ResourceUtils.parentResourceIdFromResourceId(ipConfig.subnet().id());
+        }
+        String[] loadBalancerIds = primaryLoadBalancerIds(ipConfig);
+        // The scale set model carries no etag, the topology is keyed by the network references it is resolved from
+        final String key = virtualNetworkId + "|" + loadBalancerIds[0] + "|" + loadBalancerIds[1];
+        synchronized (this) {
+            if (this.networkTopology != null && key.equals(this.networkTopologyKey)) {
+                return this.networkTopology;
+            }
+            final Observable<VirtualMachineScaleSetNetworkTopology> resolved = fetchNetworkTopologyAsync(virtualNetworkId,
+                    loadBalancerIds[0],
+                    loadBalancerIds[1])
+                    .doOnError(new Action1<Throwable>() {
+                        @Override
+                        public void call(Throwable throwable) {
+                            forgetNetworkTopology(key);
+                        }
+                    })
+                    .cache();
+            this.networkTopology = resolved;
+            this.networkTopologyKey = key;
+            return resolved;
+        }
+    }
+
+    private Observable<VirtualMachineScaleSetNetworkTopology> fetchNetworkTopologyAsync(String virtualNetworkId,
+                                                                                       String firstLoadBalancerId,
+                                                                                       String secondLoadBalancerId) {
+        return Observable.zip(
+                virtualNetworkId == null
+                        ? Observable.<Network>just(null)
+                        : this.networkManager.networks().getByIdAsync(virtualNetworkId)
+                            .subscribeOn(SdkContext.getRxScheduler()),
+                getLoadBalancerAsync(firstLoadBalancerId),
+                getLoadBalancerAsync(secondLoadBalancerId),
+                new Func3<Network, LoadBalancer, LoadBalancer, VirtualMachineScaleSetNetworkTopology>() {
+                    @Override
+                    public VirtualMachineScaleSetNetworkTopology call(Network network, LoadBalancer loadBalancer1, LoadBalancer loadBalancer2) {
+                        return new VirtualMachineScaleSetNetworkTopologyImpl(network, loadBalancer1, loadBalancer2);
+                    }
+                });
+    }
 
-        String secondLoadBalancerId = null;
-        for (SubResource subResource: ipConfig.loadBalancerBackendAddressPools()) {
-            if (!subResource.id().toLowerCase().startsWith(firstLoadBalancerId.toLowerCase())) {
-                secondLoadBalancerId = ResourceUtils
-                        .parentResourceIdFromResourceId(subResource.id());
+    private static String[] primaryLoadBalancerIds(VirtualMachineScaleSetIPConfigurationInner ipConfig) {
+        String[] loadBalancerIds = new String[2];
+        List<SubResource> loadBalancerReferences = new ArrayList<>();
+        loadBalancerReferences.addAll(ipConfig.loadBalancerBackendAddressPools());
+        loadBalancerReferences.addAll(ipConfig.loadBalancerInboundNatPools());
+        for (SubResource subResource : loadBalancerReferences) {
+            String loadBalancerId = ResourceUtils.parentResourceIdFromResourceId(subResource.id());
+            if (loadBalancerIds[0] == null) {
+                loadBalancerIds[0] = loadBalancerId;
+            } else if (!loadBalancerId.equalsIgnoreCase(loadBalancerIds[0])) {
+                loadBalancerIds[1] = loadBalancerId;
                 break;
             }
         }
+        return loadBalancerIds;
+    }
 
-        if (secondLoadBalancerId == null) {
-            for (SubResource subResource: ipConfig.loadBalancerInboundNatPools()) {
-                if (!subResource.id().toLowerCase().startsWith(firstLoadBalancerId.toLowerCase())) {
-                    secondLoadBalancerId = ResourceUtils
-                            .parentResourceIdFromResourceId(subResource.id());
-                    break;
-                }
-            }
+    private Observable<LoadBalancer> getLoadBalancerAsync(String loadBalancerId) {
+        if (loadBalancerId == null) {
+            return Observable.just(null);
         }
+        return this.networkManager.loadBalancers().getByIdAsync(loadBalancerId)
+                .subscribeOn(SdkContext.getRxScheduler());
+    }
 
-        if (secondLoadBalancerId == null) {
-            return;
+    private synchronized void forgetNetworkTopology(String key) {
+        // A failed resolution is not memoised, so that the next access retries
+        if (key.equals(this.networkTopologyKey)) {
+            this.networkTopology = null;
+            this.networkTopologyKey = null;
         }
-
-        LoadBalancer loadBalancer2 = this.networkManager
-            .loadBalancers()
-            .getById(secondLoadBalancerId);
-        if (loadBalancer2.publicIPAddressIds() != null && loadBalancer2.publicIPAddressIds().size() > 0) {
-            this.primaryInternetFacingLoadBalancer = loadBalancer2;
-         } else {
-            this.primaryInternalLoadBalancer = loadBalancer2;
-         }
     }
 
     private VirtualMachineScaleSetIPConfigurationInner primaryNicDefaultIPConfiguration() {
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+package com.microsoft.azure.management.compute.implementation;
+
+import com.microsoft.azure.management.apigeneration.LangDefinition;
+import com.microsoft.azure.management.compute.PowerState;
+import com.microsoft.azure.management.compute.VirtualMachineScaleSetInstanceSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The implementation for {@link VirtualMachineScaleSetInstanceSnapshot}.
+ * <p>
+ * The states are interned in per snapshot tables and stored as short codes in arrays parallel to
+ * the sorted instance ids, so a snapshot of thousands of instances takes a few tens of KB.
+ */
+@LangDefinition
+class VirtualMachineScaleSetInstanceSnapshotImpl implements VirtualMachineScaleSetInstanceSnapshot {
+    /**
+     * Orders the numeric instance ids numerically, and is a total order for any other id.
+     */
+    private static final Comparator<String> INSTANCE_ID_ORDER = new Comparator<String>() {
+        @Override
+        public int compare(String left, String right) {
+            if (left.length() != right.length()) {
+                return left.length() - right.length();
+            }
+            return left.compareTo(right);
+        }
+    };
+
+    private final long timestamp;
+    private final String[] instanceIds;
+    private final short[] powerStates;
+    private final PowerState[] powerStateTable;
+    private final short[] provisioningStates;
+    private final String[] provisioningStateTable;
+    private final BitSet latestModelApplied;
+
+    private VirtualMachineScaleSetInstanceSnapshotImpl(long timestamp,
+                                                       String[] instanceIds,
+                                                       short[] powerStates,
+                                                       PowerState[] powerStateTable,
+                                                       short[] provisioningStates,
+                                                       String[] provisioningStateTable,
+                                                       BitSet latestModelApplied) {
+        this.timestamp = timestamp;
+        this.instanceIds = instanceIds;
+        this.powerStates = powerStates;
+        this.powerStateTable = powerStateTable;
+        this.provisioningStates = provisioningStates;
+        this.provisioningStateTable = provisioningStateTable;
+        this.latestModelApplied = latestModelApplied;
+    }
+
+    @Override
+    public long timestamp() {
+        return this.timestamp;
+    }
+
+    @Override
+    public int size() {
+        return this.instanceIds.length;
+    }
+
+    @Override
+    public int indexOf(String instanceId) {
+        return Arrays.binarySearch(this.instanceIds, instanceId, INSTANCE_ID_ORDER);
+    }
+
+    @Override
+    public String instanceId(int index) {
+        return this.instanceIds[index];
+    }
+
+    @Override
+    public PowerState powerState(int index) {
+        return this.powerStateTable[this.powerStates[index]];
+    }
+
+    @Override
+    public String provisioningState(int index) {
+        return this.provisioningStateTable[this.provisioningStates[index]];
+    }
+
+    @Override
+    public boolean isLatestModelApplied(int index) {
+        return this.latestModelApplied.get(index);
+    }
+
+    @Override
+    public int count(PowerState powerState) {
+        int code = Arrays.asList(this.powerStateTable).indexOf(powerState);
+        if (code < 0) {
+            return 0;
+        }
+        int count = 0;
+        for (short state : this.powerStates) {
+            if (state == code) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Type to accumulate the instances of a scale set into a snapshot, page by page.
+     */
+    static class Builder {
+        private final long timestamp = System.currentTimeMillis();
+        private final List<Instance> instances = new ArrayList<>();
+        private final Map<PowerState, Short> powerStateCodes = new HashMap<>();
+        private final List<PowerState> powerStateTable = new ArrayList<>();
+        private final Map<String, Short> provisioningStateCodes = new HashMap<>();
+        private final List<String> provisioningStateTable = new ArrayList<>();
+
+        /**
+         * Adds the instances in a page, only the states are retained from the inner models.
+         *
+         * @param inners the instances
+         * @return the builder
+         */
+        Builder withInstances(List<VirtualMachineScaleSetVMInner> inners) {
+            for (VirtualMachineScaleSetVMInner inner : inners) {
+                instances.add(new Instance(inner.instanceId(),
+                        code(PowerState.fromInstanceView(inner.instanceView()), powerStateCodes, powerStateTable),
+                        code(inner.provisioningState(), provisioningStateCodes, provisioningStateTable),
+                        inner.latestModelApplied() != null && inner.latestModelApplied()));
+            }
+            return this;
+        }
+
+        VirtualMachineScaleSetInstanceSnapshotImpl build() {
+            Instance[] sorted = instances.toArray(new Instance[instances.size()]);
+            Arrays.sort(sorted, new Comparator<Instance>() {
+                @Override
+                public int compare(Instance left, Instance right) {
+                    return INSTANCE_ID_ORDER.compare(left.instanceId, right.instanceId);
+                }
+            });
+            String[] instanceIds = new String[sorted.length];
+            short[] powerStates = new short[sorted.length];
+            short[] provisioningStates = new short[sorted.length];
+            BitSet latestModelApplied = new BitSet(sorted.length);
+            for (int i = 0; i < sorted.length; i++) {
+                instanceIds[i] = sorted[i].instanceId;
+                powerStates[i] = sorted[i].powerState;
+                provisioningStates[i] = sorted[i].provisioningState;
+                latestModelApplied.set(i, sorted[i].latestModelApplied);
+            }
+            return new VirtualMachineScaleSetInstanceSnapshotImpl(timestamp,
+                    instanceIds,
+                    powerStates,
+                    powerStateTable.toArray(new PowerState[powerStateTable.size()]),
+                    provisioningStates,
+                    provisioningStateTable.toArray(new String[provisioningStateTable.size()]),
+                    latestModelApplied);
+        }
+
+        private static <T> short code(T value, Map<T, Short> codes, List<T> table) {
+            Short code = codes.get(value);
+            if (code == null) {
+                code = (short) table.size();
+                codes.put(value, code);
+                table.add(value);
+            }
+            return code;
+        }
+    }
+
+    /**
+     * The states of an instance, before the snapshot is built.
+     */
+    private static class Instance {
+        private final String instanceId;
+        private final short powerState;
+        private final short provisioningState;
+        private final boolean latestModelApplied;
+
+        Instance(String instanceId, short powerState, short provisioningState, boolean latestModelApplied) {
+            this.instanceId = instanceId;
+            this.powerState = powerState;
+            this.provisioningState = provisioningState;
+            this.latestModelApplied = latestModelApplied;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+package com.microsoft.azure.management.compute.implementation;
+
+import com.microsoft.azure.management.apigeneration.LangDefinition;
+import com.microsoft.azure.management.compute.VirtualMachineScaleSetNetworkTopology;
+import com.microsoft.azure.management.network.LoadBalancer;
+import com.microsoft.azure.management.network.Network;
+
+/**
+ * The implementation for {@link VirtualMachineScaleSetNetworkTopology}.
+ */
+@LangDefinition
+class VirtualMachineScaleSetNetworkTopologyImpl implements VirtualMachineScaleSetNetworkTopology {
+    private final Network primaryNetwork;
+    private LoadBalancer primaryInternetFacingLoadBalancer;
+    private LoadBalancer primaryInternalLoadBalancer;
+
+    VirtualMachineScaleSetNetworkTopologyImpl(Network primaryNetwork, LoadBalancer... loadBalancers) {
+        this.primaryNetwork = primaryNetwork;
+        for (LoadBalancer loadBalancer : loadBalancers) {
+            if (loadBalancer == null) {
+                continue;
+            }
+            if (loadBalancer.publicIPAddressIds() != null && loadBalancer.publicIPAddressIds().size() > 0) {
+                this.primaryInternetFacingLoadBalancer = loadBalancer;
+            } else {
+                this.primaryInternalLoadBalancer = loadBalancer;
+            }
+        }
+    }
+
+    @Override
+    public Network primaryNetwork() {
+        return this.primaryNetwork;
+    }
+
+    @Override
+    public LoadBalancer primaryInternetFacingLoadBalancer() {
+        return this.primaryInternetFacingLoadBalancer;
+    }
+
+    @Override
+    public LoadBalancer primaryInternalLoadBalancer() {
+        return this.primaryInternalLoadBalancer;
+    }
+}
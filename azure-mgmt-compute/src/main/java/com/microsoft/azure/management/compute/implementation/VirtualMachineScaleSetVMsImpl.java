@@ -7,6 +7,8 @@ package com.microsoft.azure.management.compute.implementation;
 
 import com.microsoft.azure.PagedList;
 import com.microsoft.azure.management.apigeneration.LangDefinition;
+import com.microsoft.azure.management.compute.VirtualMachineScaleSetBulkOperation;
+import com.microsoft.azure.management.compute.VirtualMachineScaleSetInstanceOperation;
 import com.microsoft.azure.management.compute.VirtualMachineScaleSetVM;
 import com.microsoft.azure.management.compute.VirtualMachineScaleSetVMs;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.ReadableWrappersImpl;
@@ -110,4 +112,9 @@ class VirtualMachineScaleSetVMsImpl
     public void updateInstances(String... instanceIds) {
         this.updateInstancesAsync(instanceIds).await();
     }
+
+    @Override
+    public VirtualMachineScaleSetBulkOperation bulkOperation(VirtualMachineScaleSetInstanceOperation operation) {
+        return new VirtualMachineScaleSetBulkOperationImpl(this.scaleSet, operation);
+    }
 }
@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.compute.implementation;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ComputeCatalogCacheTests {
+    private static final String SIZES_URL = "https://management.azure.com/subscriptions/sub1/providers/Microsoft.Compute/locations/westus/vmSizes?api-version=2017-03-30";
+    private static final String SKUS_URL = "https://management.azure.com/subscriptions/sub1/providers/Microsoft.Compute/skus?api-version=2017-03-30";
+    private static final String VM_URL = "https://management.azure.com/subscriptions/sub1/resourceGroups/rg1/providers/Microsoft.Compute/virtualMachines/vm1?api-version=2017-03-30";
+
+    @Test
+    public void canServeCatalogFromCache() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ComputeCatalogCacheImpl cache = new ComputeCatalogCacheImpl();
+        OkHttpClient client = client(cache, calls);
+
+        Assert.assertEquals("{\"call\":1}", get(client, SIZES_URL));
+        Assert.assertEquals("{\"call\":1}", get(client, SIZES_URL));
+        Assert.assertEquals(1, calls.get());
+
+        // Only the catalog endpoints are cached
+        get(client, VM_URL);
+        get(client, VM_URL);
+        Assert.assertEquals(3, calls.get());
+
+        cache.invalidate("West US");
+        Assert.assertEquals("{\"call\":4}", get(client, SIZES_URL));
+    }
+
+    @Test
+    public void canServeResourceSkusFromCache() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ComputeCatalogCacheImpl cache = new ComputeCatalogCacheImpl();
+        OkHttpClient client = client(cache, calls);
+
+        Assert.assertEquals("{\"call\":1}", get(client, SKUS_URL));
+        Assert.assertEquals("{\"call\":1}", get(client, SKUS_URL));
+        Assert.assertEquals(1, calls.get());
+
+        // The SKUs of the subscription are not specific to a region
+        cache.invalidate("westus");
+        Assert.assertEquals("{\"call\":1}", get(client, SKUS_URL));
+        cache.invalidate();
+        Assert.assertEquals("{\"call\":2}", get(client, SKUS_URL));
+    }
+
+    @Test
+    public void canReplayResponseHeaders() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ComputeCatalogCacheImpl cache = new ComputeCatalogCacheImpl();
+        OkHttpClient client = client(cache, calls);
+
+        Response first = client.newCall(new Request.Builder().url(SIZES_URL).build()).execute();
+        first.body().close();
+        Response cached = client.newCall(new Request.Builder().url(SIZES_URL).build()).execute();
+        Assert.assertEquals("{\"call\":1}", cached.body().string());
+        Assert.assertEquals(1, calls.get());
+        Assert.assertEquals("request-1", cached.header("x-ms-request-id"));
+        Assert.assertEquals(first.headers("x-ms-ratelimit-remaining-subscription-reads"),
+                cached.headers("x-ms-ratelimit-remaining-subscription-reads"));
+        Assert.assertEquals("application/json", cached.body().contentType().toString());
+        // The headers of the transfer of the original response are not replayed
+        Assert.assertNull(cached.header("Transfer-Encoding"));
+    }
+
+    @Test
+    public void canReplayResponseHeadersFromSnapshot() throws Exception {
+        File snapshot = File.createTempFile("catalog", ".json");
+        try {
+            snapshot.delete();
+            AtomicInteger calls = new AtomicInteger();
+            ComputeCatalogCacheImpl cache = new ComputeCatalogCacheImpl().withSnapshotFile(snapshot);
+            get(client(cache, calls), SIZES_URL);
+            cache.saveSnapshot();
+
+            ComputeCatalogCacheImpl restored = new ComputeCatalogCacheImpl().withSnapshotFile(snapshot);
+            Response cached = client(restored, calls).newCall(new Request.Builder().url(SIZES_URL).build()).execute();
+            cached.body().close();
+            Assert.assertEquals(1, calls.get());
+            Assert.assertEquals("request-1", cached.header("x-ms-request-id"));
+        } finally {
+            snapshot.delete();
+        }
+    }
+
+    @Test
+    public void canExpireEntries() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ComputeCatalogCacheImpl cache = new ComputeCatalogCacheImpl().withTimeToLive(0, TimeUnit.MILLISECONDS);
+        OkHttpClient client = client(cache, calls);
+        get(client, SIZES_URL);
+        Thread.sleep(5);
+        get(client, SIZES_URL);
+        Assert.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void canLoadSnapshot() throws Exception {
+        File snapshot = File.createTempFile("catalog", ".json");
+        try {
+            snapshot.delete();
+            AtomicInteger calls = new AtomicInteger();
+            ComputeCatalogCacheImpl cache = new ComputeCatalogCacheImpl().withSnapshotFile(snapshot);
+            get(client(cache, calls), SIZES_URL);
+            cache.saveSnapshot();
+
+            ComputeCatalogCacheImpl restored = new ComputeCatalogCacheImpl().withSnapshotFile(snapshot);
+            Assert.assertEquals(1, restored.size());
+            Assert.assertEquals("{\"call\":1}", get(client(restored, calls), SIZES_URL));
+            Assert.assertEquals(1, calls.get());
+        } finally {
+            snapshot.delete();
+        }
+    }
+
+    private static OkHttpClient client(ComputeCatalogCacheImpl cache, final AtomicInteger calls) {
+        return new OkHttpClient.Builder()
+                .addInterceptor(cache)
+                .addInterceptor(new Interceptor() {
+                    @Override
+                    public Response intercept(Chain chain) throws IOException {
+                        return new Response.Builder()
+                                .request(chain.request())
+                                .protocol(Protocol.HTTP_1_1)
+                                .code(200)
+                                .message("OK")
+                                .header("x-ms-request-id", "request-" + calls.incrementAndGet())
+                                .addHeader("x-ms-ratelimit-remaining-subscription-reads", "14999")
+                                .addHeader("x-ms-ratelimit-remaining-subscription-reads", "14998")
+                                .header("Transfer-Encoding", "chunked")
+                                .body(ResponseBody.create(MediaType.parse("application/json"),
+                                        "{\"call\":" + calls.get() + "}"))
+                                .build();
+                    }
+                })
+                .build();
+    }
+
+    private static String get(OkHttpClient client, String url) throws IOException {
+        return client.newCall(new Request.Builder().url(url).build()).execute().body().string();
+    }
+}
@@ -0,0 +1,257 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.compute.implementation;
+
+import com.microsoft.azure.CloudException;
+import com.microsoft.azure.management.compute.VirtualMachineImage;
+import com.microsoft.azure.management.compute.VirtualMachineImageCrawler;
+import com.microsoft.azure.management.resources.core.MockArmService;
+import okhttp3.Response;
+import org.junit.Assert;
+import org.junit.Test;
+import rx.functions.Action1;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class VirtualMachineImageCrawlerTests {
+    private static final String[] PUBLISHERS = {"P1", "P2", "P3"};
+    private static final int IMAGES_PER_PUBLISHER = 2 * 2 * 2;
+
+    @Test
+    public void canBoundConcurrencyPerLevel() {
+        ImageCatalog catalog = new ImageCatalog();
+        List<VirtualMachineImage> images = crawler(catalog)
+                .withConcurrency(1, 1, 1, 2)
+                .crawlAsync("westus")
+                .toList().toBlocking().single();
+
+        Assert.assertEquals(PUBLISHERS.length * IMAGES_PER_PUBLISHER, images.size());
+        Assert.assertEquals(1, catalog.maxInFlight("offers"));
+        Assert.assertEquals(1, catalog.maxInFlight("skus"));
+        Assert.assertEquals(1, catalog.maxInFlight("versions"));
+        Assert.assertEquals(2, catalog.maxInFlight("image"));
+
+        // The concurrency of a level bounds its requests across all the publishers
+        catalog = new ImageCatalog();
+        crawler(catalog)
+                .withConcurrency(3, 1, 1, 1)
+                .crawlAsync("westus")
+                .toList().toBlocking().single();
+        Assert.assertTrue(catalog.maxInFlight("offers") > 1);
+        Assert.assertEquals(1, catalog.maxInFlight("skus"));
+        Assert.assertEquals(1, catalog.maxInFlight("versions"));
+        Assert.assertEquals(1, catalog.maxInFlight("image"));
+        Assert.assertEquals(1, catalog.requestCount("publishers"));
+        Assert.assertEquals(PUBLISHERS.length * IMAGES_PER_PUBLISHER, catalog.requestCount("image"));
+    }
+
+    @Test
+    public void canEmitInCatalogOrder() {
+        // The first publisher is the slowest to enumerate
+        ImageCatalog catalog = new ImageCatalog().withSlowPublisher("P1");
+        List<VirtualMachineImage> ordered = crawler(catalog)
+                .withConcurrency(3, 2, 2, 2)
+                .withOrderedEmission()
+                .crawlAsync("westus")
+                .toList().toBlocking().single();
+        List<String> expected = new ArrayList<>();
+        for (String publisher : PUBLISHERS) {
+            for (String offer : new String[] {"O1", "O2"}) {
+                for (String sku : new String[] {"S1", "S2"}) {
+                    for (String version : new String[] {"1.0.0", "1.0.1"}) {
+                        expected.add(publisher + "/" + offer + "/" + sku + "/" + version);
+                    }
+                }
+            }
+        }
+        Assert.assertEquals(expected, namesOf(ordered));
+
+        List<VirtualMachineImage> unordered = crawler(new ImageCatalog().withSlowPublisher("P1"))
+                .withConcurrency(3, 2, 2, 2)
+                .crawlAsync("westus")
+                .toList().toBlocking().single();
+        Assert.assertEquals(expected.size(), unordered.size());
+        Assert.assertNotEquals("P1", unordered.get(0).publisherName());
+        Assert.assertEquals("P1", unordered.get(unordered.size() - 1).publisherName());
+    }
+
+    @Test
+    public void canReportProgress() {
+        final List<VirtualMachineImageCrawler.Progress> progress = Collections.synchronizedList(new ArrayList<VirtualMachineImageCrawler.Progress>());
+        crawler(new ImageCatalog())
+                .withConcurrency(1, 2, 2, 2)
+                .withProgressListener(new Action1<VirtualMachineImageCrawler.Progress>() {
+                    @Override
+                    public void call(VirtualMachineImageCrawler.Progress current) {
+                        progress.add(current);
+                    }
+                })
+                .crawlAsync("westus")
+                .toList().toBlocking().single();
+
+        // The publishers complete in any order, each once all its images are retrieved
+        Assert.assertEquals(PUBLISHERS.length, progress.size());
+        Set<String> publisherNames = new HashSet<>();
+        for (VirtualMachineImageCrawler.Progress current : progress) {
+            publisherNames.add(current.publisherName());
+            Assert.assertTrue(current.images() >= current.completedPublishers() * IMAGES_PER_PUBLISHER);
+            Assert.assertNull(current.error());
+        }
+        Assert.assertEquals(new HashSet<>(Arrays.asList(PUBLISHERS)), publisherNames);
+        VirtualMachineImageCrawler.Progress last = Collections.max(progress, new Comparator<VirtualMachineImageCrawler.Progress>() {
+            @Override
+            public int compare(VirtualMachineImageCrawler.Progress left, VirtualMachineImageCrawler.Progress right) {
+                return Integer.compare(left.completedPublishers(), right.completedPublishers());
+            }
+        });
+        Assert.assertEquals(PUBLISHERS.length, last.completedPublishers());
+        Assert.assertEquals(PUBLISHERS.length * IMAGES_PER_PUBLISHER, last.images());
+        Assert.assertEquals(PUBLISHERS.length, last.totalPublishers());
+    }
+
+    @Test
+    public void canIsolatePublisherFailure() {
+        final Map<String, Throwable> errors = new ConcurrentHashMap<>();
+        List<VirtualMachineImage> images = crawler(new ImageCatalog().withFailingPublisher("P2"))
+                .withFailureIsolation()
+                .withProgressListener(new Action1<VirtualMachineImageCrawler.Progress>() {
+                    @Override
+                    public void call(VirtualMachineImageCrawler.Progress current) {
+                        if (current.error() != null) {
+                            errors.put(current.publisherName(), current.error());
+                        }
+                    }
+                })
+                .crawlAsync("westus")
+                .toList().toBlocking().single();
+
+        Assert.assertEquals((PUBLISHERS.length - 1) * IMAGES_PER_PUBLISHER, images.size());
+        for (VirtualMachineImage image : images) {
+            Assert.assertNotEquals("P2", image.publisherName());
+        }
+        Assert.assertEquals(1, errors.size());
+        Assert.assertTrue(errors.get("P2") instanceof CloudException);
+    }
+
+    @Test(expected = CloudException.class)
+    public void canFailOnPublisherFailure() {
+        crawler(new ImageCatalog().withFailingPublisher("P2"))
+                .crawlAsync("westus")
+                .toList().toBlocking().single();
+    }
+
+    private static List<String> namesOf(List<VirtualMachineImage> images) {
+        List<String> names = new ArrayList<>();
+        for (VirtualMachineImage image : images) {
+            names.add(image.publisherName() + "/" + image.offer() + "/" + image.sku() + "/" + image.version());
+        }
+        return names;
+    }
+
+    private static VirtualMachineImageCrawler crawler(ImageCatalog catalog) {
+        return ComputeManager.authenticate(catalog.restClient(), "sub1")
+                .virtualMachineImages()
+                .crawler();
+    }
+
+    /**
+     * Serves a catalog of 3 publishers with 2 offers, 2 SKUs and 2 versions each, and records the
+     * maximum number of requests in flight for each level.
+     */
+    private static class ImageCatalog extends MockArmService {
+        private final ConcurrentMap<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, AtomicInteger> maxInFlight = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+        private String slowPublisher;
+        private String failingPublisher;
+
+        ImageCatalog withSlowPublisher(String publisher) {
+            this.slowPublisher = publisher;
+            return this;
+        }
+
+        ImageCatalog withFailingPublisher(String publisher) {
+            this.failingPublisher = publisher;
+            return this;
+        }
+
+        int maxInFlight(String level) {
+            AtomicInteger max = maxInFlight.get(level);
+            return max == null ? 0 : max.get();
+        }
+
+        int requestCount(String level) {
+            AtomicInteger count = requestCounts.get(level);
+            return count == null ? 0 : count.get();
+        }
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            // subscriptions/sub1/providers/Microsoft.Compute/locations/westus/publishers/P/artifacttypes/vmimage/offers/O/skus/S/versions/V
+            List<String> segments = chain.request().url().pathSegments();
+            String level = segments.size() == 16 ? "image" : segments.get(segments.size() - 1);
+            String publisher = segments.size() > 7 ? segments.get(7) : null;
+            counter(requestCounts, level).incrementAndGet();
+            int current = counter(inFlight, level).incrementAndGet();
+            AtomicInteger max = counter(maxInFlight, level);
+            synchronized (max) {
+                max.set(Math.max(max.get(), current));
+            }
+            try {
+                Thread.sleep(publisher != null && publisher.equals(slowPublisher) ? 100 : 10);
+                if (publisher != null && publisher.equals(failingPublisher) && level.equals("offers")) {
+                    return response(chain, 500, "{\"error\":{\"code\":\"InternalError\",\"message\":\"failed\"}}");
+                }
+                return response(chain, 200, body(level, segments));
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            } finally {
+                counter(inFlight, level).decrementAndGet();
+            }
+        }
+
+        private static String body(String level, List<String> segments) {
+            switch (level) {
+                case "publishers":
+                    return list(PUBLISHERS);
+                case "offers":
+                    return list("O1", "O2");
+                case "skus":
+                    return list("S1", "S2");
+                case "versions":
+                    return list("1.0.0", "1.0.1");
+                default:
+                    return "{\"name\":\"" + segments.get(15) + "\",\"location\":\"westus\",\"properties\":{}}";
+            }
+        }
+
+        private static String list(String... names) {
+            StringBuilder builder = new StringBuilder("[");
+            for (String name : names) {
+                builder.append(builder.length() > 1 ? "," : "")
+                        .append("{\"name\":\"").append(name).append("\",\"location\":\"westus\"}");
+            }
+            return builder.append("]").toString();
+        }
+
+        private static AtomicInteger counter(ConcurrentMap<String, AtomicInteger> counters, String level) {
+            counters.putIfAbsent(level, new AtomicInteger());
+            return counters.get(level);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.compute.implementation;
+
+import com.microsoft.azure.CloudException;
+import com.microsoft.azure.management.compute.VirtualMachineScaleSetBulkOperation;
+import com.microsoft.azure.management.compute.VirtualMachineScaleSetInstanceOperation;
+import com.microsoft.azure.management.compute.VirtualMachineScaleSetVMInstanceIDs;
+import com.microsoft.azure.management.resources.core.MockArmService;
+import com.microsoft.azure.serializer.AzureJacksonAdapter;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Buffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class VirtualMachineScaleSetBulkOperationTests {
+
+    @Test
+    public void canSplitInstancesIntoChunks() {
+        ScaleSetService service = new ScaleSetService(10);
+        List<VirtualMachineScaleSetBulkOperation.Chunk> chunks = bulkOperation(service, VirtualMachineScaleSetInstanceOperation.RESTART)
+                .withChunkSize(3)
+                .executeAsync("0", "1", "2", "3", "4", "5", "6")
+                .toList().toBlocking().single();
+
+        Assert.assertEquals(3, chunks.size());
+        Assert.assertEquals(Arrays.asList("0", "1", "2"), chunks.get(0).instanceIds());
+        Assert.assertEquals(Arrays.asList("3", "4", "5"), chunks.get(1).instanceIds());
+        Assert.assertEquals(Collections.singletonList("6"), chunks.get(2).instanceIds());
+        for (int i = 0; i < chunks.size(); i++) {
+            Assert.assertEquals(i, chunks.get(i).index());
+            Assert.assertEquals(3, chunks.get(i).chunkCount());
+            Assert.assertEquals("Succeeded", chunks.get(i).status());
+        }
+        // One chunk in flight by default, submitted in the order of the instance ids
+        Assert.assertEquals(1, service.maxInFlightChunks());
+        Assert.assertEquals(Arrays.asList("restart", "restart", "restart"), service.operations());
+        Assert.assertEquals(Arrays.asList(Arrays.asList("0", "1", "2"), Arrays.asList("3", "4", "5"),
+                Collections.singletonList("6")), service.submittedInstanceIds());
+
+        Assert.assertTrue(bulkOperation(service, VirtualMachineScaleSetInstanceOperation.RESTART)
+                .executeAsync(new ArrayList<String>())
+                .toList().toBlocking().single().isEmpty());
+    }
+
+    @Test
+    public void canBoundChunksInFlight() {
+        ScaleSetService service = new ScaleSetService(10);
+        List<VirtualMachineScaleSetBulkOperation.Chunk> chunks = bulkOperation(service, VirtualMachineScaleSetInstanceOperation.DEALLOCATE)
+                .withChunkSize(1)
+                .withConcurrency(3)
+                .executeAsync("0", "1", "2", "3", "4", "5", "6", "7", "8")
+                .toList().toBlocking().single();
+
+        Assert.assertEquals(9, chunks.size());
+        Assert.assertEquals(3, service.maxInFlightChunks());
+        Assert.assertEquals("deallocate", service.operations().get(0));
+    }
+
+    @Test
+    public void canLimitInstancesInFlightToCapacityPercentage() {
+        // 40% of a capacity of 10 is 4 instances in flight, 2 chunks of 2
+        ScaleSetService service = new ScaleSetService(10);
+        List<VirtualMachineScaleSetBulkOperation.Chunk> chunks = bulkOperation(service, VirtualMachineScaleSetInstanceOperation.UPDATE)
+                .withChunkSize(2)
+                .withConcurrency(5)
+                .withMaxInFlightPercentage(40)
+                .executeAsync("0", "1", "2", "3", "4", "5", "6", "7", "8", "9")
+                .toList().toBlocking().single();
+        Assert.assertEquals(5, chunks.size());
+        Assert.assertEquals(2, service.maxInFlightChunks());
+        Assert.assertEquals(4, service.maxInFlightInstances());
+
+        // 30% of a capacity of 10 is 3 instances, chunks of 2 leave room for a single chunk in flight
+        service = new ScaleSetService(10);
+        bulkOperation(service, VirtualMachineScaleSetInstanceOperation.UPDATE)
+                .withChunkSize(2)
+                .withConcurrency(5)
+                .withMaxInFlightPercentage(30)
+                .executeAsync("0", "1", "2", "3", "4", "5")
+                .toList().toBlocking().single();
+        Assert.assertEquals(1, service.maxInFlightChunks());
+        Assert.assertEquals(2, service.maxInFlightInstances());
+
+        // The chunk size is reduced to the instances allowed in flight, 50% of 10 is 5
+        service = new ScaleSetService(10);
+        chunks = bulkOperation(service, VirtualMachineScaleSetInstanceOperation.UPDATE)
+                .withMaxInFlightPercentage(50)
+                .executeAsync("0", "1", "2", "3", "4", "5", "6")
+                .toList().toBlocking().single();
+        Assert.assertEquals(2, chunks.size());
+        Assert.assertEquals(5, chunks.get(0).instanceIds().size());
+        Assert.assertEquals(2, chunks.get(1).instanceIds().size());
+
+        // The share of a small capacity is rounded down, but at least one instance is in flight
+        service = new ScaleSetService(3);
+        chunks = bulkOperation(service, VirtualMachineScaleSetInstanceOperation.UPDATE)
+                .withConcurrency(4)
+                .withMaxInFlightPercentage(10)
+                .executeAsync("0", "1", "2")
+                .toList().toBlocking().single();
+        Assert.assertEquals(3, chunks.size());
+        Assert.assertEquals(1, service.maxInFlightInstances());
+    }
+
+    @Test
+    public void canStopOnFailedChunk() {
+        ScaleSetService service = new ScaleSetService(10).withFailingInstance("3");
+        final List<VirtualMachineScaleSetBulkOperation.Chunk> completed = new ArrayList<>();
+        try {
+            for (VirtualMachineScaleSetBulkOperation.Chunk chunk : bulkOperation(service, VirtualMachineScaleSetInstanceOperation.POWER_OFF)
+                    .withChunkSize(2)
+                    .executeAsync("0", "1", "2", "3", "4", "5", "6", "7")
+                    .toBlocking().toIterable()) {
+                completed.add(chunk);
+            }
+            Assert.fail("Expected the bulk operation to fail");
+        } catch (CloudException e) {
+            Assert.assertEquals(500, e.response().code());
+        }
+        // The failed chunk is the second one, no chunk is started after it
+        Assert.assertEquals(1, completed.size());
+        Assert.assertEquals(2, service.submittedInstanceIds().size());
+    }
+
+    private static VirtualMachineScaleSetBulkOperation bulkOperation(ScaleSetService service,
+                                                                     VirtualMachineScaleSetInstanceOperation operation) {
+        VirtualMachineScaleSetImpl scaleSet = (VirtualMachineScaleSetImpl) ComputeManager.authenticate(service.restClient(), "sub1")
+                .virtualMachineScaleSets()
+                .getByResourceGroup("rg1", "vmss1");
+        return scaleSet.virtualMachines().bulkOperation(operation);
+    }
+
+    /**
+     * Serves a scale set of the given capacity and its instance operations, and records the chunks
+     * and instances in flight.
+     */
+    private static class ScaleSetService extends MockArmService {
+        private final AzureJacksonAdapter adapter = new AzureJacksonAdapter();
+        private final int capacity;
+        private final List<String> operations = Collections.synchronizedList(new ArrayList<String>());
+        private final List<List<String>> submittedInstanceIds = Collections.synchronizedList(new ArrayList<List<String>>());
+        private final AtomicInteger inFlightChunks = new AtomicInteger();
+        private final AtomicInteger inFlightInstances = new AtomicInteger();
+        private int maxInFlightChunks;
+        private int maxInFlightInstances;
+        private String failingInstance;
+
+        ScaleSetService(int capacity) {
+            this.capacity = capacity;
+        }
+
+        ScaleSetService withFailingInstance(String instanceId) {
+            this.failingInstance = instanceId;
+            return this;
+        }
+
+        List<String> operations() {
+            return new ArrayList<>(operations);
+        }
+
+        List<List<String>> submittedInstanceIds() {
+            return new ArrayList<>(submittedInstanceIds);
+        }
+
+        synchronized int maxInFlightChunks() {
+            return maxInFlightChunks;
+        }
+
+        synchronized int maxInFlightInstances() {
+            return maxInFlightInstances;
+        }
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Request request = chain.request();
+            List<String> segments = request.url().pathSegments();
+            if (request.method().equals("GET")) {
+                return response(chain, 200, "{\"id\":\"/subscriptions/sub1/resourceGroups/rg1/providers/Microsoft.Compute/virtualMachineScaleSets/vmss1\","
+                        + "\"name\":\"vmss1\",\"location\":\"westus\",\"sku\":{\"name\":\"Standard_A0\",\"capacity\":" + capacity + "},"
+                        + "\"properties\":{\"virtualMachineProfile\":{}}}");
+            }
+            Buffer buffer = new Buffer();
+            request.body().writeTo(buffer);
+            List<String> instanceIds = adapter.deserialize(buffer.readUtf8(), VirtualMachineScaleSetVMInstanceIDs.class).instanceIds();
+            operations.add(segments.get(segments.size() - 1));
+            submittedInstanceIds.add(instanceIds);
+            int chunks = inFlightChunks.incrementAndGet();
+            int instances = inFlightInstances.addAndGet(instanceIds.size());
+            synchronized (this) {
+                maxInFlightChunks = Math.max(maxInFlightChunks, chunks);
+                maxInFlightInstances = Math.max(maxInFlightInstances, instances);
+            }
+            try {
+                Thread.sleep(50);
+                if (instanceIds.contains(failingInstance)) {
+                    return response(chain, 500, "{\"error\":{\"code\":\"InternalError\",\"message\":\"failed\"}}");
+                }
+                return response(chain, 200, "{\"status\":\"Succeeded\"}");
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            } finally {
+                inFlightInstances.addAndGet(-instanceIds.size());
+                inFlightChunks.decrementAndGet();
+            }
+        }
+    }
+}
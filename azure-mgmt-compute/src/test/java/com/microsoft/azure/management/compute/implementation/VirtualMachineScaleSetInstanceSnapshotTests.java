@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.compute.implementation;
+
+import com.microsoft.azure.management.compute.PowerState;
+import com.microsoft.azure.management.compute.VirtualMachineScaleSetInstanceSnapshot;
+import com.microsoft.azure.serializer.AzureJacksonAdapter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class VirtualMachineScaleSetInstanceSnapshotTests {
+    private final AzureJacksonAdapter adapter = new AzureJacksonAdapter();
+
+    @Test
+    public void canBuildSnapshotFromPages() throws Exception {
+        List<VirtualMachineScaleSetVMInner> firstPage = new ArrayList<>();
+        firstPage.add(instance("10", "PowerState/running", "Succeeded", true));
+        firstPage.add(instance("2", "PowerState/deallocated", "Succeeded", false));
+        List<VirtualMachineScaleSetVMInner> secondPage = new ArrayList<>();
+        secondPage.add(instance("1", "PowerState/running", "Updating", true));
+
+        VirtualMachineScaleSetInstanceSnapshot snapshot = new VirtualMachineScaleSetInstanceSnapshotImpl.Builder()
+                .withInstances(firstPage)
+                .withInstances(secondPage)
+                .build();
+
+        Assert.assertEquals(3, snapshot.size());
+        // Instances are ordered by numeric instance id
+        Assert.assertEquals("1", snapshot.instanceId(0));
+        Assert.assertEquals("2", snapshot.instanceId(1));
+        Assert.assertEquals("10", snapshot.instanceId(2));
+
+        int index = snapshot.indexOf("2");
+        Assert.assertEquals(1, index);
+        Assert.assertEquals(PowerState.DEALLOCATED, snapshot.powerState(index));
+        Assert.assertEquals("Succeeded", snapshot.provisioningState(index));
+        Assert.assertFalse(snapshot.isLatestModelApplied(index));
+        Assert.assertEquals("Updating", snapshot.provisioningState(snapshot.indexOf("1")));
+        Assert.assertTrue(snapshot.indexOf("3") < 0);
+
+        Assert.assertEquals(2, snapshot.count(PowerState.RUNNING));
+        Assert.assertEquals(0, snapshot.count(PowerState.STOPPED));
+    }
+
+    private VirtualMachineScaleSetVMInner instance(String instanceId, String powerState, String provisioningState, boolean latestModelApplied) throws Exception {
+        String json = "{\"instanceId\":\"" + instanceId + "\",\"properties\":{"
+                + "\"latestModelApplied\":" + latestModelApplied + ","
+                + "\"provisioningState\":\"" + provisioningState + "\","
+                + "\"instanceView\":{\"statuses\":[{\"code\":\"ProvisioningState/succeeded\"},{\"code\":\"" + powerState + "\"}]}}}";
+        return adapter.deserialize(json, VirtualMachineScaleSetVMInner.class);
+    }
+}
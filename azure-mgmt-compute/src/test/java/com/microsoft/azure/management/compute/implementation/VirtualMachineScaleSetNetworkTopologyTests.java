@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.compute.implementation;
+
+import com.microsoft.azure.CloudException;
+import com.microsoft.azure.management.compute.VirtualMachineScaleSetNetworkTopology;
+import com.microsoft.azure.management.resources.core.MockArmService;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class VirtualMachineScaleSetNetworkTopologyTests {
+    private static final String NETWORK_PROVIDER = "/subscriptions/sub1/resourceGroups/rg1/providers/Microsoft.Network";
+    private static final String SUBNET_ID = NETWORK_PROVIDER + "/virtualNetworks/vnet1/subnets/subnet1";
+    private static final String PUBLIC_LB_ID = NETWORK_PROVIDER + "/loadBalancers/lb1";
+    private static final String INTERNAL_LB_ID = NETWORK_PROVIDER + "/loadBalancers/lb2";
+
+    @Test
+    public void canResolveTopologyConcurrently() {
+        NetworkService service = new NetworkService();
+        VirtualMachineScaleSetNetworkTopology topology = scaleSet(service).resolveNetworkTopologyAsync().toBlocking().last();
+
+        Assert.assertEquals("vnet1", topology.primaryNetwork().name());
+        Assert.assertEquals("lb1", topology.primaryInternetFacingLoadBalancer().name());
+        Assert.assertEquals("lb2", topology.primaryInternalLoadBalancer().name());
+        // The virtual network and both load balancers are in flight together
+        Assert.assertEquals(3, service.maxInFlight());
+    }
+
+    @Test
+    public void canReuseTopologyWhileReferencesAreUnchanged() {
+        NetworkService service = new NetworkService();
+        VirtualMachineScaleSetImpl scaleSet = scaleSet(service);
+
+        VirtualMachineScaleSetNetworkTopology first = scaleSet.resolveNetworkTopologyAsync().toBlocking().last();
+        VirtualMachineScaleSetNetworkTopology second = scaleSet.resolveNetworkTopologyAsync().toBlocking().last();
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, service.requestCount("vnet1"));
+        Assert.assertEquals(1, service.requestCount("lb1"));
+        Assert.assertEquals(1, service.requestCount("lb2"));
+
+        // Removing the reference to the internal load balancer changes the key of the topology
+        scaleSet.inner().virtualMachineProfile().networkProfile().networkInterfaceConfigurations().get(0)
+                .ipConfigurations().get(0).loadBalancerBackendAddressPools().remove(1);
+        VirtualMachineScaleSetNetworkTopology third = scaleSet.resolveNetworkTopologyAsync().toBlocking().last();
+        Assert.assertNotSame(first, third);
+        Assert.assertNull(third.primaryInternalLoadBalancer());
+        Assert.assertEquals(2, service.requestCount("vnet1"));
+        Assert.assertEquals(2, service.requestCount("lb1"));
+        Assert.assertEquals(1, service.requestCount("lb2"));
+
+        // A refresh drops the topology
+        scaleSet.refresh();
+        scaleSet.resolveNetworkTopologyAsync().toBlocking().last();
+        Assert.assertEquals(3, service.requestCount("vnet1"));
+    }
+
+    @Test
+    public void canRetryFailedResolution() {
+        NetworkService service = new NetworkService().withFailingRequests("vnet1", 1);
+        VirtualMachineScaleSetImpl scaleSet = scaleSet(service);
+
+        try {
+            scaleSet.resolveNetworkTopologyAsync().toBlocking().last();
+            Assert.fail("Expected the resolution to fail");
+        } catch (CloudException e) {
+            Assert.assertEquals(500, e.response().code());
+        }
+        // The failed resolution is not memoised
+        VirtualMachineScaleSetNetworkTopology topology = scaleSet.resolveNetworkTopologyAsync().toBlocking().last();
+        Assert.assertEquals("vnet1", topology.primaryNetwork().name());
+        Assert.assertEquals(2, service.requestCount("vnet1"));
+        Assert.assertSame(topology, scaleSet.resolveNetworkTopologyAsync().toBlocking().last());
+    }
+
+    @Test
+    public void canGetPrimaryResourcesFromTopology() throws Exception {
+        NetworkService service = new NetworkService();
+        VirtualMachineScaleSetImpl scaleSet = scaleSet(service);
+
+        // The getters share the resolved topology
+        Assert.assertEquals("lb1", scaleSet.getPrimaryInternetFacingLoadBalancer().name());
+        Assert.assertEquals("lb2", scaleSet.getPrimaryInternalLoadBalancer().name());
+        Assert.assertEquals("vnet1", scaleSet.getPrimaryNetwork().name());
+        Assert.assertEquals("vnet1", scaleSet.getPrimaryNetwork().name());
+        Assert.assertTrue(scaleSet.listPrimaryInternetFacingLoadBalancerBackends().containsKey("pool1"));
+        Assert.assertTrue(scaleSet.listPrimaryInternetFacingLoadBalancerInboundNatPools().containsKey("nat1"));
+        Assert.assertTrue(scaleSet.listPrimaryInternalLoadBalancerBackends().containsKey("pool2"));
+        Assert.assertEquals(1, service.requestCount("vnet1"));
+        Assert.assertEquals(1, service.requestCount("lb1"));
+        Assert.assertEquals(1, service.requestCount("lb2"));
+        Assert.assertEquals(3, service.maxInFlight());
+        Assert.assertSame(scaleSet.getPrimaryNetwork(), scaleSet.resolveNetworkTopologyAsync().toBlocking().last().primaryNetwork());
+    }
+
+    private static VirtualMachineScaleSetImpl scaleSet(NetworkService service) {
+        return (VirtualMachineScaleSetImpl) ComputeManager.authenticate(service.restClient(), "sub1")
+                .virtualMachineScaleSets()
+                .getByResourceGroup("rg1", "vmss1");
+    }
+
+    /**
+     * Serves a scale set whose primary IP configuration references a subnet of vnet1, the Internet-facing
+     * load balancer lb1 and the internal load balancer lb2, and records the network requests in flight.
+     */
+    private static class NetworkService extends MockArmService {
+        private final ConcurrentMap<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private String failingResource;
+        private int failureCount;
+
+        NetworkService withFailingRequests(String name, int count) {
+            this.failingResource = name;
+            this.failureCount = count;
+            return this;
+        }
+
+        int requestCount(String name) {
+            AtomicInteger count = requestCounts.get(name);
+            return count == null ? 0 : count.get();
+        }
+
+        int maxInFlight() {
+            return maxInFlight.get();
+        }
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Request request = chain.request();
+            List<String> segments = request.url().pathSegments();
+            String type = segments.get(segments.size() - 2);
+            String name = segments.get(segments.size() - 1);
+            if (type.equals("virtualMachineScaleSets")) {
+                return response(chain, 200, scaleSet());
+            }
+            requestCounts.putIfAbsent(name, new AtomicInteger());
+            int count = requestCounts.get(name).incrementAndGet();
+            int current = inFlight.incrementAndGet();
+            synchronized (maxInFlight) {
+                maxInFlight.set(Math.max(maxInFlight.get(), current));
+            }
+            try {
+                Thread.sleep(50);
+                if (name.equals(failingResource) && count <= failureCount) {
+                    return response(chain, 500, "{\"error\":{\"code\":\"InternalError\",\"message\":\"failed\"}}");
+                }
+                return response(chain, 200, type.equals("virtualNetworks") ? network(name) : loadBalancer(name));
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        private static String scaleSet() {
+            return "{\"id\":\"/subscriptions/sub1/resourceGroups/rg1/providers/Microsoft.Compute/virtualMachineScaleSets/vmss1\","
+                    + "\"name\":\"vmss1\",\"location\":\"westus\",\"sku\":{\"name\":\"Standard_A0\",\"capacity\":2},"
+                    + "\"properties\":{\"virtualMachineProfile\":{\"networkProfile\":{\"networkInterfaceConfigurations\":["
+                    + "{\"name\":\"primary-nic-cfg\",\"properties\":{\"primary\":true,\"ipConfigurations\":["
+                    + "{\"name\":\"primary-nic-ip-cfg\",\"properties\":{\"subnet\":{\"id\":\"" + SUBNET_ID + "\"},"
+                    + "\"loadBalancerBackendAddressPools\":[{\"id\":\"" + PUBLIC_LB_ID + "/backendAddressPools/pool1\"},"
+                    + "{\"id\":\"" + INTERNAL_LB_ID + "/backendAddressPools/pool2\"}],"
+                    + "\"loadBalancerInboundNatPools\":[{\"id\":\"" + PUBLIC_LB_ID + "/inboundNatPools/nat1\"}]}}]}}]}}}}";
+        }
+
+        private static String network(String name) {
+            return "{\"id\":\"" + NETWORK_PROVIDER + "/virtualNetworks/" + name + "\",\"name\":\"" + name + "\","
+                    + "\"location\":\"westus\",\"properties\":{\"addressSpace\":{\"addressPrefixes\":[\"10.0.0.0/16\"]},"
+                    + "\"subnets\":[{\"id\":\"" + SUBNET_ID + "\",\"name\":\"subnet1\",\"properties\":{\"addressPrefix\":\"10.0.0.0/24\"}}]}}";
+        }
+
+        private static String loadBalancer(String name) {
+            String frontend = name.equals("lb1")
+                    ? "\"publicIPAddress\":{\"id\":\"" + NETWORK_PROVIDER + "/publicIPAddresses/pip1\"}"
+                    : "\"subnet\":{\"id\":\"" + SUBNET_ID + "\"}";
+            String id = NETWORK_PROVIDER + "/loadBalancers/" + name;
+            String pools = name.equals("lb1")
+                    ? "\"backendAddressPools\":[{\"id\":\"" + id + "/backendAddressPools/pool1\",\"name\":\"pool1\"}],"
+                        + "\"inboundNatPools\":[{\"id\":\"" + id + "/inboundNatPools/nat1\",\"name\":\"nat1\"}]"
+                    : "\"backendAddressPools\":[{\"id\":\"" + id + "/backendAddressPools/pool2\",\"name\":\"pool2\"}]";
+            return "{\"id\":\"" + id + "\",\"name\":\"" + name + "\","
+                    + "\"location\":\"westus\",\"properties\":{\"frontendIPConfigurations\":["
+                    + "{\"name\":\"frontend1\",\"properties\":{" + frontend + "}}]," + pools + "}}";
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.consumption;
+
+import com.microsoft.azure.management.apigeneration.Beta;
+import com.microsoft.azure.management.apigeneration.Beta.SinceVersion;
+import com.microsoft.azure.management.apigeneration.Fluent;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * The usage and cost rolled up for a group of usage details.
+ */
+@Fluent
+@Beta(SinceVersion.V1_4_0)
+public interface UsageCost {
+    /**
+     * @return the values of the grouping keys of the group, in the order the keys were specified,
+     * null for the usage details with no value for a key
+     */
+    List<String> keys();
+
+    /**
+     * @return the currency of the costs, usage details in different currencies are never grouped together
+     */
+    String currency();
+
+    /**
+     * @return the total pre-tax cost
+     */
+    BigDecimal pretaxCost();
+
+    /**
+     * @return the total usage quantity
+     */
+    BigDecimal usageQuantity();
+
+    /**
+     * @return the total billable quantity
+     */
+    BigDecimal billableQuantity();
+
+    /**
+     * @return the number of usage details in the group
+     */
+    long usageCount();
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.consumption;
+
+import com.microsoft.azure.management.apigeneration.Beta;
+import com.microsoft.azure.management.apigeneration.Beta.SinceVersion;
+import com.microsoft.azure.management.apigeneration.Fluent;
+import rx.Observable;
+
+import java.io.File;
+
+/**
+ * Rolls up the usage details of a scope into costs per group, consuming the pages of usage details
+ * as they arrive.
+ * <p>
+ * Quantities and costs are summed as longs scaled to 8 decimal places. The number of groups held in
+ * memory is bounded, once the bound is reached the partial aggregates are spilled to sorted files that
+ * are merged when the last page has been consumed.
+ */
+@Fluent
+@Beta(SinceVersion.V1_4_0)
+public interface UsageCostAggregator {
+    /**
+     * Specifies the keys the costs are grouped by, the costs are rolled up per currency only by default.
+     *
+     * @param keys the grouping keys
+     * @return the aggregator
+     */
+    UsageCostAggregator withGrouping(UsageGroupingKey... keys);
+
+    /**
+     * Specifies the filter applied to the usage details by the service, e.g.
+     * properties/usageEnd ge '2017-10-01' and properties/usageEnd le '2017-10-31'.
+     *
+     * @param filter the filter
+     * @return the aggregator
+     */
+    UsageCostAggregator withFilter(String filter);
+
+    /**
+     * Specifies the maximum number of groups held in memory before they are spilled to disk, 100000 by default.
+     *
+     * @param maxGroups the maximum number of groups
+     * @return the aggregator
+     */
+    UsageCostAggregator withMaxGroupsInMemory(int maxGroups);
+
+    /**
+     * Specifies the directory the partial aggregates are spilled to, the default temporary directory
+     * by default.
+     *
+     * @param directory the directory
+     * @return the aggregator
+     */
+    UsageCostAggregator withSpillDirectory(File directory);
+
+    /**
+     * Aggregates the usage details of a scope.
+     *
+     * @param scope the scope of the usage details, e.g. /subscriptions/{subscriptionId}/providers/Microsoft.Billing/billingPeriods/{billingPeriodName}
+     * @return an observable that emits the cost of each group once all the usage details have been consumed,
+     * in the order of the group keys
+     */
+    Observable<UsageCost> aggregateAsync(String scope);
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.consumption;
+
+import com.microsoft.azure.management.apigeneration.Beta;
+import com.microsoft.azure.management.apigeneration.Beta.SinceVersion;
+import com.microsoft.azure.management.consumption.implementation.UsageDetailInner;
+import org.joda.time.DateTimeZone;
+
+/**
+ * A property of a usage detail the costs are grouped by.
+ */
+@Beta(SinceVersion.V1_4_0)
+public abstract class UsageGroupingKey {
+    /** Groups by meter id. */
+    public static final UsageGroupingKey METER = new UsageGroupingKey("meter") {
+        @Override
+        public String valueOf(UsageDetailInner usage) {
+            return usage.meterId();
+        }
+    };
+
+    /** Groups by the id of the instance that was used. */
+    public static final UsageGroupingKey INSTANCE = new UsageGroupingKey("instance") {
+        @Override
+        public String valueOf(UsageDetailInner usage) {
+            return usage.instanceId();
+        }
+    };
+
+    /** Groups by the resource group of the instance that was used, case insensitively. */
+    public static final UsageGroupingKey RESOURCE_GROUP = new UsageGroupingKey("resourceGroup") {
+        @Override
+        public String valueOf(UsageDetailInner usage) {
+            String instanceId = usage.instanceId();
+            if (instanceId == null) {
+                return null;
+            }
+            String lowerCaseId = instanceId.toLowerCase();
+            int start = lowerCaseId.indexOf("/resourcegroups/");
+            if (start < 0) {
+                return null;
+            }
+            start += "/resourcegroups/".length();
+            int end = lowerCaseId.indexOf('/', start);
+            return lowerCaseId.substring(start, end < 0 ? lowerCaseId.length() : end);
+        }
+    };
+
+    /** Groups by the UTC day the usage started, as yyyy-MM-dd. */
+    public static final UsageGroupingKey DAY = new UsageGroupingKey("day") {
+        @Override
+        public String valueOf(UsageDetailInner usage) {
+            return usage.usageStart() == null
+                    ? null
+                    : usage.usageStart().withZone(DateTimeZone.UTC).toLocalDate().toString();
+        }
+    };
+
+    private final String name;
+
+    private UsageGroupingKey(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Groups by the value of a tag of the instance that was used.
+     *
+     * @param tagName the name of the tag
+     * @return the grouping key
+     */
+    public static UsageGroupingKey tag(final String tagName) {
+        return new UsageGroupingKey("tag:" + tagName) {
+            @Override
+            public String valueOf(UsageDetailInner usage) {
+                return usage.getTags() == null ? null : usage.getTags().get(tagName);
+            }
+        };
+    }
+
+    /**
+     * @param usage the usage detail
+     * @return the value of the key for the usage detail, null if it has none
+     */
+    public abstract String valueOf(UsageDetailInner usage);
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
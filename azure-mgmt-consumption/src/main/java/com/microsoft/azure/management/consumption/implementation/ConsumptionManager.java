@@ -8,12 +8,13 @@
 package com.microsoft.azure.management.consumption.implementation;
 
 import com.microsoft.azure.AzureEnvironment;
-import com.microsoft.azure.AzureResponseBuilder;
 import com.microsoft.azure.credentials.AzureTokenCredentials;
 import com.microsoft.azure.management.apigeneration.Beta;
+import com.microsoft.azure.management.consumption.UsageCostAggregator;
 import com.microsoft.azure.management.resources.fluentcore.arm.AzureConfigurable;
 import com.microsoft.azure.management.resources.fluentcore.arm.implementation.AzureConfigurableImpl;
 import com.microsoft.azure.management.resources.fluentcore.arm.implementation.Manager;
+import com.microsoft.azure.management.resources.fluentcore.utils.CachedResponseBuilderFactory;
 import com.microsoft.azure.management.resources.fluentcore.utils.ProviderRegistrationInterceptor;
 import com.microsoft.azure.management.resources.fluentcore.utils.ResourceManagerThrottlingInterceptor;
 import com.microsoft.azure.serializer.AzureJacksonAdapter;
@@ -44,7 +45,7 @@ public final class ConsumptionManager extends Manager<ConsumptionManager, Consum
                 .withBaseUrl(credentials.environment(), AzureEnvironment.Endpoint.RESOURCE_MANAGER)
                 .withCredentials(credentials)
                 .withSerializerAdapter(new AzureJacksonAdapter())
-                .withResponseBuilderFactory(new AzureResponseBuilder.Factory())
+                .withResponseBuilderFactory(new CachedResponseBuilderFactory())
                 .withInterceptor(new ProviderRegistrationInterceptor(credentials))
                 .withInterceptor(new ResourceManagerThrottlingInterceptor())
                 .build(), subscriptionId);
@@ -80,6 +81,14 @@ public final class ConsumptionManager extends Manager<ConsumptionManager, Consum
            return ConsumptionManager.authenticate(buildRestClient(credentials), subscriptionId);
         }
      }
+    /**
+     * @return a new aggregator rolling up the costs of usage details
+     */
+    @Beta(Beta.SinceVersion.V1_4_0)
+    public UsageCostAggregator usageCostAggregator() {
+        return new UsageCostAggregatorImpl(this.inner().usageDetails());
+    }
+
     private ConsumptionManager(RestClient restClient, String subscriptionId) {
         super(
             restClient,
@@ -0,0 +1,412 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.consumption.implementation;
+
+import com.microsoft.azure.Page;
+import com.microsoft.azure.management.apigeneration.LangDefinition;
+import com.microsoft.azure.management.consumption.UsageCost;
+import com.microsoft.azure.management.consumption.UsageCostAggregator;
+import com.microsoft.azure.management.consumption.UsageGroupingKey;
+import rx.Observable;
+import rx.exceptions.Exceptions;
+import rx.functions.Action1;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.functions.Func2;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * The implementation for {@link UsageCostAggregator}.
+ */
+@LangDefinition
+class UsageCostAggregatorImpl implements UsageCostAggregator {
+    // The number of decimal places the quantities and costs are scaled to
+    private static final int SCALE = 8;
+    // The values of a group key are joined with a separator, and an absent value has a marker of its own
+    private static final char SEPARATOR = '\u0000';
+    private static final String ABSENT = "\u0001";
+    // The sums of a group
+    private static final int PRETAX_COST = 0;
+    private static final int USAGE_QUANTITY = 1;
+    private static final int BILLABLE_QUANTITY = 2;
+    private static final int USAGE_COUNT = 3;
+    private static final int SUMS = 4;
+
+    private final UsageDetailsInner client;
+    private UsageGroupingKey[] keys = new UsageGroupingKey[0];
+    private String filter;
+    private int maxGroups = 100000;
+    private File spillDirectory;
+
+    UsageCostAggregatorImpl(UsageDetailsInner client) {
+        this.client = client;
+    }
+
+    @Override
+    public UsageCostAggregatorImpl withGrouping(UsageGroupingKey... keys) {
+        this.keys = keys == null ? new UsageGroupingKey[0] : Arrays.copyOf(keys, keys.length);
+        return this;
+    }
+
+    @Override
+    public UsageCostAggregatorImpl withFilter(String filter) {
+        this.filter = filter;
+        return this;
+    }
+
+    @Override
+    public UsageCostAggregatorImpl withMaxGroupsInMemory(int maxGroups) {
+        this.maxGroups = Math.max(1, maxGroups);
+        return this;
+    }
+
+    @Override
+    public UsageCostAggregatorImpl withSpillDirectory(File directory) {
+        this.spillDirectory = directory;
+        return this;
+    }
+
+    @Override
+    public Observable<UsageCost> aggregateAsync(final String scope) {
+        final UsageGroupingKey[] keys = this.keys;
+        final String filter = this.filter;
+        final int maxGroups = this.maxGroups;
+        final File spillDirectory = this.spillDirectory;
+        return Observable.using(new Func0<Aggregation>() {
+            @Override
+            public Aggregation call() {
+                return new Aggregation(keys, maxGroups, spillDirectory);
+            }
+        }, new Func1<Aggregation, Observable<UsageCost>>() {
+            @Override
+            public Observable<UsageCost> call(final Aggregation aggregation) {
+                return client.listAsync(scope, null, filter, null, null)
+                        .reduce(aggregation, new Func2<Aggregation, Page<UsageDetailInner>, Aggregation>() {
+                            @Override
+                            public Aggregation call(Aggregation current, Page<UsageDetailInner> page) {
+                                // Each page is folded in as it arrives, the usage details are not retained
+                                try {
+                                    return current.add(page.items());
+                                } catch (IOException e) {
+                                    throw Exceptions.propagate(e);
+                                }
+                            }
+                        })
+                        .flatMap(new Func1<Aggregation, Observable<UsageCost>>() {
+                            @Override
+                            public Observable<UsageCost> call(Aggregation current) {
+                                try {
+                                    return Observable.from(current.results());
+                                } catch (IOException e) {
+                                    return Observable.error(e);
+                                }
+                            }
+                        });
+            }
+        }, new Action1<Aggregation>() {
+            @Override
+            public void call(Aggregation aggregation) {
+                aggregation.close();
+            }
+        });
+    }
+
+    private static long scaled(BigDecimal value) {
+        return value == null ? 0 : value.movePointRight(SCALE).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+    }
+
+    private static long add(long left, long right) {
+        long sum = left + right;
+        if (((left ^ sum) & (right ^ sum)) < 0) {
+            throw new ArithmeticException("Aggregated usage cost overflows the scaled long range.");
+        }
+        return sum;
+    }
+
+    private static void add(long[] sums, long[] values) {
+        for (int i = 0; i < SUMS; i++) {
+            sums[i] = add(sums[i], values[i]);
+        }
+    }
+
+    /**
+     * The state of an aggregation, the groups in memory and the runs of groups spilled to disk.
+     */
+    private static class Aggregation {
+        private final UsageGroupingKey[] keys;
+        private final int maxGroups;
+        private final File spillDirectory;
+        private final Map<String, long[]> groups = new HashMap<>();
+        private final List<File> runs = new ArrayList<>();
+        private final List<RunReader> readers = new ArrayList<>();
+
+        Aggregation(UsageGroupingKey[] keys, int maxGroups, File spillDirectory) {
+            this.keys = keys;
+            this.maxGroups = maxGroups;
+            this.spillDirectory = spillDirectory;
+        }
+
+        Aggregation add(List<UsageDetailInner> usages) throws IOException {
+            StringBuilder builder = new StringBuilder();
+            for (UsageDetailInner usage : usages) {
+                builder.setLength(0);
+                builder.append(usage.currency() == null ? ABSENT : usage.currency());
+                for (UsageGroupingKey key : this.keys) {
+                    String value = key.valueOf(usage);
+                    builder.append(SEPARATOR).append(value == null ? ABSENT : value);
+                }
+                String groupKey = builder.toString();
+                long[] sums = this.groups.get(groupKey);
+                if (sums == null) {
+                    if (this.groups.size() >= this.maxGroups) {
+                        spill();
+                    }
+                    sums = new long[SUMS];
+                    this.groups.put(groupKey, sums);
+                }
+                sums[PRETAX_COST] = add(sums[PRETAX_COST], scaled(usage.pretaxCost()));
+                sums[USAGE_QUANTITY] = add(sums[USAGE_QUANTITY], scaled(usage.usageQuantity()));
+                sums[BILLABLE_QUANTITY] = add(sums[BILLABLE_QUANTITY], scaled(usage.billableQuantity()));
+                sums[USAGE_COUNT]++;
+            }
+            return this;
+        }
+
+        Iterable<UsageCost> results() throws IOException {
+            if (this.runs.isEmpty()) {
+                List<String> sortedKeys = new ArrayList<>(this.groups.keySet());
+                Collections.sort(sortedKeys);
+                List<UsageCost> results = new ArrayList<>(sortedKeys.size());
+                for (String groupKey : sortedKeys) {
+                    results.add(new UsageCostImpl(groupKey, this.groups.get(groupKey)));
+                }
+                this.groups.clear();
+                return results;
+            }
+            if (!this.groups.isEmpty()) {
+                spill();
+            }
+            for (File run : this.runs) {
+                RunReader reader = new RunReader(run);
+                this.readers.add(reader);
+            }
+            return new Iterable<UsageCost>() {
+                @Override
+                public Iterator<UsageCost> iterator() {
+                    return new MergeIterator(readers);
+                }
+            };
+        }
+
+        /**
+         * Writes the groups in memory to a run sorted by group key, and clears them.
+         */
+        private void spill() throws IOException {
+            List<String> sortedKeys = new ArrayList<>(this.groups.keySet());
+            Collections.sort(sortedKeys);
+            File run = File.createTempFile("usagecost", ".run", this.spillDirectory);
+            this.runs.add(run);
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run)));
+            try {
+                output.writeInt(sortedKeys.size());
+                for (String groupKey : sortedKeys) {
+                    // The key is length prefixed rather than written with writeUTF, which is limited to 64KB
+                    byte[] bytes = groupKey.getBytes(StandardCharsets.UTF_8);
+                    output.writeInt(bytes.length);
+                    output.write(bytes);
+                    for (long sum : this.groups.get(groupKey)) {
+                        output.writeLong(sum);
+                    }
+                }
+            } finally {
+                output.close();
+            }
+            this.groups.clear();
+        }
+
+        void close() {
+            for (RunReader reader : this.readers) {
+                reader.close();
+            }
+            for (File run : this.runs) {
+                run.delete();
+            }
+            this.groups.clear();
+        }
+    }
+
+    /**
+     * Reads the groups of a run in order.
+     */
+    private static class RunReader {
+        private final DataInputStream input;
+        private int remaining;
+        private String groupKey;
+        private final long[] sums = new long[SUMS];
+
+        RunReader(File run) throws IOException {
+            this.input = new DataInputStream(new BufferedInputStream(new FileInputStream(run)));
+            this.remaining = this.input.readInt();
+            advance();
+        }
+
+        /**
+         * Moves to the next group of the run, the group key is null at the end of the run.
+         */
+        void advance() throws IOException {
+            if (this.remaining == 0) {
+                this.groupKey = null;
+                return;
+            }
+            this.remaining--;
+            byte[] bytes = new byte[this.input.readInt()];
+            this.input.readFully(bytes);
+            this.groupKey = new String(bytes, StandardCharsets.UTF_8);
+            for (int i = 0; i < SUMS; i++) {
+                this.sums[i] = this.input.readLong();
+            }
+        }
+
+        void close() {
+            try {
+                this.input.close();
+            } catch (IOException ignored) {
+                // The run is deleted after it is closed
+            }
+        }
+    }
+
+    /**
+     * Merges the runs, summing the groups with the same key.
+     */
+    private static class MergeIterator implements Iterator<UsageCost> {
+        private final PriorityQueue<RunReader> queue;
+
+        MergeIterator(List<RunReader> readers) {
+            this.queue = new PriorityQueue<>(Math.max(1, readers.size()), new Comparator<RunReader>() {
+                @Override
+                public int compare(RunReader left, RunReader right) {
+                    return left.groupKey.compareTo(right.groupKey);
+                }
+            });
+            for (RunReader reader : readers) {
+                if (reader.groupKey != null) {
+                    this.queue.add(reader);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !this.queue.isEmpty();
+        }
+
+        @Override
+        public UsageCost next() {
+            if (this.queue.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            String groupKey = this.queue.peek().groupKey;
+            long[] sums = new long[SUMS];
+            try {
+                while (!this.queue.isEmpty() && this.queue.peek().groupKey.equals(groupKey)) {
+                    RunReader reader = this.queue.poll();
+                    add(sums, reader.sums);
+                    reader.advance();
+                    if (reader.groupKey != null) {
+                        this.queue.add(reader);
+                    }
+                }
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+            return new UsageCostImpl(groupKey, sums);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * The implementation for {@link UsageCost}.
+     */
+    private static class UsageCostImpl implements UsageCost {
+        private final String currency;
+        private final List<String> keys;
+        private final long[] sums;
+
+        UsageCostImpl(String groupKey, long[] sums) {
+            List<String> values = new ArrayList<>();
+            int start = 0;
+            while (true) {
+                int end = groupKey.indexOf(SEPARATOR, start);
+                String value = groupKey.substring(start, end < 0 ? groupKey.length() : end);
+                values.add(ABSENT.equals(value) ? null : value);
+                if (end < 0) {
+                    break;
+                }
+                start = end + 1;
+            }
+            this.currency = values.get(0);
+            this.keys = Collections.unmodifiableList(values.subList(1, values.size()));
+            this.sums = sums;
+        }
+
+        @Override
+        public List<String> keys() {
+            return this.keys;
+        }
+
+        @Override
+        public String currency() {
+            return this.currency;
+        }
+
+        @Override
+        public BigDecimal pretaxCost() {
+            return BigDecimal.valueOf(this.sums[PRETAX_COST], SCALE);
+        }
+
+        @Override
+        public BigDecimal usageQuantity() {
+            return BigDecimal.valueOf(this.sums[USAGE_QUANTITY], SCALE);
+        }
+
+        @Override
+        public BigDecimal billableQuantity() {
+            return BigDecimal.valueOf(this.sums[BILLABLE_QUANTITY], SCALE);
+        }
+
+        @Override
+        public long usageCount() {
+            return this.sums[USAGE_COUNT];
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.consumption.implementation;
+
+import com.microsoft.azure.CloudException;
+import com.microsoft.azure.management.consumption.UsageCost;
+import com.microsoft.azure.management.consumption.UsageCostAggregator;
+import com.microsoft.azure.management.consumption.UsageGroupingKey;
+import com.microsoft.azure.management.resources.core.MockArmService;
+import okhttp3.Response;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class UsageCostAggregatorTests {
+    private static final int PAGES = 3;
+    private static final int USAGES_PER_PAGE = 20;
+
+    private File spillDirectory;
+
+    @Before
+    public void setup() throws IOException {
+        spillDirectory = Files.createTempDirectory("usagecost").toFile();
+    }
+
+    @After
+    public void cleanup() {
+        File[] files = spillDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        spillDirectory.delete();
+    }
+
+    @Test
+    public void canMergeSpilledGroups() {
+        UsageService inMemoryService = new UsageService();
+        List<UsageCost> inMemory = aggregator(inMemoryService)
+                .withGrouping(UsageGroupingKey.METER, UsageGroupingKey.tag("env"))
+                .aggregateAsync("subscriptions/sub1")
+                .toList().toBlocking().single();
+        Assert.assertEquals(0, inMemoryService.runsBeforeLastPage);
+
+        UsageService spillingService = new UsageService();
+        List<UsageCost> spilled = aggregator(spillingService)
+                .withGrouping(UsageGroupingKey.METER, UsageGroupingKey.tag("env"))
+                .withMaxGroupsInMemory(2)
+                .aggregateAsync("subscriptions/sub1")
+                .toList().toBlocking().single();
+        // Several runs are written while the pages are folded in
+        Assert.assertTrue(spillingService.runsBeforeLastPage > 2);
+
+        Assert.assertEquals(inMemory.size(), spilled.size());
+        BigDecimal total = BigDecimal.ZERO;
+        long usageCount = 0;
+        for (int i = 0; i < inMemory.size(); i++) {
+            UsageCost expected = inMemory.get(i);
+            UsageCost actual = spilled.get(i);
+            Assert.assertEquals(expected.currency(), actual.currency());
+            Assert.assertEquals(expected.keys(), actual.keys());
+            Assert.assertEquals(expected.pretaxCost(), actual.pretaxCost());
+            Assert.assertEquals(expected.usageQuantity(), actual.usageQuantity());
+            Assert.assertEquals(expected.billableQuantity(), actual.billableQuantity());
+            Assert.assertEquals(expected.usageCount(), actual.usageCount());
+            total = total.add(actual.pretaxCost());
+            usageCount += actual.usageCount();
+        }
+        Assert.assertEquals(PAGES * USAGES_PER_PAGE, usageCount);
+        Assert.assertEquals(0, expectedTotalPretaxCost().compareTo(total));
+
+        // The only usage of meter m0 in the prod environment paid in USD is usage 39
+        UsageCost group = find(spilled, "USD", "m0", "prod");
+        Assert.assertNotNull(group);
+        Assert.assertEquals(0, new BigDecimal("3.9").compareTo(group.usageQuantity()));
+        Assert.assertEquals(1, group.usageCount());
+
+        // The runs are deleted once the results are emitted
+        Assert.assertEquals(0, spillDirectory.listFiles().length);
+    }
+
+    @Test
+    public void canDeleteRunsOnError() {
+        UsageService service = new UsageService();
+        service.failingPage = PAGES;
+        try {
+            aggregator(service)
+                    .withGrouping(UsageGroupingKey.METER)
+                    .withMaxGroupsInMemory(2)
+                    .aggregateAsync("subscriptions/sub1")
+                    .toList().toBlocking().single();
+            Assert.fail("Expected the aggregation to fail");
+        } catch (CloudException e) {
+            Assert.assertEquals(500, e.response().code());
+        }
+        Assert.assertTrue(service.runsBeforeLastPage > 0);
+        Assert.assertEquals(0, spillDirectory.listFiles().length);
+    }
+
+    @Test
+    public void canSpillLongGroupKeys() {
+        // A group key longer than the 64KB a DataOutput.writeUTF string is limited to
+        UsageService service = new UsageService();
+        char[] longValue = new char[70000];
+        Arrays.fill(longValue, 'x');
+        service.longTagValue = new String(longValue);
+        List<UsageCost> costs = aggregator(service)
+                .withGrouping(UsageGroupingKey.tag("owner"))
+                .withMaxGroupsInMemory(1)
+                .aggregateAsync("subscriptions/sub1")
+                .toList().toBlocking().single();
+
+        UsageCost group = find(costs, "USD", service.longTagValue);
+        Assert.assertNotNull(group);
+        Assert.assertEquals(1, group.usageCount());
+        Assert.assertEquals(0, spillDirectory.listFiles().length);
+    }
+
+    private UsageCostAggregator aggregator(UsageService service) {
+        return ConsumptionManager.authenticate(service.withSpillDirectory(spillDirectory).restClient(), "sub1")
+                .usageCostAggregator()
+                .withSpillDirectory(spillDirectory);
+    }
+
+    private static UsageCost find(List<UsageCost> costs, String currency, String... keys) {
+        for (UsageCost cost : costs) {
+            if (currency.equals(cost.currency()) && cost.keys().equals(Arrays.asList(keys))) {
+                return cost;
+            }
+        }
+        return null;
+    }
+
+    private static BigDecimal expectedTotalPretaxCost() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < PAGES * USAGES_PER_PAGE; i++) {
+            total = total.add(new BigDecimal(UsageService.pretaxCost(i)));
+        }
+        return total;
+    }
+
+    /**
+     * Serves pages of usage details over 13 meters, 3 environments and 2 currencies, some without
+     * a currency or an environment tag, and counts the runs spilled before the last page is requested.
+     */
+    private static class UsageService extends MockArmService {
+        private File spillDirectory;
+        private int runsBeforeLastPage;
+        private int failingPage;
+        private String longTagValue;
+
+        UsageService withSpillDirectory(File spillDirectory) {
+            this.spillDirectory = spillDirectory;
+            return this;
+        }
+
+        static String pretaxCost(int i) {
+            return "0." + String.format("%08d", (i * 7919L) % 100000000L);
+        }
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            String pageParameter = chain.request().url().queryParameter("page");
+            int page = pageParameter == null ? 1 : Integer.parseInt(pageParameter);
+            if (page == PAGES) {
+                runsBeforeLastPage = spillDirectory.listFiles().length;
+            }
+            if (page == failingPage) {
+                return response(chain, 500, "{\"error\":{\"code\":\"InternalError\",\"message\":\"failed\"}}");
+            }
+            StringBuilder body = new StringBuilder("{\"value\":[");
+            for (int j = 0; j < USAGES_PER_PAGE; j++) {
+                int i = (page - 1) * USAGES_PER_PAGE + j;
+                body.append(j == 0 ? "" : ",").append(usage(i));
+            }
+            body.append("]");
+            if (page < PAGES) {
+                body.append(",\"nextLink\":\"").append(MockArmService.BASE_URL)
+                        .append("subscriptions/sub1/providers/Microsoft.Consumption/usageDetails?page=").append(page + 1).append("\"");
+            }
+            return response(chain, 200, body.append("}").toString());
+        }
+
+        private String usage(int i) {
+            String[] environments = {"prod", "test", null};
+            String environment = environments[i % 3];
+            String owner = longTagValue != null && i == 1 ? longTagValue : "owner" + (i % 4);
+            String currency = i % 11 == 0 ? null : (i % 5 == 0 ? "EUR" : "USD");
+            return "{\"id\":\"/subscriptions/sub1/providers/Microsoft.Consumption/usageDetails/u" + i + "\","
+                    + "\"name\":\"u" + i + "\",\"type\":\"Microsoft.Consumption/usageDetails\","
+                    + "\"tags\":{\"owner\":\"" + owner + "\"" + (environment == null ? "" : ",\"env\":\"" + environment + "\"") + "},"
+                    + "\"properties\":{\"instanceId\":\"/subscriptions/sub1/resourceGroups/rg" + (i % 2) + "/providers/Microsoft.Compute/virtualMachines/vm" + i + "\","
+                    + (currency == null ? "" : "\"currency\":\"" + currency + "\",")
+                    + "\"meterId\":\"m" + (i % 13) + "\","
+                    + "\"usageQuantity\":" + (i / 10.0) + ",\"billableQuantity\":" + (i / 20.0) + ","
+                    + "\"pretaxCost\":" + pretaxCost(i) + ",\"usageStart\":\"2017-01-01T00:00:00Z\"}}";
+        }
+    }
+}
@@ -7,7 +7,6 @@
 package com.microsoft.azure.management.containerinstance.implementation;
 
 import com.microsoft.azure.AzureEnvironment;
-import com.microsoft.azure.AzureResponseBuilder;
 import com.microsoft.azure.credentials.AzureTokenCredentials;
 import com.microsoft.azure.management.apigeneration.Beta;
 import com.microsoft.azure.management.apigeneration.Beta.SinceVersion;
@@ -15,6 +14,7 @@ import com.microsoft.azure.management.containerinstance.ContainerGroups;
 import com.microsoft.azure.management.resources.fluentcore.arm.AzureConfigurable;
 import com.microsoft.azure.management.resources.fluentcore.arm.implementation.AzureConfigurableImpl;
 import com.microsoft.azure.management.resources.fluentcore.arm.implementation.Manager;
+import com.microsoft.azure.management.resources.fluentcore.utils.CachedResponseBuilderFactory;
 import com.microsoft.azure.management.resources.fluentcore.utils.ProviderRegistrationInterceptor;
 import com.microsoft.azure.management.resources.fluentcore.utils.ResourceManagerThrottlingInterceptor;
 import com.microsoft.azure.management.storage.implementation.StorageManager;
@@ -52,7 +52,7 @@ public final class ContainerInstanceManager extends Manager<ContainerInstanceMan
             .withBaseUrl(credentials.environment(), AzureEnvironment.Endpoint.RESOURCE_MANAGER)
             .withCredentials(credentials)
             .withSerializerAdapter(new AzureJacksonAdapter())
-            .withResponseBuilderFactory(new AzureResponseBuilder.Factory())
+            .withResponseBuilderFactory(new CachedResponseBuilderFactory())
             .withInterceptor(new ProviderRegistrationInterceptor(credentials))
             .withInterceptor(new ResourceManagerThrottlingInterceptor())
             .build(), subscriptionId);
@@ -11,15 +11,11 @@ import com.microsoft.azure.PagedList;
 import com.microsoft.azure.management.containerregistry.PasswordName;
 import com.microsoft.azure.management.containerregistry.Registries;
 import com.microsoft.azure.management.containerregistry.Registry;
-import com.microsoft.azure.management.resources.ResourceGroup;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.GroupableResourcesImpl;
-import com.microsoft.azure.management.resources.fluentcore.arm.models.implementation.GroupPagedList;
+import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.ResourceGroupFanOut;
 import com.microsoft.azure.management.storage.implementation.StorageManager;
 import rx.Completable;
 import rx.Observable;
-import rx.functions.Func1;
-
-import java.util.List;
 
 /**
  * Implementation for Registries.
@@ -44,25 +40,12 @@ public class RegistriesImpl
 
     @Override
     public PagedList<Registry> list() {
-        final RegistriesImpl self = this;
-        return new GroupPagedList<Registry>(this.manager().resourceManager().resourceGroups().list()) {
-            @Override
-            public List<Registry> listNextGroup(String resourceGroupName) {
-                return wrapList(self.inner().listByResourceGroup(resourceGroupName));
-
-            }
-        };
+        return ResourceGroupFanOut.of(this.manager().resourceManager().resourceGroups(), this).ordered().list();
     }
 
     @Override
     public Observable<Registry> listAsync() {
-        return this.manager().resourceManager().resourceGroups().listAsync()
-                .flatMap(new Func1<ResourceGroup, Observable<Registry>>() {
-                    @Override
-                    public Observable<Registry> call(ResourceGroup resourceGroup) {
-                        return wrapPageAsync(inner().listByResourceGroupAsync(resourceGroup.name()));
-                    }
-                });
+        return ResourceGroupFanOut.of(this.manager().resourceManager().resourceGroups(), this).listAsync();
     }
 
     @Override
@@ -15,7 +15,9 @@ import com.microsoft.azure.management.cosmosdb.Location;
 import com.microsoft.azure.management.cosmosdb.KeyKind;
 import com.microsoft.azure.management.resources.fluentcore.arm.Region;
 import com.microsoft.azure.management.resources.fluentcore.arm.models.implementation.GroupableResourceImpl;
+import com.microsoft.azure.management.resources.fluentcore.utils.ResourcePoller;
 import rx.Observable;
+import rx.functions.Func0;
 import rx.functions.Func1;
 
 import java.util.ArrayList;
@@ -291,17 +293,16 @@ class CosmosDBAccountImpl
                     public Observable<? extends CosmosDBAccount> call(DatabaseAccountInner databaseAccountInner) {
                         self.failoverPolicies.clear();
                         self.hasFailoverPolicyChanges = false;
-                        return manager().databaseAccounts().getByResourceGroupAsync(
-                                resourceGroupName(),
-                                name()
-                        ).repeatWhen(new Func1<Observable<? extends java.lang.Void>, Observable<?>>() {
+                        return new ResourcePoller<>(new Func0<Observable<CosmosDBAccount>>() {
                             @Override
-                            public Observable<?> call(Observable<? extends Void> observable) {
-                                data.set(0, data.get(0) + 5);
-                                return observable.delay(5, TimeUnit.SECONDS);
+                            public Observable<CosmosDBAccount> call() {
+                                return manager().databaseAccounts().getByResourceGroupAsync(
+                                        resourceGroupName(),
+                                        name());
                             }
                         })
-                        .filter(new Func1<CosmosDBAccount, Boolean>() {
+                        .withDelay(5, TimeUnit.SECONDS)
+                        .pollUntilAsync(new Func1<CosmosDBAccount, Boolean>() {
                             @Override
                             public Boolean call(CosmosDBAccount databaseAccount) {
                                 if (maxDelayDueToMissingFailovers > data.get(0)
@@ -327,8 +328,7 @@ class CosmosDBAccountImpl
                                 self.setInner(databaseAccount.inner());
                                 return true;
                             }
-                        })
-                        .first();
+                        });
 
                     }
                 });
@@ -12,12 +12,10 @@ import com.microsoft.azure.management.cosmosdb.CosmosDBAccount;
 import com.microsoft.azure.management.cosmosdb.CosmosDBAccounts;
 import com.microsoft.azure.management.cosmosdb.Location;
 import com.microsoft.azure.management.cosmosdb.KeyKind;
-import com.microsoft.azure.management.resources.ResourceGroup;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.GroupableResourcesImpl;
-import com.microsoft.azure.management.resources.fluentcore.arm.models.implementation.GroupPagedList;
+import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.ResourceGroupFanOut;
 import rx.Completable;
 import rx.Observable;
-import rx.functions.Func1;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -42,25 +40,12 @@ class CosmosDBAccountsImpl
 
     @Override
     public PagedList<CosmosDBAccount> list() {
-        final CosmosDBAccountsImpl self = this;
-        return new GroupPagedList<CosmosDBAccount>(this.manager().resourceManager().resourceGroups().list()) {
-            @Override
-            public List<CosmosDBAccount> listNextGroup(String resourceGroupName) {
-                return wrapList(self.inner().listByResourceGroup(resourceGroupName));
-
-            }
-        };
+        return ResourceGroupFanOut.of(this.manager().resourceManager().resourceGroups(), this).ordered().list();
     }
 
     @Override
     public Observable<CosmosDBAccount> listAsync() {
-        return this.manager().resourceManager().resourceGroups().listAsync()
-                .flatMap(new Func1<ResourceGroup, Observable<CosmosDBAccount>>() {
-                    @Override
-                    public Observable<CosmosDBAccount> call(ResourceGroup resourceGroup) {
-                        return wrapPageAsync(inner().listByResourceGroupAsync(resourceGroup.name()));
-                    }
-                });
+        return ResourceGroupFanOut.of(this.manager().resourceManager().resourceGroups(), this).listAsync();
     }
 
     @Override
@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.graphrbac;
+
+import com.microsoft.azure.management.apigeneration.Beta;
+import com.microsoft.azure.management.apigeneration.Beta.SinceVersion;
+import com.microsoft.azure.management.apigeneration.Fluent;
+import rx.Observable;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves the object ids of users and service principals from their names, the resolved object ids
+ * are cached for a time to live and concurrent lookups of the same name share a single request.
+ */
+@Fluent(ContainerName = "/Microsoft.Azure.Management.Graph.RBAC.Fluent")
+@Beta(SinceVersion.V1_4_0)
+public interface ActiveDirectoryPrincipalResolver {
+    /**
+     * Specifies how long a resolved object id is reused, 10 minutes by default.
+     *
+     * @param timeToLive the time to live
+     * @param unit the time unit of the time to live
+     * @return the resolver
+     */
+    ActiveDirectoryPrincipalResolver withTimeToLive(long timeToLive, TimeUnit unit);
+
+    /**
+     * Resolves the object id of a user.
+     *
+     * @param name the user principal name, mail or display name of the user
+     * @return an observable that emits the object id, or null if the user is not found
+     */
+    Observable<String> resolveUserObjectIdAsync(String name);
+
+    /**
+     * Resolves the object ids of a number of users, the user principal names that are not cached
+     * are looked up together.
+     *
+     * @param names the user principal names, mails or display names of the users
+     * @return an observable that emits the object ids by name, the users not found are omitted
+     */
+    Observable<Map<String, String>> resolveUserObjectIdsAsync(Collection<String> names);
+
+    /**
+     * Resolves the object id of a service principal.
+     *
+     * @param name the service principal name or display name of the service principal
+     * @return an observable that emits the object id, or null if the service principal is not found
+     */
+    Observable<String> resolveServicePrincipalObjectIdAsync(String name);
+
+    /**
+     * Drops all the cached object ids.
+     */
+    void invalidate();
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.graphrbac.implementation;
+
+import com.microsoft.azure.Page;
+import com.microsoft.azure.management.apigeneration.LangDefinition;
+import com.microsoft.azure.management.graphrbac.ActiveDirectoryPrincipalResolver;
+import com.microsoft.azure.management.graphrbac.ActiveDirectoryUser;
+import com.microsoft.azure.management.resources.fluentcore.utils.ExpiringAsyncCache;
+import com.microsoft.azure.management.resources.fluentcore.utils.SdkContext;
+import rx.Observable;
+import rx.functions.Action2;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The implementation for {@link ActiveDirectoryPrincipalResolver}.
+ */
+@LangDefinition(ContainerName = "/Microsoft.Azure.Management.Graph.RBAC.Fluent")
+class ActiveDirectoryPrincipalResolverImpl implements ActiveDirectoryPrincipalResolver {
+    // The max number of user principal names looked up by a single filter
+    private static final int BATCH_SIZE = 10;
+
+    private final GraphRbacManager manager;
+    // Names not found are not cached, they are looked up again next time
+    private final ExpiringAsyncCache<String> cache = new ExpiringAsyncCache<>(10, TimeUnit.MINUTES);
+
+    ActiveDirectoryPrincipalResolverImpl(GraphRbacManager manager) {
+        this.manager = manager;
+    }
+
+    @Override
+    public ActiveDirectoryPrincipalResolverImpl withTimeToLive(long timeToLive, TimeUnit unit) {
+        this.cache.withTimeToLive(timeToLive, unit);
+        return this;
+    }
+
+    @Override
+    public Observable<String> resolveUserObjectIdAsync(final String name) {
+        return cache.getAsync(userKey(name), new Func0<Observable<String>>() {
+            @Override
+            public Observable<String> call() {
+                return getUserObjectIdAsync(name);
+            }
+        });
+    }
+
+    @Override
+    public Observable<Map<String, String>> resolveUserObjectIdsAsync(Collection<String> names) {
+        final Set<String> distinctNames = new LinkedHashSet<>(names);
+        List<String> unresolved = new ArrayList<>();
+        for (String name : distinctNames) {
+            if (cache.getIfPresent(userKey(name)) == null) {
+                unresolved.add(name);
+            }
+        }
+        if (unresolved.size() > 1) {
+            for (int from = 0; from < unresolved.size(); from += BATCH_SIZE) {
+                List<String> batch = unresolved.subList(from, Math.min(unresolved.size(), from + BATCH_SIZE));
+                final Observable<Map<String, String>> batchLookup = listUserObjectIdsAsync(batch).cache();
+                for (final String name : batch) {
+                    cache.getAsync(userKey(name), new Func0<Observable<String>>() {
+                        @Override
+                        public Observable<String> call() {
+                            return batchLookup.flatMap(new Func1<Map<String, String>, Observable<String>>() {
+                                @Override
+                                public Observable<String> call(Map<String, String> objectIds) {
+                                    String objectId = objectIds.get(name.toLowerCase());
+                                    // Names that are not user principal names fall back to the mail and display name search
+                                    return objectId != null ? Observable.just(objectId) : getUserObjectIdAsync(name);
+                                }
+                            });
+                        }
+                    });
+                }
+            }
+        }
+        return Observable.from(distinctNames)
+                .flatMap(new Func1<String, Observable<String[]>>() {
+                    @Override
+                    public Observable<String[]> call(final String name) {
+                        return resolveUserObjectIdAsync(name)
+                                .subscribeOn(SdkContext.getRxScheduler())
+                                .map(new Func1<String, String[]>() {
+                                    @Override
+                                    public String[] call(String objectId) {
+                                        return new String[] {name, objectId};
+                                    }
+                                });
+                    }
+                })
+                .collect(new Func0<Map<String, String>>() {
+                    @Override
+                    public Map<String, String> call() {
+                        return new LinkedHashMap<>();
+                    }
+                }, new Action2<Map<String, String>, String[]>() {
+                    @Override
+                    public void call(Map<String, String> objectIds, String[] resolved) {
+                        if (resolved[1] != null) {
+                            objectIds.put(resolved[0], resolved[1]);
+                        }
+                    }
+                });
+    }
+
+    @Override
+    public Observable<String> resolveServicePrincipalObjectIdAsync(final String name) {
+        return cache.getAsync("servicePrincipal:" + name.toLowerCase(), new Func0<Observable<String>>() {
+            @Override
+            public Observable<String> call() {
+                final ServicePrincipalsInner client = manager.inner().servicePrincipals();
+                // The same searches as ServicePrincipals.getByNameAsync, without loading the credentials
+                return client.listAsync(String.format("servicePrincipalNames/any(c:c eq '%s')", name)).first()
+                        .flatMap(new Func1<Page<ServicePrincipalInner>, Observable<Page<ServicePrincipalInner>>>() {
+                            @Override
+                            public Observable<Page<ServicePrincipalInner>> call(Page<ServicePrincipalInner> page) {
+                                if (page.items() == null || page.items().isEmpty()) {
+                                    return client.listAsync(String.format("displayName eq '%s'", name)).first();
+                                }
+                                return Observable.just(page);
+                            }
+                        })
+                        .map(new Func1<Page<ServicePrincipalInner>, String>() {
+                            @Override
+                            public String call(Page<ServicePrincipalInner> page) {
+                                if (page.items() == null || page.items().isEmpty()) {
+                                    return null;
+                                }
+                                return page.items().get(0).objectId();
+                            }
+                        });
+            }
+        });
+    }
+
+    @Override
+    public void invalidate() {
+        this.cache.invalidateAll();
+    }
+
+    private Observable<String> getUserObjectIdAsync(String name) {
+        return manager.users().getByNameAsync(name).map(new Func1<ActiveDirectoryUser, String>() {
+            @Override
+            public String call(ActiveDirectoryUser user) {
+                return user == null ? null : user.id();
+            }
+        });
+    }
+
+    private Observable<Map<String, String>> listUserObjectIdsAsync(List<String> names) {
+        StringBuilder filter = new StringBuilder();
+        for (String name : names) {
+            if (filter.length() > 0) {
+                filter.append(" or ");
+            }
+            filter.append(String.format("userPrincipalName eq '%s'", name.replace("'", "''")));
+        }
+        return manager.inner().users().listAsync(filter.toString())
+                .collect(new Func0<Map<String, String>>() {
+                    @Override
+                    public Map<String, String> call() {
+                        return new HashMap<>();
+                    }
+                }, new Action2<Map<String, String>, Page<UserInner>>() {
+                    @Override
+                    public void call(Map<String, String> objectIds, Page<UserInner> page) {
+                        if (page.items() != null) {
+                            for (UserInner user : page.items()) {
+                                if (user.userPrincipalName() != null) {
+                                    objectIds.put(user.userPrincipalName().toLowerCase(), user.objectId());
+                                }
+                            }
+                        }
+                    }
+                });
+    }
+
+    private static String userKey(String name) {
+        return "user:" + name.toLowerCase();
+    }
+}
@@ -7,19 +7,20 @@
 package com.microsoft.azure.management.graphrbac.implementation;
 
 import com.microsoft.azure.AzureEnvironment;
-import com.microsoft.azure.AzureResponseBuilder;
 import com.microsoft.azure.credentials.AzureTokenCredentials;
 import com.microsoft.azure.management.apigeneration.Beta;
 import com.microsoft.azure.management.apigeneration.Beta.SinceVersion;
 import com.microsoft.azure.management.graphrbac.ActiveDirectoryUsers;
 import com.microsoft.azure.management.graphrbac.ActiveDirectoryApplications;
 import com.microsoft.azure.management.graphrbac.ActiveDirectoryGroups;
+import com.microsoft.azure.management.graphrbac.ActiveDirectoryPrincipalResolver;
 import com.microsoft.azure.management.graphrbac.RoleAssignments;
 import com.microsoft.azure.management.graphrbac.RoleDefinitions;
 import com.microsoft.azure.management.graphrbac.ServicePrincipals;
 import com.microsoft.azure.management.resources.fluentcore.arm.AzureConfigurable;
 import com.microsoft.azure.management.resources.fluentcore.arm.implementation.AzureConfigurableImpl;
 import com.microsoft.azure.management.resources.fluentcore.model.HasInner;
+import com.microsoft.azure.management.resources.fluentcore.utils.CachedResponseBuilderFactory;
 import com.microsoft.azure.management.resources.fluentcore.utils.ProviderRegistrationInterceptor;
 import com.microsoft.azure.management.resources.fluentcore.utils.ResourceManagerThrottlingInterceptor;
 import com.microsoft.azure.serializer.AzureJacksonAdapter;
@@ -42,6 +43,7 @@ public final class GraphRbacManager implements HasInner<GraphRbacManagementClien
     private ActiveDirectoryApplications applications;
     private RoleAssignments roleAssignments;
     private RoleDefinitions roleDefinitions;
+    private final ActiveDirectoryPrincipalResolver principalResolver;
 
     @Override
     public GraphRbacManagementClientImpl inner() {
@@ -60,7 +62,7 @@ public final class GraphRbacManager implements HasInner<GraphRbacManagementClien
                 .withInterceptor(new RequestIdHeaderInterceptor())
                 .withCredentials(credentials)
                 .withSerializerAdapter(new AzureJacksonAdapter())
-                .withResponseBuilderFactory(new AzureResponseBuilder.Factory())
+                .withResponseBuilderFactory(new CachedResponseBuilderFactory())
                 .withInterceptor(new ProviderRegistrationInterceptor(credentials))
                 .withInterceptor(new ResourceManagerThrottlingInterceptor())
                 .build(), credentials.domain());
@@ -119,6 +121,7 @@ public final class GraphRbacManager implements HasInner<GraphRbacManagementClien
                 restClient.newBuilder().withBaseUrl(graphEndpoint).build()).withTenantID(tenantId);
         this.authorizationManagementClient = new AuthorizationManagementClientImpl(restClient);
         this.tenantId = tenantId;
+        this.principalResolver = new ActiveDirectoryPrincipalResolverImpl(this);
     }
 
     /**
@@ -199,4 +202,12 @@ public final class GraphRbacManager implements HasInner<GraphRbacManagementClien
         }
         return roleDefinitions;
     }
+
+    /**
+     * @return the resolver of user and service principal object ids, shared by all the callers of the manager
+     */
+    @Beta(SinceVersion.V1_4_0)
+    public ActiveDirectoryPrincipalResolver principalResolver() {
+        return principalResolver;
+    }
 }
@@ -0,0 +1,284 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.graphrbac.implementation;
+
+import com.microsoft.azure.management.graphrbac.ActiveDirectoryPrincipalResolver;
+import com.microsoft.azure.management.resources.core.MockArmService;
+import okhttp3.Response;
+import org.junit.Assert;
+import org.junit.Test;
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class ActiveDirectoryPrincipalResolverTests {
+
+    @Test
+    public void canResolveUsersInBatches() {
+        Directory directory = new Directory();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            names.add(directory.withUser("user" + i + "@contoso.com"));
+        }
+        ActiveDirectoryPrincipalResolver resolver = resolver(directory);
+
+        Map<String, String> objectIds = resolver.resolveUserObjectIdsAsync(names).toBlocking().single();
+        Assert.assertEquals(names.size(), objectIds.size());
+        for (String name : names) {
+            Assert.assertEquals(directory.objectIdOf(name), objectIds.get(name));
+        }
+        // 12 names are looked up by a filter of 10 names and a filter of 2
+        Assert.assertEquals(2, directory.batchCount.get());
+        Assert.assertEquals(0, directory.getCount.get());
+
+        // The names are cached, including in a different case
+        objectIds = resolver.resolveUserObjectIdsAsync(Arrays.asList("USER0@contoso.com", "user11@contoso.com")).toBlocking().single();
+        Assert.assertEquals(directory.objectIdOf("user0@contoso.com"), objectIds.get("USER0@contoso.com"));
+        Assert.assertEquals(directory.objectIdOf("user11@contoso.com"), resolver.resolveUserObjectIdAsync("user11@contoso.com").toBlocking().single());
+        Assert.assertEquals(2, directory.batchCount.get());
+        Assert.assertEquals(0, directory.getCount.get());
+    }
+
+    @Test
+    public void canFallBackToUserSearch() {
+        Directory directory = new Directory()
+                .withGuest("guest@fabrikam.com")
+                .withDisplayName("Jane Doe");
+        String member = directory.withUser("member@contoso.com");
+        ActiveDirectoryPrincipalResolver resolver = resolver(directory);
+
+        Map<String, String> objectIds = resolver.resolveUserObjectIdsAsync(
+                Arrays.asList(member, "guest@fabrikam.com", "Jane Doe", "missing@contoso.com")).toBlocking().single();
+
+        Assert.assertEquals(3, objectIds.size());
+        Assert.assertEquals(directory.objectIdOf(member), objectIds.get(member));
+        Assert.assertEquals(directory.objectIdOf("guest@fabrikam.com"), objectIds.get("guest@fabrikam.com"));
+        Assert.assertEquals(directory.objectIdOf("Jane Doe"), objectIds.get("Jane Doe"));
+        Assert.assertFalse(objectIds.containsKey("missing@contoso.com"));
+        // The names missing from the batch are looked up one at a time
+        Assert.assertEquals(1, directory.batchCount.get());
+        Assert.assertEquals(3, directory.getCount.get());
+        Assert.assertEquals(2, directory.mailSearchCount.get());
+        Assert.assertEquals(1, directory.displayNameSearchCount.get());
+
+        // The missing name is not cached, the names found are
+        objectIds = resolver.resolveUserObjectIdsAsync(
+                Arrays.asList("guest@fabrikam.com", "Jane Doe", "missing@contoso.com")).toBlocking().single();
+        Assert.assertEquals(2, objectIds.size());
+        Assert.assertEquals(1, directory.batchCount.get());
+        Assert.assertEquals(4, directory.getCount.get());
+        Assert.assertEquals(3, directory.mailSearchCount.get());
+        Assert.assertEquals(1, directory.displayNameSearchCount.get());
+    }
+
+    @Test
+    public void canShareConcurrentLookups() {
+        Directory directory = new Directory().withLatency(50);
+        String first = directory.withUser("first@contoso.com");
+        String second = directory.withUser("second@contoso.com");
+        String third = directory.withUser("third@contoso.com");
+        ActiveDirectoryPrincipalResolver resolver = resolver(directory);
+
+        List<Observable<String>> lookups = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            lookups.add(resolver.resolveUserObjectIdAsync(first).subscribeOn(Schedulers.io()));
+        }
+        List<String> objectIds = Observable.merge(lookups).toList().toBlocking().single();
+        Assert.assertEquals(5, objectIds.size());
+        Assert.assertEquals(1, directory.getCount.get());
+
+        // Overlapping batches share the lookups of the names they have in common
+        Observable<Map<String, String>> batch = resolver.resolveUserObjectIdsAsync(Arrays.asList(second, third));
+        Observable<Map<String, String>> overlapping = resolver.resolveUserObjectIdsAsync(Arrays.asList(first, second, third));
+        List<Map<String, String>> results = Observable.merge(
+                batch.subscribeOn(Schedulers.io()), overlapping.subscribeOn(Schedulers.io())).toList().toBlocking().single();
+        Assert.assertEquals(2, results.size());
+        Assert.assertEquals(1, directory.batchCount.get());
+        Assert.assertEquals(1, directory.getCount.get());
+    }
+
+    @Test
+    public void canExpireCachedNames() {
+        Directory directory = new Directory();
+        String name = directory.withUser("user@contoso.com");
+        ActiveDirectoryPrincipalResolver resolver = resolver(directory);
+
+        resolver.resolveUserObjectIdAsync(name).toBlocking().single();
+        resolver.resolveUserObjectIdAsync(name).toBlocking().single();
+        Assert.assertEquals(1, directory.getCount.get());
+
+        resolver.invalidate();
+        resolver.resolveUserObjectIdAsync(name).toBlocking().single();
+        Assert.assertEquals(2, directory.getCount.get());
+
+        // The names already cached keep their time to live
+        resolver.withTimeToLive(0, TimeUnit.MILLISECONDS);
+        resolver.resolveUserObjectIdAsync(name).toBlocking().single();
+        Assert.assertEquals(2, directory.getCount.get());
+        resolver.invalidate();
+        resolver.resolveUserObjectIdAsync(name).toBlocking().single();
+        resolver.resolveUserObjectIdAsync(name).toBlocking().single();
+        Assert.assertEquals(4, directory.getCount.get());
+    }
+
+    @Test
+    public void canResolveServicePrincipals() {
+        Directory directory = new Directory()
+                .withServicePrincipal("http://app1", "app one")
+                .withServicePrincipal("http://app2", "app two");
+        ActiveDirectoryPrincipalResolver resolver = resolver(directory);
+
+        Assert.assertEquals(directory.objectIdOf("http://app1"),
+                resolver.resolveServicePrincipalObjectIdAsync("http://app1").toBlocking().single());
+        Assert.assertEquals(directory.objectIdOf("http://app2"),
+                resolver.resolveServicePrincipalObjectIdAsync("app two").toBlocking().single());
+        Assert.assertNull(resolver.resolveServicePrincipalObjectIdAsync("missing").toBlocking().single());
+        Assert.assertEquals(5, directory.servicePrincipalSearchCount.get());
+
+        resolver.resolveServicePrincipalObjectIdAsync("HTTP://APP1").toBlocking().single();
+        resolver.resolveServicePrincipalObjectIdAsync("app two").toBlocking().single();
+        Assert.assertEquals(5, directory.servicePrincipalSearchCount.get());
+    }
+
+    private static ActiveDirectoryPrincipalResolver resolver(Directory directory) {
+        return GraphRbacManager.authenticate(directory.restClient(), "tenant1")
+                .principalResolver();
+    }
+
+    /**
+     * Serves the user and service principal requests of the Graph API from a directory, and counts
+     * the requests by kind.
+     */
+    private static class Directory extends MockArmService {
+        private static final Pattern QUOTED = Pattern.compile("'((?:[^']|'')*)'");
+
+        private final Map<String, String> userPrincipalNames = new HashMap<>();
+        private final Map<String, String> mails = new HashMap<>();
+        private final Map<String, String> displayNames = new HashMap<>();
+        private final Map<String, String> servicePrincipalNames = new HashMap<>();
+        private final Map<String, String> objectIds = new HashMap<>();
+        private final AtomicInteger batchCount = new AtomicInteger();
+        private final AtomicInteger getCount = new AtomicInteger();
+        private final AtomicInteger mailSearchCount = new AtomicInteger();
+        private final AtomicInteger displayNameSearchCount = new AtomicInteger();
+        private final AtomicInteger servicePrincipalSearchCount = new AtomicInteger();
+        private long latencyInMillis;
+
+        Directory withLatency(long latencyInMillis) {
+            this.latencyInMillis = latencyInMillis;
+            return this;
+        }
+
+        String withUser(String userPrincipalName) {
+            userPrincipalNames.put(userPrincipalName.toLowerCase(), register(userPrincipalName));
+            return userPrincipalName;
+        }
+
+        Directory withGuest(String mail) {
+            mails.put(mail.toLowerCase(), register(mail));
+            return this;
+        }
+
+        Directory withDisplayName(String displayName) {
+            displayNames.put(displayName, register(displayName));
+            return this;
+        }
+
+        Directory withServicePrincipal(String servicePrincipalName, String displayName) {
+            String objectId = register(servicePrincipalName);
+            servicePrincipalNames.put(servicePrincipalName.toLowerCase(), objectId);
+            displayNames.put(displayName, objectId);
+            return this;
+        }
+
+        String objectIdOf(String name) {
+            return objectIds.get(name);
+        }
+
+        private String register(String name) {
+            String objectId = "object-" + objectIds.size();
+            objectIds.put(name, objectId);
+            return objectId;
+        }
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            // tenant1/users[/{upnOrObjectId}] or tenant1/servicePrincipals
+            List<String> segments = chain.request().url().pathSegments();
+            String filter = chain.request().url().queryParameter("$filter");
+            try {
+                Thread.sleep(latencyInMillis);
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            if (segments.get(1).equals("servicePrincipals")) {
+                servicePrincipalSearchCount.incrementAndGet();
+                String name = quoted(filter).get(0);
+                String objectId = filter.startsWith("servicePrincipalNames")
+                        ? servicePrincipalNames.get(name.toLowerCase())
+                        : displayNames.get(name);
+                return response(chain, 200, page(objectId));
+            }
+            if (segments.size() == 3) {
+                getCount.incrementAndGet();
+                String objectId = userPrincipalNames.get(segments.get(2).toLowerCase());
+                if (objectId == null) {
+                    return response(chain, 404, "{\"odata.error\":{\"code\":\"Request_ResourceNotFound\",\"message\":{\"value\":\"not found\"}}}");
+                }
+                return response(chain, 200, user(objectId, segments.get(2)));
+            }
+            List<String> values = quoted(filter);
+            if (filter.startsWith("userPrincipalName")) {
+                batchCount.incrementAndGet();
+                StringBuilder users = new StringBuilder();
+                for (String value : values) {
+                    String objectId = userPrincipalNames.get(value.toLowerCase());
+                    if (objectId != null) {
+                        users.append(users.length() > 0 ? "," : "").append(user(objectId, value));
+                    }
+                }
+                return response(chain, 200, "{\"value\":[" + users + "]}");
+            } else if (filter.startsWith("mail")) {
+                mailSearchCount.incrementAndGet();
+                return response(chain, 200, page(mails.get(values.get(0).toLowerCase())));
+            } else {
+                displayNameSearchCount.incrementAndGet();
+                return response(chain, 200, page(displayNames.get(values.get(0))));
+            }
+        }
+
+        private static List<String> quoted(String filter) {
+            List<String> values = new ArrayList<>();
+            Matcher matcher = QUOTED.matcher(filter);
+            while (matcher.find()) {
+                values.add(matcher.group(1).replace("''", "'"));
+            }
+            return values;
+        }
+
+        private static String user(String objectId, String userPrincipalName) {
+            return "{\"objectId\":\"" + objectId + "\",\"objectType\":\"User\",\"userPrincipalName\":\"" + userPrincipalName + "\"}";
+        }
+
+        private static String page(String objectId) {
+            if (objectId == null) {
+                return "{\"value\":[]}";
+            }
+            return "{\"value\":[{\"objectId\":\"" + objectId + "\"}]}";
+        }
+    }
+}
@@ -8,8 +8,7 @@ package com.microsoft.azure.management.keyvault.implementation;
 
 import com.microsoft.azure.CloudException;
 import com.microsoft.azure.management.apigeneration.LangDefinition;
-import com.microsoft.azure.management.graphrbac.ActiveDirectoryUser;
-import com.microsoft.azure.management.graphrbac.ServicePrincipal;
+import com.microsoft.azure.management.graphrbac.ActiveDirectoryPrincipalResolver;
 import com.microsoft.azure.management.graphrbac.implementation.GraphRbacManager;
 import com.microsoft.azure.management.keyvault.AccessPolicy;
 import com.microsoft.azure.management.keyvault.AccessPolicyEntry;
@@ -26,8 +25,11 @@ import rx.functions.FuncN;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
 
 /**
  * Implementation for Vault and its parent interfaces.
@@ -199,32 +201,23 @@ class VaultImpl
 
     private Observable<List<AccessPolicy>> populateAccessPolicies() {
         List<Observable<?>>observables = new ArrayList<>();
+        final ActiveDirectoryPrincipalResolver principalResolver = graphRbacManager.principalResolver();
+        Set<String> userPrincipalNames = new LinkedHashSet<>();
         for (final AccessPolicyImpl accessPolicy : accessPolicies) {
             if (accessPolicy.objectId() == null) {
                 if (accessPolicy.userPrincipalName() != null) {
-                    observables.add(graphRbacManager.users().getByNameAsync(accessPolicy.userPrincipalName())
-                            .subscribeOn(SdkContext.getRxScheduler())
-                            .doOnNext(new Action1<ActiveDirectoryUser>() {
-                                @Override
-                                public void call(ActiveDirectoryUser user) {
-                                    if (user == null) {
-                                        throw new CloudException(String.format("User principal name %s is not found in tenant %s",
-                                                accessPolicy.userPrincipalName(), graphRbacManager.tenantId()), null);
-                                    }
-                                    accessPolicy.forObjectId(user.id());
-                                }
-                            }));
+                    userPrincipalNames.add(accessPolicy.userPrincipalName());
                 } else if (accessPolicy.servicePrincipalName() != null) {
-                    observables.add(graphRbacManager.servicePrincipals().getByNameAsync(accessPolicy.servicePrincipalName())
+                    observables.add(principalResolver.resolveServicePrincipalObjectIdAsync(accessPolicy.servicePrincipalName())
                             .subscribeOn(SdkContext.getRxScheduler())
-                            .doOnNext(new Action1<ServicePrincipal>() {
+                            .doOnNext(new Action1<String>() {
                                 @Override
-                                public void call(ServicePrincipal sp) {
-                                    if (sp == null) {
-                                        throw new CloudException(String.format("User principal name %s is not found in tenant %s",
-                                                accessPolicy.userPrincipalName(), graphRbacManager.tenantId()), null);
+                                public void call(String objectId) {
+                                    if (objectId == null) {
+                                        throw new CloudException(String.format("Service principal name %s is not found in tenant %s",
+                                                accessPolicy.servicePrincipalName(), graphRbacManager.tenantId()), null);
                                     }
-                                    accessPolicy.forObjectId(sp.id());
+                                    accessPolicy.forObjectId(objectId);
                                 }
                             }));
                 } else {
@@ -232,6 +225,25 @@ class VaultImpl
                 }
             }
         }
+        if (!userPrincipalNames.isEmpty()) {
+            // The users are resolved together, so that the names not cached yet are looked up in batches
+            observables.add(principalResolver.resolveUserObjectIdsAsync(userPrincipalNames)
+                    .doOnNext(new Action1<Map<String, String>>() {
+                        @Override
+                        public void call(Map<String, String> objectIds) {
+                            for (AccessPolicyImpl accessPolicy : accessPolicies) {
+                                if (accessPolicy.objectId() == null && accessPolicy.userPrincipalName() != null) {
+                                    String objectId = objectIds.get(accessPolicy.userPrincipalName());
+                                    if (objectId == null) {
+                                        throw new CloudException(String.format("User principal name %s is not found in tenant %s",
+                                                accessPolicy.userPrincipalName(), graphRbacManager.tenantId()), null);
+                                    }
+                                    accessPolicy.forObjectId(objectId);
+                                }
+                            }
+                        }
+                    }));
+        }
         if (observables.isEmpty()) {
             return Observable.just(accessPolicies());
         } else {
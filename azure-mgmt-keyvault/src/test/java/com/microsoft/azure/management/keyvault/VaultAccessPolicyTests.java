@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.keyvault;
+
+import com.microsoft.azure.CloudException;
+import com.microsoft.azure.management.keyvault.implementation.KeyVaultManager;
+import com.microsoft.azure.management.resources.core.MockArmService;
+import com.microsoft.azure.management.resources.fluentcore.arm.Region;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Buffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests the resolution of the user and service principal names of vault access policies.
+ */
+public class VaultAccessPolicyTests {
+    private static final String TENANT_ID = "00000000-0000-0000-0000-000000000001";
+
+    @Test
+    public void canResolveNamesOncePerManager() {
+        VaultService service = new VaultService()
+                .withUser("admin1@contoso.com", "11111111-0000-0000-0000-000000000000")
+                .withUser("admin2@contoso.com", "22222222-0000-0000-0000-000000000000")
+                .withServicePrincipal("http://app1", "33333333-0000-0000-0000-000000000000");
+        KeyVaultManager manager = manager(service);
+
+        Vault vault = defineVault(manager, "vault1")
+                .defineAccessPolicy()
+                    .forUser("admin1@contoso.com")
+                    .allowSecretAllPermissions()
+                    .attach()
+                .defineAccessPolicy()
+                    .forUser("admin2@contoso.com")
+                    .allowKeyAllPermissions()
+                    .attach()
+                .defineAccessPolicy()
+                    .forServicePrincipal("http://app1")
+                    .allowSecretAllPermissions()
+                    .attach()
+                .create();
+
+        Set<String> objectIds = new HashSet<>();
+        for (AccessPolicy accessPolicy : vault.accessPolicies()) {
+            objectIds.add(accessPolicy.objectId());
+        }
+        Assert.assertEquals(service.objectIds(), objectIds);
+        // The 2 users are looked up by a single filter
+        Assert.assertEquals(1, service.userRequestCount.get());
+        Assert.assertEquals(1, service.servicePrincipalRequestCount.get());
+
+        // The names are cached for the other vaults of the manager
+        defineVault(manager, "vault2")
+                .defineAccessPolicy()
+                    .forUser("admin2@contoso.com")
+                    .allowSecretAllPermissions()
+                    .attach()
+                .defineAccessPolicy()
+                    .forServicePrincipal("http://app1")
+                    .allowSecretAllPermissions()
+                    .attach()
+                .create();
+        Assert.assertEquals(1, service.userRequestCount.get());
+        Assert.assertEquals(1, service.servicePrincipalRequestCount.get());
+        Assert.assertEquals(2, service.vaultRequestCount.get());
+    }
+
+    @Test
+    public void canReportMissingUser() {
+        VaultService service = new VaultService()
+                .withUser("admin1@contoso.com", "11111111-0000-0000-0000-000000000000");
+        try {
+            defineVault(manager(service), "vault1")
+                    .defineAccessPolicy()
+                        .forUser("admin1@contoso.com")
+                        .allowSecretAllPermissions()
+                        .attach()
+                    .defineAccessPolicy()
+                        .forUser("missing@contoso.com")
+                        .allowSecretAllPermissions()
+                        .attach()
+                    .create();
+            Assert.fail("Expected the missing user to fail the creation");
+        } catch (CloudException e) {
+            Assert.assertEquals("User principal name missing@contoso.com is not found in tenant " + TENANT_ID, e.getMessage());
+        }
+        Assert.assertEquals(0, service.vaultRequestCount.get());
+    }
+
+    @Test
+    public void canReportMissingServicePrincipal() {
+        VaultService service = new VaultService();
+        try {
+            defineVault(manager(service), "vault1")
+                    .defineAccessPolicy()
+                        .forServicePrincipal("http://missing")
+                        .allowSecretAllPermissions()
+                        .attach()
+                    .create();
+            Assert.fail("Expected the missing service principal to fail the creation");
+        } catch (CloudException e) {
+            Assert.assertEquals("Service principal name http://missing is not found in tenant " + TENANT_ID, e.getMessage());
+        }
+        // The service principal names and the display names are searched
+        Assert.assertEquals(2, service.servicePrincipalRequestCount.get());
+        Assert.assertEquals(0, service.vaultRequestCount.get());
+    }
+
+    private static Vault.DefinitionStages.WithAccessPolicy defineVault(KeyVaultManager manager, String name) {
+        return manager.vaults().define(name)
+                .withRegion(Region.US_WEST)
+                .withExistingResourceGroup("rg1");
+    }
+
+    private static KeyVaultManager manager(VaultService service) {
+        return KeyVaultManager.authenticate(service.restClient(), TENANT_ID, "sub1");
+    }
+
+    /**
+     * Serves the Graph API user and service principal searches from a directory, and echoes the
+     * vault creation requests.
+     */
+    private static class VaultService extends MockArmService {
+        private final Map<String, String> users = new HashMap<>();
+        private final Map<String, String> servicePrincipals = new HashMap<>();
+        private final AtomicInteger userRequestCount = new AtomicInteger();
+        private final AtomicInteger servicePrincipalRequestCount = new AtomicInteger();
+        private final AtomicInteger vaultRequestCount = new AtomicInteger();
+
+        VaultService withUser(String userPrincipalName, String objectId) {
+            users.put(userPrincipalName, objectId);
+            return this;
+        }
+
+        VaultService withServicePrincipal(String servicePrincipalName, String objectId) {
+            servicePrincipals.put(servicePrincipalName, objectId);
+            return this;
+        }
+
+        Set<String> objectIds() {
+            Set<String> objectIds = new HashSet<>(users.values());
+            objectIds.addAll(servicePrincipals.values());
+            return objectIds;
+        }
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Request request = chain.request();
+            List<String> segments = request.url().pathSegments();
+            if (request.url().host().equals("graph.windows.net")) {
+                String filter = request.url().queryParameter("$filter");
+                boolean servicePrincipal = segments.get(1).equals("servicePrincipals");
+                (servicePrincipal ? servicePrincipalRequestCount : userRequestCount).incrementAndGet();
+                if (segments.size() > 2) {
+                    // The direct lookup of a name that is not a user principal name
+                    return response(chain, 404, "{\"odata.error\":{\"code\":\"Request_ResourceNotFound\"}}");
+                }
+                StringBuilder matches = new StringBuilder();
+                for (Map.Entry<String, String> principal : (servicePrincipal ? servicePrincipals : users).entrySet()) {
+                    if (filter != null && filter.contains("'" + principal.getKey() + "'")) {
+                        matches.append(matches.length() > 0 ? "," : "")
+                                .append("{\"objectId\":\"").append(principal.getValue())
+                                .append("\",\"userPrincipalName\":\"").append(principal.getKey()).append("\"}");
+                    }
+                }
+                return response(chain, 200, "{\"value\":[" + matches + "]}");
+            }
+            vaultRequestCount.incrementAndGet();
+            // subscriptions/sub1/resourceGroups/rg1/providers/Microsoft.KeyVault/vaults/{name}
+            String name = segments.get(segments.size() - 1);
+            Buffer buffer = new Buffer();
+            request.body().writeTo(buffer);
+            String content = buffer.readUtf8();
+            return response(chain, 200, "{\"id\":\"" + request.url().encodedPath() + "\",\"name\":\"" + name
+                    + "\",\"type\":\"Microsoft.KeyVault/vaults\"," + content.substring(1));
+        }
+    }
+}
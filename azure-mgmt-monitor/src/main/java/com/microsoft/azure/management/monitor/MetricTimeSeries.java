@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.monitor;
+
+import com.microsoft.azure.management.apigeneration.Beta;
+import com.microsoft.azure.management.apigeneration.Beta.SinceVersion;
+import com.microsoft.azure.management.apigeneration.Fluent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The values of a metric of a resource, held in columns of primitive values.
+ * <p>
+ * A point is addressed by its index in the series, the points are in the order returned by the service,
+ * which is ascending time. Each of the average, count, minimum, maximum and total aggregations is a column,
+ * a point may have no value in a column.
+ */
+@Fluent
+@Beta(SinceVersion.V1_4_0)
+public interface MetricTimeSeries {
+    /**
+     * @return the identifier of the resource the metric values are for
+     */
+    String resourceUri();
+
+    /**
+     * @return the metric id
+     */
+    String id();
+
+    /**
+     * @return the metric name
+     */
+    String name();
+
+    /**
+     * @return the unit of the metric values
+     */
+    Unit unit();
+
+    /**
+     * @return the number of points in the series
+     */
+    int size();
+
+    /**
+     * @param index the index of the point
+     * @return the time stamp of the point, in milliseconds since the epoch
+     */
+    long timestamp(int index);
+
+    /**
+     * @param aggregation the aggregation
+     * @param index the index of the point
+     * @return true if the point has a value for the aggregation
+     */
+    boolean hasValue(AggregationType aggregation, int index);
+
+    /**
+     * @param aggregation the aggregation
+     * @param index the index of the point
+     * @return the value of the point for the aggregation, NaN if the point has no value for it
+     */
+    double value(AggregationType aggregation, int index);
+
+    /**
+     * @return a copy of the time stamps of the points, in milliseconds since the epoch
+     */
+    long[] timestamps();
+
+    /**
+     * @param aggregation the aggregation
+     * @return a copy of the values of the points for the aggregation, NaN for the points with no value
+     */
+    double[] values(AggregationType aggregation);
+
+    /**
+     * Rolls the points up into windows aligned on the epoch. The minimum and maximum of a window are the
+     * minimum and maximum of its points, the total and count are the sums, and the average is weighted by
+     * the count of the points when they have one.
+     * <p>
+     * The roll-up runs over the decoded series, the points are expected in time order as returned by the service.
+     *
+     * @param window the length of the windows
+     * @param unit the time unit of the window length
+     * @return the series with a point per window, time stamped at the start of the window
+     */
+    MetricTimeSeries downsample(long window, TimeUnit unit);
+
+    /**
+     * Computes a percentile of the values of an aggregation in windows aligned on the epoch, interpolating
+     * linearly between the closest ranks.
+     *
+     * @param aggregation the aggregation to compute the percentile of
+     * @param percentile the percentile, between 0 and 100
+     * @param window the length of the windows
+     * @param unit the time unit of the window length
+     * @return the series with a point per window holding the percentile as the value of the aggregation
+     */
+    MetricTimeSeries percentile(AggregationType aggregation, double percentile, long window, TimeUnit unit);
+}
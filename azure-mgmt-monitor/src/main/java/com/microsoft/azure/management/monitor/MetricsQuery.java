@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.monitor;
+
+import com.microsoft.azure.management.apigeneration.Beta;
+import com.microsoft.azure.management.apigeneration.Beta.SinceVersion;
+import com.microsoft.azure.management.apigeneration.Fluent;
+import rx.Observable;
+
+import java.util.Collection;
+
+/**
+ * A query for the metric values of one or more resources.
+ * <p>
+ * The responses are decoded as they are read into {@link MetricTimeSeries}, without materializing
+ * a {@link MetricValue} per point.
+ */
+@Fluent
+@Beta(SinceVersion.V1_4_0)
+public interface MetricsQuery {
+    /**
+     * Specifies the filter selecting the metrics, the aggregations and the time range to retrieve,
+     * e.g. (name.value eq 'Percentage CPU') and startTime eq 2017-10-01 and endTime eq 2017-10-08
+     * and timeGrain eq duration'PT1M'.
+     *
+     * @param filter the filter
+     * @return the query
+     */
+    MetricsQuery withFilter(String filter);
+
+    /**
+     * Specifies the maximum number of resources queried at the same time, 8 by default.
+     *
+     * @param concurrency the number of concurrent requests
+     * @return the query
+     */
+    MetricsQuery withConcurrency(int concurrency);
+
+    /**
+     * Queries the metric values of a resource.
+     *
+     * @param resourceUri the identifier of the resource
+     * @return an observable that emits a series per metric of the resource
+     */
+    Observable<MetricTimeSeries> executeAsync(String resourceUri);
+
+    /**
+     * Queries the metric values of a number of resources, the series are emitted as the responses
+     * are decoded.
+     *
+     * @param resourceUris the identifiers of the resources
+     * @return an observable that emits a series per metric of each resource
+     */
+    Observable<MetricTimeSeries> executeAsync(Collection<String> resourceUris);
+}
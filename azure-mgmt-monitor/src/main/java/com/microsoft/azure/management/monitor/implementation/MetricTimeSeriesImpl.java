@@ -0,0 +1,433 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.monitor.implementation;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.microsoft.azure.management.apigeneration.LangDefinition;
+import com.microsoft.azure.management.monitor.AggregationType;
+import com.microsoft.azure.management.monitor.MetricTimeSeries;
+import com.microsoft.azure.management.monitor.Unit;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.ISODateTimeFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The implementation for {@link MetricTimeSeries}.
+ */
+@LangDefinition
+class MetricTimeSeriesImpl implements MetricTimeSeries {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final DateTimeFormatter TIMESTAMP_PARSER = ISODateTimeFormat.dateTimeParser().withZoneUTC();
+
+    // The columns, in the order of the fields of MetricValue
+    private static final int AVERAGE = 0;
+    private static final int MINIMUM = 1;
+    private static final int MAXIMUM = 2;
+    private static final int TOTAL = 3;
+    private static final int COUNT = 4;
+    private static final int COLUMNS = 5;
+
+    private final String resourceUri;
+    private final String id;
+    private final String name;
+    private final Unit unit;
+    private final int size;
+    private final long[] timestamps;
+    private final double[][] columns;
+    private final BitSet[] present;
+
+    private MetricTimeSeriesImpl(String resourceUri, String id, String name, Unit unit,
+                                 int size, long[] timestamps, double[][] columns, BitSet[] present) {
+        this.resourceUri = resourceUri;
+        this.id = id;
+        this.name = name;
+        this.unit = unit;
+        this.size = size;
+        this.timestamps = timestamps;
+        this.columns = columns;
+        this.present = present;
+    }
+
+    @Override
+    public String resourceUri() {
+        return this.resourceUri;
+    }
+
+    @Override
+    public String id() {
+        return this.id;
+    }
+
+    @Override
+    public String name() {
+        return this.name;
+    }
+
+    @Override
+    public Unit unit() {
+        return this.unit;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public long timestamp(int index) {
+        return this.timestamps[checkIndex(index)];
+    }
+
+    @Override
+    public boolean hasValue(AggregationType aggregation, int index) {
+        return this.present[column(aggregation)].get(checkIndex(index));
+    }
+
+    @Override
+    public double value(AggregationType aggregation, int index) {
+        int column = column(aggregation);
+        checkIndex(index);
+        return this.present[column].get(index) ? this.columns[column][index] : Double.NaN;
+    }
+
+    @Override
+    public long[] timestamps() {
+        return Arrays.copyOf(this.timestamps, this.size);
+    }
+
+    @Override
+    public double[] values(AggregationType aggregation) {
+        int column = column(aggregation);
+        double[] values = new double[this.size];
+        for (int i = 0; i < this.size; i++) {
+            values[i] = this.present[column].get(i) ? this.columns[column][i] : Double.NaN;
+        }
+        return values;
+    }
+
+    @Override
+    public MetricTimeSeries downsample(long window, TimeUnit unit) {
+        long windowMillis = windowMillis(window, unit);
+        Builder builder = new Builder(this.resourceUri, this.id, this.name, this.unit);
+        int start = 0;
+        while (start < this.size) {
+            long windowStart = windowStart(this.timestamps[start], windowMillis);
+            int end = start;
+            double minimum = Double.POSITIVE_INFINITY;
+            double maximum = Double.NEGATIVE_INFINITY;
+            double total = 0;
+            double count = 0;
+            double weightedSum = 0;
+            double weights = 0;
+            boolean hasMinimum = false;
+            boolean hasMaximum = false;
+            boolean hasTotal = false;
+            boolean hasCount = false;
+            while (end < this.size && windowStart(this.timestamps[end], windowMillis) == windowStart) {
+                if (this.present[MINIMUM].get(end)) {
+                    minimum = Math.min(minimum, this.columns[MINIMUM][end]);
+                    hasMinimum = true;
+                }
+                if (this.present[MAXIMUM].get(end)) {
+                    maximum = Math.max(maximum, this.columns[MAXIMUM][end]);
+                    hasMaximum = true;
+                }
+                if (this.present[TOTAL].get(end)) {
+                    total += this.columns[TOTAL][end];
+                    hasTotal = true;
+                }
+                if (this.present[COUNT].get(end)) {
+                    count += this.columns[COUNT][end];
+                    hasCount = true;
+                }
+                if (this.present[AVERAGE].get(end)) {
+                    double weight = this.present[COUNT].get(end) ? this.columns[COUNT][end] : 1;
+                    weightedSum += this.columns[AVERAGE][end] * weight;
+                    weights += weight;
+                }
+                end++;
+            }
+            builder.addPoint(windowStart);
+            if (weights > 0) {
+                builder.setValue(AVERAGE, weightedSum / weights);
+            }
+            if (hasMinimum) {
+                builder.setValue(MINIMUM, minimum);
+            }
+            if (hasMaximum) {
+                builder.setValue(MAXIMUM, maximum);
+            }
+            if (hasTotal) {
+                builder.setValue(TOTAL, total);
+            }
+            if (hasCount) {
+                builder.setValue(COUNT, count);
+            }
+            start = end;
+        }
+        return builder.build();
+    }
+
+    @Override
+    public MetricTimeSeries percentile(AggregationType aggregation, double percentile, long window, TimeUnit unit) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+        }
+        int column = column(aggregation);
+        long windowMillis = windowMillis(window, unit);
+        Builder builder = new Builder(this.resourceUri, this.id, this.name, this.unit);
+        double[] scratch = new double[16];
+        int start = 0;
+        while (start < this.size) {
+            long windowStart = windowStart(this.timestamps[start], windowMillis);
+            int end = start;
+            int count = 0;
+            while (end < this.size && windowStart(this.timestamps[end], windowMillis) == windowStart) {
+                if (this.present[column].get(end)) {
+                    if (count == scratch.length) {
+                        scratch = Arrays.copyOf(scratch, count * 2);
+                    }
+                    scratch[count++] = this.columns[column][end];
+                }
+                end++;
+            }
+            builder.addPoint(windowStart);
+            if (count > 0) {
+                Arrays.sort(scratch, 0, count);
+                double rank = percentile / 100 * (count - 1);
+                int lower = (int) Math.floor(rank);
+                int upper = (int) Math.ceil(rank);
+                builder.setValue(column, scratch[lower] + (scratch[upper] - scratch[lower]) * (rank - lower));
+            }
+            start = end;
+        }
+        return builder.build();
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+        return index;
+    }
+
+    private static int column(AggregationType aggregation) {
+        if (aggregation != null) {
+            switch (aggregation) {
+                case AVERAGE:
+                    return AVERAGE;
+                case MINIMUM:
+                    return MINIMUM;
+                case MAXIMUM:
+                    return MAXIMUM;
+                case TOTAL:
+                    return TOTAL;
+                case COUNT:
+                    return COUNT;
+                default:
+                    break;
+            }
+        }
+        throw new IllegalArgumentException("Aggregation " + aggregation + " has no values.");
+    }
+
+    private static long windowMillis(long window, TimeUnit unit) {
+        long windowMillis = unit.toMillis(window);
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("Window must be at least a millisecond.");
+        }
+        return windowMillis;
+    }
+
+    private static long windowStart(long timestamp, long windowMillis) {
+        long offset = timestamp % windowMillis;
+        return timestamp - (offset < 0 ? offset + windowMillis : offset);
+    }
+
+    /**
+     * Decodes the body of a metrics list response as it is read.
+     *
+     * @param resourceUri the identifier of the resource the metrics are for
+     * @param stream the response body
+     * @return a series per metric in the response
+     * @throws IOException if the body cannot be read or is not a metrics list
+     */
+    static List<MetricTimeSeriesImpl> decode(String resourceUri, InputStream stream) throws IOException {
+        List<MetricTimeSeriesImpl> series = new ArrayList<>();
+        JsonParser parser = JSON_FACTORY.createParser(stream);
+        try {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if ("value".equals(field) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        series.add(decodeMetric(resourceUri, parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } finally {
+            parser.close();
+        }
+        return series;
+    }
+
+    private static MetricTimeSeriesImpl decodeMetric(String resourceUri, JsonParser parser) throws IOException {
+        String id = null;
+        String name = null;
+        Unit unit = null;
+        Builder builder = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            if ("id".equals(field)) {
+                id = parser.getText();
+            } else if ("unit".equals(field)) {
+                unit = Unit.fromString(parser.getText());
+            } else if ("name".equals(field) && token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String nameField = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("value".equals(nameField)) {
+                        name = parser.getText();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if ("data".equals(field) && token == JsonToken.START_ARRAY) {
+                builder = new Builder(resourceUri, null, null, null);
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    decodePoint(parser, builder);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (builder == null) {
+            builder = new Builder(resourceUri, null, null, null);
+        }
+        return builder.withMetric(id, name, unit).build();
+    }
+
+    private static void decodePoint(JsonParser parser, Builder builder) throws IOException {
+        // The time stamp may come after the values, they are held until the point is added
+        long timestamp = Long.MIN_VALUE;
+        double[] values = builder.pointValues;
+        boolean[] present = builder.pointPresent;
+        Arrays.fill(present, false);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            int column = -1;
+            if ("timeStamp".equals(field)) {
+                timestamp = TIMESTAMP_PARSER.parseMillis(parser.getText());
+            } else if ("average".equals(field)) {
+                column = AVERAGE;
+            } else if ("minimum".equals(field)) {
+                column = MINIMUM;
+            } else if ("maximum".equals(field)) {
+                column = MAXIMUM;
+            } else if ("total".equals(field)) {
+                column = TOTAL;
+            } else if ("count".equals(field)) {
+                column = COUNT;
+            } else {
+                parser.skipChildren();
+            }
+            if (column >= 0) {
+                values[column] = parser.getValueAsDouble();
+                present[column] = true;
+            }
+        }
+        if (timestamp == Long.MIN_VALUE) {
+            throw new IOException("Metric value without a time stamp.");
+        }
+        builder.addPoint(timestamp);
+        for (int column = 0; column < COLUMNS; column++) {
+            if (present[column]) {
+                builder.setValue(column, values[column]);
+            }
+        }
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Unexpected token " + actual + " in metrics response, expected " + expected + ".");
+        }
+    }
+
+    /**
+     * Type to append points to a series, growing its columns as needed.
+     */
+    private static class Builder {
+        private final String resourceUri;
+        private String id;
+        private String name;
+        private Unit unit;
+        private int size;
+        private long[] timestamps = new long[64];
+        private final double[][] columns = new double[COLUMNS][64];
+        private final BitSet[] present = new BitSet[COLUMNS];
+        private final double[] pointValues = new double[COLUMNS];
+        private final boolean[] pointPresent = new boolean[COLUMNS];
+
+        Builder(String resourceUri, String id, String name, Unit unit) {
+            this.resourceUri = resourceUri;
+            this.id = id;
+            this.name = name;
+            this.unit = unit;
+            for (int column = 0; column < COLUMNS; column++) {
+                this.present[column] = new BitSet();
+            }
+        }
+
+        Builder withMetric(String id, String name, Unit unit) {
+            this.id = id;
+            this.name = name;
+            this.unit = unit;
+            return this;
+        }
+
+        void addPoint(long timestamp) {
+            if (this.size == this.timestamps.length) {
+                int capacity = this.size * 2;
+                this.timestamps = Arrays.copyOf(this.timestamps, capacity);
+                for (int column = 0; column < COLUMNS; column++) {
+                    this.columns[column] = Arrays.copyOf(this.columns[column], capacity);
+                }
+            }
+            this.timestamps[this.size++] = timestamp;
+        }
+
+        void setValue(int column, double value) {
+            this.columns[column][this.size - 1] = value;
+            this.present[column].set(this.size - 1);
+        }
+
+        MetricTimeSeriesImpl build() {
+            return new MetricTimeSeriesImpl(this.resourceUri, this.id, this.name, this.unit,
+                    this.size, this.timestamps, this.columns, this.present);
+        }
+    }
+}
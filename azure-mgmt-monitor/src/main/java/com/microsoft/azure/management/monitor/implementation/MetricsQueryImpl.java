@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.monitor.implementation;
+
+import com.microsoft.azure.management.apigeneration.LangDefinition;
+import com.microsoft.azure.management.monitor.ErrorResponseException;
+import com.microsoft.azure.management.monitor.MetricTimeSeries;
+import com.microsoft.azure.management.monitor.MetricsQuery;
+import com.microsoft.azure.management.resources.fluentcore.utils.SdkContext;
+import okhttp3.ResponseBody;
+import retrofit2.Response;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.Headers;
+import retrofit2.http.Path;
+import retrofit2.http.Query;
+import retrofit2.http.Streaming;
+import rx.Observable;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The implementation for {@link MetricsQuery}.
+ */
+@LangDefinition
+class MetricsQueryImpl implements MetricsQuery {
+    private static final String API_VERSION = "2016-09-01";
+
+    private final MonitorClientImpl client;
+    private final MetricsService service;
+    private String filter;
+    private int concurrency = 8;
+
+    MetricsQueryImpl(MonitorClientImpl client) {
+        this.client = client;
+        this.service = client.restClient().retrofit().create(MetricsService.class);
+    }
+
+    /**
+     * The metrics list operation of {@link MetricsInner}, with the response body streamed rather than
+     * buffered so that it is decoded as it arrives.
+     */
+    interface MetricsService {
+        @Headers({ "Content-Type: application/json; charset=utf-8", "x-ms-logging-context: com.microsoft.azure.management.monitor.MetricsQuery list" })
+        @GET("{resourceUri}/providers/microsoft.insights/metrics")
+        @Streaming
+        Observable<Response<ResponseBody>> list(@Path(value = "resourceUri", encoded = true) String resourceUri, @Query("$filter") String filter, @Query("api-version") String apiVersion, @Header("accept-language") String acceptLanguage, @Header("User-Agent") String userAgent);
+    }
+
+    @Override
+    public MetricsQueryImpl withFilter(String filter) {
+        this.filter = filter;
+        return this;
+    }
+
+    @Override
+    public MetricsQueryImpl withConcurrency(int concurrency) {
+        this.concurrency = Math.max(1, concurrency);
+        return this;
+    }
+
+    @Override
+    public Observable<MetricTimeSeries> executeAsync(final String resourceUri) {
+        if (resourceUri == null) {
+            throw new IllegalArgumentException("Parameter resourceUri is required and cannot be null.");
+        }
+        final String filter = this.filter;
+        return Observable.defer(new Func0<Observable<Response<ResponseBody>>>() {
+            @Override
+            public Observable<Response<ResponseBody>> call() {
+                return service.list(resourceUri, filter, API_VERSION, client.acceptLanguage(), client.userAgent());
+            }
+        }).flatMap(new Func1<Response<ResponseBody>, Observable<MetricTimeSeries>>() {
+            @Override
+            public Observable<MetricTimeSeries> call(Response<ResponseBody> response) {
+                try {
+                    return Observable.<MetricTimeSeries>from(decode(resourceUri, response));
+                } catch (Throwable t) {
+                    return Observable.error(t);
+                }
+            }
+        });
+    }
+
+    @Override
+    public Observable<MetricTimeSeries> executeAsync(Collection<String> resourceUris) {
+        return Observable.from(resourceUris).flatMap(new Func1<String, Observable<MetricTimeSeries>>() {
+            @Override
+            public Observable<MetricTimeSeries> call(String resourceUri) {
+                return executeAsync(resourceUri).subscribeOn(SdkContext.getRxScheduler());
+            }
+        }, this.concurrency);
+    }
+
+    private List<MetricTimeSeriesImpl> decode(String resourceUri, Response<ResponseBody> response) throws Exception {
+        if (!response.isSuccessful()) {
+            // Surfaces the error the same way the generated client does
+            this.client.restClient().responseBuilderFactory().<Void, ErrorResponseException>newInstance(this.client.serializerAdapter())
+                    .registerError(ErrorResponseException.class)
+                    .build(response);
+        }
+        ResponseBody body = response.body();
+        try {
+            return MetricTimeSeriesImpl.decode(resourceUri, body.byteStream());
+        } finally {
+            body.close();
+        }
+    }
+}
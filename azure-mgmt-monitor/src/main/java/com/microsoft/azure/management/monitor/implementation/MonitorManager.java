@@ -8,13 +8,14 @@
 package com.microsoft.azure.management.monitor.implementation;
 
 import com.microsoft.azure.AzureEnvironment;
-import com.microsoft.azure.AzureResponseBuilder;
 import com.microsoft.azure.credentials.AzureTokenCredentials;
 import com.microsoft.azure.management.apigeneration.Beta;
 import com.microsoft.azure.management.apigeneration.Beta.SinceVersion;
+import com.microsoft.azure.management.monitor.MetricsQuery;
 import com.microsoft.azure.management.resources.fluentcore.arm.AzureConfigurable;
 import com.microsoft.azure.management.resources.fluentcore.arm.implementation.AzureConfigurableImpl;
 import com.microsoft.azure.management.resources.fluentcore.arm.implementation.Manager;
+import com.microsoft.azure.management.resources.fluentcore.utils.CachedResponseBuilderFactory;
 import com.microsoft.azure.management.resources.fluentcore.utils.ProviderRegistrationInterceptor;
 import com.microsoft.azure.serializer.AzureJacksonAdapter;
 import com.microsoft.rest.RestClient;
@@ -38,6 +39,14 @@ public final class MonitorManager extends Manager<MonitorManager, MonitorManagem
         return innerEx;
     }
 
+    /**
+     * @return a new query for the metric values of resources, decoded into columnar time series
+     */
+    @Beta(SinceVersion.V1_4_0)
+    public MetricsQuery metricsQuery() {
+        return new MetricsQueryImpl(this.innerEx);
+    }
+
     /**
     * Get a Configurable instance that can be used to create MonitorManager with optional configuration.
     *
@@ -58,7 +67,7 @@ public final class MonitorManager extends Manager<MonitorManager, MonitorManagem
             .withBaseUrl(credentials.environment(), AzureEnvironment.Endpoint.RESOURCE_MANAGER)
             .withCredentials(credentials)
             .withSerializerAdapter(new AzureJacksonAdapter())
-            .withResponseBuilderFactory(new AzureResponseBuilder.Factory())
+            .withResponseBuilderFactory(new CachedResponseBuilderFactory())
             .withInterceptor(new ProviderRegistrationInterceptor(credentials))
             .build(), subscriptionId);
     }
@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.monitor.implementation;
+
+import com.microsoft.azure.management.monitor.AggregationType;
+import com.microsoft.azure.management.monitor.MetricTimeSeries;
+import com.microsoft.azure.management.monitor.Unit;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class MetricTimeSeriesTests {
+    private static final String RESOURCE_URI = "/subscriptions/sub1/resourceGroups/rg1/providers/Microsoft.Compute/virtualMachines/vm1";
+    // 2017-01-01T00:00:00Z
+    private static final long T0 = 1483228800000L;
+    private static final long MINUTE = 60000L;
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void canDecodeMetrics() throws IOException {
+        List<MetricTimeSeriesImpl> series = decode("{\"cost\":0,\"ignored\":{\"nested\":[1,{\"a\":[2]}]},\"value\":["
+                + "{\"id\":\"" + RESOURCE_URI + "/providers/Microsoft.Insights/metrics/Percentage CPU\","
+                + "\"type\":\"Microsoft.Insights/metrics\","
+                + "\"name\":{\"value\":\"Percentage CPU\",\"localizedValue\":\"Percentage CPU\"},"
+                + "\"unit\":\"Percent\",\"data\":["
+                + "{\"timeStamp\":\"2017-01-01T00:00:00Z\",\"average\":1.0,\"minimum\":1.0,\"maximum\":1.0,\"total\":2.0,\"count\":2},"
+                // The time stamp follows the values
+                + "{\"average\":4.0,\"minimum\":2,\"maximum\":6,\"total\":12,\"count\":3,\"timeStamp\":\"2017-01-01T00:01:00Z\"},"
+                // Null values are absent, unknown fields are skipped with their children
+                + "{\"timeStamp\":\"2017-01-01T00:02:00Z\",\"average\":null,\"minimum\":null,"
+                + "\"extra\":{\"values\":[1,{\"average\":100}]},\"count\":0},"
+                + "{\"timeStamp\":\"2017-01-01T00:05:00Z\",\"average\":10,\"total\":10}]},"
+                + "{\"id\":\"" + RESOURCE_URI + "/providers/Microsoft.Insights/metrics/Network In\","
+                + "\"name\":null,\"unit\":\"Bytes\",\"data\":[]}]}");
+
+        Assert.assertEquals(2, series.size());
+        MetricTimeSeries cpu = series.get(0);
+        Assert.assertEquals(RESOURCE_URI, cpu.resourceUri());
+        Assert.assertEquals("Percentage CPU", cpu.name());
+        Assert.assertEquals(Unit.PERCENT, cpu.unit());
+        Assert.assertEquals(4, cpu.size());
+        Assert.assertArrayEquals(new long[] {T0, T0 + MINUTE, T0 + 2 * MINUTE, T0 + 5 * MINUTE}, cpu.timestamps());
+
+        Assert.assertEquals(4.0, cpu.value(AggregationType.AVERAGE, 1), DELTA);
+        Assert.assertEquals(6.0, cpu.value(AggregationType.MAXIMUM, 1), DELTA);
+        Assert.assertFalse(cpu.hasValue(AggregationType.AVERAGE, 2));
+        Assert.assertTrue(Double.isNaN(cpu.value(AggregationType.AVERAGE, 2)));
+        Assert.assertTrue(cpu.hasValue(AggregationType.COUNT, 2));
+        Assert.assertEquals(0.0, cpu.value(AggregationType.COUNT, 2), DELTA);
+        Assert.assertFalse(cpu.hasValue(AggregationType.MAXIMUM, 2));
+
+        // The column of an aggregation, with NaN where the bitmap has no value
+        double[] minimums = cpu.values(AggregationType.MINIMUM);
+        Assert.assertEquals(4, minimums.length);
+        Assert.assertEquals(1.0, minimums[0], DELTA);
+        Assert.assertEquals(2.0, minimums[1], DELTA);
+        Assert.assertTrue(Double.isNaN(minimums[2]));
+        Assert.assertTrue(Double.isNaN(minimums[3]));
+
+        MetricTimeSeries network = series.get(1);
+        Assert.assertNull(network.name());
+        Assert.assertEquals(Unit.BYTES, network.unit());
+        Assert.assertEquals(0, network.size());
+        Assert.assertEquals(0, network.timestamps().length);
+    }
+
+    @Test
+    public void canGrowColumns() throws IOException {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            data.append(i == 0 ? "" : ",")
+                    .append("{\"timeStamp\":\"").append(new DateTime(T0 + i * MINUTE, DateTimeZone.UTC))
+                    .append("\",\"total\":").append(i).append("}");
+        }
+        MetricTimeSeries series = decode("{\"value\":[{\"name\":{\"value\":\"Requests\"},\"data\":[" + data + "]}]}").get(0);
+
+        Assert.assertEquals(200, series.size());
+        Assert.assertEquals(T0 + 199 * MINUTE, series.timestamp(199));
+        Assert.assertEquals(199.0, series.value(AggregationType.TOTAL, 199), DELTA);
+        Assert.assertFalse(series.hasValue(AggregationType.AVERAGE, 199));
+    }
+
+    @Test(expected = IOException.class)
+    public void cannotDecodePointWithoutTimeStamp() throws IOException {
+        decode("{\"value\":[{\"data\":[{\"average\":1}]}]}");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void cannotReadPastSize() throws IOException {
+        decode("{\"value\":[{\"data\":[{\"timeStamp\":\"2017-01-01T00:00:00Z\",\"average\":1}]}]}").get(0)
+                .value(AggregationType.AVERAGE, 1);
+    }
+
+    @Test
+    public void canDownsampleWithCountWeightedAverage() throws IOException {
+        MetricTimeSeries series = decode("{\"value\":[{\"data\":["
+                + "{\"timeStamp\":\"2017-01-01T00:00:00Z\",\"average\":1.0,\"minimum\":1.0,\"maximum\":1.0,\"total\":2.0,\"count\":2},"
+                + "{\"timeStamp\":\"2017-01-01T00:01:00Z\",\"average\":4.0,\"minimum\":2,\"maximum\":6,\"total\":12,\"count\":3},"
+                + "{\"timeStamp\":\"2017-01-01T00:02:00Z\",\"count\":0},"
+                + "{\"timeStamp\":\"2017-01-01T00:05:00Z\",\"average\":10,\"total\":10},"
+                + "{\"timeStamp\":\"2017-01-01T00:06:00Z\",\"average\":20,\"total\":20}]}]}").get(0);
+
+        MetricTimeSeries downsampled = series.downsample(5, TimeUnit.MINUTES);
+
+        Assert.assertArrayEquals(new long[] {T0, T0 + 5 * MINUTE}, downsampled.timestamps());
+        // (1 * 2 + 4 * 3) / (2 + 3)
+        Assert.assertEquals(2.8, downsampled.value(AggregationType.AVERAGE, 0), DELTA);
+        Assert.assertEquals(1.0, downsampled.value(AggregationType.MINIMUM, 0), DELTA);
+        Assert.assertEquals(6.0, downsampled.value(AggregationType.MAXIMUM, 0), DELTA);
+        Assert.assertEquals(14.0, downsampled.value(AggregationType.TOTAL, 0), DELTA);
+        Assert.assertEquals(5.0, downsampled.value(AggregationType.COUNT, 0), DELTA);
+        // Points without a count weigh 1
+        Assert.assertEquals(15.0, downsampled.value(AggregationType.AVERAGE, 1), DELTA);
+        Assert.assertEquals(30.0, downsampled.value(AggregationType.TOTAL, 1), DELTA);
+        Assert.assertFalse(downsampled.hasValue(AggregationType.COUNT, 1));
+        Assert.assertFalse(downsampled.hasValue(AggregationType.MINIMUM, 1));
+    }
+
+    @Test
+    public void canComputePercentiles() throws IOException {
+        StringBuilder data = new StringBuilder();
+        double[] values = {5, 1, 4, 2, 3};
+        for (int i = 0; i < values.length; i++) {
+            data.append("{\"timeStamp\":\"2017-01-01T00:00:").append(10 + i * 10).append("Z\",\"maximum\":").append(values[i]).append("},");
+        }
+        // The second window has no maximum
+        data.append("{\"timeStamp\":\"2017-01-01T00:01:10Z\",\"average\":1}");
+        MetricTimeSeries series = decode("{\"value\":[{\"data\":[" + data + "]}]}").get(0);
+
+        Assert.assertEquals(3.0, series.percentile(AggregationType.MAXIMUM, 50, 1, TimeUnit.MINUTES).value(AggregationType.MAXIMUM, 0), DELTA);
+        Assert.assertEquals(1.0, series.percentile(AggregationType.MAXIMUM, 0, 1, TimeUnit.MINUTES).value(AggregationType.MAXIMUM, 0), DELTA);
+        Assert.assertEquals(5.0, series.percentile(AggregationType.MAXIMUM, 100, 1, TimeUnit.MINUTES).value(AggregationType.MAXIMUM, 0), DELTA);
+        // The rank of the 90th percentile is 3.6, between 4 and 5
+        MetricTimeSeries p90 = series.percentile(AggregationType.MAXIMUM, 90, 1, TimeUnit.MINUTES);
+        Assert.assertArrayEquals(new long[] {T0, T0 + MINUTE}, p90.timestamps());
+        Assert.assertEquals(4.6, p90.value(AggregationType.MAXIMUM, 0), DELTA);
+        Assert.assertFalse(p90.hasValue(AggregationType.MAXIMUM, 1));
+        Assert.assertFalse(p90.hasValue(AggregationType.AVERAGE, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cannotComputePercentileOutOfRange() throws IOException {
+        decode("{\"value\":[{\"data\":[{\"timeStamp\":\"2017-01-01T00:00:00Z\",\"average\":1}]}]}").get(0)
+                .percentile(AggregationType.AVERAGE, 101, 1, TimeUnit.MINUTES);
+    }
+
+    private static List<MetricTimeSeriesImpl> decode(String json) throws IOException {
+        return MetricTimeSeriesImpl.decode(RESOURCE_URI, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
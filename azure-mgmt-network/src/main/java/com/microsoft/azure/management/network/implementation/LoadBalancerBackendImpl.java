@@ -84,9 +84,12 @@ class LoadBalancerBackendImpl
         Set<String> vmIds = new HashSet<>();
         Map<String, String> nicConfigs = this.backendNicIPConfigurationNames();
         if (nicConfigs != null) {
+            // Fetch the NICs concurrently, a NIC failed to fetch is skipped below
+            NetworkResourceResolver.IdentityMap<NetworkInterface> nics =
+                    this.parent().manager().resourceResolver().networkInterfaces().resolve(nicConfigs.keySet());
             for (String nicId : nicConfigs.keySet()) {
                 try {
-                    NetworkInterface nic = this.parent().manager().networkInterfaces().getById(nicId);
+                    NetworkInterface nic = nics.get(nicId);
                     if (nic == null || nic.virtualMachineId() == null) {
                         continue;
                     } else {
@@ -286,12 +286,16 @@ class LoadBalancerImpl
         if (this.nicsInBackends != null) {
             List<Exception> nicExceptions = new ArrayList<>();
 
+            // Fetch the NICs concurrently, a NIC failed to fetch is reported below
+            NetworkResourceResolver.IdentityMap<NetworkInterface> nics =
+                    this.manager().resourceResolver().networkInterfaces().resolve(this.nicsInBackends.keySet());
+
             // Update the NICs to point to the backend pool
             for (Entry<String, String> nicInBackend : this.nicsInBackends.entrySet()) {
                 String nicId = nicInBackend.getKey();
                 String backendName = nicInBackend.getValue();
                 try {
-                    NetworkInterface nic = this.manager().networkInterfaces().getById(nicId);
+                    NetworkInterface nic = nics.get(nicId);
                     NicIPConfiguration nicIP = nic.primaryIPConfiguration();
                     nic.update()
                         .updateIPConfiguration(nicIP.name())
@@ -9,14 +9,10 @@ import com.microsoft.azure.PagedList;
 import com.microsoft.azure.management.apigeneration.LangDefinition;
 import com.microsoft.azure.management.network.LocalNetworkGateway;
 import com.microsoft.azure.management.network.LocalNetworkGateways;
-import com.microsoft.azure.management.resources.ResourceGroup;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.GroupableResourcesImpl;
-import com.microsoft.azure.management.resources.fluentcore.arm.models.implementation.GroupPagedList;
+import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.ResourceGroupFanOut;
 import rx.Completable;
 import rx.Observable;
-import rx.functions.Func1;
-
-import java.util.List;
 
 /**
  *  Implementation for LocalNetworkGateways.
@@ -42,23 +38,12 @@ class LocalNetworkGatewaysImpl
 
     @Override
     public PagedList<LocalNetworkGateway> list() {
-        return new GroupPagedList<LocalNetworkGateway>(this.manager().resourceManager().resourceGroups().list()) {
-            @Override
-            public List<LocalNetworkGateway> listNextGroup(String resourceGroupName) {
-                return wrapList(LocalNetworkGatewaysImpl.this.inner().listByResourceGroup(resourceGroupName));
-            }
-        };
+        return ResourceGroupFanOut.of(this.manager().resourceManager().resourceGroups(), this).ordered().list();
     }
 
     @Override
     public Observable<LocalNetworkGateway> listAsync() {
-        return this.manager().resourceManager().resourceGroups().listAsync()
-                .flatMap(new Func1<ResourceGroup, Observable<LocalNetworkGateway>>() {
-                    @Override
-                    public Observable<LocalNetworkGateway> call(ResourceGroup resourceGroup) {
-                        return wrapPageAsync(inner().listByResourceGroupAsync(resourceGroup.name()));
-                    }
-                });
+        return ResourceGroupFanOut.of(this.manager().resourceManager().resourceGroups(), this).listAsync();
     }
 
     @Override
@@ -6,7 +6,6 @@
 package com.microsoft.azure.management.network.implementation;
 
 import com.microsoft.azure.AzureEnvironment;
-import com.microsoft.azure.AzureResponseBuilder;
 import com.microsoft.azure.SubResource;
 import com.microsoft.azure.credentials.AzureTokenCredentials;
 import com.microsoft.azure.management.apigeneration.Beta;
@@ -29,6 +28,7 @@ import com.microsoft.azure.management.resources.fluentcore.arm.AzureConfigurable
 import com.microsoft.azure.management.resources.fluentcore.arm.ResourceUtils;
 import com.microsoft.azure.management.resources.fluentcore.arm.implementation.AzureConfigurableImpl;
 import com.microsoft.azure.management.resources.fluentcore.arm.implementation.Manager;
+import com.microsoft.azure.management.resources.fluentcore.utils.CachedResponseBuilderFactory;
 import com.microsoft.azure.management.resources.fluentcore.utils.ProviderRegistrationInterceptor;
 import com.microsoft.azure.management.resources.fluentcore.utils.ResourceManagerThrottlingInterceptor;
 import com.microsoft.azure.serializer.AzureJacksonAdapter;
@@ -37,9 +37,7 @@ import com.microsoft.rest.RestClient;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Entry point to Azure network management.
@@ -81,7 +79,7 @@ public final class NetworkManager extends Manager<NetworkManager, NetworkManagem
                 .withBaseUrl(credentials.environment(), AzureEnvironment.Endpoint.RESOURCE_MANAGER)
                 .withCredentials(credentials)
                 .withSerializerAdapter(new AzureJacksonAdapter())
-                .withResponseBuilderFactory(new AzureResponseBuilder.Factory())
+                .withResponseBuilderFactory(new CachedResponseBuilderFactory())
                 .withInterceptor(new ProviderRegistrationInterceptor(credentials))
                 .withInterceptor(new ResourceManagerThrottlingInterceptor())
                 .build(), subscriptionId);
@@ -263,20 +261,25 @@ public final class NetworkManager extends Manager<NetworkManager, NetworkManagem
         return network.subnets().get(subnetName);
     }
 
+    // Internal utility function
+    NetworkResourceResolver resourceResolver() {
+        return new NetworkResourceResolver(this);
+    }
+
     // Internal utility function
     List<Subnet> listAssociatedSubnets(List<SubnetInner> subnetRefs) {
-        final Map<String, Network> networks = new HashMap<>();
         final List<Subnet> subnets = new ArrayList<>();
 
         if (subnetRefs != null) {
+            final List<String> networkIds = new ArrayList<>();
             for (SubnetInner subnetRef : subnetRefs) {
-                String networkId = ResourceUtils.parentResourceIdFromResourceId(subnetRef.id());
-                Network network = networks.get(networkId.toLowerCase());
-                if (network == null) {
-                    network = this.networks().getById(networkId);
-                    networks.put(networkId.toLowerCase(), network);
-                }
+                networkIds.add(ResourceUtils.parentResourceIdFromResourceId(subnetRef.id()));
+            }
+            final NetworkResourceResolver.IdentityMap<Network> networks = this.resourceResolver().networks().resolve(networkIds);
 
+            for (SubnetInner subnetRef : subnetRefs) {
+                String networkId = ResourceUtils.parentResourceIdFromResourceId(subnetRef.id());
+                Network network = networks.get(networkId);
                 String subnetName = ResourceUtils.nameFromResourceId(subnetRef.id());
                 subnets.add(network.subnets().get(subnetName));
             }
@@ -287,18 +290,19 @@ public final class NetworkManager extends Manager<NetworkManager, NetworkManagem
 
     // Internal utility function
     Collection<ApplicationGatewayBackend> listAssociatedApplicationGatewayBackends(List<ApplicationGatewayBackendAddressPoolInner> backendRefs) {
-        final Map<String, ApplicationGateway> appGateways = new HashMap<>();
         final List<ApplicationGatewayBackend> backends = new ArrayList<>();
 
         if (backendRefs != null) {
+            final List<String> appGatewayIds = new ArrayList<>();
             for (ApplicationGatewayBackendAddressPoolInner backendRef : backendRefs) {
-                String appGatewayId = ResourceUtils.parentResourceIdFromResourceId(backendRef.id());
-                ApplicationGateway appGateway = appGateways.get(appGatewayId.toLowerCase());
-                if (appGateway == null) {
-                    appGateway = this.applicationGateways().getById(appGatewayId);
-                    appGateways.put(appGatewayId.toLowerCase(), appGateway);
-                }
+                appGatewayIds.add(ResourceUtils.parentResourceIdFromResourceId(backendRef.id()));
+            }
+            final NetworkResourceResolver.IdentityMap<ApplicationGateway> appGateways =
+                    this.resourceResolver().applicationGateways().resolve(appGatewayIds);
 
+            for (ApplicationGatewayBackendAddressPoolInner backendRef : backendRefs) {
+                String appGatewayId = ResourceUtils.parentResourceIdFromResourceId(backendRef.id());
+                ApplicationGateway appGateway = appGateways.get(appGatewayId);
                 String backendName = ResourceUtils.nameFromResourceId(backendRef.id());
                 backends.add(appGateway.backends().get(backendName));
             }
@@ -0,0 +1,287 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+package com.microsoft.azure.management.network.implementation;
+
+import com.microsoft.azure.management.network.ApplicationGateway;
+import com.microsoft.azure.management.network.LoadBalancer;
+import com.microsoft.azure.management.network.Network;
+import com.microsoft.azure.management.network.NetworkInterface;
+import com.microsoft.azure.management.resources.fluentcore.arm.ResourceUtils;
+import com.microsoft.azure.management.resources.fluentcore.arm.collection.SupportsGettingById;
+import com.microsoft.azure.management.resources.fluentcore.arm.collection.SupportsListingByResourceGroup;
+import com.microsoft.azure.management.resources.fluentcore.arm.models.HasId;
+import com.microsoft.azure.management.resources.fluentcore.utils.SdkContext;
+import rx.Observable;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An identity map of the network resources referenced while navigating from one resource to others.
+ * <p>
+ * The referenced resources are collected, de-duplicated and fetched concurrently, each resource is
+ * fetched at most once and subsequent navigations are served from the map. A resolver lives as long
+ * as a single operation, it does not refresh the resources and is not thread safe.
+ */
+class NetworkResourceResolver {
+    /**
+     * the maximum number of concurrent requests to fetch the resources.
+     */
+    private static final int MAX_CONCURRENCY = 8;
+    /**
+     * the minimum number of resources referenced in a resource group to list the resource group
+     * instead of getting the resources one by one.
+     */
+    private static final int LIST_THRESHOLD = 10;
+
+    private final NetworkManager manager;
+    private IdentityMap<NetworkInterface> networkInterfaces;
+    private IdentityMap<Network> networks;
+    private IdentityMap<LoadBalancer> loadBalancers;
+    private IdentityMap<ApplicationGateway> applicationGateways;
+
+    NetworkResourceResolver(NetworkManager manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * @return the identity map of network interfaces
+     */
+    IdentityMap<NetworkInterface> networkInterfaces() {
+        if (this.networkInterfaces == null) {
+            this.networkInterfaces = new IdentityMap<>(manager.networkInterfaces(), manager.networkInterfaces());
+        }
+        return this.networkInterfaces;
+    }
+
+    /**
+     * @return the identity map of virtual networks
+     */
+    IdentityMap<Network> networks() {
+        if (this.networks == null) {
+            this.networks = new IdentityMap<>(manager.networks(), manager.networks());
+        }
+        return this.networks;
+    }
+
+    /**
+     * @return the identity map of load balancers
+     */
+    IdentityMap<LoadBalancer> loadBalancers() {
+        if (this.loadBalancers == null) {
+            this.loadBalancers = new IdentityMap<>(manager.loadBalancers(), manager.loadBalancers());
+        }
+        return this.loadBalancers;
+    }
+
+    /**
+     * @return the identity map of application gateways
+     */
+    IdentityMap<ApplicationGateway> applicationGateways() {
+        if (this.applicationGateways == null) {
+            this.applicationGateways = new IdentityMap<>(manager.applicationGateways(), manager.applicationGateways());
+        }
+        return this.applicationGateways;
+    }
+
+    /**
+     * The identity map of resources of a type, keyed by the case insensitive resource id.
+     *
+     * @param <T> the resource type
+     */
+    static final class IdentityMap<T extends HasId> {
+        private final SupportsGettingById<T> getter;
+        private final SupportsListingByResourceGroup<T> lister;
+        /**
+         * the resolved resources, null for the resources that do not exist.
+         */
+        private final Map<String, T> resources = new HashMap<>();
+        /**
+         * the errors of the resources failed to resolve.
+         */
+        private final Map<String, RuntimeException> errors = new HashMap<>();
+
+        IdentityMap(SupportsGettingById<T> getter, SupportsListingByResourceGroup<T> lister) {
+            this.getter = getter;
+            this.lister = lister;
+        }
+
+        /**
+         * Fetches the resources with the given ids those are not yet resolved.
+         * <p>
+         * The resources in a resource group referenced many times are fetched by listing the resource
+         * group, all the listed resources are added to the map.
+         *
+         * @param ids the resource ids, may contain duplicates
+         * @return this identity map
+         */
+        IdentityMap<T> resolve(Collection<String> ids) {
+            Map<String, List<String>> pendingIdsByGroup = new LinkedHashMap<>();
+            Map<String, String> pendingIds = new HashMap<>();
+            for (String id : ids) {
+                if (id == null) {
+                    continue;
+                }
+                String key = id.toLowerCase();
+                if (resources.containsKey(key) || errors.containsKey(key) || pendingIds.containsKey(key)) {
+                    continue;
+                }
+                pendingIds.put(key, id);
+                String groupName = groupNameOf(id);
+                String groupKey = groupName == null ? "" : groupName.toLowerCase();
+                List<String> groupIds = pendingIdsByGroup.get(groupKey);
+                if (groupIds == null) {
+                    groupIds = new ArrayList<>();
+                    pendingIdsByGroup.put(groupKey, groupIds);
+                }
+                groupIds.add(id);
+            }
+            if (pendingIds.isEmpty()) {
+                return this;
+            }
+            List<Observable<Resolution<T>>> resolutions = new ArrayList<>();
+            for (List<String> groupIds : pendingIdsByGroup.values()) {
+                String groupName = groupNameOf(groupIds.get(0));
+                if (groupName != null && groupIds.size() >= LIST_THRESHOLD) {
+                    resolutions.add(listAsync(groupName, groupIds));
+                } else {
+                    for (String id : groupIds) {
+                        resolutions.add(getAsync(id));
+                    }
+                }
+            }
+            for (Resolution<T> resolution : Observable.merge(resolutions, MAX_CONCURRENCY).toList().toBlocking().single()) {
+                String key = resolution.id.toLowerCase();
+                if (resolution.error != null) {
+                    if (pendingIds.containsKey(key)) {
+                        errors.put(key, resolution.error);
+                    }
+                } else if (!resources.containsKey(key)) {
+                    resources.put(key, resolution.resource);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Gets a resource, the resource is fetched if it is not yet resolved.
+         *
+         * @param id the resource id
+         * @return the resource, null if the resource does not exist
+         */
+        T get(String id) {
+            if (id == null) {
+                return null;
+            }
+            String key = id.toLowerCase();
+            if (!resources.containsKey(key) && !errors.containsKey(key)) {
+                resolve(Collections.singletonList(id));
+            }
+            RuntimeException error = errors.get(key);
+            if (error != null) {
+                throw error;
+            }
+            return resources.get(key);
+        }
+
+        private static String groupNameOf(String id) {
+            try {
+                return ResourceUtils.groupFromResourceId(id);
+            } catch (IllegalArgumentException e) {
+                // The malformed id is reported when the resource is fetched
+                return null;
+            }
+        }
+
+        private Observable<Resolution<T>> getAsync(final String id) {
+            return Observable.defer(new Func0<Observable<T>>() {
+                @Override
+                public Observable<T> call() {
+                    Observable<T> resource = getter.getByIdAsync(id);
+                    return resource != null ? resource : Observable.<T>just(null);
+                }
+            })
+            .lastOrDefault(null)
+            .map(new Func1<T, Resolution<T>>() {
+                @Override
+                public Resolution<T> call(T resource) {
+                    return new Resolution<T>(id, resource, null);
+                }
+            })
+            .onErrorReturn(new Func1<Throwable, Resolution<T>>() {
+                @Override
+                public Resolution<T> call(Throwable throwable) {
+                    return new Resolution<T>(id, null, throwable instanceof RuntimeException
+                            ? (RuntimeException) throwable
+                            : new RuntimeException(throwable));
+                }
+            })
+            .subscribeOn(SdkContext.getRxScheduler());
+        }
+
+        private Observable<Resolution<T>> listAsync(final String groupName, final List<String> ids) {
+            return Observable.defer(new Func0<Observable<T>>() {
+                @Override
+                public Observable<T> call() {
+                    return lister.listByResourceGroupAsync(groupName);
+                }
+            })
+            .toList()
+            .flatMap(new Func1<List<T>, Observable<Resolution<T>>>() {
+                @Override
+                public Observable<Resolution<T>> call(List<T> listed) {
+                    Map<String, Resolution<T>> resolutions = new LinkedHashMap<>();
+                    for (T resource : listed) {
+                        resolutions.put(resource.id().toLowerCase(), new Resolution<T>(resource.id(), resource, null));
+                    }
+                    // The referenced resources those are not listed do not exist
+                    for (String id : ids) {
+                        if (!resolutions.containsKey(id.toLowerCase())) {
+                            resolutions.put(id.toLowerCase(), new Resolution<T>(id, null, null));
+                        }
+                    }
+                    return Observable.from(resolutions.values());
+                }
+            })
+            .onErrorResumeNext(new Func1<Throwable, Observable<Resolution<T>>>() {
+                @Override
+                public Observable<Resolution<T>> call(Throwable throwable) {
+                    // Listing the resource group may not be permitted, get the resources one by one
+                    List<Observable<Resolution<T>>> resolutions = new ArrayList<>();
+                    for (String id : ids) {
+                        resolutions.add(getAsync(id));
+                    }
+                    return Observable.merge(resolutions, MAX_CONCURRENCY);
+                }
+            })
+            .subscribeOn(SdkContext.getRxScheduler());
+        }
+    }
+
+    /**
+     * The outcome of fetching a resource.
+     *
+     * @param <T> the resource type
+     */
+    private static final class Resolution<T> {
+        private final String id;
+        private final T resource;
+        private final RuntimeException error;
+
+        Resolution(String id, T resource, RuntimeException error) {
+            this.id = id;
+            this.resource = resource;
+            this.error = error;
+        }
+    }
+}
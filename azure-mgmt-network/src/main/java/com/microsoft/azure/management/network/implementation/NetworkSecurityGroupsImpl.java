@@ -38,8 +38,10 @@ class NetworkSecurityGroupsImpl
         if (nsg != null) {
             Set<String> nicIds = nsg.networkInterfaceIds();
             if (nicIds != null) {
-                for (String nicRef : nsg.networkInterfaceIds()) {
-                    NetworkInterface nic = this.manager().networkInterfaces().getById(nicRef);
+                NetworkResourceResolver.IdentityMap<NetworkInterface> nics =
+                        this.manager().resourceResolver().networkInterfaces().resolve(nicIds);
+                for (String nicRef : nicIds) {
+                    NetworkInterface nic = nics.get(nicRef);
                     if (nic == null) {
                         continue;
                     } else if (!nsg.id().equalsIgnoreCase(nic.networkSecurityGroupId())) {
@@ -26,9 +26,7 @@ import com.microsoft.azure.management.resources.fluentcore.utils.Utils;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Base class implementation for various network interface IP configurations.
@@ -133,15 +131,16 @@ abstract class NicIPConfigurationBaseImpl<ParentImplT extends ParentT, ParentT e
         if (backendRefs == null) {
             return Collections.unmodifiableList(new ArrayList<LoadBalancerBackend>());
         }
-        final Map<String, LoadBalancer> loadBalancers = new HashMap<>();
+        final List<String> loadBalancerIds = new ArrayList<>();
+        for (BackendAddressPoolInner backendRef : backendRefs) {
+            loadBalancerIds.add(ResourceUtils.parentResourceIdFromResourceId(backendRef.id()));
+        }
+        final NetworkResourceResolver.IdentityMap<LoadBalancer> loadBalancers =
+                this.networkManager.resourceResolver().loadBalancers().resolve(loadBalancerIds);
         final List<LoadBalancerBackend> backends = new ArrayList<>();
         for (BackendAddressPoolInner backendRef : backendRefs) {
             String loadBalancerId = ResourceUtils.parentResourceIdFromResourceId(backendRef.id());
-            LoadBalancer loadBalancer = loadBalancers.get(loadBalancerId.toLowerCase());
-            if (loadBalancer == null) {
-                loadBalancer = this.networkManager.loadBalancers().getById(loadBalancerId);
-                loadBalancers.put(loadBalancerId.toLowerCase(), loadBalancer);
-            }
+            LoadBalancer loadBalancer = loadBalancers.get(loadBalancerId);
             String backendName = ResourceUtils.nameFromResourceId(backendRef.id());
             backends.add(loadBalancer.backends().get(backendName));
         }
@@ -154,15 +153,16 @@ abstract class NicIPConfigurationBaseImpl<ParentImplT extends ParentT, ParentT e
         if (inboundNatPoolRefs == null) {
             return Collections.unmodifiableList(new ArrayList<LoadBalancerInboundNatRule>());
         }
-        final Map<String, LoadBalancer> loadBalancers = new HashMap<>();
+        final List<String> loadBalancerIds = new ArrayList<>();
+        for (InboundNatRuleInner ref : inboundNatPoolRefs) {
+            loadBalancerIds.add(ResourceUtils.parentResourceIdFromResourceId(ref.id()));
+        }
+        final NetworkResourceResolver.IdentityMap<LoadBalancer> loadBalancers =
+                this.networkManager.resourceResolver().loadBalancers().resolve(loadBalancerIds);
         final List<LoadBalancerInboundNatRule> rules = new ArrayList<>();
         for (InboundNatRuleInner ref : inboundNatPoolRefs) {
             String loadBalancerId = ResourceUtils.parentResourceIdFromResourceId(ref.id());
-            LoadBalancer loadBalancer = loadBalancers.get(loadBalancerId.toLowerCase());
-            if (loadBalancer == null) {
-                loadBalancer = this.networkManager.loadBalancers().getById(loadBalancerId);
-                loadBalancers.put(loadBalancerId.toLowerCase(), loadBalancer);
-            }
+            LoadBalancer loadBalancer = loadBalancers.get(loadBalancerId);
             String ruleName = ResourceUtils.nameFromResourceId(ref.id());
             rules.add(loadBalancer.inboundNatRules().get(ruleName));
         }
@@ -20,9 +20,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.TreeSet;
 
 /**
@@ -147,30 +145,28 @@ class SubnetImpl
     @Override
     public Collection<NicIPConfiguration> listNetworkInterfaceIPConfigurations() {
         Collection<NicIPConfiguration> ipConfigs = new ArrayList<>();
-        Map<String, NetworkInterface> nics = new TreeMap<>();
         List<IPConfigurationInner> ipConfigRefs = this.inner().ipConfigurations();
         if (ipConfigRefs == null) {
             return ipConfigs;
         }
 
+        // Fetch the referenced NICs concurrently, each NIC once
+        List<String> nicIDs = new ArrayList<>();
+        for (IPConfigurationInner ipConfigRef : ipConfigRefs) {
+            nicIDs.add(ResourceUtils.parentResourceIdFromResourceId(ipConfigRef.id()));
+        }
+        NetworkResourceResolver.IdentityMap<NetworkInterface> nics =
+                this.parent().manager().resourceResolver().networkInterfaces().resolve(nicIDs);
+
         for (IPConfigurationInner ipConfigRef : ipConfigRefs) {
             String nicID = ResourceUtils.parentResourceIdFromResourceId(ipConfigRef.id());
             String ipConfigName = ResourceUtils.nameFromResourceId(ipConfigRef.id());
-            // Check if NIC already cached
-            NetworkInterface nic = nics.get(nicID.toLowerCase());
-            if (nic == null) {
-                //  NIC not previously found, so ask Azure for it
-                nic = this.parent().manager().networkInterfaces().getById(nicID);
-            }
-
+            NetworkInterface nic = nics.get(nicID);
             if (nic == null) {
                 // NIC doesn't exist so ignore this bad reference
                 continue;
             }
 
-            // Cache the NIC
-            nics.put(nic.id().toLowerCase(), nic);
-
             // Get the IP config
             NicIPConfiguration ipConfig = nic.ipConfigurations().get(ipConfigName);
             if (ipConfig == null) {
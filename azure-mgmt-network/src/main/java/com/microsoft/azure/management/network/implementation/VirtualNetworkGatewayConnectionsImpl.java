@@ -11,17 +11,14 @@ import com.microsoft.azure.management.apigeneration.LangDefinition;
 import com.microsoft.azure.management.network.VirtualNetworkGateway;
 import com.microsoft.azure.management.network.VirtualNetworkGatewayConnection;
 import com.microsoft.azure.management.network.VirtualNetworkGatewayConnections;
-import com.microsoft.azure.management.resources.ResourceGroup;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.GroupableResourcesImpl;
-import com.microsoft.azure.management.resources.fluentcore.arm.models.implementation.GroupPagedList;
+import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.ResourceGroupFanOut;
 import com.microsoft.rest.ServiceCallback;
 import com.microsoft.rest.ServiceFuture;
 import rx.Completable;
 import rx.Observable;
 import rx.functions.Func1;
 
-import java.util.List;
-
 /**
  * The implementation of VirtualNetworkGatewayConnections.
  */
@@ -80,12 +77,7 @@ class VirtualNetworkGatewayConnectionsImpl
 
     @Override
     public PagedList<VirtualNetworkGatewayConnection> list() {
-        return new GroupPagedList<VirtualNetworkGatewayConnection>(this.manager().resourceManager().resourceGroups().list()) {
-            @Override
-            public List<VirtualNetworkGatewayConnection> listNextGroup(String resourceGroupName) {
-                return wrapList(VirtualNetworkGatewayConnectionsImpl.this.inner().listByResourceGroup(resourceGroupName));
-            }
-        };
+        return ResourceGroupFanOut.of(this.manager().resourceManager().resourceGroups(), listByResourceGroup()).ordered().list();
     }
 
     @Override
@@ -102,13 +94,16 @@ class VirtualNetworkGatewayConnectionsImpl
 
     @Override
     public Observable<VirtualNetworkGatewayConnection> listAsync() {
-        return this.manager().resourceManager().resourceGroups().listAsync()
-                .flatMap(new Func1<ResourceGroup, Observable<VirtualNetworkGatewayConnection>>() {
-                    @Override
-                    public Observable<VirtualNetworkGatewayConnection> call(ResourceGroup resourceGroup) {
-                        return wrapPageAsync(inner().listByResourceGroupAsync(resourceGroup.name()));
-                    }
-                });
+        return ResourceGroupFanOut.of(this.manager().resourceManager().resourceGroups(), listByResourceGroup()).listAsync();
+    }
+
+    private Func1<String, Observable<VirtualNetworkGatewayConnection>> listByResourceGroup() {
+        return new Func1<String, Observable<VirtualNetworkGatewayConnection>>() {
+            @Override
+            public Observable<VirtualNetworkGatewayConnection> call(String resourceGroupName) {
+                return wrapPageAsync(inner().listByResourceGroupAsync(resourceGroupName));
+            }
+        };
     }
 
     @Override
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.network.implementation;
+
+import com.microsoft.azure.CloudException;
+import com.microsoft.azure.PagedList;
+import com.microsoft.azure.management.resources.fluentcore.arm.collection.SupportsGettingById;
+import com.microsoft.azure.management.resources.fluentcore.arm.collection.SupportsListingByResourceGroup;
+import com.microsoft.azure.management.resources.fluentcore.arm.models.HasId;
+import com.microsoft.rest.ServiceCallback;
+import com.microsoft.rest.ServiceFuture;
+import org.junit.Assert;
+import org.junit.Test;
+import rx.Observable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class NetworkResourceResolverTests {
+    private static final String NIC_ID = "/subscriptions/sub1/resourceGroups/%s/providers/Microsoft.Network/networkInterfaces/nic%d";
+
+    @Test
+    public void canResolveEachResourceOnce() {
+        ItemCollection collection = new ItemCollection(3);
+        NetworkResourceResolver.IdentityMap<Item> nics = new NetworkResourceResolver.IdentityMap<>(collection, collection);
+
+        String nic0 = String.format(NIC_ID, "rg1", 0);
+        String nic1 = String.format(NIC_ID, "rg1", 1);
+        nics.resolve(Arrays.asList(nic0, nic1, nic0.toUpperCase(), String.format(NIC_ID, "rg1", 5)));
+        Assert.assertEquals(3, collection.gets.get());
+        Assert.assertEquals(0, collection.lists.get());
+
+        // Served from the map, ids are case insensitive
+        Assert.assertEquals(nic1, nics.get(nic1.toUpperCase()).id());
+        Assert.assertNull(nics.get(String.format(NIC_ID, "rg1", 5)));
+        Assert.assertEquals(3, collection.gets.get());
+    }
+
+    @Test
+    public void canListResourceGroupReferencedManyTimes() {
+        ItemCollection collection = new ItemCollection(20);
+        NetworkResourceResolver.IdentityMap<Item> nics = new NetworkResourceResolver.IdentityMap<>(collection, collection);
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            ids.add(String.format(NIC_ID, "rg1", i));
+        }
+        ids.add(String.format(NIC_ID, "rg2", 0));
+        nics.resolve(ids);
+        Assert.assertEquals(1, collection.lists.get());
+        Assert.assertEquals(1, collection.gets.get());
+
+        // The listed resources those are not referenced are kept as well
+        Assert.assertNotNull(nics.get(String.format(NIC_ID, "rg1", 15)));
+        Assert.assertEquals(1, collection.lists.get());
+        Assert.assertEquals(1, collection.gets.get());
+
+        // A single reference is fetched by id
+        Assert.assertNull(nics.get(String.format(NIC_ID, "rg1", 25)));
+        Assert.assertEquals(1, collection.lists.get());
+        Assert.assertEquals(2, collection.gets.get());
+    }
+
+    @Test
+    public void canReportErrorOfEachResource() {
+        ItemCollection collection = new ItemCollection(3);
+        NetworkResourceResolver.IdentityMap<Item> nics = new NetworkResourceResolver.IdentityMap<>(collection, collection);
+
+        String failing = String.format(NIC_ID, "failing", 0);
+        String nic0 = String.format(NIC_ID, "rg1", 0);
+        nics.resolve(Arrays.asList(failing, nic0));
+        Assert.assertNotNull(nics.get(nic0));
+        try {
+            nics.get(failing);
+            Assert.fail("Expected the error of the resource to be reported");
+        } catch (CloudException e) {
+            Assert.assertEquals("failed", e.getMessage());
+        }
+    }
+
+    /**
+     * A resource with just an id.
+     */
+    private static class Item implements HasId {
+        private final String id;
+
+        Item(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String id() {
+            return this.id;
+        }
+    }
+
+    /**
+     * A collection with the resources 0 to count - 1 in every resource group.
+     */
+    private static class ItemCollection implements SupportsGettingById<Item>, SupportsListingByResourceGroup<Item> {
+        private final int count;
+        private final AtomicInteger gets = new AtomicInteger();
+        private final AtomicInteger lists = new AtomicInteger();
+
+        ItemCollection(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public Item getById(String id) {
+            return getByIdAsync(id).toBlocking().last();
+        }
+
+        @Override
+        public Observable<Item> getByIdAsync(String id) {
+            gets.incrementAndGet();
+            if (id.contains("/failing/")) {
+                return Observable.error(new CloudException("failed", null));
+            }
+            int index = Integer.parseInt(id.substring(id.lastIndexOf("nic") + 3));
+            return Observable.just(index < count ? new Item(id) : null);
+        }
+
+        @Override
+        public ServiceFuture<Item> getByIdAsync(String id, ServiceCallback<Item> callback) {
+            return ServiceFuture.fromBody(getByIdAsync(id), callback);
+        }
+
+        @Override
+        public PagedList<Item> listByResourceGroup(String resourceGroupName) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Observable<Item> listByResourceGroupAsync(String resourceGroupName) {
+            lists.incrementAndGet();
+            List<Item> items = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                items.add(new Item(String.format(NIC_ID, resourceGroupName, i)));
+            }
+            return Observable.from(items);
+        }
+    }
+}
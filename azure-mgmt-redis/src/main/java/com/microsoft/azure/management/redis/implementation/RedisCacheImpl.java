@@ -22,17 +22,20 @@ import com.microsoft.azure.management.redis.SkuFamily;
 import com.microsoft.azure.management.redis.SkuName;
 import com.microsoft.azure.management.resources.fluentcore.arm.models.HasId;
 import com.microsoft.azure.management.resources.fluentcore.arm.models.implementation.GroupableResourceImpl;
-import com.microsoft.azure.management.resources.fluentcore.utils.SdkContext;
+import com.microsoft.azure.management.resources.fluentcore.utils.ResourcePoller;
 import com.microsoft.azure.management.resources.fluentcore.utils.Utils;
 import org.joda.time.Period;
 import rx.Observable;
 import rx.functions.Action1;
+import rx.functions.Func0;
+import rx.functions.Func1;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation for Redis Cache and its parent interfaces.
@@ -475,22 +478,41 @@ class RedisCacheImpl
     public Observable<RedisCache> updateResourceAsync() {
         final RedisCacheImpl self = this;
         return this.manager().inner().redis().updateAsync(resourceGroupName(), name(), updateParameters)
+                .flatMap(new Func1<RedisResourceInner, Observable<RedisResourceInner>>() {
+                    @Override
+                    public Observable<RedisResourceInner> call(RedisResourceInner redisResourceInner) {
+                        if (isProvisioned(redisResourceInner)) {
+                            return Observable.just(redisResourceInner);
+                        }
+                        return new ResourcePoller<>(new Func0<Observable<RedisResourceInner>>() {
+                            @Override
+                            public Observable<RedisResourceInner> call() {
+                                return self.manager().inner().redis().getByResourceGroupAsync(resourceGroupName(), name());
+                            }
+                        })
+                        .withInitialDelay(30, TimeUnit.SECONDS)
+                        .withDelay(30, TimeUnit.SECONDS)
+                        .pollUntilAsync(new Func1<RedisResourceInner, Boolean>() {
+                            @Override
+                            public Boolean call(RedisResourceInner current) {
+                                return isProvisioned(current);
+                            }
+                        });
+                    }
+                })
                 .map(innerToFluentMap(this))
                 .doOnNext(new Action1<RedisCache>() {
                     @Override
                     public void call(RedisCache redisCache) {
-                        while (!redisCache.provisioningState().equalsIgnoreCase("Succeeded")) {
-                            SdkContext.sleep(30 * 1000);
-
-                            RedisResourceInner innerResource = self.manager().inner().redis().getByResourceGroup(resourceGroupName(), name());
-                            ((RedisCacheImpl) redisCache).setInner(innerResource);
-                            self.setInner(innerResource);
-                        }
                         updatePatchSchedules();
                     }
                 });
     }
 
+    private static boolean isProvisioned(RedisResourceInner inner) {
+        return "Succeeded".equalsIgnoreCase(inner.provisioningState());
+    }
+
     @Override
     public Observable<RedisCache> createResourceAsync() {
         createParameters.withLocation(this.regionName());
@@ -6,6 +6,8 @@
 
 package com.microsoft.azure.management.resources;
 
+import com.microsoft.azure.management.apigeneration.Beta;
+import com.microsoft.azure.management.apigeneration.Beta.SinceVersion;
 import com.microsoft.azure.management.apigeneration.Fluent;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.SupportsGettingById;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.SupportsListingByResourceGroup;
@@ -18,6 +20,7 @@ import com.microsoft.azure.management.resources.implementation.ResourceManager;
 import com.microsoft.rest.ServiceCallback;
 import com.microsoft.rest.ServiceFuture;
 import rx.Completable;
+import rx.Observable;
 
 import java.util.List;
 
@@ -33,6 +36,16 @@ public interface GenericResources extends
         SupportsCreating<GenericResource.DefinitionStages.Blank>,
         SupportsDeletingById,
         HasManager<ResourceManager> {
+    /**
+     * Lists all the resources in the subscription, parsing the resources from the responses one at a
+     * time as they are consumed rather than a page at a time, for subscriptions with a large number
+     * of resources.
+     *
+     * @return an observable that emits the resources
+     */
+    @Beta(SinceVersion.V1_4_0)
+    Observable<GenericResource> listStreamingAsync();
+
     /**
      * Checks if a resource exists in a resource group.
      *
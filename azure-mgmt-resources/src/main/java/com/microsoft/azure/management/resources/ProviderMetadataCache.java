@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources;
+
+import com.microsoft.azure.management.apigeneration.Beta;
+import com.microsoft.azure.management.apigeneration.Beta.SinceVersion;
+import com.microsoft.azure.management.apigeneration.Fluent;
+import rx.Completable;
+import rx.Observable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cache of the resource providers registered in a subscription, used to resolve the default api
+ * version of a resource from its id without a request to the service for every resource.
+ * <p>
+ * The providers are cached for a time to live, concurrent loads of the same provider share a single
+ * request.
+ */
+@Fluent
+@Beta(SinceVersion.V1_4_0)
+public interface ProviderMetadataCache {
+    /**
+     * Specifies how long a loaded provider is reused, 1 hour by default.
+     *
+     * @param timeToLive the time to live
+     * @param unit the time unit of the time to live
+     * @return the cache
+     */
+    ProviderMetadataCache withTimeToLive(long timeToLive, TimeUnit unit);
+
+    /**
+     * Gets a resource provider, the provider is loaded if it is not cached.
+     *
+     * @param namespace the resource provider namespace
+     * @return an observable that emits the provider
+     */
+    Observable<Provider> getProviderAsync(String namespace);
+
+    /**
+     * Gets the default api version to make a request for a resource with.
+     *
+     * @param resourceId the resource id
+     * @return the default api version
+     */
+    String getDefaultApiVersion(String resourceId);
+
+    /**
+     * Gets the default api version to make a request for a resource with.
+     *
+     * @param resourceId the resource id
+     * @return an observable that emits the default api version
+     */
+    Observable<String> getDefaultApiVersionAsync(String resourceId);
+
+    /**
+     * Loads all the resource providers of the subscription with a single listing.
+     *
+     * @return a completable that completes when the providers are cached
+     */
+    Completable warmUpAsync();
+
+    /**
+     * Drops a cached resource provider.
+     *
+     * @param namespace the resource provider namespace
+     */
+    void invalidate(String namespace);
+
+    /**
+     * Drops all the cached resource providers.
+     */
+    void invalidateAll();
+}
@@ -8,7 +8,9 @@ package com.microsoft.azure.management.resources.fluentcore.arm;
 
 import com.microsoft.azure.management.apigeneration.LangDefinition;
 import java.security.InvalidParameterException;
-import org.apache.commons.lang3.StringUtils;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Instantiate itself from a resource id, and give easy access to resource information like subscription, resourceGroup,
@@ -16,106 +18,151 @@ import org.apache.commons.lang3.StringUtils;
  */
 @LangDefinition
 public final class ResourceId {
+    /**
+     * The maximum number of parsed ids kept in the cache, the cache is cleared once the limit is reached.
+     */
+    private static final int CACHE_CAPACITY = 16 * 1024;
+    private static final ConcurrentMap<String, ResourceId> CACHE = new ConcurrentHashMap<>();
+    private static final AtomicInteger CACHE_SIZE = new AtomicInteger();
+    private static final ConcurrentMap<String, String> SEGMENTS = new ConcurrentHashMap<>();
+    private static final AtomicInteger SEGMENTS_SIZE = new AtomicInteger();
+    private static final ResourceId NULL_ID = new ResourceId(null, null, null, 0);
 
-    private String subscriptionId = null;
-    private String resourceGroupName = null;
-    private String name = null;
-    private String providerNamespace = null;
-    private String resourceType = null;
-    private String id = null;
-    private String parentId = null;
+    /**
+     * The id string the segments are parsed from, the parents share it with their child.
+     */
+    private final String source;
+    /**
+     * The index in source where each segment starts, the entry after the last segment is the
+     * index after the end of the last segment plus one.
+     */
+    private final int[] segmentStarts;
+    /**
+     * The number of segments in this id, a parent uses a prefix of the segments of it's child.
+     */
+    private final int segmentCount;
+    private final String id;
+
+    // Materialized on first access
+    private String subscriptionId;
+    private String resourceGroupName;
+    private String name;
+    private String providerNamespace;
+    private String resourceType;
+    private String fullResourceType;
+    private ResourceId parent;
 
     private static String badIdErrorText(String id) {
         return String.format("The specified ID `%s` is not a valid Azure resource ID.", id);
     }
 
-    private ResourceId(final String id) {
-        if (id == null) {
-            // Protect against NPEs from null IDs, preserving legacy behavior for null IDs
-            return;
-        } else {
-            // Skip the first '/' if any, and then split using '/'
-            String[] splits = (id.startsWith("/")) ? id.substring(1).split("/") : id.split("/");
-            if (splits.length % 2 == 1) {
-                throw new InvalidParameterException(badIdErrorText(id));
-            }
-
-            // Save the ID itself
-            this.id = id;
-
-            // Format of id:
-            // /subscriptions/<subscriptionId>/resourceGroups/<resourceGroupName>/providers/<providerNamespace>(/<parentResourceType>/<parentName>)*/<resourceType>/<name>
-            //  0             1                2              3                   4         5                                                        N-2            N-1
-
-            // Extract resource type and name
-            if (splits.length < 2) {
-                throw new InvalidParameterException(badIdErrorText(id));
-            } else {
-                this.name = splits[splits.length - 1];
-                this.resourceType = splits[splits.length - 2];
-            }
+    private ResourceId(String source, int[] segmentStarts, String id, int segmentCount) {
+        this.source = source;
+        this.segmentStarts = segmentStarts;
+        this.id = id;
+        this.segmentCount = segmentCount;
+    }
 
-            // Extract parent ID
-            if (splits.length < 10) {
-                this.parentId = null;
-            } else {
-                String[] parentSplits = new String[splits.length - 2];
-                System.arraycopy(splits, 0, parentSplits, 0, splits.length - 2);
-                this.parentId = "/" + StringUtils.join(parentSplits, "/");
+    /**
+     * Parses an id in a single pass, recording the offsets of the segments.
+     */
+    private static ResourceId parse(final String id) {
+        // Format of id:
+        // /subscriptions/<subscriptionId>/resourceGroups/<resourceGroupName>/providers/<providerNamespace>(/<parentResourceType>/<parentName>)*/<resourceType>/<name>
+        //  0             1                2              3                   4         5                                                        N-2            N-1
+
+        // Skip the first '/' if any
+        int begin = id.startsWith("/") ? 1 : 0;
+        int length = id.length();
+        int slashCount = 0;
+        for (int i = begin; i < length; i++) {
+            if (id.charAt(i) == '/') {
+                slashCount++;
             }
-
-            for (int i = 0; i < splits.length && i < 6; i++) {
-                switch (i) {
-                case 0:
-                    // Ensure "subscriptions"
-                    if (!splits[i].equalsIgnoreCase("subscriptions")) {
-                        throw new InvalidParameterException(badIdErrorText(id));
-                    }
-                    break;
-                case 1:
-                    // Extract subscription ID
-                    this.subscriptionId = splits[i];
-                    break;
-                case 2:
-                    // Ensure "resourceGroups"
-                    if (!splits[i].equalsIgnoreCase("resourceGroups")) {
-                        throw new InvalidParameterException(badIdErrorText(id));
-                    }
-                    break;
-                case 3:
-                    // Extract resource group name
-                    this.resourceGroupName = splits[i];
-                    break;
-                case 4:
-                    // Ensure "providers"
-                    if (!splits[i].equalsIgnoreCase("providers")) {
-                        throw new InvalidParameterException(badIdErrorText(id));
-                    }
-                    break;
-                case 5:
-                    // Extract provider namespace
-                    this.providerNamespace = splits[i];
-                    break;
-                default:
-                    break;
-                }
+        }
+        int[] starts = new int[slashCount + 2];
+        int count = 0;
+        starts[count++] = begin;
+        for (int i = begin; i < length; i++) {
+            if (id.charAt(i) == '/') {
+                starts[count++] = i + 1;
             }
         }
+        starts[count] = length + 1;
+        // Trailing empty segments are ignored, as String.split does
+        while (count > 0 && starts[count] - 1 == starts[count - 1]) {
+            count--;
+        }
+        if (count < 2 || count % 2 == 1) {
+            throw new InvalidParameterException(badIdErrorText(id));
+        }
+        if (!segmentEquals(id, starts, 0, "subscriptions")
+                || (count > 2 && !segmentEquals(id, starts, 2, "resourceGroups"))
+                || (count > 4 && !segmentEquals(id, starts, 4, "providers"))) {
+            throw new InvalidParameterException(badIdErrorText(id));
+        }
+        return new ResourceId(id, starts, id, count);
+    }
+
+    private static boolean segmentEquals(String source, int[] starts, int index, String expected) {
+        int segmentLength = starts[index + 1] - 1 - starts[index];
+        return segmentLength == expected.length()
+                && source.regionMatches(true, starts[index], expected, 0, segmentLength);
     }
 
     /**
      * Returns parsed ResourceId object for a given resource id.
+     * <p>
+     * The parsed ids are cached, parsing the same id again returns the same instance.
+     *
      * @param id of the resource
      * @return ResourceId object
      */
     public static ResourceId fromString(String id) {
-        return new ResourceId(id);
+        if (id == null) {
+            // Protect against NPEs from null IDs, preserving legacy behavior for null IDs
+            return NULL_ID;
+        }
+        ResourceId resourceId = CACHE.get(id);
+        if (resourceId == null) {
+            resourceId = parse(id);
+            if (CACHE_SIZE.incrementAndGet() > CACHE_CAPACITY) {
+                CACHE.clear();
+                CACHE_SIZE.set(0);
+            }
+            ResourceId existing = CACHE.putIfAbsent(id, resourceId);
+            if (existing != null) {
+                resourceId = existing;
+            }
+        }
+        return resourceId;
+    }
+
+    /**
+     * Gets a segment of the id, the segment string is interned so that the ids of resources in the same
+     * subscription, resource group or of the same type share a single instance of it.
+     */
+    private String segment(int index) {
+        String segment = source.substring(segmentStarts[index], segmentStarts[index + 1] - 1);
+        String interned = SEGMENTS.get(segment);
+        if (interned != null) {
+            return interned;
+        }
+        if (SEGMENTS_SIZE.incrementAndGet() > CACHE_CAPACITY) {
+            SEGMENTS.clear();
+            SEGMENTS_SIZE.set(0);
+        }
+        interned = SEGMENTS.putIfAbsent(segment, segment);
+        return interned == null ? segment : interned;
     }
 
     /**
      * @return subscriptionId of the resource.
      */
     public String subscriptionId() {
+        if (this.subscriptionId == null && this.segmentCount > 1) {
+            this.subscriptionId = segment(1);
+        }
         return this.subscriptionId;
     }
 
@@ -123,6 +170,9 @@ public final class ResourceId {
      * @return resourceGroupName of the resource.
      */
     public String resourceGroupName() {
+        if (this.resourceGroupName == null && this.segmentCount > 3) {
+            this.resourceGroupName = segment(3);
+        }
         return this.resourceGroupName;
     }
 
@@ -130,6 +180,10 @@ public final class ResourceId {
      * @return name of the resource.
      */
     public String name() {
+        if (this.name == null && this.segmentCount > 0) {
+            // The names are not interned as they are mostly unique
+            this.name = source.substring(segmentStarts[segmentCount - 1], segmentStarts[segmentCount] - 1);
+        }
         return this.name;
     }
 
@@ -137,17 +191,24 @@ public final class ResourceId {
      * @return parent resource id of the resource if any, otherwise null.
      */
     public ResourceId parent() {
-        if (this.id == null || this.parentId == null) {
-            return null;
-        } else {
-            return fromString(this.parentId);
+        if (this.parent == null && this.segmentCount >= 10) {
+            int parentCount = this.segmentCount - 2;
+            String parentId = this.source.substring(0, this.segmentStarts[parentCount] - 1);
+            if (this.segmentStarts[0] == 0) {
+                parentId = "/" + parentId;
+            }
+            this.parent = new ResourceId(this.source, this.segmentStarts, parentId, parentCount);
         }
+        return this.parent;
     }
 
     /**
      * @return name of the provider.
      */
     public String providerNamespace() {
+        if (this.providerNamespace == null && this.segmentCount > 5) {
+            this.providerNamespace = segment(5);
+        }
         return this.providerNamespace;
     }
 
@@ -155,6 +216,9 @@ public final class ResourceId {
      * @return type of the resource.
      */
     public String resourceType() {
+        if (this.resourceType == null && this.segmentCount > 1) {
+            this.resourceType = segment(segmentCount - 2);
+        }
         return this.resourceType;
     }
 
@@ -162,11 +226,14 @@ public final class ResourceId {
      * @return full type of the resource.
      */
     public String fullResourceType() {
-        if (this.parentId == null) {
-            return this.providerNamespace + "/" + this.resourceType;
-        } else {
-            return this.parent().fullResourceType() + "/" + this.resourceType;
+        if (this.fullResourceType == null) {
+            if (this.parent() == null) {
+                this.fullResourceType = this.providerNamespace() + "/" + this.resourceType();
+            } else {
+                this.fullResourceType = this.parent().fullResourceType() + "/" + this.resourceType();
+            }
         }
+        return this.fullResourceType;
     }
 
     /**
@@ -6,6 +6,8 @@
 
 package com.microsoft.azure.management.resources.fluentcore.arm;
 
+import com.microsoft.azure.management.apigeneration.Beta;
+import com.microsoft.azure.management.apigeneration.Beta.SinceVersion;
 import com.microsoft.azure.management.resources.Provider;
 import com.microsoft.azure.management.resources.ProviderResourceType;
 
@@ -66,12 +68,8 @@ public final class ResourceUtils {
         if (id == null) {
             return null;
         }
-        ResourceId resourceId = ResourceId.fromString(id);
-        if (resourceId != null && resourceId.parent() != null) {
-            return ResourceId.fromString(id).parent().id();
-        }
-
-        return null;
+        ResourceId parent = ResourceId.fromString(id).parent();
+        return parent != null ? parent.id() : null;
     }
 
     /**
@@ -105,11 +103,12 @@ public final class ResourceUtils {
         if (id == null) {
             return null;
         }
-        String[] paths = id.split("/providers/" + resourceProviderFromResourceId(id) + "/", 2);
-        if (paths.length == 1) {
+        String providerPath = "/providers/" + resourceProviderFromResourceId(id) + "/";
+        int index = id.indexOf(providerPath);
+        if (index < 0) {
             return "";
         } else {
-            return paths[1];
+            return id.substring(index + providerPath.length());
         }
     }
 
@@ -152,7 +151,30 @@ public final class ResourceUtils {
      * @return the default api version to use
      */
     public static String defaultApiVersion(String id, Provider provider) {
-        String resourceType = resourceTypeFromResourceId(id).toLowerCase();
+        String apiVersion = apiVersionOfResourceType(resourceTypeFromResourceId(id), provider);
+        if (apiVersion != null) {
+            return apiVersion;
+        }
+        // look for parent
+        String parentId = parentResourceIdFromResourceId(id);
+        if (parentId != null) {
+            return defaultApiVersion(parentId, provider);
+        } else {
+            // Fallback: use a random one, not guaranteed to work
+            return provider.resourceTypes().get(0).apiVersions().get(0);
+        }
+    }
+
+    /**
+     * Find out the default api version of a resource type from the resource
+     * provider, without looking at the parent resource types.
+     *
+     * @param resourceType the type of the resource, e.g. sites/config
+     * @param provider the resource provider
+     * @return the default api version of the resource type, null if the provider has no matching resource type
+     */
+    @Beta(SinceVersion.V1_4_0)
+    public static String apiVersionOfResourceType(String resourceType, Provider provider) {
         // Exact match
         for (ProviderResourceType prt : provider.resourceTypes()) {
             if (prt.resourceType().equalsIgnoreCase(resourceType)) {
@@ -160,19 +182,13 @@ public final class ResourceUtils {
             }
         }
         // child resource, e.g. sites/config
+        String childSuffix = "/" + resourceType.toLowerCase();
         for (ProviderResourceType prt : provider.resourceTypes()) {
-            if (prt.resourceType().toLowerCase().contains("/" + resourceType)) {
+            if (prt.resourceType().toLowerCase().contains(childSuffix)) {
                 return prt.apiVersions().get(0);
             }
         }
-        // look for parent
-        String parentId = parentResourceIdFromResourceId(id);
-        if (parentId != null) {
-            return defaultApiVersion(parentId, provider);
-        } else {
-            // Fallback: use a random one, not guaranteed to work
-            return provider.resourceTypes().get(0).apiVersions().get(0);
-        }
+        return null;
     }
 
     /**
@@ -70,6 +70,15 @@ public abstract class ReadableWrappersImpl<
         return wrapModelAsync(convertPageToInnerAsync(innerPage));
     }
 
+    /**
+     * Wraps the inner items emitted one at a time, e.g. by a {@link com.microsoft.azure.management.resources.fluentcore.utils.StreamingListReader}.
+     * @param innerItems the observable emitting inner items
+     * @return the observable emitting the wrapped items
+     */
+    protected Observable<T> wrapStreamAsync(Observable<InnerT> innerItems) {
+        return converter.convert(innerItems);
+    }
+
     protected Observable<T> wrapListAsync(Observable<List<InnerT>> innerList) {
         return wrapModelAsync(convertListToInnerAsync(innerList));
     }
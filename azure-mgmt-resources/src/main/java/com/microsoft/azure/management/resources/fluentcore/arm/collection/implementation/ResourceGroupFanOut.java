@@ -0,0 +1,343 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+package com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation;
+
+import com.microsoft.azure.Page;
+import com.microsoft.azure.PagedList;
+import com.microsoft.azure.management.resources.ResourceGroup;
+import com.microsoft.azure.management.resources.ResourceGroups;
+import com.microsoft.azure.management.resources.fluentcore.arm.collection.SupportsListingByResourceGroup;
+import com.microsoft.azure.management.resources.fluentcore.utils.SdkContext;
+import com.microsoft.azure.management.resources.implementation.PageImpl;
+import rx.Notification;
+import rx.Observable;
+import rx.Subscriber;
+import rx.exceptions.Exceptions;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.functions.Func2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Lists resources across all the resource groups of a subscription, for the collections without
+ * a subscription level list API.
+ * <p>
+ * The resource groups are listed concurrently with a bounded number of requests in flight, the
+ * resources are emitted as the groups are listed or, in ordered mode, in the order of the resource
+ * groups. Optionally the failure of a group can be isolated from the others, and the listing can be
+ * stopped once a resource is found.
+ * (Internal use only)
+ *
+ * @param <T> the resource type
+ */
+public final class ResourceGroupFanOut<T> {
+    /**
+     * the default maximum number of resource groups listed at a time.
+     */
+    public static final int DEFAULT_CONCURRENCY = 4;
+
+    private final Observable<String> resourceGroupNames;
+    private final Func1<String, Observable<T>> groupLister;
+    private int concurrency = DEFAULT_CONCURRENCY;
+    private boolean ordered;
+    private Func2<String, Throwable, Boolean> groupErrorHandler;
+    private Func1<? super T, Boolean> stopPredicate;
+
+    private ResourceGroupFanOut(Observable<String> resourceGroupNames, Func1<String, Observable<T>> groupLister) {
+        this.resourceGroupNames = resourceGroupNames;
+        this.groupLister = groupLister;
+    }
+
+    /**
+     * Creates a fan-out listing the resources of each of the given resource groups with the given function.
+     *
+     * @param resourceGroupNames an observable that emits the names of the resource groups
+     * @param groupLister the function listing the resources in a resource group by name
+     * @param <T> the resource type
+     * @return the fan-out
+     */
+    public static <T> ResourceGroupFanOut<T> of(Observable<String> resourceGroupNames, Func1<String, Observable<T>> groupLister) {
+        return new ResourceGroupFanOut<>(resourceGroupNames, groupLister);
+    }
+
+    /**
+     * Creates a fan-out listing the resources of each resource group with the given function.
+     *
+     * @param resourceGroups the resource groups of the subscription
+     * @param groupLister the function listing the resources in a resource group by name
+     * @param <T> the resource type
+     * @return the fan-out
+     */
+    public static <T> ResourceGroupFanOut<T> of(ResourceGroups resourceGroups, Func1<String, Observable<T>> groupLister) {
+        Observable<String> resourceGroupNames = resourceGroups.listAsync()
+                .map(new Func1<ResourceGroup, String>() {
+                    @Override
+                    public String call(ResourceGroup resourceGroup) {
+                        return resourceGroup.name();
+                    }
+                });
+        return new ResourceGroupFanOut<>(resourceGroupNames, groupLister);
+    }
+
+    /**
+     * Creates a fan-out listing the resources of each resource group from the given collection.
+     *
+     * @param resourceGroups the resource groups of the subscription
+     * @param collection the collection to list the resources in a resource group from
+     * @param <T> the resource type
+     * @return the fan-out
+     */
+    public static <T> ResourceGroupFanOut<T> of(ResourceGroups resourceGroups, final SupportsListingByResourceGroup<T> collection) {
+        return of(resourceGroups, new Func1<String, Observable<T>>() {
+            @Override
+            public Observable<T> call(String resourceGroupName) {
+                return collection.listByResourceGroupAsync(resourceGroupName);
+            }
+        });
+    }
+
+    /**
+     * Specifies the maximum number of resource groups listed at a time.
+     *
+     * @param concurrency the maximum number of resource groups listed at a time
+     * @return the fan-out
+     */
+    public ResourceGroupFanOut<T> withConcurrency(int concurrency) {
+        this.concurrency = Math.max(1, concurrency);
+        return this;
+    }
+
+    /**
+     * Specifies that the resources are emitted in the order of the resource groups, the resources
+     * of the resource groups listed ahead of their turn are buffered.
+     *
+     * @return the fan-out
+     */
+    public ResourceGroupFanOut<T> ordered() {
+        this.ordered = true;
+        return this;
+    }
+
+    /**
+     * Specifies the handler for the failure to list a resource group, by default the failure of a
+     * resource group fails the listing.
+     *
+     * @param groupErrorHandler the handler called with the resource group name and the error, returns
+     *                          true to skip the resource group, false to fail the listing
+     * @return the fan-out
+     */
+    public ResourceGroupFanOut<T> withGroupErrorHandler(Func2<String, Throwable, Boolean> groupErrorHandler) {
+        this.groupErrorHandler = groupErrorHandler;
+        return this;
+    }
+
+    /**
+     * Specifies the condition to stop the listing on, the resource matching it is the last one
+     * emitted and no more resource groups are listed.
+     *
+     * @param stopPredicate the predicate returning true for the resource to stop at
+     * @return the fan-out
+     */
+    public ResourceGroupFanOut<T> stopWhen(Func1<? super T, Boolean> stopPredicate) {
+        this.stopPredicate = stopPredicate;
+        return this;
+    }
+
+    /**
+     * Lists the resources across the resource groups.
+     *
+     * @return an observable that emits the resources
+     */
+    public Observable<T> listAsync() {
+        Observable<T> resources = fanOut(new Func1<String, Observable<T>>() {
+            @Override
+            public Observable<T> call(String resourceGroupName) {
+                return listGroupAsync(resourceGroupName);
+            }
+        });
+        if (this.stopPredicate != null) {
+            resources = resources.takeUntil(this.stopPredicate);
+        }
+        return resources;
+    }
+
+    /**
+     * Lists the resources across the resource groups, with a page per resource group.
+     * <p>
+     * The pages are requested as the iteration reaches them, with at most the concurrency number of
+     * resource groups listed ahead of the iteration. An abandoned iteration lists no more resource
+     * groups once those in flight complete, and the listing is unsubscribed from once the iteration
+     * reaches the last page or fails.
+     *
+     * @return the list of resources
+     */
+    public PagedList<T> list() {
+        Observable<List<T>> pages = fanOut(new Func1<String, Observable<List<T>>>() {
+            @Override
+            public Observable<List<T>> call(String resourceGroupName) {
+                return listGroupAsync(resourceGroupName).toList();
+            }
+        });
+        final Func1<? super T, Boolean> stop = this.stopPredicate;
+        if (stop != null) {
+            pages = pages
+                    .map(new Func1<List<T>, List<T>>() {
+                        @Override
+                        public List<T> call(List<T> page) {
+                            for (int i = 0; i < page.size(); i++) {
+                                if (stop.call(page.get(i))) {
+                                    return page.subList(0, i + 1);
+                                }
+                            }
+                            return page;
+                        }
+                    })
+                    .takeUntil(new Func1<List<T>, Boolean>() {
+                        @Override
+                        public Boolean call(List<T> page) {
+                            return !page.isEmpty() && stop.call(page.get(page.size() - 1));
+                        }
+                    });
+        }
+        return new FanOutPagedList<>(pages);
+    }
+
+    private Observable<T> listGroupAsync(final String resourceGroupName) {
+        Observable<T> resources = Observable.defer(new Func0<Observable<T>>() {
+            @Override
+            public Observable<T> call() {
+                return groupLister.call(resourceGroupName);
+            }
+        });
+        final Func2<String, Throwable, Boolean> errorHandler = this.groupErrorHandler;
+        if (errorHandler != null) {
+            resources = resources.onErrorResumeNext(new Func1<Throwable, Observable<T>>() {
+                @Override
+                public Observable<T> call(Throwable throwable) {
+                    if (errorHandler.call(resourceGroupName, throwable)) {
+                        return Observable.empty();
+                    }
+                    return Observable.error(throwable);
+                }
+            });
+        }
+        return resources;
+    }
+
+    /**
+     * Maps each resource group to the observable of its resources, subscribing to at most the
+     * concurrency number of them at a time. The subscriptions happen on the SDK scheduler so that
+     * the requests of the resource groups are sent concurrently.
+     */
+    private <R> Observable<R> fanOut(final Func1<String, Observable<R>> groupResources) {
+        Func1<String, Observable<R>> scheduled = new Func1<String, Observable<R>>() {
+            @Override
+            public Observable<R> call(String resourceGroupName) {
+                return groupResources.call(resourceGroupName).subscribeOn(SdkContext.getRxScheduler());
+            }
+        };
+        if (this.ordered) {
+            return this.resourceGroupNames.concatMapEager(scheduled, this.concurrency, this.concurrency);
+        }
+        return this.resourceGroupNames.flatMap(scheduled, this.concurrency);
+    }
+
+    /**
+     * A list of resources with a page per resource group, the pages are taken from the fan-out one
+     * at a time as the iteration reaches them.
+     *
+     * @param <E> the resource type
+     */
+    private static final class FanOutPagedList<E> extends PagedList<E> {
+        private final PageSubscriber<E> pageSubscriber = new PageSubscriber<>();
+
+        FanOutPagedList(Observable<List<E>> pages) {
+            pages.subscribe(this.pageSubscriber);
+            setCurrentPage(nextPage("dummy"));
+        }
+
+        @Override
+        public Page<E> nextPage(String s) {
+            PageImpl<E> page = new PageImpl<>();
+            List<E> items = pageSubscriber.take();
+            if (items != null) {
+                page.setItems(items);
+                page.setNextPageLink(s);
+            } else {
+                // return an empty page without next link so that iteration will terminate
+                page.setItems(new ArrayList<E>());
+            }
+            return page;
+        }
+    }
+
+    /**
+     * A subscriber requesting a page of the fan-out each time one is taken, so that no page is
+     * requested ahead of the iteration.
+     *
+     * @param <E> the resource type
+     */
+    private static final class PageSubscriber<E> extends Subscriber<List<E>> {
+        private final BlockingQueue<Notification<List<E>>> notifications = new LinkedBlockingQueue<>();
+        // Only accessed by the iterating thread
+        private boolean terminated;
+
+        @Override
+        public void onStart() {
+            // Nothing is requested until the first page is taken
+            request(0);
+        }
+
+        @Override
+        public void onNext(List<E> page) {
+            notifications.offer(Notification.createOnNext(page));
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            notifications.offer(Notification.<List<E>>createOnError(throwable));
+        }
+
+        @Override
+        public void onCompleted() {
+            notifications.offer(Notification.<List<E>>createOnCompleted());
+        }
+
+        /**
+         * Requests the next page and waits for it.
+         *
+         * @return the next page, null once the fan-out completed
+         */
+        List<E> take() {
+            if (terminated) {
+                return null;
+            }
+            request(1);
+            Notification<List<E>> notification;
+            try {
+                notification = notifications.take();
+            } catch (InterruptedException e) {
+                terminated = true;
+                unsubscribe();
+                Thread.currentThread().interrupt();
+                throw Exceptions.propagate(e);
+            }
+            if (notification.isOnNext()) {
+                return notification.getValue();
+            }
+            terminated = true;
+            unsubscribe();
+            if (notification.isOnError()) {
+                throw Exceptions.propagate(notification.getThrowable());
+            }
+            return null;
+        }
+    }
+}
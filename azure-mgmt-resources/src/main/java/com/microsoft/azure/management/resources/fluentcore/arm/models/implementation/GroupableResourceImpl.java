@@ -12,6 +12,7 @@ import com.microsoft.azure.management.resources.fluentcore.arm.ResourceUtils;
 import com.microsoft.azure.management.resources.fluentcore.arm.implementation.ManagerBase;
 import com.microsoft.azure.management.resources.fluentcore.arm.models.GroupableResource;
 import com.microsoft.azure.management.resources.fluentcore.arm.models.Resource;
+import com.microsoft.azure.management.resources.fluentcore.dag.TaskGroupScheduler;
 import com.microsoft.azure.management.resources.fluentcore.model.Creatable;
 
 /**
@@ -31,7 +32,8 @@ public abstract class GroupableResourceImpl<
         extends
             ResourceImpl<FluentModelT, InnerModelT, FluentModelImplT>
         implements
-            GroupableResource<ManagerT, InnerModelT> {
+            GroupableResource<ManagerT, InnerModelT>,
+            TaskGroupScheduler.HasPartitionKey {
 
     protected final ManagerT myManager;
     protected Creatable<ResourceGroup> creatableGroup;
@@ -72,6 +74,17 @@ public abstract class GroupableResourceImpl<
         }
     }
 
+    /**
+     * Resources managed by the same service manager share the scheduling partition, since a
+     * manager targets the resource provider namespace(s) of one service.
+     *
+     * @return the scheduling partition key
+     */
+    @Override
+    public String schedulingPartitionKey() {
+        return this.myManager.getClass().getName();
+    }
+
     /****************************************
      * withGroup implementations.
      ****************************************/
@@ -0,0 +1,224 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.dag;
+
+import rx.Observable;
+import rx.functions.Action0;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.subjects.AsyncSubject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link TaskGroupScheduler} that caps the number of tasks in-flight globally and per partition.
+ * <p>
+ * Tasks waiting for admission are ordered by priority (highest first) and then by the order in
+ * which they are scheduled. When {@link TaskGroup} uses this scheduler the priority of a task is the
+ * length of the longest chain of tasks depending on it, hence tasks on the critical path of the
+ * group start first.
+ */
+public class BoundedTaskGroupScheduler implements TaskGroupScheduler {
+    /**
+     * the maximum number of tasks in-flight across all partitions.
+     */
+    private final int maxConcurrency;
+    /**
+     * the maximum number of tasks in-flight per partition.
+     */
+    private final int maxConcurrencyPerPartition;
+    /**
+     * the tasks waiting for admission.
+     */
+    private final PriorityQueue<Ticket> pending;
+    /**
+     * the number of tasks in-flight per partition.
+     */
+    private final Map<String, Integer> inFlightPerPartition;
+    /**
+     * the number of tasks in-flight across all partitions.
+     */
+    private int inFlight;
+    /**
+     * to keep the admission order of tasks with same priority as the scheduling order.
+     */
+    private long sequence;
+
+    /**
+     * Creates BoundedTaskGroupScheduler.
+     *
+     * @param maxConcurrency the maximum number of tasks in-flight
+     */
+    public BoundedTaskGroupScheduler(int maxConcurrency) {
+        this(maxConcurrency, maxConcurrency);
+    }
+
+    /**
+     * Creates BoundedTaskGroupScheduler.
+     *
+     * @param maxConcurrency the maximum number of tasks in-flight across all partitions
+     * @param maxConcurrencyPerPartition the maximum number of tasks in-flight per partition
+     */
+    public BoundedTaskGroupScheduler(int maxConcurrency, int maxConcurrencyPerPartition) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be greater than 0");
+        }
+        if (maxConcurrencyPerPartition <= 0) {
+            throw new IllegalArgumentException("maxConcurrencyPerPartition must be greater than 0");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.maxConcurrencyPerPartition = maxConcurrencyPerPartition;
+        this.pending = new PriorityQueue<>();
+        this.inFlightPerPartition = new HashMap<>();
+    }
+
+    @Override
+    public <T> Observable<T> schedule(final String partitionKey, final int priority, final Observable<T> task) {
+        return Observable.defer(new Func0<Observable<T>>() {
+            @Override
+            public Observable<T> call() {
+                final Ticket ticket = enqueue(partitionKey, priority);
+                Action0 release = new Action0() {
+                    @Override
+                    public void call() {
+                        release(ticket);
+                    }
+                };
+                Observable<T> admitted = ticket.admission.flatMap(new Func1<Object, Observable<T>>() {
+                    @Override
+                    public Observable<T> call(Object o) {
+                        return task;
+                    }
+                });
+                drain();
+                return admitted
+                        .doOnTerminate(release)
+                        .doOnUnsubscribe(release);
+            }
+        });
+    }
+
+    @Override
+    public synchronized int queueDepth() {
+        return this.pending.size();
+    }
+
+    @Override
+    public synchronized int inFlightCount() {
+        return this.inFlight;
+    }
+
+    /**
+     * Gets the number of in-flight tasks in a partition.
+     *
+     * @param partitionKey the partition key
+     * @return the number of tasks admitted and not yet completed in the partition
+     */
+    public synchronized int inFlightCount(String partitionKey) {
+        Integer count = this.inFlightPerPartition.get(partitionKey);
+        return count == null ? 0 : count;
+    }
+
+    private synchronized Ticket enqueue(String partitionKey, int priority) {
+        Ticket ticket = new Ticket(partitionKey, priority, sequence++);
+        this.pending.add(ticket);
+        return ticket;
+    }
+
+    /**
+     * Releases the slot held by a ticket, or removes the ticket from the queue if it is not yet
+     * admitted, and then admits the next set of tasks.
+     *
+     * @param ticket the ticket to release
+     */
+    private void release(Ticket ticket) {
+        if (!ticket.released.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (this) {
+            if (ticket.admitted) {
+                this.inFlight--;
+                if (ticket.partitionKey != null) {
+                    int count = this.inFlightPerPartition.get(ticket.partitionKey) - 1;
+                    if (count == 0) {
+                        this.inFlightPerPartition.remove(ticket.partitionKey);
+                    } else {
+                        this.inFlightPerPartition.put(ticket.partitionKey, count);
+                    }
+                }
+            } else {
+                this.pending.remove(ticket);
+            }
+        }
+        drain();
+    }
+
+    /**
+     * Admits the pending tasks in priority order as long as the global and per partition limits
+     * allow. The admission signal is emitted outside of the lock since it subscribes the task.
+     */
+    private void drain() {
+        List<Ticket> toAdmit = new ArrayList<>();
+        synchronized (this) {
+            List<Ticket> skipped = new ArrayList<>();
+            while (this.inFlight < this.maxConcurrency && !this.pending.isEmpty()) {
+                Ticket ticket = this.pending.poll();
+                if (ticket.partitionKey != null && inFlightCount(ticket.partitionKey) >= this.maxConcurrencyPerPartition) {
+                    skipped.add(ticket);
+                    continue;
+                }
+                ticket.admitted = true;
+                this.inFlight++;
+                if (ticket.partitionKey != null) {
+                    this.inFlightPerPartition.put(ticket.partitionKey, inFlightCount(ticket.partitionKey) + 1);
+                }
+                toAdmit.add(ticket);
+            }
+            this.pending.addAll(skipped);
+        }
+        for (Ticket ticket : toAdmit) {
+            ticket.admission.onNext(ticket);
+            ticket.admission.onCompleted();
+        }
+    }
+
+    /**
+     * Type representing a scheduled task waiting for or holding an admission slot.
+     */
+    private static final class Ticket implements Comparable<Ticket> {
+        private final String partitionKey;
+        private final int priority;
+        private final long sequence;
+        private final AsyncSubject<Object> admission;
+        private final AtomicBoolean released;
+        private boolean admitted;
+
+        Ticket(String partitionKey, int priority, long sequence) {
+            this.partitionKey = partitionKey;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.admission = AsyncSubject.create();
+            this.released = new AtomicBoolean(false);
+        }
+
+        @Override
+        public int compareTo(Ticket other) {
+            if (this.priority != other.priority) {
+                return this.priority > other.priority ? -1 : 1;
+            }
+            if (this.sequence != other.sequence) {
+                return this.sequence < other.sequence ? -1 : 1;
+            }
+            return 0;
+        }
+    }
+}
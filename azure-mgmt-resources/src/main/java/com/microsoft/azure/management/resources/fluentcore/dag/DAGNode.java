@@ -34,6 +34,10 @@ public class DAGNode<DataT, NodeT extends DAGNode<DataT, NodeT>> extends Node<Da
      * lock used while performing concurrent safe operation on the node.
      */
     private ReentrantLock lock;
+    /**
+     * the dense id assigned to this node by the DAG preparing it for traversal.
+     */
+    private int index = -1;
 
     /**
      * Creates a DAG node.
@@ -70,6 +74,22 @@ public class DAGNode<DataT, NodeT extends DAGNode<DataT, NodeT>> extends Node<Da
         this.dependentKeys.add(key);
     }
 
+    /**
+     * @return the dense id assigned to this node by the DAG preparing it for traversal, -1 if not assigned
+     */
+    int index() {
+        return this.index;
+    }
+
+    /**
+     * Sets the dense id of this node in the DAG preparing it for traversal.
+     *
+     * @param index the id
+     */
+    void setIndex(int index) {
+        this.index = index;
+    }
+
     /**
      * @return a list of keys of nodes in {@link DAGraph} that this node depends on
      */
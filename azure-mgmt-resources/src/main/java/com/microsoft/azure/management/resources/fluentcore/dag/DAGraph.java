@@ -6,7 +6,8 @@
 
 package com.microsoft.azure.management.resources.fluentcore.dag;
 
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
@@ -21,7 +22,7 @@ public class DAGraph<DataT, NodeT extends DAGNode<DataT, NodeT>> extends Graph<D
     /**
      * to perform topological sort on the graph.
      */
-    private ConcurrentLinkedQueue<String> queue;
+    private ConcurrentLinkedQueue<NodeT> queue;
     /**
      * indicates this graph has a parent graph.
      */
@@ -30,6 +31,31 @@ public class DAGraph<DataT, NodeT extends DAGNode<DataT, NodeT>> extends Graph<D
      * the root node in the graph.
      */
     private NodeT rootNode;
+    /**
+     * the nodes prepared for traversal, indexed by their dense ids.
+     */
+    private List<NodeT> nodes;
+    /**
+     * the ids of the dependents of the node with id i are in dependents at the positions
+     * dependentOffsets[i] (inclusive) to dependentOffsets[i + 1] (exclusive).
+     */
+    private int[] dependentOffsets;
+    /**
+     * the ids of the dependents of all nodes, grouped by the dependency.
+     */
+    private int[] dependents;
+    /**
+     * the ids of the nodes with no dependencies.
+     */
+    private int[] roots;
+    /**
+     * the modification count of the graph when the dependents are computed.
+     */
+    private int preparedModificationCount;
+    /**
+     * the total number of dependencies when the dependents are computed.
+     */
+    private int preparedDependencyCount;
 
     /**
      * Creates a new DAG.
@@ -79,39 +105,36 @@ public class DAGraph<DataT, NodeT extends DAGNode<DataT, NodeT>> extends Graph<D
     public void merge(DAGraph<DataT, NodeT> parent) {
         this.hasParent = true;
         parent.rootNode.addDependency(this.rootNode.key());
-        for (Map.Entry<String, NodeT> entry: graph.entrySet()) {
-            String key = entry.getKey();
-            if (!parent.graph.containsKey(key)) {
-                parent.graph.put(key, entry.getValue());
-            }
-        }
+        parent.copyNodesFrom(this);
     }
 
     /**
      * Merges DAG associated with childNode to DAG associated with a parent node
      * of given key.
+     * <p>
+     * Only the nodes added to the child DAG since a previous merge to the same parent DAG are copied.
      *
      * @param parentKey the key of the parent node
      * @param childNode the child node
      */
     public void mergeChildToParent(String parentKey, NodeT childNode) {
         NodeT parentNode = this.graph.get(parentKey);
-        Map<String, NodeT> parentGraph = parentNode.owner().graph;
-        Map<String, NodeT> childGraph = childNode.owner().graph;
-        for (Map.Entry<String, NodeT> entry : childGraph.entrySet()) {
-            String key = entry.getKey();
-            if (!parentGraph.containsKey(key)) {
-                parentGraph.put(key, entry.getValue());
-            }
-        }
+        parentNode.owner().copyNodesFrom(childNode.owner());
     }
 
     /**
      * Prepares this DAG for traversal using getNext method, each call to getNext returns next node
      * in the DAG with no dependencies.
+     * <p>
+     * If no node or dependency is added since the previous preparation, the nodes are re-initialized
+     * from the dependents computed in the previous preparation. Adding any node or dependency, e.g. by
+     * merging a child DAG, makes the next preparation a full rebuild: the nodes are indexed again and
+     * the whole graph is explored again to check for cycles and compute the dependents of all nodes.
      */
     public void prepare() {
         if (isPreparer()) {
+            int dependencyCount = 0;
+            boolean isReusable = this.nodes != null && this.nodes.size() == graph.size();
             for (NodeT node : graph.values()) {
                 // Prepare each node for traversal
                 node.initialize();
@@ -119,6 +142,13 @@ public class DAGraph<DataT, NodeT extends DAGNode<DataT, NodeT>> extends Graph<D
                     // Mark other sub-DAGs as non-preparer
                     node.setPreparer(false);
                 }
+                dependencyCount += node.dependencyKeys().size();
+                isReusable = isReusable && isIndexed(node);
+            }
+            if (!isReusable
+                    || this.preparedModificationCount != modificationCount()
+                    || this.preparedDependencyCount != dependencyCount) {
+                initializeDependents(dependencyCount);
             }
             initializeDependentKeys();
             initializeQueue();
@@ -132,11 +162,7 @@ public class DAGraph<DataT, NodeT extends DAGNode<DataT, NodeT>> extends Graph<D
      * @return next node or null if all the nodes have been explored or no node is available at this moment.
      */
     public NodeT getNext() {
-        String nextItemKey = queue.poll();
-        if (nextItemKey == null) {
-            return null;
-        }
-        return graph.get(nextItemKey);
+        return queue.poll();
     }
 
     /**
@@ -155,19 +181,7 @@ public class DAGraph<DataT, NodeT extends DAGNode<DataT, NodeT>> extends Graph<D
      */
     public void reportCompletion(NodeT completed) {
         completed.setPreparer(true);
-        String dependency = completed.key();
-        for (String dependentKey : graph.get(dependency).dependentKeys()) {
-            DAGNode<DataT, NodeT> dependent = graph.get(dependentKey);
-            dependent.lock().lock();
-            try {
-                dependent.onSuccessfulResolution(dependency);
-                if (dependent.hasAllResolved()) {
-                    queue.add(dependent.key());
-                }
-            } finally {
-                dependent.lock().unlock();
-            }
-        }
+        reportResolution(completed, null, false);
     }
 
     /**
@@ -178,50 +192,136 @@ public class DAGraph<DataT, NodeT extends DAGNode<DataT, NodeT>> extends Graph<D
      */
     public void reportError(NodeT faulted, Throwable throwable) {
         faulted.setPreparer(true);
-        String dependency = faulted.key();
-        for (String dependentKey : graph.get(dependency).dependentKeys()) {
-            DAGNode<DataT, NodeT> dependent = graph.get(dependentKey);
-            dependent.lock().lock();
-            try {
+        reportResolution(faulted, throwable, true);
+    }
+
+    /**
+     * Reports the resolution of a node to its dependents, the dependents with all dependencies
+     * resolved are added to the queue.
+     *
+     * @param resolved the node resolved
+     * @param throwable the reason for fault
+     * @param isFaulted <tt>true</tt> if the node is faulted
+     */
+    private void reportResolution(NodeT resolved, Throwable throwable, boolean isFaulted) {
+        String dependency = resolved.key();
+        if (isIndexed(resolved)) {
+            int index = resolved.index();
+            for (int i = dependentOffsets[index]; i < dependentOffsets[index + 1]; i++) {
+                reportResolution(nodes.get(dependents[i]), dependency, throwable, isFaulted);
+            }
+        } else {
+            for (String dependentKey : graph.get(dependency).dependentKeys()) {
+                reportResolution(graph.get(dependentKey), dependency, throwable, isFaulted);
+            }
+        }
+    }
+
+    private void reportResolution(NodeT dependent, String dependency, Throwable throwable, boolean isFaulted) {
+        dependent.lock().lock();
+        try {
+            if (isFaulted) {
                 dependent.onFaultedResolution(dependency, throwable);
-                if (dependent.hasAllResolved()) {
-                    queue.add(dependent.key());
-                }
-            } finally {
-                dependent.lock().unlock();
+            } else {
+                dependent.onSuccessfulResolution(dependency);
+            }
+            if (dependent.hasAllResolved()) {
+                queue.add(dependent);
             }
+        } finally {
+            dependent.lock().unlock();
         }
     }
 
     /**
-     * Initializes dependents of all nodes.
+     * @param node the node
+     * @return <tt>true</tt> if the node is indexed by the previous preparation of this DAG
+     */
+    private boolean isIndexed(NodeT node) {
+        int index = node.index();
+        return this.nodes != null && index >= 0 && index < this.nodes.size() && this.nodes.get(index) == node;
+    }
+
+    /**
+     * Computes the dependents of all nodes.
      * <p>
-     * The DAG will be explored in DFS order and all node's dependents will be identified,
-     * this prepares the DAG for traversal using getNext method, each call to getNext returns next node
-     * in the DAG with no dependencies.
+     * The nodes are assigned dense ids and the DAG is explored in DFS order to detect circular
+     * dependencies, the dependents of each node are recorded in the order the DFS visits them.
+     *
+     * @param dependencyCount the total number of dependencies
      */
-    private void initializeDependentKeys() {
+    private void initializeDependents(int dependencyCount) {
+        final int nodeCount = graph.size();
+        final List<NodeT> indexedNodes = new ArrayList<>(graph.values());
+        for (int i = 0; i < nodeCount; i++) {
+            indexedNodes.get(i).setIndex(i);
+        }
+        final int[] visitOrder = new int[nodeCount];
         visit(new Visitor<NodeT>() {
+            private int visitedCount;
+
             @Override
             public void visitNode(NodeT node) {
-                if (node.dependencyKeys().isEmpty()) {
-                    return;
-                }
-
-                String dependentKey = node.key();
-                for (String dependencyKey : node.dependencyKeys()) {
-                    graph.get(dependencyKey)
-                            .addDependent(dependentKey);
-                }
+                visitOrder[visitedCount++] = node.index();
             }
 
             @Override
             public  void visitEdge(String fromKey, String toKey, EdgeType edgeType) {
                 if (edgeType == EdgeType.BACK) {
-                    throw new IllegalStateException("Detected circular dependency: " + findPath(fromKey, toKey));
+                    throw new IllegalStateException("Detected circular dependency: " + findPath(toKey, fromKey) + " -> " + toKey);
                 }
             }
         });
+        int[] offsets = new int[nodeCount + 1];
+        int[] dependencyIds = new int[dependencyCount];
+        int rootCount = 0;
+        int position = 0;
+        for (int dependentId : visitOrder) {
+            for (String dependencyKey : indexedNodes.get(dependentId).dependencyKeys()) {
+                int dependencyId = graph.get(dependencyKey).index();
+                dependencyIds[position++] = dependencyId;
+                offsets[dependencyId + 1]++;
+            }
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            offsets[i + 1] += offsets[i];
+            if (!indexedNodes.get(i).hasDependencies()) {
+                rootCount++;
+            }
+        }
+        int[] next = new int[nodeCount];
+        System.arraycopy(offsets, 0, next, 0, nodeCount);
+        this.dependents = new int[dependencyCount];
+        position = 0;
+        for (int dependentId : visitOrder) {
+            int count = indexedNodes.get(dependentId).dependencyKeys().size();
+            for (int j = 0; j < count; j++) {
+                this.dependents[next[dependencyIds[position++]]++] = dependentId;
+            }
+        }
+        this.roots = new int[rootCount];
+        rootCount = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            if (!indexedNodes.get(i).hasDependencies()) {
+                this.roots[rootCount++] = i;
+            }
+        }
+        this.nodes = indexedNodes;
+        this.dependentOffsets = offsets;
+        this.preparedModificationCount = modificationCount();
+        this.preparedDependencyCount = dependencyCount;
+    }
+
+    /**
+     * Initializes dependents of all nodes from the dependents computed by initializeDependents.
+     */
+    private void initializeDependentKeys() {
+        for (int i = 0; i < this.nodes.size(); i++) {
+            NodeT dependency = this.nodes.get(i);
+            for (int j = dependentOffsets[i]; j < dependentOffsets[i + 1]; j++) {
+                dependency.addDependent(this.nodes.get(dependents[j]).key());
+            }
+        }
     }
 
     /**
@@ -230,10 +330,8 @@ public class DAGraph<DataT, NodeT extends DAGNode<DataT, NodeT>> extends Graph<D
      */
     private void initializeQueue() {
         this.queue.clear();
-        for (Map.Entry<String, NodeT> entry: graph.entrySet()) {
-            if (!entry.getValue().hasDependencies()) {
-                this.queue.add(entry.getKey());
-            }
+        for (int root : this.roots) {
+            this.queue.add(this.nodes.get(root));
         }
         if (queue.isEmpty()) {
             throw new IllegalStateException("Detected circular dependency");
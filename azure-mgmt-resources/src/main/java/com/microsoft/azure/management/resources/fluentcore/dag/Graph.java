@@ -6,11 +6,14 @@
 
 package com.microsoft.azure.management.resources.fluentcore.dag;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Type representing a directed graph data structure.
@@ -21,46 +24,56 @@ import java.util.Set;
  * @param <NodeT> the type of the nodes in the graph
  */
 public class Graph<DataT, NodeT extends Node<DataT, NodeT>> {
+    /**
+     * the node state while performing DFS, the node is not yet visited.
+     */
+    private static final byte UNVISITED = 0;
+    /**
+     * the node state while performing DFS, the node is visited but not all of its children are explored.
+     */
+    private static final byte VISITED = 1;
+    /**
+     * the node state while performing DFS, the node and all of its children are explored.
+     */
+    private static final byte PROCESSED = 2;
+
     /**
      * the underlying graph.
      */
     protected Map<String, NodeT> graph;
     /**
-     * to track the already visited node while performing DFS.
+     * the keys of the nodes in the order they are added, used to copy only the nodes added
+     * since a previous copy.
      */
-    private Set<String> visited;
+    private final List<String> addedKeys;
     /**
-     * to generate node entry and exit time while performing DFS.
+     * for each graph whose nodes are copied to this graph, the number of its added nodes already copied.
      */
-    private Integer time;
+    private final Map<Graph<DataT, NodeT>, Integer> copiedNodeCounts;
     /**
-     * to track the entry time to each node while performing DFS.
+     * the number of times a node is added to or replaced in this graph.
      */
-    private Map<String, Integer> entryTime;
+    private int modificationCount;
     /**
-     * to track the exit time from each node while performing DFS.
+     * the keys of the nodes indexed by the dense ids assigned while performing DFS.
      */
-    private Map<String, Integer> exitTime;
+    private String[] keys;
     /**
-     * to track the immediate parent node of each node while performing DFS.
+     * the dense ids of the nodes assigned while performing DFS.
      */
-    private Map<String, String> parent;
+    private Map<String, Integer> ids;
     /**
-     * to track already processed node while performing DFS.
+     * to track the id of the immediate parent node of each node while performing DFS.
      */
-    private Set<String> processed;
+    private int[] parent;
 
     /**
      * Creates a directed graph.
      */
     public Graph() {
         this.graph = new HashMap<>();
-        this.visited = new HashSet<>();
-        this.time = 0;
-        this.entryTime = new HashMap<>();
-        this.exitTime = new HashMap<>();
-        this.parent = new HashMap<>();
-        this.processed = new HashSet<>();
+        this.addedKeys = new ArrayList<>();
+        this.copiedNodeCounts = new IdentityHashMap<>();
     }
 
     /**
@@ -70,7 +83,10 @@ public class Graph<DataT, NodeT extends Node<DataT, NodeT>> {
      */
     public void addNode(NodeT node) {
         node.setOwner(this);
-        graph.put(node.key(), node);
+        if (graph.put(node.key(), node) == null) {
+            addedKeys.add(node.key());
+        }
+        modificationCount++;
     }
 
     /**
@@ -80,77 +96,184 @@ public class Graph<DataT, NodeT extends Node<DataT, NodeT>> {
         return graph.values();
     }
 
+    /**
+     * @return the number of times a node is added to or replaced in this graph
+     */
+    int modificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Copies the nodes of another graph those are not in this graph to this graph, the owner
+     * of the copied nodes is not changed.
+     * <p>
+     * Only the nodes added to the other graph since a previous copy from it are examined.
+     *
+     * @param other the graph to copy the nodes from
+     */
+    void copyNodesFrom(Graph<DataT, NodeT> other) {
+        if (other == this) {
+            return;
+        }
+        if (other.addedKeys.size() != other.graph.size()) {
+            // Nodes are put directly in the underlying map of the other graph, so it's not known
+            // which nodes are new, examine all of them.
+            //
+            for (Map.Entry<String, NodeT> entry : other.graph.entrySet()) {
+                addNodeIfAbsent(entry.getKey(), entry.getValue());
+            }
+            return;
+        }
+        Integer copiedCount = copiedNodeCounts.get(other);
+        int from = copiedCount == null ? 0 : copiedCount;
+        int to = other.addedKeys.size();
+        for (int i = from; i < to; i++) {
+            String key = other.addedKeys.get(i);
+            addNodeIfAbsent(key, other.graph.get(key));
+        }
+        copiedNodeCounts.put(other, to);
+    }
+
+    private void addNodeIfAbsent(String key, NodeT node) {
+        if (!graph.containsKey(key)) {
+            graph.put(key, node);
+            addedKeys.add(key);
+            modificationCount++;
+        }
+    }
+
     /**
      * Perform DFS visit in this graph.
      * <p>
      * The directed graph will be traversed in DFS order and the visitor will be notified as
      * search explores each node and edge.
+     * <p>
+     * The node keys are mapped to dense ids once per visit and the search is performed on the
+     * ids using an explicit stack, hence the depth of the graph is not limited by the call stack.
      *
      * @param visitor the graph visitor
      */
+    @SuppressWarnings("unchecked")
     public void visit(Visitor visitor) {
+        final int nodeCount = graph.size();
+        final Object[] nodes = new Object[nodeCount];
+        this.keys = new String[nodeCount];
+        this.ids = new HashMap<>(Math.max(16, (int) (nodeCount / .75f) + 1));
+        int id = 0;
         for (Map.Entry<String, NodeT> item : graph.entrySet()) {
-            if (!visited.contains(item.getKey())) {
-                this.dfs(visitor, item.getValue());
+            keys[id] = item.getKey();
+            nodes[id] = item.getValue();
+            ids.put(item.getKey(), id);
+            id++;
+        }
+        final int[][] children = new int[nodeCount][];
+        for (int i = 0; i < nodeCount; i++) {
+            List<String> childKeys = ((NodeT) nodes[i]).children();
+            children[i] = new int[childKeys.size()];
+            for (int j = 0; j < children[i].length; j++) {
+                Integer childId = ids.get(childKeys.get(j));
+                if (childId == null) {
+                    throw new IllegalStateException("Unable to locate the node with key '" + childKeys.get(j)
+                            + "', a child of the node with key '" + keys[i] + "'");
+                }
+                children[i][j] = childId;
             }
         }
-        visited.clear();
-        time = 0;
-        entryTime.clear();
-        exitTime.clear();
-        parent.clear();
-        processed.clear();
-    }
-
-    private void dfs(Visitor visitor, Node<DataT, NodeT> node) {
-        visitor.visitNode(node);
-
-        String fromKey = node.key();
-        visited.add(fromKey);
-        time++;
-        entryTime.put(fromKey, time);
-        for (String toKey : node.children()) {
-            if (!visited.contains(toKey)) {
-                parent.put(toKey, fromKey);
-                visitor.visitEdge(fromKey, toKey, edgeType(fromKey, toKey));
-                this.dfs(visitor, this.graph.get(toKey));
-            } else {
-                visitor.visitEdge(fromKey, toKey, edgeType(fromKey, toKey));
+        this.parent = new int[nodeCount];
+        Arrays.fill(parent, -1);
+        final byte[] state = new byte[nodeCount];
+        final int[] entryTime = new int[nodeCount];
+        // A node is on the stack until all of its children are explored, nextChild tracks the
+        // position of the next child to explore for each node on the stack.
+        //
+        final int[] stack = new int[nodeCount];
+        final int[] nextChild = new int[nodeCount];
+        int time = 0;
+        try {
+            for (int root = 0; root < nodeCount; root++) {
+                if (state[root] != UNVISITED) {
+                    continue;
+                }
+                visitor.visitNode(nodes[root]);
+                state[root] = VISITED;
+                entryTime[root] = ++time;
+                int top = 0;
+                stack[top] = root;
+                while (top >= 0) {
+                    int from = stack[top];
+                    if (nextChild[from] < children[from].length) {
+                        int to = children[from][nextChild[from]++];
+                        if (state[to] == UNVISITED) {
+                            parent[to] = from;
+                            visitor.visitEdge(keys[from], keys[to], EdgeType.TREE);
+                            visitor.visitNode(nodes[to]);
+                            state[to] = VISITED;
+                            entryTime[to] = ++time;
+                            stack[++top] = to;
+                        } else {
+                            visitor.visitEdge(keys[from], keys[to], edgeType(from, to, state, entryTime));
+                        }
+                    } else {
+                        time++;
+                        state[from] = PROCESSED;
+                        top--;
+                    }
+                }
             }
+        } finally {
+            this.keys = null;
+            this.ids = null;
+            this.parent = null;
         }
-        time++;
-        exitTime.put(fromKey, time);
-        processed.add(fromKey);
     }
 
-    private EdgeType edgeType(String fromKey, String toKey) {
-        if (parent.containsKey(toKey) && parent.get(toKey).equals(fromKey)) {
+    private EdgeType edgeType(int from, int to, byte[] state, int[] entryTime) {
+        if (parent[to] == from) {
             return EdgeType.TREE;
         }
 
-        if (visited.contains(toKey) && !processed.contains(toKey)) {
+        if (state[to] == VISITED) {
             return EdgeType.BACK;
         }
 
-        if (processed.contains(toKey) && entryTime.containsKey(toKey) && entryTime.containsKey(fromKey)) {
-            if (entryTime.get(toKey) > entryTime.get(fromKey)) {
+        if (state[to] == PROCESSED) {
+            if (entryTime[to] > entryTime[from]) {
                 return EdgeType.FORWARD;
             }
 
-            if (entryTime.get(toKey) < entryTime.get(fromKey)) {
+            if (entryTime[to] < entryTime[from]) {
                 return EdgeType.CROSS;
             }
         }
 
-        throw new IllegalStateException("Internal Error: Unable to locate the edge type {" + fromKey + ", " + toKey + "}");
+        throw new IllegalStateException("Internal Error: Unable to locate the edge type {" + keys[from] + ", " + keys[to] + "}");
     }
 
+    /**
+     * Finds the path from a node to one of its descendants along the tree edges explored by the
+     * ongoing DFS visit.
+     *
+     * @param start the key of the start node
+     * @param end the key of the end node
+     * @return the path
+     */
     protected String findPath(String start, String end) {
-        if (start.equals(end)) {
-            return start;
-        } else {
-            return findPath(start, parent.get(end)) + " -> " + end;
+        List<String> path = new ArrayList<>();
+        path.add(end);
+        int current = ids.get(end);
+        while (!keys[current].equals(start) && parent[current] >= 0) {
+            current = parent[current];
+            path.add(keys[current]);
+        }
+        Collections.reverse(path);
+        StringBuilder builder = new StringBuilder();
+        for (String key : path) {
+            if (builder.length() > 0) {
+                builder.append(" -> ");
+            }
+            builder.append(key);
         }
+        return builder.toString();
     }
 
     /**
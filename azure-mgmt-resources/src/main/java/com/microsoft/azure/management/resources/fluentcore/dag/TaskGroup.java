@@ -6,6 +6,7 @@
 
 package com.microsoft.azure.management.resources.fluentcore.dag;
 
+import com.microsoft.azure.management.resources.fluentcore.utils.SdkContext;
 import rx.Observable;
 import rx.functions.Func0;
 import rx.functions.Func1;
@@ -40,6 +41,11 @@ public class TaskGroup<ResultT, TaskT extends TaskItem<ResultT>>
      * is marked as cancelled i.e. {@link this#isGroupCancelled} is set.
      */
     private final TaskCancelledException taskCancelledException = new TaskCancelledException();
+    /**
+     * The scheduler controlling admission of the ready tasks, null to use the SDK wide default
+     * {@link SdkContext#getTaskGroupScheduler()}.
+     */
+    private TaskGroupScheduler scheduler;
 
     /**
      * Creates TaskGroup.
@@ -89,6 +95,29 @@ public class TaskGroup<ResultT, TaskT extends TaskItem<ResultT>>
         super.merge(parentTaskGroup);
     }
 
+    /**
+     * Sets the scheduler to be used to control admission of the ready tasks when this group
+     * is executed.
+     *
+     * @param scheduler the scheduler, null to use the SDK wide default
+     * @return this task group
+     */
+    public TaskGroup<ResultT, TaskT> withScheduler(TaskGroupScheduler scheduler) {
+        this.scheduler = scheduler;
+        return this;
+    }
+
+    /**
+     * @return the scheduler controlling admission of the ready tasks, null if the tasks are
+     * started as soon as their dependencies are resolved.
+     */
+    public TaskGroupScheduler scheduler() {
+        if (this.scheduler != null) {
+            return this.scheduler;
+        }
+        return SdkContext.getTaskGroupScheduler();
+    }
+
     /**
      * Executes tasks in the group.
      *
@@ -115,11 +144,13 @@ public class TaskGroup<ResultT, TaskT extends TaskItem<ResultT>>
     private void prepareTasks() {
         boolean isPreparePending;
         HashSet<String> preparedTasksKeys = new HashSet<>();
+        List<TaskGroupEntry<ResultT, TaskT>> sortedEntries = new ArrayList<>();
         // Invokes 'prepare' on a subset of non-prepared tasks in the group. Initially preparation
         // is pending on all task items.
         //
         do {
             isPreparePending = false;
+            sortedEntries.clear();
             super.prepare();
             TaskGroupEntry<ResultT, TaskT> entry = super.getNext();
             // Enumerate group entries, an entry holds one task item, in topological sorted order
@@ -147,10 +178,32 @@ public class TaskGroup<ResultT, TaskT extends TaskItem<ResultT>>
                     super.mergeChildToParent(parentKey, entry);
                 }
                 super.reportCompletion(entry);
+                sortedEntries.add(entry);
                 entry = super.getNext();
             }
         } while (isPreparePending); // Run another pass if new dependencies were added in this pass
         super.prepare();
+        computeCriticalPathLengths(sortedEntries);
+    }
+
+    /**
+     * Computes the length of the longest chain of dependents of each entry, this is used as the
+     * priority of the task when the group is executed with a {@link TaskGroupScheduler}.
+     *
+     * @param sortedEntries the entries in topological sorted order (dependencies first)
+     */
+    private void computeCriticalPathLengths(List<TaskGroupEntry<ResultT, TaskT>> sortedEntries) {
+        // Dependents of an entry appear after the entry in the sorted order, walking the entries in
+        // reverse order ensures lengths of all dependents are known when an entry is visited.
+        //
+        for (int i = sortedEntries.size() - 1; i >= 0; i--) {
+            TaskGroupEntry<ResultT, TaskT> entry = sortedEntries.get(i);
+            int maxDependentLength = 0;
+            for (String dependentKey : entry.dependentKeys()) {
+                maxDependentLength = Math.max(maxDependentLength, super.getNode(dependentKey).criticalPathLength());
+            }
+            entry.setCriticalPathLength(maxDependentLength + 1);
+        }
     }
 
     /**
@@ -197,6 +250,8 @@ public class TaskGroup<ResultT, TaskT extends TaskItem<ResultT>>
      * <p>
      * if the task cannot be executed because the group marked as cancelled then an observable
      * that emit {@link TaskCancelledException} will be returned.
+     * <p>
+     * if the group has a scheduler then the task starts only when the scheduler admits it.
      *
      * @param entry the entry holding task
      * @return an observable represents result of task in the given entry.
@@ -205,7 +260,24 @@ public class TaskGroup<ResultT, TaskT extends TaskItem<ResultT>>
         if (this.isGroupCancelled) {
             return toErrorObservable(taskCancelledException);
         }
-        return entry.executeTaskAsync(isRootEntry(entry));
+        final TaskGroupScheduler taskGroupScheduler = this.scheduler();
+        if (taskGroupScheduler == null) {
+            return entry.executeTaskAsync(isRootEntry(entry));
+        }
+        // Defer the task creation to admission time so that the fault and cancellation state
+        // of the group is evaluated when the task actually starts.
+        //
+        return taskGroupScheduler.schedule(entry.partitionKey(),
+                entry.criticalPathLength(),
+                Observable.defer(new Func0<Observable<ResultT>>() {
+                    @Override
+                    public Observable<ResultT> call() {
+                        if (isGroupCancelled) {
+                            return toErrorObservable(taskCancelledException);
+                        }
+                        return entry.executeTaskAsync(isRootEntry(entry));
+                    }
+                }));
     }
 
     /**
@@ -24,6 +24,10 @@ final class TaskGroupEntry<ResultT, TaskT extends TaskItem<ResultT>>
      * indicates that one or more decedent dependency tasks are faulted.
      */
     private boolean hasFaultedDescentDependencyTask;
+    /**
+     * the length of the longest chain of entries depending on this entry.
+     */
+    private int criticalPathLength;
 
     /**
      * Creates TaskGroupEntry.
@@ -48,6 +52,33 @@ final class TaskGroupEntry<ResultT, TaskT extends TaskItem<ResultT>>
         return taskItem().result();
     }
 
+    /**
+     * @return the length of the longest chain of entries depending on this entry, including this entry.
+     */
+    int criticalPathLength() {
+        return this.criticalPathLength;
+    }
+
+    /**
+     * Sets the length of the longest chain of entries depending on this entry.
+     *
+     * @param criticalPathLength the chain length
+     */
+    void setCriticalPathLength(int criticalPathLength) {
+        this.criticalPathLength = criticalPathLength;
+    }
+
+    /**
+     * @return the scheduling partition key of the task this entry holds, null if the task is not partitioned.
+     */
+    String partitionKey() {
+        TaskT taskItem = this.taskItem();
+        if (taskItem instanceof TaskGroupScheduler.HasPartitionKey) {
+            return ((TaskGroupScheduler.HasPartitionKey) taskItem).schedulingPartitionKey();
+        }
+        return null;
+    }
+
     /**
      * Executes the task this entry holds.
      * if the task cannot be executed due to faulted dependencies then an observable that emit
@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.dag;
+
+import rx.Observable;
+
+/**
+ * Type representing a scheduler that controls when the ready tasks in a {@link TaskGroup} are
+ * allowed to start executing.
+ * <p>
+ * By default a task group starts every task as soon as all of it's dependencies are resolved, a
+ * scheduler can be used to cap the number of tasks in-flight and to decide which of the queued
+ * tasks should start first.
+ */
+public interface TaskGroupScheduler {
+    /**
+     * Schedules execution of a task.
+     * <p>
+     * The task will be subscribed only when the scheduler admits it, the returned observable is cold.
+     *
+     * @param partitionKey the key of the partition the task belongs to, null if the task is not partitioned
+     * @param priority the priority of the task, task with higher value is admitted first
+     * @param task the task to schedule
+     * @param <T> the type of the task result
+     * @return an observable that emits the task result once the task is admitted and executed
+     */
+    <T> Observable<T> schedule(String partitionKey, int priority, Observable<T> task);
+
+    /**
+     * @return the number of tasks waiting to be admitted
+     */
+    int queueDepth();
+
+    /**
+     * @return the number of tasks admitted and not yet completed
+     */
+    int inFlightCount();
+
+    /**
+     * An interface representing a task item that belongs to a scheduling partition.
+     * <p>
+     * Tasks in the same partition share the per-partition concurrency limit of the scheduler,
+     * e.g. all tasks sending requests to the same resource provider namespace.
+     */
+    interface HasPartitionKey {
+        /**
+         * @return the partition key, null if the task is not partitioned
+         */
+        String schedulingPartitionKey();
+    }
+}
@@ -6,6 +6,7 @@
 
 package com.microsoft.azure.management.resources.fluentcore.model.implementation;
 
+import com.microsoft.azure.management.resources.fluentcore.dag.TaskGroupScheduler;
 import com.microsoft.azure.management.resources.fluentcore.dag.TaskItem;
 import com.microsoft.azure.management.resources.fluentcore.utils.SdkContext;
 import rx.Observable;
@@ -16,7 +17,7 @@ import rx.functions.Action1;
  *
  * @param <ResourceT> the type of the resource that this task creates or update
  */
-public class CreateUpdateTask<ResourceT> implements TaskItem<ResourceT> {
+public class CreateUpdateTask<ResourceT> implements TaskItem<ResourceT>, TaskGroupScheduler.HasPartitionKey {
     /**
      * the underlying instance that can create and update the resource.
      */
@@ -50,6 +51,14 @@ public class CreateUpdateTask<ResourceT> implements TaskItem<ResourceT> {
         return this.resourceCreatorUpdator.isHot();
     }
 
+    @Override
+    public String schedulingPartitionKey() {
+        if (this.resourceCreatorUpdator instanceof TaskGroupScheduler.HasPartitionKey) {
+            return ((TaskGroupScheduler.HasPartitionKey) this.resourceCreatorUpdator).schedulingPartitionKey();
+        }
+        return null;
+    }
+
     @Override
     public Observable<ResourceT> executeAsync() {
         if (this.resourceCreatorUpdator.isInCreateMode()) {
@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import com.microsoft.azure.AzureResponseBuilder;
+import com.microsoft.rest.RestException;
+import com.microsoft.rest.ServiceResponse;
+import com.microsoft.rest.ServiceResponseWithHeaders;
+import com.microsoft.rest.protocol.ResponseBuilder;
+import com.microsoft.rest.protocol.SerializerAdapter;
+import okhttp3.ResponseBody;
+import retrofit2.Response;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A response builder factory that builds a response builder once for each combination of
+ * registered status codes, types and error type, and reuses it for all the responses of the
+ * operations registering the same combination.
+ * <p>
+ * The generated clients ask the factory for a new builder and register the status codes of the
+ * operation for every response. The builders returned by this factory only follow the
+ * registrations down a tree of the combinations seen so far, which does not allocate once the
+ * combination is known, and the response is built by the builder of the delegate factory cached
+ * for the combination. This saves building the delegate builder and its map of registrations per
+ * response. The allocation of the builder returned and of the type tokens passed to it remains in
+ * the generated code. The cached builders are only read once built, so they are shared across
+ * threads.
+ */
+public final class CachedResponseBuilderFactory implements ResponseBuilder.Factory {
+    private final ResponseBuilder.Factory delegate;
+    private final ConcurrentMap<SerializerAdapter<?>, Registration> roots = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Creates a factory caching the builders of {@link AzureResponseBuilder.Factory}.
+     */
+    public CachedResponseBuilderFactory() {
+        this(new AzureResponseBuilder.Factory());
+    }
+
+    /**
+     * Creates a factory caching the builders of the given factory.
+     *
+     * @param delegate the factory building the cached builders
+     */
+    public CachedResponseBuilderFactory(ResponseBuilder.Factory delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return the number of distinct builders built so far
+     */
+    public int size() {
+        return this.size.get();
+    }
+
+    @Override
+    public <T, E extends RestException> ResponseBuilder<T, E> newInstance(SerializerAdapter<?> serializerAdapter) {
+        Registration root = this.roots.get(serializerAdapter);
+        if (root == null) {
+            Registration created = new Registration(null, 0, null);
+            root = this.roots.putIfAbsent(serializerAdapter, created);
+            if (root == null) {
+                root = created;
+            }
+        }
+        return new RecordingResponseBuilder<>(serializerAdapter, root);
+    }
+
+    /**
+     * A builder following the registrations of an operation, the response is built by the cached
+     * builder for the registrations.
+     *
+     * @param <T> the body type
+     * @param <E> the error type
+     */
+    private final class RecordingResponseBuilder<T, E extends RestException> implements ResponseBuilder<T, E> {
+        private final SerializerAdapter<?> serializerAdapter;
+        private Registration registration;
+        private Class<? extends RestException> errorType;
+
+        RecordingResponseBuilder(SerializerAdapter<?> serializerAdapter, Registration root) {
+            this.serializerAdapter = serializerAdapter;
+            this.registration = root;
+        }
+
+        @Override
+        public ResponseBuilder<T, E> register(int statusCode, Type type) {
+            this.registration = this.registration.next(statusCode, type);
+            return this;
+        }
+
+        @Override
+        public ResponseBuilder<T, E> registerError(Class<? extends RestException> type) {
+            this.errorType = type;
+            return this;
+        }
+
+        @Override
+        public ServiceResponse<T> build(Response<ResponseBody> response) throws IOException {
+            return cached().build(response);
+        }
+
+        @Override
+        public ServiceResponse<T> buildEmpty(Response<Void> response) throws IOException {
+            return cached().buildEmpty(response);
+        }
+
+        @Override
+        public <THeader> ServiceResponseWithHeaders<T, THeader> buildWithHeaders(Response<ResponseBody> response, Class<THeader> headerType) throws IOException {
+            return cached().buildWithHeaders(response, headerType);
+        }
+
+        @Override
+        public <THeader> ServiceResponseWithHeaders<T, THeader> buildEmptyWithHeaders(Response<Void> response, Class<THeader> headerType) throws IOException {
+            return cached().buildEmptyWithHeaders(response, headerType);
+        }
+
+        @SuppressWarnings("unchecked")
+        private ResponseBuilder<T, E> cached() {
+            Class<?> errorKey = this.errorType == null ? Void.class : this.errorType;
+            ResponseBuilder<T, E> builder = (ResponseBuilder<T, E>) this.registration.builders.get(errorKey);
+            if (builder == null) {
+                builder = delegate.newInstance(this.serializerAdapter);
+                List<Registration> path = new ArrayList<>();
+                for (Registration current = this.registration; current.parent != null; current = current.parent) {
+                    path.add(current);
+                }
+                for (int i = path.size() - 1; i >= 0; i--) {
+                    builder.register(path.get(i).statusCode, path.get(i).type);
+                }
+                if (this.errorType != null) {
+                    builder.registerError(this.errorType);
+                }
+                ResponseBuilder<T, E> existing = (ResponseBuilder<T, E>) this.registration.builders.putIfAbsent(errorKey, builder);
+                if (existing != null) {
+                    builder = existing;
+                } else {
+                    size.incrementAndGet();
+                }
+            }
+            return builder;
+        }
+    }
+
+    /**
+     * A status code and type registered after the registrations of its parent, with the builders
+     * cached by error type for the registrations ending with it.
+     */
+    private static final class Registration {
+        private static final Registration[] NONE = new Registration[0];
+
+        private final Registration parent;
+        private final int statusCode;
+        private final Type type;
+        private final ConcurrentMap<Class<?>, ResponseBuilder<?, ?>> builders = new ConcurrentHashMap<>();
+        private volatile Registration[] children = NONE;
+
+        Registration(Registration parent, int statusCode, Type type) {
+            this.parent = parent;
+            this.statusCode = statusCode;
+            this.type = type;
+        }
+
+        Registration next(int statusCode, Type type) {
+            Registration child = find(this.children, statusCode, type);
+            if (child == null) {
+                synchronized (this) {
+                    child = find(this.children, statusCode, type);
+                    if (child == null) {
+                        child = new Registration(this, statusCode, type);
+                        Registration[] grown = Arrays.copyOf(this.children, this.children.length + 1);
+                        grown[grown.length - 1] = child;
+                        this.children = grown;
+                    }
+                }
+            }
+            return child;
+        }
+
+        private static Registration find(Registration[] candidates, int statusCode, Type type) {
+            for (Registration candidate : candidates) {
+                // The generated code registers the same type instances for an operation, equality
+                // covers the types that are not
+                if (candidate.statusCode == statusCode && (candidate.type == type || candidate.type.equals(type))) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+    }
+}
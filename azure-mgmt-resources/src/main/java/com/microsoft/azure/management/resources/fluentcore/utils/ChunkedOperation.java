@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import rx.Observable;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The base class for operations on a collection of items that are sent in chunks of items, with
+ * a limited number of chunks in flight.
+ * <p>
+ * The chunks are executed on the {@link SdkContext} scheduler, the next chunk is subscribed to
+ * only once one in flight completes and no new chunk is subscribed to once a chunk fails.
+ *
+ * @param <T> the type of the items
+ * @param <C> the type of the executed chunks
+ */
+public abstract class ChunkedOperation<T, C> {
+    /**
+     * Override this method to define how a chunk of items is executed.
+     *
+     * @param index the index of the chunk
+     * @param chunkCount the number of chunks of the operation
+     * @param items the items of the chunk
+     * @return an observable that emits the executed chunk
+     */
+    protected abstract Observable<C> executeChunkAsync(int index, int chunkCount, List<T> items);
+
+    /**
+     * Executes the operation on the items, in order.
+     *
+     * @param items the items
+     * @param chunkSize the max number of items of a chunk
+     * @param concurrency the max number of chunks in flight
+     * @return an observable that emits each chunk once executed, in completion order
+     */
+    public Observable<C> executeAsync(Collection<T> items, int chunkSize, int concurrency) {
+        if (items == null || items.isEmpty()) {
+            return Observable.empty();
+        }
+        final List<T> list = new ArrayList<>(items);
+        final int size = Math.max(1, chunkSize);
+        final int chunkCount = (list.size() + size - 1) / size;
+        return Observable.range(0, chunkCount).flatMap(new Func1<Integer, Observable<C>>() {
+            @Override
+            public Observable<C> call(final Integer index) {
+                return Observable.defer(new Func0<Observable<C>>() {
+                    @Override
+                    public Observable<C> call() {
+                        int from = index * size;
+                        return executeChunkAsync(index, chunkCount,
+                                new ArrayList<>(list.subList(from, Math.min(list.size(), from + size))));
+                    }
+                })
+                .subscribeOn(SdkContext.getRxScheduler());
+            }
+        }, Math.max(1, concurrency));
+    }
+}
@@ -6,6 +6,10 @@
 
 package com.microsoft.azure.management.resources.fluentcore.utils;
 
+import rx.Observable;
+
+import java.util.concurrent.TimeUnit;
+
 /**
  * A wrapper class for thread sleep.
  */
@@ -20,4 +24,17 @@ public class DelayProvider {
         } catch (InterruptedException e) {
         }
     }
+
+    /**
+     * Creates an observable that emits the given item after the given delay, the wait is timer
+     * based and does not block any thread.
+     *
+     * @param event the item to emit
+     * @param milliseconds the delay in milliseconds
+     * @param <T> the type of the item
+     * @return the delayed observable
+     */
+    public <T> Observable<T> delayedEmitAsync(T event, int milliseconds) {
+        return Observable.just(event).delay(milliseconds, TimeUnit.MILLISECONDS, SdkContext.getRxScheduler());
+    }
 }
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import rx.Observable;
+import rx.functions.Action1;
+import rx.functions.Func0;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cache of the values of asynchronous lookups, the values expire after a time to live.
+ * <p>
+ * Concurrent requests for a key share the lookup in flight, which does not expire until it emits.
+ * A lookup that fails or emits null is not cached, so that the next request for the key looks it
+ * up again. The lookups are expected to emit a single value.
+ *
+ * @param <T> the type of the cached values
+ */
+public final class ExpiringAsyncCache<T> {
+    private final ConcurrentMap<String, Entry<T>> entries = new ConcurrentHashMap<>();
+    private volatile long timeToLiveInMillis;
+
+    /**
+     * Creates a cache.
+     *
+     * @param timeToLive the time to live of the values
+     * @param unit the time unit of the time to live
+     */
+    public ExpiringAsyncCache(long timeToLive, TimeUnit unit) {
+        withTimeToLive(timeToLive, unit);
+    }
+
+    /**
+     * Specifies the time after which a cached value is looked up again, the values already cached
+     * keep their expiry.
+     *
+     * @param timeToLive the time to live of the values
+     * @param unit the time unit of the time to live
+     * @return the cache
+     */
+    public ExpiringAsyncCache<T> withTimeToLive(long timeToLive, TimeUnit unit) {
+        this.timeToLiveInMillis = unit.toMillis(timeToLive);
+        return this;
+    }
+
+    /**
+     * Gets the cached value or the lookup in flight for a key, or starts a new lookup.
+     *
+     * @param key the key
+     * @param lookup the lookup of the value, subscribed to once for all the requests sharing it
+     * @return an observable that emits the value
+     */
+    public Observable<T> getAsync(final String key, final Func0<Observable<T>> lookup) {
+        while (true) {
+            Entry<T> existing = this.entries.get(key);
+            if (existing != null && !existing.isExpired()) {
+                return existing.value;
+            }
+            final Entry<T> created = new Entry<>();
+            created.value = Observable.defer(lookup)
+                    .doOnNext(new Action1<T>() {
+                        @Override
+                        public void call(T value) {
+                            if (value == null) {
+                                entries.remove(key, created);
+                            } else {
+                                created.expiresAt = System.currentTimeMillis() + timeToLiveInMillis;
+                            }
+                        }
+                    })
+                    .doOnError(new Action1<Throwable>() {
+                        @Override
+                        public void call(Throwable throwable) {
+                            entries.remove(key, created);
+                        }
+                    })
+                    .cache();
+            boolean installed = existing == null
+                    ? this.entries.putIfAbsent(key, created) == null
+                    : this.entries.replace(key, existing, created);
+            if (installed) {
+                return created.value;
+            }
+        }
+    }
+
+    /**
+     * @param key the key
+     * @return the cached value or the lookup in flight for the key, null if there is none
+     */
+    public Observable<T> getIfPresent(String key) {
+        Entry<T> entry = this.entries.get(key);
+        return entry != null && !entry.isExpired() ? entry.value : null;
+    }
+
+    /**
+     * Caches a value obtained without a lookup, replacing the value or lookup of the key.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    public void put(String key, T value) {
+        Entry<T> entry = new Entry<>();
+        entry.value = Observable.just(value);
+        entry.expiresAt = System.currentTimeMillis() + this.timeToLiveInMillis;
+        this.entries.put(key, entry);
+    }
+
+    /**
+     * Removes the value of a key.
+     *
+     * @param key the key
+     */
+    public void invalidate(String key) {
+        this.entries.remove(key);
+    }
+
+    /**
+     * Removes all the values.
+     */
+    public void invalidateAll() {
+        this.entries.clear();
+    }
+
+    /**
+     * A cached value or a lookup in flight, lookups in flight do not expire.
+     */
+    private static class Entry<T> {
+        private Observable<T> value;
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        boolean isExpired() {
+            return this.expiresAt <= System.currentTimeMillis();
+        }
+    }
+}
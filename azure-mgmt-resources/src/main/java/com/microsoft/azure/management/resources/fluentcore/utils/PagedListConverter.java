@@ -10,20 +10,37 @@ import com.microsoft.azure.Page;
 import com.microsoft.azure.PagedList;
 import com.microsoft.azure.management.resources.implementation.PageImpl;
 import com.microsoft.rest.RestException;
+import rx.Observable;
+import rx.functions.Func0;
+import rx.functions.Func1;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * The base class for converting {@link PagedList} of one type of resource to
  * another, without polling down all the items in a list.
  * This converter is useful in converting inner top level resources into fluent
  * top level resources.
+ * <p>
+ * By default pages are fetched and converted on the calling thread when iteration reaches the
+ * end of the previous page. With read-ahead enabled (see {@link #withPrefetch(int)}) the next pages
+ * are fetched and converted in the background while the current page is being consumed.
  *
  * @param <U> the type of Resource to convert from
  * @param <V> the type of Resource to convert to
  */
 public abstract class PagedListConverter<U, V> {
+    /**
+     * the maximum number of pages to fetch ahead of the page being consumed, negative to use the
+     * count from {@link SdkContext} at the time a list is converted.
+     */
+    private int prefetchPageCount = -1;
+
     /**
      * Override this method to define how to convert each Resource item
      * individually.
@@ -42,6 +59,23 @@ public abstract class PagedListConverter<U, V> {
         return true;
     }
 
+    /**
+     * Enables read-ahead, the next pages are fetched and converted in the background while the
+     * current page is being consumed.
+     * <p>
+     * By default the count set with {@link SdkContext#setPagedListPrefetchCount(int)} is used.
+     *
+     * @param pageCount the maximum number of pages to fetch ahead, 0 to disable read-ahead
+     * @return this converter
+     */
+    public PagedListConverter<U, V> withPrefetch(int pageCount) {
+        if (pageCount < 0) {
+            throw new IllegalArgumentException("pageCount must not be negative");
+        }
+        this.prefetchPageCount = pageCount;
+        return this;
+    }
+
     /**
      * Converts the paged list.
      *
@@ -58,6 +92,49 @@ public abstract class PagedListConverter<U, V> {
             };
         }
         Page<U> uPage = uList.currentPage();
+        PageImpl<V> vPage = convertPage(uPage);
+        int pageCount = prefetchPageCount >= 0 ? prefetchPageCount : SdkContext.getPagedListPrefetchCount();
+        if (pageCount > 0) {
+            final PageReader pageReader = new PageReader(uList, pageCount);
+            pageReader.schedule(vPage.nextPageLink());
+            return new PagedList<V>(vPage) {
+                @Override
+                public Page<V> nextPage(String nextPageLink) throws RestException, IOException {
+                    return pageReader.take(nextPageLink);
+                }
+            };
+        }
+        return new PagedList<V>(vPage) {
+            @Override
+            public Page<V> nextPage(String nextPageLink) throws RestException, IOException {
+                return convertPage(uList.nextPage(nextPageLink));
+            }
+        };
+    }
+
+    /**
+     * Converts the items emitted by an observable one at a time, without collecting them into pages.
+     * <p>
+     * This can be used with {@link StreamingListReader} so that no page of either type is held in memory.
+     *
+     * @param uItems the observable emitting the resources to convert from
+     * @return the observable emitting the converted resources
+     */
+    public Observable<V> convert(Observable<U> uItems) {
+        return uItems.filter(new Func1<U, Boolean>() {
+            @Override
+            public Boolean call(U u) {
+                return filter(u);
+            }
+        }).map(new Func1<U, V>() {
+            @Override
+            public V call(U u) {
+                return typeConvert(u);
+            }
+        });
+    }
+
+    private PageImpl<V> convertPage(Page<U> uPage) {
         PageImpl<V> vPage = new PageImpl<>();
         vPage.setNextPageLink(uPage.nextPageLink());
         vPage.setItems(new ArrayList<V>());
@@ -66,20 +143,113 @@ public abstract class PagedListConverter<U, V> {
                 vPage.items().add(typeConvert(u));
             }
         }
-        return new PagedList<V>(vPage) {
-            @Override
-            public Page<V> nextPage(String nextPageLink) throws RestException, IOException {
-                Page<U> uPage = uList.nextPage(nextPageLink);
-                PageImpl<V> vPage = new PageImpl<>();
-                vPage.setNextPageLink(uPage.nextPageLink());
-                vPage.setItems(new ArrayList<V>());
-                for (U u : uPage.items()) {
-                    if (filter(u)) {
-                        vPage.items().add(typeConvert(u));
+        return vPage;
+    }
+
+    /**
+     * Type that fetches and converts the pages ahead of the consumer.
+     * <p>
+     * At most prefetchPageCount pages are fetched but not yet consumed at any time, the chain of
+     * read-ahead stops when this limit is reached and resumes when the consumer takes a page.
+     */
+    private class PageReader {
+        private final PagedList<U> uList;
+        private final int prefetchPageCount;
+        private final Map<String, Future<PageImpl<V>>> pending;
+        /**
+         * the number of pages scheduled and not yet taken by the consumer.
+         */
+        private int outstanding;
+        /**
+         * the link of the next page that is not scheduled because the read-ahead limit is reached.
+         */
+        private String deferredLink;
+
+        PageReader(PagedList<U> uList, int prefetchPageCount) {
+            this.uList = uList;
+            this.prefetchPageCount = prefetchPageCount;
+            this.pending = new HashMap<>();
+        }
+
+        /**
+         * Schedules background fetch of the page with the given link.
+         *
+         * @param nextPageLink the link of the page
+         */
+        synchronized void schedule(final String nextPageLink) {
+            if (nextPageLink == null || pending.containsKey(nextPageLink)) {
+                return;
+            }
+            if (outstanding >= prefetchPageCount) {
+                deferredLink = nextPageLink;
+                return;
+            }
+            // Counted before subscription since the page may be fetched on this thread
+            outstanding++;
+            Future<PageImpl<V>> future = Observable.defer(new Func0<Observable<PageImpl<V>>>() {
+                @Override
+                public Observable<PageImpl<V>> call() {
+                    try {
+                        PageImpl<V> vPage = convertPage(uList.nextPage(nextPageLink));
+                        schedule(vPage.nextPageLink());
+                        return Observable.just(vPage);
+                    } catch (Exception e) {
+                        return Observable.error(e);
                     }
                 }
-                return vPage;
+            }).subscribeOn(SdkContext.getRxScheduler()).toBlocking().toFuture();
+            pending.put(nextPageLink, future);
+        }
+
+        /**
+         * Takes the page with the given link, waits for the page if it is being fetched or fetches
+         * it on the calling thread if it is not scheduled.
+         *
+         * @param nextPageLink the link of the page
+         * @return the converted page
+         * @throws RestException exceptions thrown from the REST call
+         * @throws IOException exceptions thrown from serialization/deserialization
+         */
+        Page<V> take(String nextPageLink) throws RestException, IOException {
+            Future<PageImpl<V>> future;
+            synchronized (this) {
+                future = pending.remove(nextPageLink);
+                if (future != null) {
+                    outstanding--;
+                }
+                if (deferredLink != null) {
+                    String link = deferredLink;
+                    deferredLink = null;
+                    schedule(link);
+                }
             }
-        };
+            PageImpl<V> vPage;
+            if (future == null) {
+                vPage = convertPage(uList.nextPage(nextPageLink));
+            } else {
+                vPage = awaitPage(future);
+            }
+            schedule(vPage.nextPageLink());
+            return vPage;
+        }
+
+        private PageImpl<V> awaitPage(Future<PageImpl<V>> future) throws RestException, IOException {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RestException) {
+                    throw (RestException) cause;
+                } else if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
     }
 }
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import com.microsoft.azure.management.resources.Provider;
+import com.microsoft.azure.management.resources.implementation.ResourceManager;
+import rx.Observable;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coordinates the registration of resource providers across all the clients in the process.
+ * <p>
+ * Only one registration is in progress for a (subscription, namespace) pair at any time, concurrent
+ * requests for the same pair share it. The registration state is polled asynchronously with an
+ * exponential backoff, and registered namespaces are remembered so that later requests complete
+ * without contacting the service.
+ */
+final class ProviderRegistrationCoordinator {
+    private static final ProviderRegistrationCoordinator SHARED = new ProviderRegistrationCoordinator();
+    private static final int INITIAL_POLL_DELAY_IN_MILLISECONDS = 2 * 1000;
+    private static final int MAX_POLL_DELAY_IN_MILLISECONDS = 30 * 1000;
+
+    private final Set<String> registered = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final ConcurrentMap<String, Observable<String>> inProgress = new ConcurrentHashMap<>();
+
+    /**
+     * @return the coordinator shared by all the clients in the process
+     */
+    static ProviderRegistrationCoordinator shared() {
+        return SHARED;
+    }
+
+    /**
+     * @param subscriptionId the subscription id
+     * @param namespace the resource provider namespace
+     * @return true if the namespace is known to be registered in the subscription
+     */
+    boolean isRegistered(String subscriptionId, String namespace) {
+        return registered.contains(keyOf(subscriptionId, namespace));
+    }
+
+    /**
+     * Registers a resource provider, or joins the registration already in progress.
+     *
+     * @param resourceManager the resource manager for the subscription
+     * @param subscriptionId the subscription id
+     * @param namespace the resource provider namespace
+     * @return an observable that emits the namespace once the provider is registered
+     */
+    Observable<String> registerAsync(final ResourceManager resourceManager, String subscriptionId, final String namespace) {
+        final String key = keyOf(subscriptionId, namespace);
+        if (registered.contains(key)) {
+            return Observable.just(namespace);
+        }
+        Observable<String> registration = inProgress.get(key);
+        if (registration != null) {
+            return registration;
+        }
+        registration = resourceManager.providers().registerAsync(namespace)
+                .flatMap(new Func1<Provider, Observable<Provider>>() {
+                    @Override
+                    public Observable<Provider> call(Provider provider) {
+                        if (isRegistrationComplete(provider)) {
+                            return Observable.just(provider);
+                        }
+                        return new ResourcePoller<>(new Func0<Observable<Provider>>() {
+                            @Override
+                            public Observable<Provider> call() {
+                                return resourceManager.providers().getByNameAsync(namespace);
+                            }
+                        })
+                        .withInitialDelay(INITIAL_POLL_DELAY_IN_MILLISECONDS, TimeUnit.MILLISECONDS)
+                        .withBackoff(INITIAL_POLL_DELAY_IN_MILLISECONDS * 2, 2, MAX_POLL_DELAY_IN_MILLISECONDS, TimeUnit.MILLISECONDS)
+                        .pollUntilAsync(new Func1<Provider, Boolean>() {
+                            @Override
+                            public Boolean call(Provider current) {
+                                return isRegistrationComplete(current);
+                            }
+                        });
+                    }
+                })
+                .map(new Func1<Provider, String>() {
+                    @Override
+                    public String call(Provider provider) {
+                        return namespace;
+                    }
+                })
+                .doOnNext(new Action1<String>() {
+                    @Override
+                    public void call(String ignored) {
+                        registered.add(key);
+                    }
+                })
+                .doOnTerminate(new Action0() {
+                    @Override
+                    public void call() {
+                        inProgress.remove(key);
+                    }
+                })
+                .cache();
+        Observable<String> existing = inProgress.putIfAbsent(key, registration);
+        return existing != null ? existing : registration;
+    }
+
+    private static boolean isRegistrationComplete(Provider provider) {
+        String state = provider.registrationState();
+        return !"Unregistered".equalsIgnoreCase(state) && !"Registering".equalsIgnoreCase(state);
+    }
+
+    private static String keyOf(String subscriptionId, String namespace) {
+        return (subscriptionId + "/" + namespace).toLowerCase(Locale.ROOT);
+    }
+}
@@ -6,10 +6,8 @@
 
 package com.microsoft.azure.management.resources.fluentcore.utils;
 
-import com.microsoft.azure.AzureResponseBuilder;
 import com.microsoft.azure.CloudError;
 import com.microsoft.azure.credentials.AzureTokenCredentials;
-import com.microsoft.azure.management.resources.Provider;
 import com.microsoft.azure.management.resources.implementation.ResourceManager;
 import com.microsoft.azure.serializer.AzureJacksonAdapter;
 import com.microsoft.rest.RestClient;
@@ -20,14 +18,28 @@ import okio.Buffer;
 import okio.BufferedSource;
 
 import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * An interceptor for automatic provider registration in Azure.
+ * <p>
+ * Registrations are coordinated across all the interceptors in the process, concurrent requests
+ * failing for the same unregistered namespace wait for a single registration.
  */
 public final class ProviderRegistrationInterceptor implements Interceptor {
+    private static final Pattern SUBSCRIPTION_PATTERN = Pattern.compile("/subscriptions/([\\w-]+)/", Pattern.CASE_INSENSITIVE);
+    private static final Pattern NAMESPACE_PATTERN = Pattern.compile(".*'(.*)'");
+
     private final AzureTokenCredentials credentials;
+    private final AzureJacksonAdapter jacksonAdapter = new AzureJacksonAdapter();
+    private final ProviderRegistrationCoordinator coordinator = ProviderRegistrationCoordinator.shared();
+    /**
+     * The resource managers used to register providers, keyed by host and subscription.
+     */
+    private final ConcurrentMap<String, ResourceManager> resourceManagers = new ConcurrentHashMap<>();
 
     /**
      * Initialize a provider registration interceptor with a credential that's authorized
@@ -43,36 +55,49 @@ public final class ProviderRegistrationInterceptor implements Interceptor {
         Response response = chain.proceed(chain.request());
         if (!response.isSuccessful()) {
             String content = errorBody(response.body());
-            AzureJacksonAdapter jacksonAdapter = new AzureJacksonAdapter();
             CloudError cloudError = jacksonAdapter.deserialize(content, CloudError.class);
             if (cloudError != null && "MissingSubscriptionRegistration".equals(cloudError.code())) {
-                Pattern pattern = Pattern.compile("/subscriptions/([\\w-]+)/", Pattern.CASE_INSENSITIVE);
-                Matcher matcher = pattern.matcher(chain.request().url().toString());
-                matcher.find();
-                RestClient restClient = new RestClient.Builder()
-                        .withBaseUrl("https://" + chain.request().url().host())
-                        .withCredentials(credentials)
-                        .withSerializerAdapter(jacksonAdapter)
-                        .withResponseBuilderFactory(new AzureResponseBuilder.Factory())
-                        .build();
-                ResourceManager resourceManager = ResourceManager.authenticate(restClient)
-                        .withSubscription(matcher.group(1));
-                pattern = Pattern.compile(".*'(.*)'");
-                matcher = pattern.matcher(cloudError.message());
-                matcher.find();
-                Provider provider = registerProvider(matcher.group(1), resourceManager);
-                while (provider.registrationState().equalsIgnoreCase("Unregistered")
-                        || provider.registrationState().equalsIgnoreCase("Registering")) {
-                    SdkContext.sleep(5 * 1000);
-                    provider = resourceManager.providers().getByName(provider.namespace());
+                Matcher subscriptionMatcher = SUBSCRIPTION_PATTERN.matcher(chain.request().url().toString());
+                Matcher namespaceMatcher = NAMESPACE_PATTERN.matcher(cloudError.message());
+                if (!subscriptionMatcher.find() || !namespaceMatcher.find()) {
+                    return response;
+                }
+                String subscriptionId = subscriptionMatcher.group(1);
+                String namespace = namespaceMatcher.group(1);
+                if (!coordinator.isRegistered(subscriptionId, namespace)) {
+                    // Waits for the registration, which may have been started by another request
+                    coordinator.registerAsync(resourceManager(chain.request().url().host(), subscriptionId),
+                            subscriptionId,
+                            namespace).toBlocking().last();
                 }
                 // Retry
+                response.body().close();
                 response = chain.proceed(chain.request());
             }
         }
         return response;
     }
 
+    private ResourceManager resourceManager(String host, String subscriptionId) {
+        String key = host + "/" + subscriptionId;
+        ResourceManager resourceManager = resourceManagers.get(key);
+        if (resourceManager == null) {
+            RestClient restClient = new RestClient.Builder()
+                    .withBaseUrl("https://" + host)
+                    .withCredentials(credentials)
+                    .withSerializerAdapter(jacksonAdapter)
+                    .withResponseBuilderFactory(new CachedResponseBuilderFactory())
+                    .build();
+            ResourceManager newResourceManager = ResourceManager.authenticate(restClient)
+                    .withSubscription(subscriptionId);
+            resourceManager = resourceManagers.putIfAbsent(key, newResourceManager);
+            if (resourceManager == null) {
+                resourceManager = newResourceManager;
+            }
+        }
+        return resourceManager;
+    }
+
     private String errorBody(ResponseBody responseBody) throws IOException {
         if (responseBody == null) {
             return null;
@@ -82,8 +107,4 @@ public final class ProviderRegistrationInterceptor implements Interceptor {
         Buffer buffer = source.buffer();
         return buffer.clone().readUtf8();
     }
-
-    private Provider registerProvider(String namespace, ResourceManager resourceManager) {
-        return resourceManager.providers().register(namespace);
-    }
 }
@@ -0,0 +1,246 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.ByteString;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A token bucket rate limiter for Azure Resource Manager requests.
+ * <p>
+ * A bucket is maintained for each (tenant, subscription, read/write) combination, the buckets are
+ * refilled at the Azure Resource Manager hourly limit rate and synchronized with the remaining
+ * request count reported by the service via x-ms-ratelimit-remaining-subscription-reads/writes
+ * response headers. A throttled (429) response blocks only the bucket it was received for, requests
+ * targeting other subscriptions or tenants are not affected.
+ * <p>
+ * The limiter only computes the delays, the callers wait them out. As OkHttp interceptors are
+ * synchronous, {@link ResourceManagerThrottlingInterceptor} waits on the thread sending the request.
+ */
+public final class ResourceManagerRateLimiter {
+    private static final ResourceManagerRateLimiter SHARED = new ResourceManagerRateLimiter();
+    private static final String REMAINING_READS_HEADER = "x-ms-ratelimit-remaining-subscription-reads";
+    private static final String REMAINING_WRITES_HEADER = "x-ms-ratelimit-remaining-subscription-writes";
+    private static final Pattern SUBSCRIPTION_PATTERN = Pattern.compile("/subscriptions/([^/?]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TENANT_CLAIM_PATTERN = Pattern.compile("\"tid\"\\s*:\\s*\"([^\"]+)\"");
+    private static final int MAX_CACHED_TENANTS = 256;
+    // The tenant ids of the bearer tokens seen so far, a token is reused for many requests
+    private static final ConcurrentMap<String, String> TENANTS_BY_TOKEN = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Bucket> buckets;
+    private final int readsPerHour;
+    private final int writesPerHour;
+
+    /**
+     * Creates a rate limiter with the default Azure Resource Manager limits of 15,000 reads and
+     * 1,200 writes per hour for each subscription and tenant.
+     */
+    public ResourceManagerRateLimiter() {
+        this(15000, 1200);
+    }
+
+    /**
+     * Creates a rate limiter.
+     *
+     * @param readsPerHour the number of read requests allowed per hour for a subscription and tenant
+     * @param writesPerHour the number of write requests allowed per hour for a subscription and tenant
+     */
+    public ResourceManagerRateLimiter(int readsPerHour, int writesPerHour) {
+        this.buckets = new ConcurrentHashMap<>();
+        this.readsPerHour = readsPerHour;
+        this.writesPerHour = writesPerHour;
+    }
+
+    /**
+     * @return the rate limiter shared by all the Azure Resource Manager clients in the process
+     */
+    public static ResourceManagerRateLimiter shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the key identifying the bucket a request belongs to.
+     *
+     * @param request the request
+     * @return the bucket key
+     */
+    public static String keyOf(Request request) {
+        Matcher matcher = SUBSCRIPTION_PATTERN.matcher(request.url().encodedPath());
+        String subscriptionId = matcher.find() ? matcher.group(1).toLowerCase() : "";
+        return keyOf(tenantOf(request), subscriptionId, isWrite(request.method()));
+    }
+
+    /**
+     * Gets the key identifying a bucket.
+     *
+     * @param tenantId the tenant id, empty if not known
+     * @param subscriptionId the subscription id, empty for requests not scoped to a subscription
+     * @param isWrite true for write requests, false for read requests
+     * @return the bucket key
+     */
+    public static String keyOf(String tenantId, String subscriptionId, boolean isWrite) {
+        return tenantId + "/" + subscriptionId + (isWrite ? "/writes" : "/reads");
+    }
+
+    /**
+     * Reserves a request slot from a bucket.
+     *
+     * @param key the bucket key
+     * @return the delay in milliseconds the caller must wait before sending the request
+     */
+    public long reserve(String key) {
+        return bucket(key).reserve(System.currentTimeMillis());
+    }
+
+    /**
+     * Synchronizes a bucket with the remaining request count reported in a response.
+     *
+     * @param key the bucket key
+     * @param response the response
+     */
+    public void onResponse(String key, Response response) {
+        String remaining = response.header(key.endsWith("/writes") ? REMAINING_WRITES_HEADER : REMAINING_READS_HEADER);
+        if (remaining == null) {
+            return;
+        }
+        try {
+            bucket(key).syncRemaining(Integer.parseInt(remaining.trim()), System.currentTimeMillis());
+        } catch (NumberFormatException e) {
+            // Ignore malformed header
+        }
+    }
+
+    /**
+     * Blocks a bucket as the service throttled a request.
+     *
+     * @param key the bucket key
+     * @param retryAfterSeconds the number of seconds after which the request can be retried
+     */
+    public void onThrottled(String key, int retryAfterSeconds) {
+        bucket(key).block(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(retryAfterSeconds));
+    }
+
+    private Bucket bucket(String key) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            int perHour = key.endsWith("/writes") ? writesPerHour : readsPerHour;
+            Bucket newBucket = new Bucket(perHour);
+            bucket = buckets.putIfAbsent(key, newBucket);
+            if (bucket == null) {
+                bucket = newBucket;
+            }
+        }
+        return bucket;
+    }
+
+    private static boolean isWrite(String method) {
+        return !("GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method));
+    }
+
+    /**
+     * Gets the tenant id from the tid claim of the bearer token, if the token is available.
+     */
+    private static String tenantOf(Request request) {
+        String authorization = request.header("Authorization");
+        if (authorization == null || !authorization.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return "";
+        }
+        String token = authorization.substring(7);
+        String tenantId = TENANTS_BY_TOKEN.get(token);
+        if (tenantId == null) {
+            tenantId = tenantOfToken(token);
+            if (TENANTS_BY_TOKEN.size() >= MAX_CACHED_TENANTS) {
+                // Tokens expire, drop the ones seen so far rather than tracking their expiry
+                TENANTS_BY_TOKEN.clear();
+            }
+            TENANTS_BY_TOKEN.put(token, tenantId);
+        }
+        return tenantId;
+    }
+
+    private static String tenantOfToken(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length < 2) {
+            return "";
+        }
+        ByteString claims = ByteString.decodeBase64(parts[1].replace('-', '+').replace('_', '/'));
+        if (claims == null) {
+            return "";
+        }
+        Matcher matcher = TENANT_CLAIM_PATTERN.matcher(claims.utf8());
+        return matcher.find() ? matcher.group(1) : "";
+    }
+
+    /**
+     * A token bucket.
+     */
+    private static final class Bucket {
+        private final double capacity;
+        private final double tokensPerMilli;
+        private double tokens;
+        private long lastRefill;
+        private long blockedUntil;
+        // The times at which the callers told to wait are allowed to send their requests
+        private final ArrayDeque<Long> waitingUntil = new ArrayDeque<>();
+
+        Bucket(int perHour) {
+            this.capacity = perHour;
+            this.tokensPerMilli = perHour / (double) TimeUnit.HOURS.toMillis(1);
+            this.tokens = perHour;
+            this.lastRefill = System.currentTimeMillis();
+        }
+
+        synchronized long reserve(long now) {
+            refill(now);
+            long delay = Math.max(0, blockedUntil - now);
+            if (tokens < 1) {
+                delay = Math.max(delay, (long) Math.ceil((1 - tokens) / tokensPerMilli));
+            }
+            // The token is taken even when the caller has to wait, so that concurrent callers
+            // queue up behind each other instead of all waking up at the same time.
+            tokens -= 1;
+            if (delay > 0) {
+                waitingUntil.add(now + delay);
+            }
+            return delay;
+        }
+
+        synchronized void syncRemaining(int remaining, long now) {
+            refill(now);
+            // The service count is authoritative in both directions, the local refill only paces
+            // the requests between two responses. The service has not seen the requests of the
+            // callers still waiting, their tokens remain taken so that new callers queue behind them.
+            for (Iterator<Long> itr = waitingUntil.iterator(); itr.hasNext();) {
+                if (itr.next() <= now) {
+                    itr.remove();
+                }
+            }
+            tokens = Math.min(capacity, Math.max(0, remaining)) - waitingUntil.size();
+        }
+
+        synchronized void block(long until) {
+            blockedUntil = Math.max(blockedUntil, until);
+            tokens = Math.min(tokens, 0);
+        }
+
+        private void refill(long now) {
+            if (now > lastRefill) {
+                tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerMilli);
+                lastRefill = now;
+            }
+        }
+    }
+}
@@ -15,7 +15,6 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 /**
@@ -23,71 +22,84 @@ import java.util.regex.Pattern;
  * <p>
  * For each subscription and tenant, Azure Resource Manager limits read requests to 15,000 per hour and
  *   write requests to 1,200 per hour. These limits apply to each Azure Resource Manager instance.
+ * <p>
+ * Requests are paced by a {@link ResourceManagerRateLimiter} keyed by tenant, subscription and request kind,
+ *   hence waiting out a throttled subscription does not hold back requests to other subscriptions.
  */
 public class ResourceManagerThrottlingInterceptor implements Interceptor {
     private static final String LOGGING_HEADER = "x-ms-logging-context";
-    private static final ReentrantLock REENTRANT_LOCK = new ReentrantLock();
+    private static final Pattern RETRY_AFTER_PATTERN = Pattern.compile("try again after '([0-9]*)' minutes", Pattern.CASE_INSENSITIVE);
+
+    private final ResourceManagerRateLimiter rateLimiter;
+
+    /**
+     * Creates an interceptor that uses the process wide shared rate limiter.
+     */
+    public ResourceManagerThrottlingInterceptor() {
+        this(ResourceManagerRateLimiter.shared());
+    }
+
+    /**
+     * Creates an interceptor.
+     *
+     * @param rateLimiter the rate limiter to pace the requests
+     */
+    public ResourceManagerThrottlingInterceptor(ResourceManagerRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
 
     @Override
     public Response intercept(Chain chain) throws IOException {
-        // Gate control
-        try {
-            synchronized (REENTRANT_LOCK) {
-                if (REENTRANT_LOCK.isLocked()) {
-                    REENTRANT_LOCK.wait();
-                }
-            }
-        } catch (InterruptedException e) {
-            throw new IOException(e);
-        }
+        String key = ResourceManagerRateLimiter.keyOf(chain.request());
+        waitFor(rateLimiter.reserve(key));
         Response response = chain.proceed(chain.request());
+        rateLimiter.onResponse(key, response);
         if (response.code() != 429) {
             return response;
         }
 
-        try {
-            synchronized (REENTRANT_LOCK) {
-                if (REENTRANT_LOCK.isLocked()) {
-                    REENTRANT_LOCK.wait();
-                    return chain.proceed(chain.request());
-                } else {
-                    REENTRANT_LOCK.lock();
-                }
+        int retryAfter = retryAfterSeconds(response);
+        if (retryAfter > 0) {
+            rateLimiter.onThrottled(key, retryAfter);
+            String context = chain.request().header(LOGGING_HEADER);
+            if (context == null) {
+                context = "";
             }
-        } catch (InterruptedException e) {
-            throw new IOException(e);
+            LoggerFactory.getLogger(context)
+                .info("Azure Resource Manager read/write per hour limit reached. Will retry in: " + retryAfter + " seconds");
         }
+        response.close();
+        waitFor(rateLimiter.reserve(key));
+        response = chain.proceed(chain.request());
+        rateLimiter.onResponse(key, response);
+        return response;
+    }
 
-        try {
-            String retryAfterHeader = response.header("Retry-After");
-            int retryAfter = 0;
-            if (retryAfterHeader != null) {
-                retryAfter = Integer.parseInt(retryAfterHeader);
+    private int retryAfterSeconds(Response response) throws IOException {
+        String retryAfterHeader = response.header("Retry-After");
+        int retryAfter = 0;
+        if (retryAfterHeader != null) {
+            try {
+                retryAfter = Integer.parseInt(retryAfterHeader.trim());
+            } catch (NumberFormatException e) {
+                retryAfter = 0;
             }
-            if (retryAfter <= 0) {
-                Pattern pattern = Pattern.compile("try again after '([0-9]*)' minutes", Pattern.CASE_INSENSITIVE);
-                Matcher matcher = pattern.matcher(content(response.body()));
+        }
+        if (retryAfter <= 0) {
+            String content = content(response.body());
+            if (content != null) {
+                Matcher matcher = RETRY_AFTER_PATTERN.matcher(content);
                 if (matcher.find()) {
                     retryAfter = (int) TimeUnit.MINUTES.toSeconds(Integer.parseInt(matcher.group(1)));
                 }
             }
-            if (retryAfter > 0) {
-                String context = chain.request().header(LOGGING_HEADER);
-                if (context == null) {
-                    context = "";
-                }
-                LoggerFactory.getLogger(context)
-                    .info("Azure Resource Manager read/write per hour limit reached. Will retry in: " + retryAfter + " seconds");
-                Thread.sleep(TimeUnit.SECONDS.toMillis(retryAfter) + 100);
-            }
-            return chain.proceed(chain.request());
-        } catch (Throwable t) {
-            throw new IOException(t);
-        } finally {
-            synchronized (REENTRANT_LOCK) {
-                REENTRANT_LOCK.unlock();
-                REENTRANT_LOCK.notifyAll();
-            }
+        }
+        return retryAfter;
+    }
+
+    private void waitFor(long delayInMillis) {
+        if (delayInMillis > 0) {
+            SdkContext.sleep((int) Math.min(Integer.MAX_VALUE, delayInMillis + 100));
         }
     }
 
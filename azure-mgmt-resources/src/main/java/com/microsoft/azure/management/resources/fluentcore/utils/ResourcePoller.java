@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import com.microsoft.rest.RestException;
+import rx.Observable;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Type to poll the state of a resource until it reaches a terminal state.
+ * <p>
+ * The waits between the polls are timer based through {@link SdkContext#delayedEmitAsync(Object, int)},
+ * hence no thread is blocked while waiting and unsubscribing from the returned observable cancels
+ * the polling. The delay between the polls grows by the backoff multiplier up to the max delay, with
+ * an optional random jitter so that concurrent pollers do not contact the service at the same time.
+ * A poll failing with a throttled (429) or unavailable (503) response carrying a Retry-After header
+ * is retried after the requested wait.
+ *
+ * @param <T> the type of the polled resource
+ */
+public final class ResourcePoller<T> {
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private final Func0<Observable<T>> pollOperation;
+    private long initialDelayInMillis;
+    private long delayInMillis = TimeUnit.SECONDS.toMillis(5);
+    private long maxDelayInMillis = TimeUnit.SECONDS.toMillis(5);
+    private double backoffMultiplier = 1;
+    private double jitter;
+    private long maxWaitInMillis = -1;
+
+    /**
+     * Creates ResourcePoller.
+     *
+     * @param pollOperation the factory for the observable retrieving the current state of the resource
+     */
+    public ResourcePoller(Func0<Observable<T>> pollOperation) {
+        this.pollOperation = pollOperation;
+    }
+
+    /**
+     * Specifies the wait before the first poll, by default the first poll is made immediately.
+     *
+     * @param delay the wait before the first poll
+     * @param unit the time unit of the wait
+     * @return the poller
+     */
+    public ResourcePoller<T> withInitialDelay(long delay, TimeUnit unit) {
+        this.initialDelayInMillis = unit.toMillis(delay);
+        return this;
+    }
+
+    /**
+     * Specifies a fixed wait between the polls, 5 seconds by default.
+     *
+     * @param delay the wait between the polls
+     * @param unit the time unit of the wait
+     * @return the poller
+     */
+    public ResourcePoller<T> withDelay(long delay, TimeUnit unit) {
+        this.delayInMillis = unit.toMillis(delay);
+        this.maxDelayInMillis = this.delayInMillis;
+        this.backoffMultiplier = 1;
+        return this;
+    }
+
+    /**
+     * Specifies an exponentially growing wait between the polls.
+     *
+     * @param delay the wait after the first poll
+     * @param multiplier the factor the wait grows by after each poll
+     * @param maxDelay the max wait between the polls
+     * @param unit the time unit of the waits
+     * @return the poller
+     */
+    public ResourcePoller<T> withBackoff(long delay, double multiplier, long maxDelay, TimeUnit unit) {
+        this.delayInMillis = unit.toMillis(delay);
+        this.maxDelayInMillis = unit.toMillis(maxDelay);
+        this.backoffMultiplier = multiplier;
+        return this;
+    }
+
+    /**
+     * Specifies the random variation applied to each wait.
+     *
+     * @param jitter the max variation as a fraction of the wait, between 0 and 1
+     * @return the poller
+     */
+    public ResourcePoller<T> withJitter(double jitter) {
+        this.jitter = Math.max(0, Math.min(1, jitter));
+        return this;
+    }
+
+    /**
+     * Specifies the max total time to wait for the resource to reach a terminal state, once elapsed
+     * the polling fails with a {@link TimeoutException}. By default there is no limit.
+     *
+     * @param maxWait the max total wait
+     * @param unit the time unit of the wait
+     * @return the poller
+     */
+    public ResourcePoller<T> withMaxWait(long maxWait, TimeUnit unit) {
+        this.maxWaitInMillis = unit.toMillis(maxWait);
+        return this;
+    }
+
+    /**
+     * Polls the resource until it reaches a terminal state.
+     *
+     * @param isDone the function returning true when the resource is in a terminal state
+     * @return an observable that emits the resource once it is in a terminal state
+     */
+    public Observable<T> pollUntilAsync(final Func1<T, Boolean> isDone) {
+        return Observable.defer(new Func0<Observable<T>>() {
+            @Override
+            public Observable<T> call() {
+                long deadline = maxWaitInMillis < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + maxWaitInMillis;
+                return scheduleAsync(isDone, initialDelayInMillis, delayInMillis, deadline);
+            }
+        });
+    }
+
+    private Observable<T> scheduleAsync(final Func1<T, Boolean> isDone,
+                                        long wait,
+                                        final long nextDelay,
+                                        final long deadline) {
+        if (System.currentTimeMillis() + wait > deadline) {
+            return Observable.error(new TimeoutException("The resource did not reach a terminal state in "
+                    + maxWaitInMillis + " milliseconds"));
+        }
+        Observable<Long> timer = wait <= 0
+                ? Observable.just(0L)
+                : SdkContext.delayedEmitAsync(wait, (int) Math.min(wait, Integer.MAX_VALUE));
+        return timer.flatMap(new Func1<Long, Observable<T>>() {
+            @Override
+            public Observable<T> call(Long ignored) {
+                return pollAsync(isDone, nextDelay, deadline);
+            }
+        });
+    }
+
+    private Observable<T> pollAsync(final Func1<T, Boolean> isDone, final long delay, final long deadline) {
+        final long nextDelay = Math.min(maxDelayInMillis, (long) (delay * backoffMultiplier));
+        return pollOperation.call()
+                .last()
+                .flatMap(new Func1<T, Observable<T>>() {
+                    @Override
+                    public Observable<T> call(T resource) {
+                        if (isDone.call(resource)) {
+                            return Observable.just(resource);
+                        }
+                        return scheduleAsync(isDone, jittered(delay), nextDelay, deadline);
+                    }
+                }, new Func1<Throwable, Observable<T>>() {
+                    @Override
+                    public Observable<T> call(Throwable throwable) {
+                        long retryAfter = retryAfterInMillis(throwable);
+                        if (retryAfter < 0) {
+                            return Observable.error(throwable);
+                        }
+                        return scheduleAsync(isDone, Math.max(retryAfter, delay), nextDelay, deadline);
+                    }
+                }, new Func0<Observable<T>>() {
+                    @Override
+                    public Observable<T> call() {
+                        return Observable.empty();
+                    }
+                });
+    }
+
+    private long jittered(long delay) {
+        if (jitter == 0 || delay <= 0) {
+            return delay;
+        }
+        double variation = (ThreadLocalRandom.current().nextDouble() * 2 - 1) * jitter;
+        return Math.max(0, (long) (delay * (1 + variation)));
+    }
+
+    /**
+     * Gets the wait requested by the service for a throttled or unavailable response.
+     *
+     * @param throwable the poll failure
+     * @return the wait in milliseconds, -1 if the failure is not retriable
+     */
+    static long retryAfterInMillis(Throwable throwable) {
+        if (!(throwable instanceof RestException)) {
+            return -1;
+        }
+        retrofit2.Response<?> response = ((RestException) throwable).response();
+        if (response == null || (response.code() != 429 && response.code() != 503)) {
+            return -1;
+        }
+        String retryAfter = response.headers().get(RETRY_AFTER_HEADER);
+        if (retryAfter == null) {
+            return -1;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -6,6 +6,8 @@
 
 package com.microsoft.azure.management.resources.fluentcore.utils;
 
+import com.microsoft.azure.management.resources.fluentcore.dag.TaskGroupScheduler;
+import rx.Observable;
 import rx.Scheduler;
 import rx.schedulers.Schedulers;
 
@@ -16,6 +18,8 @@ public class SdkContext {
     private static ResourceNamerFactory resourceNamerFactory = new ResourceNamerFactory();
     private static DelayProvider delayProvider = new DelayProvider();
     private static Scheduler rxScheduler = Schedulers.io();
+    private static TaskGroupScheduler taskGroupScheduler;
+    private static int pagedListPrefetchCount;
 
     /**
      * Function to override the ResourceNamerFactory.
@@ -89,6 +93,18 @@ public class SdkContext {
         delayProvider.sleep(milliseconds);
     }
 
+    /**
+     * Wrapper for a delayed emission, based on delayProvider.
+     *
+     * @param event the item to emit
+     * @param milliseconds the delay in milliseconds
+     * @param <T> the type of the item
+     * @return an observable that emits the item after the delay
+     */
+    public static <T> Observable<T> delayedEmitAsync(T event, int milliseconds) {
+        return delayProvider.delayedEmitAsync(event, milliseconds);
+    }
+
     /**
      * Gets the current Rx Scheduler for the SDK framework.
      * @return current rx scheduler.
@@ -104,4 +120,39 @@ public class SdkContext {
     public static void setRxScheduler(Scheduler rxScheduler) {
         SdkContext.rxScheduler = rxScheduler;
     }
+
+    /**
+     * Gets the scheduler used by task groups to control admission of ready tasks.
+     * @return the task group scheduler, null if tasks are started as soon as they are ready.
+     */
+    public static TaskGroupScheduler getTaskGroupScheduler() {
+        return taskGroupScheduler;
+    }
+
+    /**
+     * Sets the scheduler used by task groups to control admission of ready tasks, by default
+     * there is no scheduler and all ready tasks are started immediately.
+     * @param taskGroupScheduler the task group scheduler to be used in SDK framework.
+     */
+    public static void setTaskGroupScheduler(TaskGroupScheduler taskGroupScheduler) {
+        SdkContext.taskGroupScheduler = taskGroupScheduler;
+    }
+
+    /**
+     * Gets the default number of pages fetched ahead of the page being consumed when iterating
+     * converted paged lists.
+     * @return the number of pages to read-ahead, 0 if read-ahead is disabled.
+     */
+    public static int getPagedListPrefetchCount() {
+        return pagedListPrefetchCount;
+    }
+
+    /**
+     * Sets the default number of pages fetched ahead of the page being consumed when iterating
+     * converted paged lists, by default read-ahead is disabled.
+     * @param pagedListPrefetchCount the number of pages to read-ahead, 0 to disable read-ahead.
+     */
+    public static void setPagedListPrefetchCount(int pagedListPrefetchCount) {
+        SdkContext.pagedListPrefetchCount = pagedListPrefetchCount;
+    }
 }
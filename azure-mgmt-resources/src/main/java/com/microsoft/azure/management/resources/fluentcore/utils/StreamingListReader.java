@@ -0,0 +1,336 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.azure.AzureServiceClient;
+import com.microsoft.azure.CloudException;
+import com.microsoft.azure.serializer.AzureJacksonAdapter;
+import com.microsoft.rest.RestClient;
+import okhttp3.ResponseBody;
+import retrofit2.Response;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.Headers;
+import retrofit2.http.Streaming;
+import retrofit2.http.Url;
+import rx.Observable;
+import rx.functions.Action1;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.net.URLEncoder;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Type to read the items of a paged list response one at a time.
+ * <p>
+ * The generated list operations deserialize each page completely into a {@link com.microsoft.azure.Page},
+ * for large pages the reader can be used instead to parse the items incrementally from the response body
+ * as they are requested by the subscriber, hence memory usage is bounded by a single item rather than a page.
+ * <p>
+ * The pages are requested through the Retrofit instance of the client with the same headers as the
+ * generated list operations, and a failed page is mapped to a {@link CloudException} by the response
+ * builder of the client. The reader holds the Retrofit service it sends the requests with, hence
+ * it is meant to be created once per client and list operation.
+ *
+ * @param <T> the type of the items in the list
+ */
+public final class StreamingListReader<T> {
+    private final RestClient restClient;
+    private final StreamingListService service;
+    private final String acceptLanguage;
+    private final String userAgent;
+    private final String loggingContext;
+    private final String pathTemplate;
+    private final ObjectMapper mapper;
+    private final JavaType itemType;
+
+    /**
+     * The list operation returning the response body unbuffered.
+     */
+    interface StreamingListService {
+        @Streaming
+        @GET
+        Observable<Response<ResponseBody>> list(@Url String url, @Header("accept-language") String acceptLanguage, @Header("User-Agent") String userAgent, @Header("x-ms-logging-context") String loggingContext);
+    }
+
+    /**
+     * Creates StreamingListReader.
+     *
+     * @param client the client to send the list requests with
+     * @param acceptLanguage the accept-language header of the client
+     * @param loggingContext the x-ms-logging-context header of the list operation
+     * @param itemType the type of the items in the list
+     */
+    public StreamingListReader(AzureServiceClient client, String acceptLanguage, String loggingContext, Type itemType) {
+        this(client, acceptLanguage, loggingContext, null, itemType);
+    }
+
+    /**
+     * Creates StreamingListReader for a generated list operation, the url and the logging context of
+     * the requests are the ones of the operation in the generated Retrofit service.
+     *
+     * @param client the client to send the list requests with
+     * @param acceptLanguage the accept-language header of the client
+     * @param service the generated Retrofit service declaring the list operation
+     * @param operation the name of the list operation in the service
+     * @param itemType the type of the items in the list
+     */
+    public StreamingListReader(AzureServiceClient client, String acceptLanguage, Class<?> service, String operation, Type itemType) {
+        this(client, acceptLanguage, loggingContextOf(operationOf(service, operation)),
+                operationOf(service, operation).getAnnotation(GET.class).value(), itemType);
+    }
+
+    private StreamingListReader(AzureServiceClient client, String acceptLanguage, String loggingContext, String pathTemplate, Type itemType) {
+        this.restClient = client.restClient();
+        this.service = restClient.retrofit().create(StreamingListService.class);
+        this.acceptLanguage = acceptLanguage;
+        this.userAgent = client.userAgent();
+        this.loggingContext = loggingContext;
+        this.pathTemplate = pathTemplate;
+        if (restClient.serializerAdapter() instanceof AzureJacksonAdapter) {
+            this.mapper = ((AzureJacksonAdapter) restClient.serializerAdapter()).serializer();
+        } else {
+            this.mapper = new AzureJacksonAdapter().serializer();
+        }
+        this.itemType = this.mapper.getTypeFactory().constructType(itemType);
+    }
+
+    /**
+     * Reads the items of the list starting from the given page, the next pages are requested
+     * once all the items in the current page are consumed.
+     *
+     * @param relativeUrl the url of the first page, relative to the base url of the client
+     * @return an observable that emits the items in the list
+     */
+    public Observable<T> readAsync(String relativeUrl) {
+        return readPageAsync(relativeUrl);
+    }
+
+    /**
+     * Reads the items of the list of the generated list operation the reader is created for.
+     *
+     * @param pathParameters the values of the path parameters of the operation by name
+     * @param apiVersion the api version of the operation
+     * @return an observable that emits the items in the list
+     */
+    public Observable<T> readAsync(Map<String, String> pathParameters, String apiVersion) {
+        if (pathTemplate == null) {
+            throw new IllegalStateException("The reader is not created for a generated list operation");
+        }
+        String path = pathTemplate;
+        try {
+            for (Map.Entry<String, String> pathParameter : pathParameters.entrySet()) {
+                path = path.replace("{" + pathParameter.getKey() + "}",
+                        URLEncoder.encode(pathParameter.getValue(), "UTF-8").replace("+", "%20"));
+            }
+            return readPageAsync(path + "?api-version=" + URLEncoder.encode(apiVersion, "UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Method operationOf(Class<?> service, String operation) {
+        for (Method method : service.getMethods()) {
+            if (method.getName().equals(operation) && method.getAnnotation(GET.class) != null) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException("No GET operation " + operation + " in " + service.getName());
+    }
+
+    private static String loggingContextOf(Method operation) {
+        Headers headers = operation.getAnnotation(Headers.class);
+        if (headers != null) {
+            for (String header : headers.value()) {
+                int separator = header.indexOf(':');
+                if (separator > 0 && header.substring(0, separator).trim().equalsIgnoreCase("x-ms-logging-context")) {
+                    return header.substring(separator + 1).trim();
+                }
+            }
+        }
+        return null;
+    }
+
+    private Observable<T> readPageAsync(String pageUrl) {
+        return service.list(pageUrl, acceptLanguage, userAgent, loggingContext)
+                .concatMap(new Func1<Response<ResponseBody>, Observable<T>>() {
+                    @Override
+                    public Observable<T> call(Response<ResponseBody> response) {
+                        return readPageAsync(response);
+                    }
+                })
+                .subscribeOn(SdkContext.getRxScheduler());
+    }
+
+    private Observable<T> readPageAsync(final Response<ResponseBody> response) {
+        return Observable.using(new Func0<PageReader>() {
+            @Override
+            public PageReader call() {
+                return new PageReader(response);
+            }
+        }, new Func1<PageReader, Observable<T>>() {
+            @Override
+            public Observable<T> call(final PageReader pageReader) {
+                Observable<T> nextPage = Observable.defer(new Func0<Observable<T>>() {
+                    @Override
+                    public Observable<T> call() {
+                        if (pageReader.nextLink == null) {
+                            return Observable.empty();
+                        }
+                        return readPageAsync(pageReader.nextLink);
+                    }
+                });
+                return Observable.concat(Observable.defer(new Func0<Observable<T>>() {
+                    @Override
+                    public Observable<T> call() {
+                        try {
+                            pageReader.open();
+                        } catch (Exception e) {
+                            return Observable.error(e);
+                        }
+                        return Observable.from(pageReader);
+                    }
+                }), nextPage);
+            }
+        }, new Action1<PageReader>() {
+            @Override
+            public void call(PageReader pageReader) {
+                pageReader.close();
+            }
+        });
+    }
+
+    /**
+     * Type representing a single page response, items are parsed from the response body as they
+     * are iterated.
+     */
+    private final class PageReader implements Iterable<T>, Iterator<T> {
+        private final Response<ResponseBody> response;
+        private final ResponseBody body;
+        private JsonParser parser;
+        private boolean hasNextItem;
+        private String nextLink;
+
+        PageReader(Response<ResponseBody> response) {
+            this.response = response;
+            this.body = response.isSuccessful() ? response.body() : response.errorBody();
+        }
+
+        /**
+         * Positions the parser on the first item of the page.
+         *
+         * @throws IOException exception thrown from deserialization
+         */
+        void open() throws IOException {
+            if (!response.isSuccessful()) {
+                // The response builder of the client parses the error into the cloud exception
+                restClient.responseBuilderFactory().<Void, CloudException>newInstance(restClient.serializerAdapter())
+                        .registerError(CloudException.class)
+                        .build(response);
+                throw new IOException("Unexpected status code " + response.code() + " for the list response of " + response.raw().request().url());
+            }
+            this.parser = mapper.getFactory().createParser(body.byteStream());
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object in the list response of " + response.raw().request().url());
+            }
+            this.hasNextItem = advanceToItems();
+        }
+
+        /**
+         * Advances the parser to the first item in the value array, reading the nextLink if it
+         * appears before the array.
+         *
+         * @return true if the page has an item
+         * @throws IOException exception thrown from deserialization
+         */
+        private boolean advanceToItems() throws IOException {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if ("value".equals(fieldName) && token == JsonToken.START_ARRAY) {
+                    return advanceToNextItem();
+                } else if ("nextLink".equals(fieldName)) {
+                    nextLink = parser.getValueAsString();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Advances the parser to the next item in the value array, once the array is exhausted the
+         * rest of the page is read to get the nextLink.
+         *
+         * @return true if there is an item
+         * @throws IOException exception thrown from deserialization
+         */
+        private boolean advanceToNextItem() throws IOException {
+            if (parser.nextToken() != JsonToken.END_ARRAY) {
+                return true;
+            }
+            advanceToItems();
+            close();
+            return false;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return this;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNextItem;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNextItem) {
+                throw new NoSuchElementException();
+            }
+            try {
+                T item = mapper.readValue(parser, itemType);
+                hasNextItem = advanceToNextItem();
+                return item;
+            } catch (IOException e) {
+                close();
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        void close() {
+            hasNextItem = false;
+            try {
+                if (parser != null) {
+                    parser.close();
+                }
+            } catch (IOException ignored) {
+                // Nothing to do on close failure
+            }
+            if (body != null) {
+                body.close();
+            }
+        }
+    }
+}
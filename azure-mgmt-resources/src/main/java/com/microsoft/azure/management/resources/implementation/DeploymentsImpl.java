@@ -9,12 +9,11 @@ package com.microsoft.azure.management.resources.implementation;
 import com.microsoft.azure.PagedList;
 import com.microsoft.azure.management.resources.Deployment;
 import com.microsoft.azure.management.resources.Deployments;
-import com.microsoft.azure.management.resources.ResourceGroup;
 import com.microsoft.azure.management.resources.fluentcore.arm.ResourceUtils;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.ReadableWrappersImpl;
+import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.ResourceGroupFanOut;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.SupportsGettingByResourceGroupImpl;
 import com.microsoft.azure.management.resources.fluentcore.arm.models.HasManager;
-import com.microsoft.azure.management.resources.fluentcore.arm.models.implementation.GroupPagedList;
 import com.microsoft.azure.management.resources.fluentcore.utils.PagedListConverter;
 import com.microsoft.rest.ServiceCallback;
 import com.microsoft.rest.ServiceFuture;
@@ -22,8 +21,6 @@ import rx.Completable;
 import rx.Observable;
 import rx.functions.Func1;
 
-import java.util.List;
-
 /**
  * The implementation for {@link Deployments}.
  */
@@ -47,13 +44,7 @@ final class DeploymentsImpl
 
     @Override
     public PagedList<Deployment> list() {
-        final DeploymentsInner client = this.manager().inner().deployments();
-        return new GroupPagedList<Deployment>(this.resourceManager.resourceGroups().list()) {
-            @Override
-            public List<Deployment> listNextGroup(String resourceGroupName) {
-                return converter.convert(client.listByResourceGroup(resourceGroupName));
-            }
-        };
+        return ResourceGroupFanOut.of(this.resourceManager.resourceGroups(), this).ordered().list();
     }
 
     @Override
@@ -62,14 +53,31 @@ final class DeploymentsImpl
     }
 
     @Override
-    public Deployment getByName(String name) {
-        for (ResourceGroup group : this.resourceManager.resourceGroups().list()) {
-            DeploymentExtendedInner inner = this.manager().inner().deployments().getByResourceGroup(group.name(), name);
-            if (inner != null) {
-                return createFluentModel(inner);
+    public Deployment getByName(final String name) {
+        final DeploymentsInner client = this.manager().inner().deployments();
+        // The resource groups are looked up concurrently, the first one in order containing the deployment wins
+        return ResourceGroupFanOut.of(this.resourceManager.resourceGroups(), new Func1<String, Observable<Deployment>>() {
+            @Override
+            public Observable<Deployment> call(String resourceGroupName) {
+                return client.getByResourceGroupAsync(resourceGroupName, name)
+                        .filter(new Func1<DeploymentExtendedInner, Boolean>() {
+                            @Override
+                            public Boolean call(DeploymentExtendedInner inner) {
+                                return inner != null;
+                            }
+                        })
+                        .map(new Func1<DeploymentExtendedInner, Deployment>() {
+                            @Override
+                            public Deployment call(DeploymentExtendedInner inner) {
+                                return createFluentModel(inner);
+                            }
+                        });
             }
-        }
-        return null;
+        })
+        .ordered()
+        .listAsync()
+        .toBlocking()
+        .firstOrDefault(null);
     }
 
     @Override
@@ -146,12 +154,7 @@ final class DeploymentsImpl
 
     @Override
     public Observable<Deployment> listAsync() {
-        return this.manager().resourceGroups().listAsync().flatMap(new Func1<ResourceGroup, Observable<Deployment>>() {
-            @Override
-            public Observable<Deployment> call(ResourceGroup resourceGroup) {
-                return listByResourceGroupAsync(resourceGroup.name());
-            }
-        });
+        return ResourceGroupFanOut.of(this.manager().resourceGroups(), this).listAsync();
     }
 
 
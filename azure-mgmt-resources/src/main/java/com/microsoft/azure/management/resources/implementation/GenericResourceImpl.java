@@ -8,11 +8,11 @@ package com.microsoft.azure.management.resources.implementation;
 
 import com.microsoft.azure.management.resources.GenericResource;
 import com.microsoft.azure.management.resources.Plan;
-import com.microsoft.azure.management.resources.Provider;
 import com.microsoft.azure.management.resources.fluentcore.arm.ResourceUtils;
 import com.microsoft.azure.management.resources.fluentcore.arm.models.implementation.GroupableResourceImpl;
 import com.microsoft.azure.management.resources.fluentcore.utils.SdkContext;
 import rx.Observable;
+import rx.functions.Func0;
 import rx.functions.Func1;
 
 /**
@@ -139,26 +139,31 @@ final class GenericResourceImpl
         Observable<String> observable = Observable.just(apiVersion);
         if (apiVersion == null) {
             final ResourceManagementClientImpl serviceClient = this.manager().inner();
-            observable = this.manager().providers().getByNameAsync(resourceProviderNamespace)
-                    .map(new Func1<Provider, String>() {
-                        @Override
-                        public String call(Provider provider) {
-                            String id;
-                            if (!isInCreateMode()) {
-                                id = inner().id();
-                            } else {
-                                id = ResourceUtils.constructResourceId(
-                                        serviceClient.subscriptionId(),
-                                        resourceGroupName(),
-                                        resourceProviderNamespace(),
-                                        resourceType(),
-                                        name(),
-                                        parentResourcePath());
-                            }
-                            self.apiVersion = ResourceUtils.defaultApiVersion(id, provider);
-                            return self.apiVersion;
-                        }
-                    });
+            observable = Observable.defer(new Func0<Observable<String>>() {
+                @Override
+                public Observable<String> call() {
+                    String id;
+                    if (!isInCreateMode()) {
+                        id = inner().id();
+                    } else {
+                        id = ResourceUtils.constructResourceId(
+                                serviceClient.subscriptionId(),
+                                resourceGroupName(),
+                                resourceProviderNamespace(),
+                                resourceType(),
+                                name(),
+                                parentResourcePath());
+                    }
+                    return manager().providerMetadataCache().getDefaultApiVersionAsync(id);
+                }
+            })
+            .map(new Func1<String, String>() {
+                @Override
+                public String call(String apiVersion) {
+                    self.apiVersion = apiVersion;
+                    return self.apiVersion;
+                }
+            });
         }
         final ResourcesInner resourceClient = this.manager().inner().resources();
         return observable
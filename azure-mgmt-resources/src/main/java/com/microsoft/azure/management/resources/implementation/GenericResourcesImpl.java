@@ -9,10 +9,10 @@ package com.microsoft.azure.management.resources.implementation;
 import com.microsoft.azure.PagedList;
 import com.microsoft.azure.management.resources.GenericResource;
 import com.microsoft.azure.management.resources.GenericResources;
-import com.microsoft.azure.management.resources.Provider;
 import com.microsoft.azure.management.resources.ResourceGroup;
 import com.microsoft.azure.management.resources.fluentcore.arm.ResourceUtils;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.GroupableResourcesImpl;
+import com.microsoft.azure.management.resources.fluentcore.utils.StreamingListReader;
 import com.microsoft.azure.management.resources.fluentcore.utils.Utils;
 import com.microsoft.rest.ServiceCallback;
 import com.microsoft.rest.ServiceFuture;
@@ -20,6 +20,7 @@ import rx.Completable;
 import rx.Observable;
 import rx.functions.Func1;
 
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -34,8 +35,13 @@ final class GenericResourcesImpl
         ResourceManager>
     implements GenericResources {
 
+    private final StreamingListReader<GenericResourceInner> streamingListReader;
+
     GenericResourcesImpl(ResourceManager resourceManager) {
         super(resourceManager.inner().resources(), resourceManager);
+        ResourceManagementClientImpl client = resourceManager.inner();
+        this.streamingListReader = new StreamingListReader<>(client, client.acceptLanguage(),
+                ResourcesInner.ResourcesService.class, "list", GenericResourceInner.class);
     }
 
     @Override
@@ -87,8 +93,7 @@ final class GenericResourcesImpl
 
     @Override
     public GenericResource getById(String id) {
-        Provider provider = this.manager().providers().getByName(ResourceUtils.resourceProviderFromResourceId(id));
-        String apiVersion = ResourceUtils.defaultApiVersion(id, provider);
+        String apiVersion = this.manager().providerMetadataCache().getDefaultApiVersion(id);
         return wrapModel(this.inner().getById(id, apiVersion)).withApiVersion(apiVersion);
     }
 
@@ -222,13 +227,7 @@ final class GenericResourcesImpl
     }
 
     private Observable<String> getApiVersionFromId(final String id) {
-        return this.manager().providers().getByNameAsync(ResourceUtils.resourceProviderFromResourceId(id))
-                .map(new Func1<Provider, String>() {
-                    @Override
-                    public String call(Provider provider) {
-                        return ResourceUtils.defaultApiVersion(id, provider);
-                    }
-                });
+        return this.manager().providerMetadataCache().getDefaultApiVersionAsync(id);
     }
 
     @Override
@@ -236,6 +235,13 @@ final class GenericResourcesImpl
         return wrapPageAsync(this.inner().listAsync());
     }
 
+    @Override
+    public Observable<GenericResource> listStreamingAsync() {
+        ResourceManagementClientImpl client = this.manager().inner();
+        return wrapStreamAsync(this.streamingListReader.readAsync(
+                Collections.singletonMap("subscriptionId", client.subscriptionId()), client.apiVersion()));
+    }
+
     @Override
     public Observable<GenericResource> listByResourceGroupAsync(String resourceGroupName) {
         return wrapPageAsync(this.manager().inner().resourceGroups().listByResourceGroupAsync(resourceGroupName));
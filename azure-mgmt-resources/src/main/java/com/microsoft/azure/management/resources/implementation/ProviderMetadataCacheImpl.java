@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.implementation;
+
+import com.microsoft.azure.management.apigeneration.LangDefinition;
+import com.microsoft.azure.management.resources.Provider;
+import com.microsoft.azure.management.resources.ProviderMetadataCache;
+import com.microsoft.azure.management.resources.fluentcore.arm.ResourceUtils;
+import com.microsoft.azure.management.resources.fluentcore.utils.ExpiringAsyncCache;
+import rx.Completable;
+import rx.Observable;
+import rx.functions.Action1;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The implementation for {@link ProviderMetadataCache}.
+ */
+@LangDefinition
+class ProviderMetadataCacheImpl implements ProviderMetadataCache {
+    private final ResourceManager manager;
+    // Failed loads are not cached, they are retried next time
+    private final ExpiringAsyncCache<ProviderMetadata> cache = new ExpiringAsyncCache<>(1, TimeUnit.HOURS);
+
+    ProviderMetadataCacheImpl(ResourceManager manager) {
+        this.manager = manager;
+    }
+
+    @Override
+    public ProviderMetadataCacheImpl withTimeToLive(long timeToLive, TimeUnit unit) {
+        this.cache.withTimeToLive(timeToLive, unit);
+        return this;
+    }
+
+    @Override
+    public Observable<Provider> getProviderAsync(String namespace) {
+        return metadataAsync(namespace).map(new Func1<ProviderMetadata, Provider>() {
+            @Override
+            public Provider call(ProviderMetadata metadata) {
+                return metadata.provider;
+            }
+        });
+    }
+
+    @Override
+    public String getDefaultApiVersion(String resourceId) {
+        return getDefaultApiVersionAsync(resourceId).toBlocking().single();
+    }
+
+    @Override
+    public Observable<String> getDefaultApiVersionAsync(final String resourceId) {
+        return metadataAsync(ResourceUtils.resourceProviderFromResourceId(resourceId))
+                .map(new Func1<ProviderMetadata, String>() {
+                    @Override
+                    public String call(ProviderMetadata metadata) {
+                        return metadata.defaultApiVersion(resourceId);
+                    }
+                });
+    }
+
+    @Override
+    public Completable warmUpAsync() {
+        return this.manager.providers().listAsync()
+                .doOnNext(new Action1<Provider>() {
+                    @Override
+                    public void call(Provider provider) {
+                        cache.put(keyOf(provider.namespace()), new ProviderMetadata(provider));
+                    }
+                })
+                .toCompletable();
+    }
+
+    @Override
+    public void invalidate(String namespace) {
+        this.cache.invalidate(keyOf(namespace));
+    }
+
+    @Override
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    private static String keyOf(String namespace) {
+        return namespace.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets the cached or in flight load of a provider, or starts a new one.
+     */
+    private Observable<ProviderMetadata> metadataAsync(final String namespace) {
+        return this.cache.getAsync(keyOf(namespace), new Func0<Observable<ProviderMetadata>>() {
+            @Override
+            public Observable<ProviderMetadata> call() {
+                return manager.providers().getByNameAsync(namespace)
+                        .map(new Func1<Provider, ProviderMetadata>() {
+                            @Override
+                            public ProviderMetadata call(Provider provider) {
+                                return new ProviderMetadata(provider);
+                            }
+                        });
+            }
+        });
+    }
+
+    /**
+     * A provider with the default api versions resolved so far by resource type.
+     */
+    private static class ProviderMetadata {
+        // Marks the resource types with no matching provider resource type
+        private static final String NO_MATCH = "";
+
+        private final Provider provider;
+        private final ConcurrentMap<String, String> apiVersions = new ConcurrentHashMap<>();
+
+        ProviderMetadata(Provider provider) {
+            this.provider = provider;
+        }
+
+        /**
+         * Resolves the default api version the same way as {@link ResourceUtils#defaultApiVersion(String, Provider)},
+         * remembering the api version of each resource type.
+         */
+        String defaultApiVersion(String id) {
+            String current = id;
+            while (current != null) {
+                String resourceType = ResourceUtils.resourceTypeFromResourceId(current).toLowerCase();
+                String apiVersion = this.apiVersions.get(resourceType);
+                if (apiVersion == null) {
+                    apiVersion = ResourceUtils.apiVersionOfResourceType(resourceType, provider);
+                    if (apiVersion == null) {
+                        apiVersion = NO_MATCH;
+                    }
+                    this.apiVersions.put(resourceType, apiVersion);
+                }
+                if (apiVersion != NO_MATCH) {
+                    return apiVersion;
+                }
+                // look for parent
+                current = ResourceUtils.parentResourceIdFromResourceId(current);
+            }
+            // Fallback: use a random one, not guaranteed to work
+            return provider.resourceTypes().get(0).apiVersions().get(0);
+        }
+    }
+}
@@ -7,13 +7,15 @@
 package com.microsoft.azure.management.resources.implementation;
 
 import com.microsoft.azure.AzureEnvironment;
-import com.microsoft.azure.AzureResponseBuilder;
 import com.microsoft.azure.credentials.AzureTokenCredentials;
+import com.microsoft.azure.management.apigeneration.Beta;
+import com.microsoft.azure.management.apigeneration.Beta.SinceVersion;
 import com.microsoft.azure.management.resources.Deployments;
 import com.microsoft.azure.management.resources.Features;
 import com.microsoft.azure.management.resources.GenericResources;
 import com.microsoft.azure.management.resources.PolicyAssignments;
 import com.microsoft.azure.management.resources.PolicyDefinitions;
+import com.microsoft.azure.management.resources.ProviderMetadataCache;
 import com.microsoft.azure.management.resources.Providers;
 import com.microsoft.azure.management.resources.ResourceGroups;
 import com.microsoft.azure.management.resources.Subscriptions;
@@ -22,6 +24,7 @@ import com.microsoft.azure.management.resources.fluentcore.arm.AzureConfigurable
 import com.microsoft.azure.management.resources.fluentcore.arm.implementation.AzureConfigurableImpl;
 import com.microsoft.azure.management.resources.fluentcore.arm.implementation.ManagerBase;
 import com.microsoft.azure.management.resources.fluentcore.model.HasInner;
+import com.microsoft.azure.management.resources.fluentcore.utils.CachedResponseBuilderFactory;
 import com.microsoft.azure.management.resources.fluentcore.utils.ProviderRegistrationInterceptor;
 import com.microsoft.azure.management.resources.fluentcore.utils.ResourceManagerThrottlingInterceptor;
 import com.microsoft.azure.serializer.AzureJacksonAdapter;
@@ -35,6 +38,7 @@ public final class ResourceManager extends ManagerBase implements HasInner<Resou
     private final ResourceManagementClientImpl resourceManagementClient;
     private final FeatureClientImpl featureClient;
     private final PolicyClientImpl policyClient;
+    private final ProviderMetadataCache providerMetadataCache;
     // The collections
     private ResourceGroups resourceGroups;
     private GenericResources genericResources;
@@ -55,7 +59,7 @@ public final class ResourceManager extends ManagerBase implements HasInner<Resou
                 .withBaseUrl(credentials.environment(), AzureEnvironment.Endpoint.RESOURCE_MANAGER)
                 .withCredentials(credentials)
                 .withSerializerAdapter(new AzureJacksonAdapter())
-                .withResponseBuilderFactory(new AzureResponseBuilder.Factory())
+                .withResponseBuilderFactory(new CachedResponseBuilderFactory())
                 .withInterceptor(new ProviderRegistrationInterceptor(credentials))
                 .withInterceptor(new ResourceManagerThrottlingInterceptor())
                 .build());
@@ -169,6 +173,7 @@ public final class ResourceManager extends ManagerBase implements HasInner<Resou
         this.featureClient.withSubscriptionId(subscriptionId);
         this.policyClient = new PolicyClientImpl(restClient);
         this.policyClient.withSubscriptionId(subscriptionId);
+        this.providerMetadataCache = new ProviderMetadataCacheImpl(this);
     }
 
     /**
@@ -221,6 +226,15 @@ public final class ResourceManager extends ManagerBase implements HasInner<Resou
         return providers;
     }
 
+    /**
+     * @return the cache of the resource providers registered in the subscription, shared by the
+     * generic resource operations to resolve api versions
+     */
+    @Beta(SinceVersion.V1_4_0)
+    public ProviderMetadataCache providerMetadataCache() {
+        return providerMetadataCache;
+    }
+
     /**
      * @return the policy definition management API entry point
      */
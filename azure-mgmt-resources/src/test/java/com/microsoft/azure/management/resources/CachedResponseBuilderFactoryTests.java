@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources;
+
+import com.google.common.reflect.TypeToken;
+import com.microsoft.azure.AzureResponseBuilder;
+import com.microsoft.azure.CloudException;
+import com.microsoft.azure.management.resources.fluentcore.utils.CachedResponseBuilderFactory;
+import com.microsoft.azure.management.resources.implementation.ResourceGroupInner;
+import com.microsoft.azure.serializer.AzureJacksonAdapter;
+import com.microsoft.rest.RestException;
+import com.microsoft.rest.ServiceResponse;
+import com.microsoft.rest.protocol.ResponseBuilder;
+import com.microsoft.rest.protocol.SerializerAdapter;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.junit.Assert;
+import org.junit.Test;
+import retrofit2.Response;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CachedResponseBuilderFactoryTests {
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    @Test
+    public void canReuseBuilderForSameRegistrations() throws Exception {
+        CountingFactory delegate = new CountingFactory();
+        CachedResponseBuilderFactory factory = new CachedResponseBuilderFactory(delegate);
+        AzureJacksonAdapter adapter = new AzureJacksonAdapter();
+
+        for (int i = 0; i < 5; i++) {
+            ServiceResponse<ResourceGroupInner> response = factory.<ResourceGroupInner, CloudException>newInstance(adapter)
+                    .register(200, new TypeToken<ResourceGroupInner>() { }.getType())
+                    .registerError(CloudException.class)
+                    .build(Response.success(ResponseBody.create(JSON, "{\"name\":\"rg" + i + "\",\"location\":\"westus\"}")));
+            Assert.assertEquals("rg" + i, response.body().name());
+        }
+        Assert.assertEquals(1, delegate.created.get());
+        Assert.assertEquals(1, factory.size());
+    }
+
+    @Test
+    public void canBuildDistinctBuildersForDistinctRegistrations() throws Exception {
+        CountingFactory delegate = new CountingFactory();
+        CachedResponseBuilderFactory factory = new CachedResponseBuilderFactory(delegate);
+        AzureJacksonAdapter adapter = new AzureJacksonAdapter();
+
+        factory.<ResourceGroupInner, CloudException>newInstance(adapter)
+                .register(200, new TypeToken<ResourceGroupInner>() { }.getType())
+                .registerError(CloudException.class)
+                .build(Response.success(ResponseBody.create(JSON, "{}")));
+        factory.<ResourceGroupInner, CloudException>newInstance(adapter)
+                .register(200, new TypeToken<ResourceGroupInner>() { }.getType())
+                .register(201, new TypeToken<ResourceGroupInner>() { }.getType())
+                .registerError(CloudException.class)
+                .build(Response.success(ResponseBody.create(JSON, "{}")));
+        factory.<Void, CloudException>newInstance(adapter)
+                .register(200, new TypeToken<Void>() { }.getType())
+                .registerError(CloudException.class)
+                .build(Response.success(ResponseBody.create(JSON, "")));
+        // Same registrations with another serializer
+        factory.<ResourceGroupInner, CloudException>newInstance(new AzureJacksonAdapter())
+                .register(200, new TypeToken<ResourceGroupInner>() { }.getType())
+                .registerError(CloudException.class)
+                .build(Response.success(ResponseBody.create(JSON, "{}")));
+
+        Assert.assertEquals(4, delegate.created.get());
+        Assert.assertEquals(4, factory.size());
+    }
+
+    @Test
+    public void canBuildRegisteredError() throws Exception {
+        CachedResponseBuilderFactory factory = new CachedResponseBuilderFactory();
+        try {
+            factory.<ResourceGroupInner, CloudException>newInstance(new AzureJacksonAdapter())
+                    .register(200, new TypeToken<ResourceGroupInner>() { }.getType())
+                    .registerError(CloudException.class)
+                    .build(Response.<ResponseBody>error(404,
+                            ResponseBody.create(JSON, "{\"error\":{\"code\":\"ResourceGroupNotFound\",\"message\":\"not found\"}}")));
+            Assert.fail("Expected CloudException");
+        } catch (CloudException e) {
+            Assert.assertEquals(404, e.response().code());
+            Assert.assertEquals("ResourceGroupNotFound", e.body().code());
+        }
+    }
+
+    /**
+     * A factory counting the builders created.
+     */
+    private static class CountingFactory implements ResponseBuilder.Factory {
+        private final AzureResponseBuilder.Factory factory = new AzureResponseBuilder.Factory();
+        private final AtomicInteger created = new AtomicInteger();
+
+        @Override
+        public <T, E extends RestException> ResponseBuilder<T, E> newInstance(SerializerAdapter<?> serializerAdapter) {
+            created.incrementAndGet();
+            return factory.newInstance(serializerAdapter);
+        }
+    }
+}
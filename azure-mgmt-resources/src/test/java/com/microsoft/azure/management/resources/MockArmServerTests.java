@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources;
+
+import com.microsoft.azure.management.resources.core.MockArmServer;
+import com.microsoft.azure.management.resources.fluentcore.utils.ResourceNamerFactory;
+import com.microsoft.azure.management.resources.fluentcore.utils.SdkContext;
+import com.microsoft.azure.management.resources.implementation.ResourceManager;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test class to test MockArmServer class.
+ */
+public class MockArmServerTests {
+    private static final String ZERO_SUBSCRIPTION = "00000000-0000-0000-0000-000000000000";
+    private static final String RESOURCE_GROUP_NAME = "rg470395";
+
+    @Test
+    public void canServeRecordedResponses() throws Exception {
+        try (MockArmServer server = new MockArmServer().withRecords("canCreateResourceGroup").start()) {
+            ResourceManager resourceManager = ResourceManager
+                    .authenticate(server.restClient())
+                    .withSubscription(ZERO_SUBSCRIPTION);
+            ResourceGroup resourceGroup = resourceManager.resourceGroups().getByName(RESOURCE_GROUP_NAME);
+            Assert.assertEquals(RESOURCE_GROUP_NAME, resourceGroup.name());
+            // The long running delete polls the recorded operation results through the rewritten Location header
+            resourceManager.resourceGroups().deleteByName(RESOURCE_GROUP_NAME);
+            Assert.assertEquals(0, server.unmatchedCount());
+        }
+    }
+
+    @Test
+    public void canInjectThrottlingAndLatency() throws Exception {
+        try (MockArmServer server = new MockArmServer()
+                .withRecords("canCreateResourceGroup")
+                .withLatency(100, TimeUnit.MILLISECONDS)
+                .withThrottling(1, 7)
+                .start()) {
+            long start = System.currentTimeMillis();
+            Response response = new OkHttpClient().newCall(new Request.Builder()
+                    .url(server.baseUrl() + "subscriptions/" + ZERO_SUBSCRIPTION + "/resourcegroups/"
+                            + RESOURCE_GROUP_NAME + "?api-version=2016-09-01")
+                    .build()).execute();
+            response.body().close();
+            Assert.assertTrue(System.currentTimeMillis() - start >= 100);
+            Assert.assertEquals(429, response.code());
+            Assert.assertEquals("7", response.header("Retry-After"));
+            Assert.assertEquals(1, server.throttledCount());
+        }
+    }
+
+    @Test
+    public void canSimulateAsyncOperations() throws Exception {
+        try (MockArmServer server = new MockArmServer()
+                .withRecords("canCreateResourceGroup")
+                .withAsyncOperations(2)
+                .start()) {
+            OkHttpClient client = new OkHttpClient();
+            Response accepted = client.newCall(new Request.Builder()
+                    .url(server.baseUrl() + "subscriptions/" + ZERO_SUBSCRIPTION + "/resourcegroups/"
+                            + RESOURCE_GROUP_NAME + "?api-version=2016-09-01")
+                    .put(RequestBody.create(MediaType.parse("application/json"), "{}"))
+                    .build()).execute();
+            accepted.body().close();
+            Assert.assertEquals(202, accepted.code());
+            String operationUrl = accepted.header("Azure-AsyncOperation");
+            Assert.assertTrue(operationUrl.startsWith(server.baseUrl()));
+            String[] expected = { "InProgress", "InProgress", "Succeeded" };
+            for (String status : expected) {
+                Response poll = client.newCall(new Request.Builder().url(operationUrl).build()).execute();
+                Assert.assertTrue(poll.body().string().contains(status));
+            }
+        }
+    }
+
+    @Test
+    public void canReplayRecordedNames() throws Exception {
+        ResourceNamerFactory resourceNamerFactory = SdkContext.getResourceNamerFactory();
+        try (MockArmServer server = new MockArmServer().withRecords("canCreateResourceGroup").start()) {
+            SdkContext.setResourceNamerFactory(server.resourceNamerFactory());
+            ResourceManager resourceManager = ResourceManager
+                    .authenticate(server.restClient())
+                    .withSubscription(ZERO_SUBSCRIPTION);
+            String name = SdkContext.randomResourceName("rg", 9);
+            Assert.assertEquals(RESOURCE_GROUP_NAME, name);
+            Assert.assertTrue(resourceManager.resourceGroups().checkExistence(name));
+            Assert.assertEquals(0, server.unmatchedCount());
+        } finally {
+            SdkContext.setResourceNamerFactory(resourceNamerFactory);
+        }
+    }
+
+    @Test
+    public void canSendDelayedResponsesConcurrently() throws Exception {
+        try (final MockArmServer server = new MockArmServer()
+                .withRecords("canCreateResourceGroup")
+                .withLatency(200, TimeUnit.MILLISECONDS)
+                .withWriterThreads(4)
+                .start()) {
+            final OkHttpClient client = new OkHttpClient();
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                threads.add(new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            client.newCall(new Request.Builder()
+                                    .url(server.baseUrl() + "subscriptions/" + ZERO_SUBSCRIPTION + "/resourcegroups/"
+                                            + RESOURCE_GROUP_NAME + "?api-version=2016-09-01")
+                                    .build()).execute().body().close();
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                }));
+            }
+            long start = System.currentTimeMillis();
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            // The delayed responses are not sent one after the other
+            Assert.assertTrue(System.currentTimeMillis() - start < 4 * 200);
+            Assert.assertEquals(4, server.requestCount());
+        }
+    }
+}
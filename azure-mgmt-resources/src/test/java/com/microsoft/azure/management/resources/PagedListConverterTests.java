@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources;
+
+import com.microsoft.azure.Page;
+import com.microsoft.azure.PagedList;
+import com.microsoft.azure.management.resources.fluentcore.utils.PagedListConverter;
+import com.microsoft.azure.management.resources.fluentcore.utils.SdkContext;
+import com.microsoft.azure.management.resources.implementation.PageImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class to test PagedListConverter class.
+ */
+public class PagedListConverterTests {
+    private static final int PAGE_COUNT = 6;
+
+    @Test
+    public void doesNotReadAheadByDefault() throws InterruptedException {
+        AtomicInteger fetchedPages = new AtomicInteger();
+        PagedList<String> converted = new NamingConverter().convert(pagedList(fetchedPages));
+        Thread.sleep(200);
+        Assert.assertEquals(0, fetchedPages.get());
+        Assert.assertEquals(expectedItems(), new ArrayList<>(converted));
+        Assert.assertEquals(PAGE_COUNT - 1, fetchedPages.get());
+    }
+
+    @Test
+    public void readsPrefetchCountWhenConverting() throws InterruptedException {
+        // The converter is created before the count is set, as collections hold their converters
+        NamingConverter converter = new NamingConverter();
+        SdkContext.setPagedListPrefetchCount(2);
+        try {
+            AtomicInteger fetchedPages = new AtomicInteger();
+            PagedList<String> converted = converter.convert(pagedList(fetchedPages));
+            awaitCount(fetchedPages, 2);
+            Assert.assertEquals(expectedItems(), new ArrayList<>(converted));
+        } finally {
+            SdkContext.setPagedListPrefetchCount(0);
+        }
+    }
+
+    @Test
+    public void readAheadIsBoundedAndConvertsOffThread() throws InterruptedException {
+        NamingConverter converter = new NamingConverter();
+        converter.withPrefetch(2);
+        AtomicInteger fetchedPages = new AtomicInteger();
+        PagedList<String> converted = converter.convert(pagedList(fetchedPages));
+
+        // No more than the read-ahead count of pages are fetched while the consumer is idle
+        awaitCount(fetchedPages, 2);
+        Thread.sleep(200);
+        Assert.assertEquals(2, fetchedPages.get());
+        // The pages read ahead are converted on the SDK scheduler
+        Assert.assertFalse(converter.threads.isEmpty());
+        Assert.assertFalse(converter.threads.contains(Thread.currentThread().getName()));
+
+        // Taking a page resumes the read-ahead
+        List<String> items = new ArrayList<>();
+        for (String item : converted) {
+            items.add(item);
+            if (items.size() == 3) {
+                // The second page is taken, the page after the read-ahead window is fetched
+                awaitCount(fetchedPages, 3);
+            }
+        }
+        Assert.assertEquals(expectedItems(), items);
+        Assert.assertEquals(PAGE_COUNT - 1, fetchedPages.get());
+    }
+
+    private static void awaitCount(AtomicInteger count, int expected) throws InterruptedException {
+        for (int i = 0; i < 500 && count.get() < expected; i++) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(expected, count.get());
+    }
+
+    private static List<String> expectedItems() {
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < PAGE_COUNT; i++) {
+            items.add("converted-" + i + "-0");
+            items.add("converted-" + i + "-1");
+        }
+        return items;
+    }
+
+    private static PagedList<Integer[]> pagedList(final AtomicInteger fetchedPages) {
+        return new PagedList<Integer[]>(page(0)) {
+            @Override
+            public Page<Integer[]> nextPage(String nextPageLink) {
+                fetchedPages.incrementAndGet();
+                return page(Integer.parseInt(nextPageLink));
+            }
+        };
+    }
+
+    private static Page<Integer[]> page(int index) {
+        PageImpl<Integer[]> page = new PageImpl<>();
+        page.setItems(Arrays.asList(new Integer[] {index, 0}, new Integer[] {index, 1}));
+        page.setNextPageLink(index + 1 < PAGE_COUNT ? String.valueOf(index + 1) : null);
+        return page;
+    }
+
+    /**
+     * A converter recording the threads the items are converted on.
+     */
+    private static class NamingConverter extends PagedListConverter<Integer[], String> {
+        private final Set<String> threads = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+        @Override
+        public String typeConvert(Integer[] item) {
+            if (item[0] > 0) {
+                threads.add(Thread.currentThread().getName());
+            }
+            return "converted-" + item[0] + "-" + item[1];
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources;
+
+import com.microsoft.azure.management.resources.core.MockArmService;
+import com.microsoft.azure.management.resources.fluentcore.arm.ResourceUtils;
+import com.microsoft.azure.management.resources.implementation.ResourceManager;
+import okhttp3.Response;
+import org.junit.Assert;
+import org.junit.Test;
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ProviderMetadataCacheTests {
+    private static final String SITE_ID = "/subscriptions/sub1/resourceGroups/rg1/providers/Microsoft.Web/sites/site1";
+    private static final String VAULT_ID = "/subscriptions/sub1/resourceGroups/rg1/providers/Microsoft.KeyVault/vaults/vault1";
+
+    @Test
+    public void canResolveDefaultApiVersion() {
+        ProviderService service = new ProviderService();
+        ProviderMetadataCache cache = resourceManager(service).providerMetadataCache();
+
+        Assert.assertEquals("2016-08-01", cache.getDefaultApiVersion(SITE_ID));
+        // A child resource type
+        Assert.assertEquals("2016-03-01", cache.getDefaultApiVersion(SITE_ID + "/config/web"));
+        // A resource type the provider does not list uses the api version of its parent
+        Assert.assertEquals("2016-08-01", cache.getDefaultApiVersion(SITE_ID + "/slots/slot1"));
+        Assert.assertEquals("2016-10-01", cache.getDefaultApiVersion(VAULT_ID));
+        Assert.assertEquals(2, service.getCount.get());
+
+        // The same api versions as without the cache
+        Provider provider = cache.getProviderAsync("Microsoft.Web").toBlocking().single();
+        for (String id : new String[] {SITE_ID, SITE_ID + "/config/web", SITE_ID + "/slots/slot1"}) {
+            Assert.assertEquals(ResourceUtils.defaultApiVersion(id, provider), cache.getDefaultApiVersion(id));
+        }
+        Assert.assertEquals(2, service.getCount.get());
+    }
+
+    @Test
+    public void canShareLoadInFlight() {
+        ProviderService service = new ProviderService().withLatency(50);
+        ProviderMetadataCache cache = resourceManager(service).providerMetadataCache();
+
+        List<Observable<String>> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            // The namespace of the resource ids is case insensitive
+            String id = i % 2 == 0 ? SITE_ID : SITE_ID.replace("Microsoft.Web", "microsoft.web");
+            requests.add(cache.getDefaultApiVersionAsync(id).subscribeOn(Schedulers.io()));
+        }
+        List<String> apiVersions = Observable.merge(requests).toList().toBlocking().single();
+
+        Assert.assertEquals(5, apiVersions.size());
+        Assert.assertEquals(1, service.getCount.get());
+    }
+
+    @Test
+    public void canExpireProviders() {
+        ProviderService service = new ProviderService();
+        ProviderMetadataCache cache = resourceManager(service).providerMetadataCache();
+
+        cache.getDefaultApiVersion(SITE_ID);
+        cache.getDefaultApiVersion(SITE_ID);
+        Assert.assertEquals(1, service.getCount.get());
+
+        cache.invalidate("MICROSOFT.WEB");
+        cache.getDefaultApiVersion(SITE_ID);
+        Assert.assertEquals(2, service.getCount.get());
+
+        // The providers already loaded keep their time to live
+        cache.withTimeToLive(0, TimeUnit.MILLISECONDS);
+        cache.getDefaultApiVersion(SITE_ID);
+        Assert.assertEquals(2, service.getCount.get());
+        cache.invalidateAll();
+        cache.getDefaultApiVersion(SITE_ID);
+        cache.getDefaultApiVersion(SITE_ID);
+        Assert.assertEquals(4, service.getCount.get());
+    }
+
+    @Test
+    public void canRetryFailedLoad() {
+        ProviderService service = new ProviderService().withFailures(1);
+        ProviderMetadataCache cache = resourceManager(service).providerMetadataCache();
+
+        try {
+            cache.getDefaultApiVersion(SITE_ID);
+            Assert.fail("Expected the provider load to fail");
+        } catch (RuntimeException e) {
+            Assert.assertEquals(1, service.getCount.get());
+        }
+        Assert.assertEquals("2016-08-01", cache.getDefaultApiVersion(SITE_ID));
+        Assert.assertEquals("2016-08-01", cache.getDefaultApiVersion(SITE_ID));
+        Assert.assertEquals(2, service.getCount.get());
+    }
+
+    @Test
+    public void canWarmUp() {
+        ProviderService service = new ProviderService();
+        ProviderMetadataCache cache = resourceManager(service).providerMetadataCache();
+
+        cache.warmUpAsync().await();
+        Assert.assertEquals(1, service.listCount.get());
+
+        Assert.assertEquals("2016-08-01", cache.getDefaultApiVersion(SITE_ID));
+        Assert.assertEquals("2016-10-01", cache.getDefaultApiVersion(VAULT_ID));
+        Assert.assertEquals(0, service.getCount.get());
+
+        // A warmed up provider expires like a loaded one
+        cache.withTimeToLive(0, TimeUnit.MILLISECONDS);
+        cache.warmUpAsync().await();
+        cache.getDefaultApiVersion(SITE_ID);
+        Assert.assertEquals(2, service.listCount.get());
+        Assert.assertEquals(1, service.getCount.get());
+    }
+
+    @Test
+    public void canFindApiVersionOfResourceType() {
+        Provider provider = resourceManager(new ProviderService()).providers().getByName("Microsoft.Web");
+
+        Assert.assertEquals("2016-08-01", ResourceUtils.apiVersionOfResourceType("Sites", provider));
+        Assert.assertEquals("2016-03-01", ResourceUtils.apiVersionOfResourceType("config", provider));
+        Assert.assertNull(ResourceUtils.apiVersionOfResourceType("slots", provider));
+    }
+
+    private static ResourceManager resourceManager(ProviderService service) {
+        return ResourceManager.authenticate(service.restClient())
+                .withSubscription("sub1");
+    }
+
+    /**
+     * Serves the get and list requests of the Microsoft.Web and Microsoft.KeyVault providers.
+     */
+    private static class ProviderService extends MockArmService {
+        private final AtomicInteger getCount = new AtomicInteger();
+        private final AtomicInteger listCount = new AtomicInteger();
+        private long latencyInMillis;
+        private int failures;
+
+        ProviderService withLatency(long latencyInMillis) {
+            this.latencyInMillis = latencyInMillis;
+            return this;
+        }
+
+        ProviderService withFailures(int failures) {
+            this.failures = failures;
+            return this;
+        }
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            // subscriptions/sub1/providers[/{namespace}]
+            List<String> segments = chain.request().url().pathSegments();
+            try {
+                Thread.sleep(latencyInMillis);
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            if (segments.size() == 3) {
+                listCount.incrementAndGet();
+                return response(chain, 200, "{\"value\":[" + web() + "," + keyVault() + "]}");
+            }
+            if (getCount.incrementAndGet() <= failures) {
+                return response(chain, 500, "{\"error\":{\"code\":\"InternalError\",\"message\":\"failed\"}}");
+            }
+            return response(chain, 200, segments.get(3).equalsIgnoreCase("Microsoft.Web") ? web() : keyVault());
+        }
+
+        private static String web() {
+            return provider("Microsoft.Web",
+                    "{\"resourceType\":\"sites\",\"apiVersions\":[\"2016-08-01\",\"2015-08-01\"]},"
+                    + "{\"resourceType\":\"sites/config\",\"apiVersions\":[\"2016-03-01\"]}");
+        }
+
+        private static String keyVault() {
+            return provider("Microsoft.KeyVault", "{\"resourceType\":\"vaults\",\"apiVersions\":[\"2016-10-01\"]}");
+        }
+
+        private static String provider(String namespace, String resourceTypes) {
+            return "{\"id\":\"/subscriptions/sub1/providers/" + namespace + "\",\"namespace\":\"" + namespace
+                    + "\",\"registrationState\":\"Registered\",\"resourceTypes\":[" + resourceTypes + "]}";
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources;
+
+import com.microsoft.azure.PagedList;
+import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.ResourceGroupFanOut;
+import org.junit.Assert;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Action0;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.functions.Func2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ResourceGroupFanOutTests {
+    private static final List<String> GROUPS = Arrays.asList("RG1", "RG2", "RG3", "RG4", "RG5", "RG6", "RG7", "RG8");
+
+    @Test
+    public void canBoundConcurrency() {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        List<String> resources = ResourceGroupFanOut.of(Observable.from(GROUPS), new Func1<String, Observable<String>>() {
+            @Override
+            public Observable<String> call(final String resourceGroupName) {
+                return Observable.defer(new Func0<Observable<String>>() {
+                    @Override
+                    public Observable<String> call() {
+                        int current = inFlight.incrementAndGet();
+                        synchronized (maxInFlight) {
+                            maxInFlight.set(Math.max(maxInFlight.get(), current));
+                        }
+                        return Observable.just(resourceGroupName + "Vm1", resourceGroupName + "Vm2")
+                                .delay(20, TimeUnit.MILLISECONDS);
+                    }
+                })
+                .doOnTerminate(new Action0() {
+                    @Override
+                    public void call() {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        })
+        .withConcurrency(3)
+        .listAsync()
+        .toList().toBlocking().single();
+
+        Assert.assertEquals(16, resources.size());
+        Assert.assertTrue(maxInFlight.get() <= 3);
+        Assert.assertTrue(maxInFlight.get() > 1);
+    }
+
+    @Test
+    public void canListInResourceGroupOrder() {
+        // The first resource groups are the slowest to list
+        List<String> resources = new ArrayList<>();
+        for (String resource : ResourceGroupFanOut.of(Observable.from(GROUPS), new Func1<String, Observable<String>>() {
+            @Override
+            public Observable<String> call(String resourceGroupName) {
+                int index = GROUPS.indexOf(resourceGroupName);
+                return Observable.just(resourceGroupName + "Vm1", resourceGroupName + "Vm2")
+                        .delay(10 * (GROUPS.size() - index), TimeUnit.MILLISECONDS);
+            }
+        }).ordered().list()) {
+            resources.add(resource);
+        }
+
+        List<String> expected = new ArrayList<>();
+        for (String group : GROUPS) {
+            expected.add(group + "Vm1");
+            expected.add(group + "Vm2");
+        }
+        Assert.assertEquals(expected, resources);
+    }
+
+    @Test
+    public void canSkipFailedResourceGroupsAndStopEarly() {
+        final AtomicInteger listed = new AtomicInteger();
+        final List<String> failedGroups = Collections.synchronizedList(new ArrayList<String>());
+        List<String> resources = ResourceGroupFanOut.of(Observable.from(GROUPS), new Func1<String, Observable<String>>() {
+            @Override
+            public Observable<String> call(String resourceGroupName) {
+                listed.incrementAndGet();
+                if (resourceGroupName.equals("RG2")) {
+                    return Observable.error(new IllegalStateException("failed"));
+                }
+                return Observable.just(resourceGroupName + "Vm1", resourceGroupName + "Vm2");
+            }
+        })
+        .withConcurrency(1)
+        .withGroupErrorHandler(new Func2<String, Throwable, Boolean>() {
+            @Override
+            public Boolean call(String resourceGroupName, Throwable throwable) {
+                failedGroups.add(resourceGroupName);
+                return true;
+            }
+        })
+        .stopWhen(new Func1<String, Boolean>() {
+            @Override
+            public Boolean call(String resource) {
+                return resource.equals("RG3Vm1");
+            }
+        })
+        .listAsync()
+        .toList().toBlocking().single();
+
+        Assert.assertEquals(Arrays.asList("RG1Vm1", "RG1Vm2", "RG3Vm1"), resources);
+        Assert.assertEquals(Collections.singletonList("RG2"), failedGroups);
+        Assert.assertEquals(3, listed.get());
+    }
+
+    @Test
+    public void canBoundReadAheadOfList() throws Exception {
+        final AtomicInteger listed = new AtomicInteger();
+        PagedList<String> resources = ResourceGroupFanOut.of(Observable.from(GROUPS), new Func1<String, Observable<String>>() {
+            @Override
+            public Observable<String> call(String resourceGroupName) {
+                listed.incrementAndGet();
+                return Observable.just(resourceGroupName + "Vm1");
+            }
+        })
+        .withConcurrency(2)
+        .list();
+
+        // The resource groups of the first page and at most the concurrency number of them ahead
+        Thread.sleep(100);
+        Assert.assertTrue(listed.get() <= 3);
+        Iterator<String> itr = resources.iterator();
+        itr.next();
+        itr.next();
+        Thread.sleep(100);
+        int listedBeforeAbandon = listed.get();
+        Assert.assertTrue(listedBeforeAbandon <= 4);
+
+        // No more resource groups are listed once the iteration is abandoned
+        Thread.sleep(100);
+        Assert.assertEquals(listedBeforeAbandon, listed.get());
+    }
+
+    @Test
+    public void canUnsubscribeFromListWhenStopped() {
+        final AtomicBoolean slowGroupUnsubscribed = new AtomicBoolean();
+        List<String> resources = new ArrayList<>();
+        for (String resource : ResourceGroupFanOut.of(Observable.from(GROUPS), new Func1<String, Observable<String>>() {
+            @Override
+            public Observable<String> call(String resourceGroupName) {
+                if (resourceGroupName.equals("RG1")) {
+                    return Observable.just("RG1Vm1");
+                }
+                return Observable.just(resourceGroupName + "Vm1")
+                        .delay(10, TimeUnit.SECONDS)
+                        .doOnUnsubscribe(new Action0() {
+                            @Override
+                            public void call() {
+                                slowGroupUnsubscribed.set(true);
+                            }
+                        });
+            }
+        })
+        .withConcurrency(2)
+        .stopWhen(new Func1<String, Boolean>() {
+            @Override
+            public Boolean call(String resource) {
+                return resource.equals("RG1Vm1");
+            }
+        })
+        .list()) {
+            resources.add(resource);
+        }
+
+        // The resource group in flight is not waited for
+        Assert.assertEquals(Collections.singletonList("RG1Vm1"), resources);
+        Assert.assertTrue(slowGroupUnsubscribed.get());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void canFailListOnResourceGroupError() {
+        for (String resource : ResourceGroupFanOut.of(Observable.from(GROUPS), new Func1<String, Observable<String>>() {
+            @Override
+            public Observable<String> call(String resourceGroupName) {
+                if (resourceGroupName.equals("RG5")) {
+                    return Observable.error(new IllegalStateException("failed"));
+                }
+                return Observable.just(resourceGroupName + "Vm1");
+            }
+        }).ordered().list()) {
+            Assert.assertNotNull(resource);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void canFailOnResourceGroupError() {
+        ResourceGroupFanOut.of(Observable.from(GROUPS), new Func1<String, Observable<String>>() {
+            @Override
+            public Observable<String> call(String resourceGroupName) {
+                if (resourceGroupName.equals("RG5")) {
+                    return Observable.error(new IllegalStateException("failed"));
+                }
+                return Observable.just(resourceGroupName + "Vm1");
+            }
+        })
+        .listAsync()
+        .toList().toBlocking().single();
+    }
+}
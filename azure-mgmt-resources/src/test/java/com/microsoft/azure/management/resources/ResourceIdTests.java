@@ -75,4 +75,26 @@ public class ResourceIdTests {
         Assert.assertEquals(resourceId.parent().parent().resourceType(), "applicationGateways");
         Assert.assertEquals(resourceId.parent().parent().fullResourceType(), "Microsoft.Network/applicationGateways");
     }
+
+    @Test
+    public void resourceIdIsParsedOnceAndParentIsCached() {
+        String id = "/subscriptions/9657ab5d-4a4a-4fd2-ae7a-4cd9fbd030ef/resourceGroups/resourceGroupName/providers/Microsoft.Network/applicationGateways/something/someChildType/childName";
+        ResourceId resourceId = ResourceId.fromString(id);
+
+        Assert.assertSame(resourceId, ResourceId.fromString(id));
+        Assert.assertSame(resourceId.parent(), resourceId.parent());
+        Assert.assertEquals("/subscriptions/9657ab5d-4a4a-4fd2-ae7a-4cd9fbd030ef/resourceGroups/resourceGroupName/providers/Microsoft.Network/applicationGateways/something",
+                resourceId.parent().id());
+        Assert.assertSame(resourceId.resourceGroupName(), resourceId.parent().resourceGroupName());
+    }
+
+    @Test
+    public void resourceIdWithoutLeadingSlashWorksFine() {
+        ResourceId resourceId = ResourceId.fromString("subscriptions/9657ab5d-4a4a-4fd2-ae7a-4cd9fbd030ef/resourceGroups/resourceGroupName/providers/Microsoft.Network/applicationGateways/something/someChildType/childName/");
+
+        Assert.assertEquals(resourceId.name(), "childName");
+        Assert.assertEquals(resourceId.resourceType(), "someChildType");
+        Assert.assertEquals(resourceId.parent().id(), "/subscriptions/9657ab5d-4a4a-4fd2-ae7a-4cd9fbd030ef/resourceGroups/resourceGroupName/providers/Microsoft.Network/applicationGateways/something");
+        Assert.assertEquals(resourceId.parent().fullResourceType(), "Microsoft.Network/applicationGateways");
+    }
 }
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources;
+
+import com.microsoft.azure.management.resources.fluentcore.utils.ResourceManagerRateLimiter;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.ByteString;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test class to test ResourceManagerRateLimiter class.
+ */
+public class ResourceManagerRateLimiterTests {
+    @Test
+    public void keyIsPerSubscriptionAndRequestKind() {
+        Request get = new Request.Builder()
+                .url("https://management.azure.com/subscriptions/9657AB5D-4a4a-4fd2-ae7a-4cd9fbd030ef/resourceGroups/rg1?api-version=2017-05-10")
+                .get()
+                .build();
+        Request delete = new Request.Builder()
+                .url("https://management.azure.com/subscriptions/9657ab5d-4a4a-4fd2-ae7a-4cd9fbd030ef/resourceGroups/rg1?api-version=2017-05-10")
+                .delete()
+                .build();
+        Assert.assertEquals(ResourceManagerRateLimiter.keyOf("", "9657ab5d-4a4a-4fd2-ae7a-4cd9fbd030ef", false),
+                ResourceManagerRateLimiter.keyOf(get));
+        Assert.assertEquals(ResourceManagerRateLimiter.keyOf("", "9657ab5d-4a4a-4fd2-ae7a-4cd9fbd030ef", true),
+                ResourceManagerRateLimiter.keyOf(delete));
+    }
+
+    @Test
+    public void throttlingOneSubscriptionDoesNotBlockOthers() {
+        ResourceManagerRateLimiter rateLimiter = new ResourceManagerRateLimiter();
+        String throttled = ResourceManagerRateLimiter.keyOf("", "sub1", true);
+        String other = ResourceManagerRateLimiter.keyOf("", "sub2", true);
+        rateLimiter.onThrottled(throttled, 30);
+        Assert.assertTrue(rateLimiter.reserve(throttled) >= 29000);
+        Assert.assertEquals(0, rateLimiter.reserve(other));
+        Assert.assertEquals(0, rateLimiter.reserve(ResourceManagerRateLimiter.keyOf("", "sub1", false)));
+    }
+
+    @Test
+    public void requestsArePacedOnceBucketIsEmpty() {
+        ResourceManagerRateLimiter rateLimiter = new ResourceManagerRateLimiter(3600, 3600);
+        String key = ResourceManagerRateLimiter.keyOf("", "sub1", false);
+        for (int i = 0; i < 3600; i++) {
+            Assert.assertEquals(0, rateLimiter.reserve(key));
+        }
+        // One token per second is refilled once the bucket is drained
+        long delay = rateLimiter.reserve(key);
+        Assert.assertTrue(delay > 0 && delay <= 1000);
+        Assert.assertTrue(rateLimiter.reserve(key) > delay);
+    }
+
+    @Test
+    public void bucketFollowsRemainingCountReportedByService() {
+        ResourceManagerRateLimiter rateLimiter = new ResourceManagerRateLimiter(3600, 3600);
+        String key = ResourceManagerRateLimiter.keyOf("", "sub1", false);
+        rateLimiter.onResponse(key, response("x-ms-ratelimit-remaining-subscription-reads", "0"));
+        Assert.assertTrue(rateLimiter.reserve(key) > 0);
+
+        // A later response reporting plenty of remaining requests refills the bucket
+        rateLimiter.onResponse(key, response("x-ms-ratelimit-remaining-subscription-reads", "1000"));
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(0, rateLimiter.reserve(key));
+        }
+        Assert.assertTrue(rateLimiter.reserve(key) > 0);
+
+        // The bucket never holds more than its capacity
+        rateLimiter.onResponse(key, response("x-ms-ratelimit-remaining-subscription-reads", "100000"));
+        for (int i = 0; i < 3600; i++) {
+            Assert.assertEquals(0, rateLimiter.reserve(key));
+        }
+        Assert.assertTrue(rateLimiter.reserve(key) > 0);
+    }
+
+    @Test
+    public void remainingCountKeepsWaitingCallersAhead() {
+        ResourceManagerRateLimiter rateLimiter = new ResourceManagerRateLimiter(3600, 3600);
+        String key = ResourceManagerRateLimiter.keyOf("", "sub1", false);
+        rateLimiter.onResponse(key, response("x-ms-ratelimit-remaining-subscription-reads", "0"));
+        // 3 callers are told to wait about 1, 2 and 3 seconds
+        long lastDelay = 0;
+        for (int i = 0; i < 3; i++) {
+            lastDelay = rateLimiter.reserve(key);
+            Assert.assertTrue(lastDelay > 0);
+        }
+
+        // The service reports 2 remaining requests, the waiting callers are not counted by it yet
+        rateLimiter.onResponse(key, response("x-ms-ratelimit-remaining-subscription-reads", "2"));
+        Assert.assertTrue(rateLimiter.reserve(key) > 0);
+
+        // Plenty of remaining requests leave room for new callers after the 4 waiting ones
+        rateLimiter.onResponse(key, response("x-ms-ratelimit-remaining-subscription-reads", "10"));
+        for (int i = 0; i < 10 - 4; i++) {
+            Assert.assertEquals(0, rateLimiter.reserve(key));
+        }
+        Assert.assertTrue(rateLimiter.reserve(key) > 0);
+    }
+
+    @Test
+    public void keyIsPerTenant() {
+        String claims = ByteString.encodeUtf8("{\"aud\":\"https://management.azure.com/\",\"tid\":\"tenant1\"}").base64Url();
+        Request get = new Request.Builder()
+                .url("https://management.azure.com/subscriptions/sub1/resourceGroups/rg1?api-version=2017-05-10")
+                .header("Authorization", "Bearer header." + claims + ".signature")
+                .get()
+                .build();
+        Assert.assertEquals(ResourceManagerRateLimiter.keyOf("tenant1", "sub1", false), ResourceManagerRateLimiter.keyOf(get));
+        // Served from the tenants of the tokens seen so far
+        Assert.assertEquals(ResourceManagerRateLimiter.keyOf("tenant1", "sub1", false), ResourceManagerRateLimiter.keyOf(get));
+    }
+
+    private static Response response(String header, String value) {
+        return new Response.Builder()
+                .request(new Request.Builder().url("https://management.azure.com/subscriptions/sub1").build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .header(header, value)
+                .build();
+    }
+}
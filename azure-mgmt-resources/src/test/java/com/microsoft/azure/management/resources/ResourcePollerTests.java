@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources;
+
+import com.microsoft.azure.CloudException;
+import com.microsoft.azure.management.resources.fluentcore.utils.ResourcePoller;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import org.junit.Assert;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class to test ResourcePoller class.
+ */
+public class ResourcePollerTests {
+    private static final Func1<Integer, Boolean> IS_THIRD_POLL = new Func1<Integer, Boolean>() {
+        @Override
+        public Boolean call(Integer poll) {
+            return poll >= 3;
+        }
+    };
+
+    @Test
+    public void canPollUntilDone() {
+        final AtomicInteger polls = new AtomicInteger();
+        int result = new ResourcePoller<>(new Func0<Observable<Integer>>() {
+            @Override
+            public Observable<Integer> call() {
+                return Observable.just(polls.incrementAndGet());
+            }
+        })
+        .withBackoff(1, 2, 4, TimeUnit.MILLISECONDS)
+        .withJitter(0.5)
+        .pollUntilAsync(IS_THIRD_POLL)
+        .toBlocking().single();
+        Assert.assertEquals(3, result);
+        Assert.assertEquals(3, polls.get());
+    }
+
+    @Test
+    public void canRetryThrottledPoll() {
+        final AtomicInteger polls = new AtomicInteger();
+        int result = new ResourcePoller<>(new Func0<Observable<Integer>>() {
+            @Override
+            public Observable<Integer> call() {
+                if (polls.incrementAndGet() == 2) {
+                    return Observable.error(throttled());
+                }
+                return Observable.just(polls.get());
+            }
+        })
+        .withDelay(1, TimeUnit.MILLISECONDS)
+        .pollUntilAsync(IS_THIRD_POLL)
+        .toBlocking().single();
+        Assert.assertEquals(3, result);
+    }
+
+    @Test
+    public void failsOnceMaxWaitElapsed() {
+        try {
+            new ResourcePoller<>(new Func0<Observable<Integer>>() {
+                @Override
+                public Observable<Integer> call() {
+                    return Observable.just(0);
+                }
+            })
+            .withDelay(10, TimeUnit.MILLISECONDS)
+            .withMaxWait(50, TimeUnit.MILLISECONDS)
+            .pollUntilAsync(IS_THIRD_POLL)
+            .toBlocking().single();
+            Assert.fail();
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getCause() instanceof TimeoutException);
+        }
+    }
+
+    private static CloudException throttled() {
+        okhttp3.Response rawResponse = new okhttp3.Response.Builder()
+                .request(new Request.Builder().url("https://management.azure.com/").build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(429)
+                .message("Too Many Requests")
+                .header("Retry-After", "0")
+                .build();
+        ResponseBody body = ResponseBody.create(MediaType.parse("application/json"), "{}");
+        return new CloudException("Throttled", retrofit2.Response.<ResponseBody>error(body, rawResponse));
+    }
+}
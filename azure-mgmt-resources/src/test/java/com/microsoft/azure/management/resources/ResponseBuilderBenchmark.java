@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources;
+
+import com.microsoft.azure.AzureResponseBuilder;
+import com.microsoft.azure.management.resources.core.MockArmService;
+import com.microsoft.azure.management.resources.fluentcore.utils.CachedResponseBuilderFactory;
+import com.microsoft.azure.management.resources.implementation.ResourceGroupInner;
+import com.microsoft.azure.management.resources.implementation.ResourceGroupsInner;
+import com.microsoft.azure.management.resources.implementation.ResourceManagementClientImpl;
+import okhttp3.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the generated {@link ResourceGroupsInner#get(String)} call with the response builder
+ * built per response by {@link AzureResponseBuilder.Factory} versus the builder cached by
+ * {@link CachedResponseBuilderFactory}. The same applies to the other hot GETs of the generated
+ * clients such as VirtualMachinesInner.getByResourceGroup.
+ * <p>
+ * The response is returned by an interceptor so that the measure covers the generated client, the
+ * Retrofit call and the response builder without the network. Run with the allocation rate per
+ * call by the main method from the test class path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseBuilderBenchmark {
+    private static final String BODY = "{\"id\":\"/subscriptions/sub1/resourceGroups/rg1\",\"name\":\"rg1\","
+            + "\"location\":\"westus\",\"properties\":{\"provisioningState\":\"Succeeded\"}}";
+
+    @Param({"perResponse", "cached"})
+    private String factory;
+
+    private ResourceGroupsInner resourceGroups;
+
+    /**
+     * Builds the client with the response builder factory benchmarked.
+     */
+    @Setup
+    public void setup() {
+        MockArmService service = new MockArmService() {
+            @Override
+            public Response intercept(Chain chain) throws IOException {
+                return response(chain, 200, BODY);
+            }
+        };
+        ResourceManagementClientImpl client = new ResourceManagementClientImpl(service.restClientBuilder()
+                .withResponseBuilderFactory("cached".equals(factory)
+                        ? new CachedResponseBuilderFactory()
+                        : new AzureResponseBuilder.Factory())
+                .build())
+                .withSubscriptionId("sub1");
+        resourceGroups = client.resourceGroups();
+    }
+
+    /**
+     * @return the resource group
+     */
+    @Benchmark
+    public ResourceGroupInner get() {
+        return resourceGroups.get("rg1");
+    }
+
+    /**
+     * Runs the benchmark with the allocation rate per call.
+     *
+     * @param args not used
+     * @throws RunnerException thrown if the benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResponseBuilderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources;
+
+import com.microsoft.azure.CloudException;
+import com.microsoft.azure.management.resources.core.MockArmService;
+import com.microsoft.azure.management.resources.fluentcore.utils.StreamingListReader;
+import com.microsoft.azure.management.resources.implementation.GenericResourceInner;
+import com.microsoft.azure.management.resources.implementation.ResourceManagementClientImpl;
+import com.microsoft.azure.management.resources.implementation.ResourceManager;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+import org.junit.Assert;
+import org.junit.Test;
+import rx.functions.Func1;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class StreamingListReaderTests {
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+    private static final String LOGGING_CONTEXT = "com.microsoft.azure.management.resources.Resources list";
+
+    @Test
+    public void canReadPagesFollowingNextLink() {
+        final List<Request> requests = Collections.synchronizedList(new ArrayList<Request>());
+        StreamingListReader<GenericResourceInner> reader = reader(new MockArmService() {
+            @Override
+            public Response intercept(Chain chain) throws IOException {
+                requests.add(chain.request());
+                String page = chain.request().url().queryParameter("page");
+                if (page == null) {
+                    // The nextLink precedes the items
+                    return streamedResponse(chain, 200, "{\"nextLink\":\"" + MockArmService.BASE_URL + "resources?page=2\",\"value\":["
+                            + item("r1") + "," + item("r2") + "]}", null);
+                } else if (page.equals("2")) {
+                    // The nextLink follows the items, other fields are skipped
+                    return streamedResponse(chain, 200, "{\"value\":[" + item("r3") + "],\"count\":{\"total\":[1,2]},"
+                            + "\"nextLink\":\"" + MockArmService.BASE_URL + "resources?page=3\"}", null);
+                }
+                return streamedResponse(chain, 200, "{\"value\":[" + item("r4") + "]}", null);
+            }
+        });
+
+        List<String> names = reader.readAsync("subscriptions/sub/resources?api-version=2016-09-01")
+                .map(new Func1<GenericResourceInner, String>() {
+                    @Override
+                    public String call(GenericResourceInner resource) {
+                        return resource.name();
+                    }
+                })
+                .toList().toBlocking().single();
+
+        Assert.assertEquals(Arrays.asList("r1", "r2", "r3", "r4"), names);
+        Assert.assertEquals(3, requests.size());
+        Assert.assertEquals("/subscriptions/sub/resources", requests.get(0).url().encodedPath());
+        for (Request request : requests) {
+            Assert.assertEquals("en-US", request.header("accept-language"));
+            Assert.assertEquals(LOGGING_CONTEXT, request.header("x-ms-logging-context"));
+            Assert.assertTrue(request.header("User-Agent").contains("ResourceManagementClient"));
+        }
+    }
+
+    @Test
+    public void canCloseBodyOnEarlyUnsubscribe() throws InterruptedException {
+        final AtomicBoolean closed = new AtomicBoolean();
+        final List<Request> requests = Collections.synchronizedList(new ArrayList<Request>());
+        StreamingListReader<GenericResourceInner> reader = reader(new MockArmService() {
+            @Override
+            public Response intercept(Chain chain) throws IOException {
+                requests.add(chain.request());
+                StringBuilder page = new StringBuilder("{\"value\":[");
+                for (int i = 0; i < 100; i++) {
+                    page.append(i == 0 ? "" : ",").append(item("r" + i));
+                }
+                page.append("],\"nextLink\":\"").append(MockArmService.BASE_URL).append("resources?page=2\"}");
+                return streamedResponse(chain, 200, page.toString(), closed);
+            }
+        });
+
+        List<GenericResourceInner> resources = reader.readAsync("subscriptions/sub/resources?api-version=2016-09-01")
+                .take(2)
+                .toList().toBlocking().single();
+
+        Assert.assertEquals(2, resources.size());
+        // The body is closed on unsubscribe, right after the completion is delivered
+        for (int i = 0; i < 100 && !closed.get(); i++) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(closed.get());
+        Assert.assertEquals(1, requests.size());
+    }
+
+    @Test
+    public void canMapErrorResponseToCloudException() {
+        StreamingListReader<GenericResourceInner> reader = reader(new MockArmService() {
+            @Override
+            public Response intercept(Chain chain) throws IOException {
+                return streamedResponse(chain, 403, "{\"error\":{\"code\":\"AuthorizationFailed\",\"message\":\"denied\"}}", null);
+            }
+        });
+
+        try {
+            reader.readAsync("subscriptions/sub/resources?api-version=2016-09-01").toList().toBlocking().single();
+            Assert.fail("Expected CloudException");
+        } catch (CloudException e) {
+            Assert.assertEquals(403, e.response().code());
+            Assert.assertEquals("AuthorizationFailed", e.body().code());
+            Assert.assertEquals("denied", e.body().message());
+        }
+    }
+
+    @Test
+    public void canStreamGeneratedListOperation() {
+        final List<Request> requests = Collections.synchronizedList(new ArrayList<Request>());
+        ResourceManager manager = ResourceManager.authenticate(new MockArmService() {
+            @Override
+            public Response intercept(Chain chain) throws IOException {
+                requests.add(chain.request());
+                return streamedResponse(chain, 200, "{\"value\":[" + item("r1") + "," + item("r2") + "]}", null);
+            }
+        }.restClient()).withSubscription("sub");
+
+        List<GenericResource> resources = manager.genericResources().listStreamingAsync().toList().toBlocking().single();
+
+        Assert.assertEquals(2, resources.size());
+        Assert.assertEquals("r2", resources.get(1).name());
+        // The path and the logging context of the generated list operation
+        Assert.assertEquals(1, requests.size());
+        Assert.assertEquals("/subscriptions/sub/resources", requests.get(0).url().encodedPath());
+        Assert.assertNotNull(requests.get(0).url().queryParameter("api-version"));
+        Assert.assertEquals(LOGGING_CONTEXT, requests.get(0).header("x-ms-logging-context"));
+    }
+
+    private static StreamingListReader<GenericResourceInner> reader(MockArmService server) {
+        ResourceManagementClientImpl client = new ResourceManagementClientImpl(server.restClient()).withSubscriptionId("sub");
+        return new StreamingListReader<>(client, client.acceptLanguage(), LOGGING_CONTEXT, GenericResourceInner.class);
+    }
+
+    private static String item(String name) {
+        return "{\"id\":\"/subscriptions/sub/resourceGroups/rg/providers/Microsoft.Web/sites/" + name
+                + "\",\"name\":\"" + name + "\",\"location\":\"westus\"}";
+    }
+
+    private static Response streamedResponse(Interceptor.Chain chain, int code, String content, final AtomicBoolean closed) {
+        Buffer buffer = new Buffer().writeUtf8(content);
+        long length = buffer.size();
+        return new Response.Builder()
+                .request(chain.request())
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("")
+                .body(ResponseBody.create(JSON, length, Okio.buffer(new ForwardingSource(buffer) {
+                    @Override
+                    public void close() throws IOException {
+                        if (closed != null) {
+                            closed.set(true);
+                        }
+                        super.close();
+                    }
+                })))
+                .build();
+    }
+}
@@ -0,0 +1,597 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.azure.AzureResponseBuilder;
+import com.microsoft.azure.management.resources.fluentcore.utils.ResourceNamer;
+import com.microsoft.azure.management.resources.fluentcore.utils.ResourceNamerFactory;
+import com.microsoft.azure.serializer.AzureJacksonAdapter;
+import com.microsoft.rest.LogLevel;
+import com.microsoft.rest.RestClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * An embeddable stand-in for Azure Resource Manager that serves the responses from session records.
+ * <p>
+ * Unlike the playback interceptor, the server does not need to run inside a test and can serve any
+ * number of concurrent clients, so it can be used to measure the throughput of the SDK without a
+ * subscription:
+ * <pre>
+ * try (MockArmServer server = new MockArmServer()
+ *         .withRecords("canCreateResourceGroup")
+ *         .withLatency(20, TimeUnit.MILLISECONDS)
+ *         .withThrottling(0.01, 1)) {
+ *     server.start();
+ *     ResourceManager.authenticate(server.restClient()).withSubscription(subscriptionId)...
+ * }
+ * </pre>
+ * The records are indexed by method and path at start, the responses recorded for the same request
+ * are replayed in the recorded order and wrap around once exhausted. Hosts in the recorded response
+ * headers and bodies (e.g. Location, Azure-AsyncOperation, nextLink) are rewritten to the server address.
+ * <p>
+ * The random resource names recorded with the sessions are replayed by the namer factory of the server,
+ * so that sessions creating resources with random names can be replayed:
+ * <pre>
+ * SdkContext.setResourceNamerFactory(server.resourceNamerFactory());
+ * </pre>
+ */
+public class MockArmServer implements Closeable {
+    private static final String RECORD_FOLDER = "session-records/";
+    private static final String OPERATIONS_PATH = "/mockarm/operations/";
+    private static final Pattern RECORDED_HOST = Pattern.compile("https?://localhost:\\d+/?");
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String ZERO_TENANT = "00000000-0000-0000-0000-000000000000";
+
+    private final List<RecordedData> recordedData = new ArrayList<>();
+    private final List<String> variables = new ArrayList<>();
+    private final AtomicInteger variableCursor = new AtomicInteger();
+    private final Map<String, RecordedRequest> index = new HashMap<>();
+    private final Map<String, RecordedResponse> completedAsyncResources = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> pendingAsyncOperations = new ConcurrentHashMap<>();
+    private final AtomicLong asyncOperationId = new AtomicLong();
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong throttledCount = new AtomicLong();
+    private final AtomicLong unmatchedCount = new AtomicLong();
+    private final ArrayDeque<ServedRequest> servedRequests = new ArrayDeque<>();
+
+    private long latencyMillis;
+    private long latencyJitterMillis;
+    private double throttlingProbability;
+    private int retryAfterSeconds = 1;
+    private int asyncOperationPollCount = -1;
+    private int threadCount = 64;
+    private int writerThreadCount = 8;
+    private int servedRequestCapacity;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private ScheduledExecutorService delayExecutor;
+    private String baseUrl;
+
+    /**
+     * Adds the session records of the given tests, loaded from the session-records folder in the class path.
+     *
+     * @param testNames the names of the recorded tests
+     * @return this server
+     * @throws IOException exception thrown when a record cannot be read
+     */
+    public MockArmServer withRecords(String... testNames) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        for (String testName : testNames) {
+            InputStream stream = MockArmServer.class.getClassLoader().getResourceAsStream(RECORD_FOLDER + testName + ".json");
+            if (stream == null) {
+                throw new IOException("Session record not found: " + testName);
+            }
+            try {
+                addRecordedData(mapper.readValue(stream, RecordedData.class));
+            } finally {
+                stream.close();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds all the session records in a folder.
+     *
+     * @param folder the folder containing the session record files
+     * @return this server
+     * @throws IOException exception thrown when a record cannot be read
+     */
+    public MockArmServer withRecordsFrom(File folder) throws IOException {
+        File[] files = folder.listFiles();
+        if (files == null) {
+            throw new IOException("Not a folder: " + folder);
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        for (File file : files) {
+            if (file.getName().endsWith(".json")) {
+                addRecordedData(mapper.readValue(file, RecordedData.class));
+            }
+        }
+        return this;
+    }
+
+    private void addRecordedData(RecordedData data) {
+        recordedData.add(data);
+        variables.addAll(data.getVariables());
+    }
+
+    /**
+     * Specifies the latency added to every response.
+     *
+     * @param latency the fixed latency
+     * @param jitter the maximum random latency added to the fixed latency
+     * @param unit the time unit of latency and jitter
+     * @return this server
+     */
+    public MockArmServer withLatency(long latency, long jitter, TimeUnit unit) {
+        this.latencyMillis = unit.toMillis(latency);
+        this.latencyJitterMillis = unit.toMillis(jitter);
+        return this;
+    }
+
+    /**
+     * Specifies the latency added to every response.
+     *
+     * @param latency the latency
+     * @param unit the time unit of latency
+     * @return this server
+     */
+    public MockArmServer withLatency(long latency, TimeUnit unit) {
+        return withLatency(latency, 0, unit);
+    }
+
+    /**
+     * Specifies that a fraction of the requests should be rejected with 429 (Too Many Requests).
+     *
+     * @param probability the probability of a request being throttled, between 0 and 1
+     * @param retryAfterSeconds the value of the Retry-After header of the throttled responses
+     * @return this server
+     */
+    public MockArmServer withThrottling(double probability, int retryAfterSeconds) {
+        this.throttlingProbability = probability;
+        this.retryAfterSeconds = retryAfterSeconds;
+        return this;
+    }
+
+    /**
+     * Specifies that the recorded synchronous PUT and DELETE responses should be turned into long
+     * running operations, i.e. 202 (Accepted) with an Azure-AsyncOperation header whose status is
+     * InProgress for the given number of polls and Succeeded afterwards.
+     *
+     * @param pollCount the number of polls the operation stays in progress
+     * @return this server
+     */
+    public MockArmServer withAsyncOperations(int pollCount) {
+        this.asyncOperationPollCount = pollCount;
+        return this;
+    }
+
+    /**
+     * Specifies the number of threads serving the requests.
+     *
+     * @param threadCount the thread count
+     * @return this server
+     */
+    public MockArmServer withThreads(int threadCount) {
+        this.threadCount = threadCount;
+        return this;
+    }
+
+    /**
+     * Specifies the number of threads sending the responses delayed by the latency.
+     *
+     * @param writerThreadCount the thread count
+     * @return this server
+     */
+    public MockArmServer withWriterThreads(int writerThreadCount) {
+        this.writerThreadCount = writerThreadCount;
+        return this;
+    }
+
+    /**
+     * Specifies that the last requests received should be kept, so that they can be inspected with
+     * {@link #servedRequests()}. No request is kept by default.
+     *
+     * @param capacity the number of requests kept, the oldest ones are dropped first
+     * @return this server
+     */
+    public MockArmServer withServedRequests(int capacity) {
+        this.servedRequestCapacity = capacity;
+        return this;
+    }
+
+    /**
+     * Starts the server on a free local port and indexes the records.
+     *
+     * @return this server
+     * @throws IOException exception thrown when the server cannot be started
+     */
+    public MockArmServer start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        baseUrl = "http://localhost:" + server.getAddress().getPort() + "/";
+        buildIndex();
+        executor = Executors.newFixedThreadPool(threadCount);
+        delayExecutor = Executors.newScheduledThreadPool(writerThreadCount);
+        server.setExecutor(executor);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                serve(exchange);
+            }
+        });
+        server.start();
+        return this;
+    }
+
+    /**
+     * @return the base url of the server, ending with a slash
+     */
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * @return a REST client sending its requests to the server, in the zero tenant
+     */
+    public RestClient restClient() {
+        return new RestClient.Builder()
+                .withBaseUrl(baseUrl)
+                .withSerializerAdapter(new AzureJacksonAdapter())
+                .withResponseBuilderFactory(new AzureResponseBuilder.Factory())
+                .withCredentials(new AzureTestCredentials(baseUrl, ZERO_TENANT, true))
+                .withLogLevel(LogLevel.NONE)
+                .build();
+    }
+
+    /**
+     * Gets a resource namer factory returning the variables recorded with the sessions, in the
+     * recorded order and wrapping around once exhausted, instead of random names.
+     *
+     * @return the resource namer factory
+     */
+    public ResourceNamerFactory resourceNamerFactory() {
+        return new ResourceNamerFactory() {
+            @Override
+            public ResourceNamer createResourceNamer(String name) {
+                return new ResourceNamer(name) {
+                    @Override
+                    public String randomName(String prefix, int maxLen) {
+                        return variables.isEmpty() ? super.randomName(prefix, maxLen) : nextVariable();
+                    }
+
+                    @Override
+                    public String randomUuid() {
+                        return variables.isEmpty() ? super.randomUuid() : nextVariable();
+                    }
+                };
+            }
+        };
+    }
+
+    private String nextVariable() {
+        return variables.get((variableCursor.getAndIncrement() & Integer.MAX_VALUE) % variables.size());
+    }
+
+    /**
+     * @return the number of requests received
+     */
+    public long requestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * @return the last requests received, in the order they were received, up to the capacity
+     * specified by {@link #withServedRequests(int)}
+     */
+    public List<ServedRequest> servedRequests() {
+        synchronized (servedRequests) {
+            return new ArrayList<>(servedRequests);
+        }
+    }
+
+    /**
+     * @return the number of requests rejected with 429
+     */
+    public long throttledCount() {
+        return throttledCount.get();
+    }
+
+    /**
+     * @return the number of requests not matching any record
+     */
+    public long unmatchedCount() {
+        return unmatchedCount.get();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            delayExecutor.shutdownNow();
+            server = null;
+        }
+    }
+
+    private void buildIndex() {
+        index.clear();
+        for (RecordedData data : recordedData) {
+            for (NetworkCallRecord record : data.getNetworkCallRecords()) {
+                String key = keyOf(record.Method, URI.create(record.Uri));
+                RecordedRequest request = index.get(key);
+                if (request == null) {
+                    request = new RecordedRequest();
+                    index.put(key, request);
+                }
+                request.responses.add(toResponse(record.Response));
+            }
+        }
+    }
+
+    private RecordedResponse toResponse(Map<String, String> recorded) {
+        RecordedResponse response = new RecordedResponse();
+        response.statusCode = Integer.parseInt(recorded.get("StatusCode"));
+        for (Map.Entry<String, String> entry : recorded.entrySet()) {
+            String name = entry.getKey();
+            if (name.equals("StatusCode") || name.equals("Body")
+                    || name.equalsIgnoreCase("content-length")
+                    || name.equalsIgnoreCase("transfer-encoding")
+                    || name.equalsIgnoreCase("connection")) {
+                continue;
+            }
+            response.headers.put(name, rewriteHost(entry.getValue()));
+        }
+        String body = recorded.get("Body");
+        if (body != null && !body.isEmpty()) {
+            response.body = rewriteHost(body).getBytes(UTF_8);
+            if (!response.headers.containsKey("content-type")) {
+                response.headers.put("content-type", "application/json; charset=utf-8");
+            }
+        }
+        return response;
+    }
+
+    private String rewriteHost(String text) {
+        return RECORDED_HOST.matcher(text).replaceAll(baseUrl);
+    }
+
+    private void serve(final HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        if (servedRequestCapacity > 0) {
+            synchronized (servedRequests) {
+                if (servedRequests.size() == servedRequestCapacity) {
+                    servedRequests.removeFirst();
+                }
+                servedRequests.addLast(new ServedRequest(exchange.getRequestMethod(), exchange.getRequestURI().getPath()));
+            }
+        }
+        drain(exchange.getRequestBody());
+        final RecordedResponse response = respond(exchange.getRequestMethod(), exchange.getRequestURI());
+        long delay = latencyMillis;
+        if (latencyJitterMillis > 0) {
+            delay += ThreadLocalRandom.current().nextLong(latencyJitterMillis + 1);
+        }
+        if (delay <= 0) {
+            send(exchange, response);
+            return;
+        }
+        // The response is sent from the writer pool so that the latency does not occupy a serving thread
+        delayExecutor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    send(exchange, response);
+                } catch (IOException e) {
+                    exchange.close();
+                }
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private RecordedResponse respond(String method, URI uri) {
+        if (throttlingProbability > 0 && ThreadLocalRandom.current().nextDouble() < throttlingProbability) {
+            throttledCount.incrementAndGet();
+            RecordedResponse throttled = errorResponse(429, "TooManyRequests",
+                    "The request is being throttled by the mock server.");
+            throttled.headers.put("retry-after", Integer.toString(retryAfterSeconds));
+            return throttled;
+        }
+        if (uri.getPath().startsWith(OPERATIONS_PATH)) {
+            return asyncOperationStatus(uri.getPath().substring(OPERATIONS_PATH.length()));
+        }
+        String key = keyOf(method, uri);
+        RecordedRequest request = index.get(key);
+        if (request == null) {
+            RecordedResponse completed = completedAsyncResources.get(key);
+            if (completed != null) {
+                return completed;
+            }
+            unmatchedCount.incrementAndGet();
+            return errorResponse(404, "RecordNotFound", "No session record for " + method + " " + uri);
+        }
+        RecordedResponse response = request.next();
+        if (asyncOperationPollCount >= 0 && isSynchronousWrite(method, response)) {
+            return startAsyncOperation(method, uri, response);
+        }
+        return response;
+    }
+
+    private static boolean isSynchronousWrite(String method, RecordedResponse response) {
+        boolean isWrite = method.equalsIgnoreCase("PUT") || method.equalsIgnoreCase("DELETE");
+        return isWrite
+                && (response.statusCode == 200 || response.statusCode == 201)
+                && !response.headers.containsKey("azure-asyncoperation")
+                && !response.headers.containsKey("location");
+    }
+
+    private RecordedResponse startAsyncOperation(String method, URI uri, RecordedResponse completed) {
+        String operationId = Long.toString(asyncOperationId.incrementAndGet());
+        pendingAsyncOperations.put(operationId, new AtomicInteger(asyncOperationPollCount));
+        if (method.equalsIgnoreCase("PUT")) {
+            // The client reads the resource once the operation succeeds
+            completedAsyncResources.put(keyOf("GET", uri), completed);
+        }
+        RecordedResponse accepted = new RecordedResponse();
+        accepted.statusCode = 202;
+        accepted.headers.put("azure-asyncoperation", baseUrl + OPERATIONS_PATH.substring(1) + operationId);
+        accepted.headers.put("retry-after", "0");
+        return accepted;
+    }
+
+    private RecordedResponse asyncOperationStatus(String operationId) {
+        AtomicInteger remainingPolls = pendingAsyncOperations.get(operationId);
+        if (remainingPolls == null) {
+            unmatchedCount.incrementAndGet();
+            return errorResponse(404, "OperationNotFound", "Unknown operation " + operationId);
+        }
+        String status;
+        if (remainingPolls.getAndDecrement() > 0) {
+            status = "InProgress";
+        } else {
+            status = "Succeeded";
+            pendingAsyncOperations.remove(operationId);
+        }
+        RecordedResponse response = new RecordedResponse();
+        response.statusCode = 200;
+        response.headers.put("content-type", "application/json; charset=utf-8");
+        response.headers.put("retry-after", "0");
+        response.body = ("{\"status\":\"" + status + "\"}").getBytes(UTF_8);
+        return response;
+    }
+
+    private static RecordedResponse errorResponse(int statusCode, String code, String message) {
+        RecordedResponse response = new RecordedResponse();
+        response.statusCode = statusCode;
+        response.headers.put("content-type", "application/json; charset=utf-8");
+        response.body = ("{\"error\":{\"code\":\"" + code + "\",\"message\":\""
+                + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}}").getBytes(UTF_8);
+        return response;
+    }
+
+    private static void send(HttpExchange exchange, RecordedResponse response) throws IOException {
+        for (Map.Entry<String, String> header : response.headers.entrySet()) {
+            exchange.getResponseHeaders().add(header.getKey(), header.getValue());
+        }
+        boolean hasBody = response.body != null
+                && response.statusCode != 204
+                && !exchange.getRequestMethod().equalsIgnoreCase("HEAD");
+        exchange.sendResponseHeaders(response.statusCode, hasBody ? response.body.length : -1);
+        if (hasBody) {
+            OutputStream output = exchange.getResponseBody();
+            output.write(response.body);
+            output.close();
+        }
+        exchange.close();
+    }
+
+    private static void drain(InputStream input) throws IOException {
+        byte[] buffer = new byte[8192];
+        while (input.read(buffer) != -1) {
+            // Discard the request body
+        }
+        input.close();
+    }
+
+    /**
+     * Gets the index key of a request, the host is ignored and the decoded path and query
+     * are compared case insensitively.
+     */
+    private static String keyOf(String method, URI uri) {
+        String pathAndQuery = uri.getQuery() == null
+                ? uri.getPath()
+                : uri.getPath() + "?" + uri.getQuery();
+        return method.toUpperCase(Locale.ROOT) + " " + pathAndQuery.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The responses recorded for a request.
+     */
+    private static final class RecordedRequest {
+        private final List<RecordedResponse> responses = new ArrayList<>();
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        RecordedResponse next() {
+            return responses.get((cursor.getAndIncrement() & Integer.MAX_VALUE) % responses.size());
+        }
+    }
+
+    /**
+     * A response ready to be sent, headers and body are already rewritten.
+     */
+    private static final class RecordedResponse {
+        private int statusCode;
+        private final Map<String, String> headers = new LinkedHashMap<>();
+        private byte[] body;
+    }
+
+    /**
+     * A request received by the server.
+     */
+    public static final class ServedRequest {
+        private final String method;
+        private final String path;
+        private final long receivedAtMillis = System.currentTimeMillis();
+
+        ServedRequest(String method, String path) {
+            this.method = method;
+            this.path = path;
+        }
+
+        /**
+         * @return the request method
+         */
+        public String method() {
+            return method;
+        }
+
+        /**
+         * @return the decoded request path
+         */
+        public String path() {
+            return path;
+        }
+
+        /**
+         * @return the time the request was received
+         */
+        public long receivedAtMillis() {
+            return receivedAtMillis;
+        }
+    }
+}
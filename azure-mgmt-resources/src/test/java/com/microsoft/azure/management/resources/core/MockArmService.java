@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.core;
+
+import com.microsoft.azure.AzureResponseBuilder;
+import com.microsoft.azure.serializer.AzureJacksonAdapter;
+import com.microsoft.rest.LogLevel;
+import com.microsoft.rest.RestClient;
+import com.microsoft.rest.credentials.TokenCredentials;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * The base of the in-process stand-ins for Azure services in unit tests.
+ * <p>
+ * Unlike {@link MockArmServer}, which replays session records over HTTP, a service answers the
+ * requests of its REST client itself, without sending them:
+ * <pre>
+ * class ProviderService extends MockArmService {
+ *     public Response intercept(Chain chain) throws IOException {
+ *         return response(chain, 200, "{...}");
+ *     }
+ * }
+ * ResourceManager.authenticate(new ProviderService().restClient()).withSubscription("sub1");
+ * </pre>
+ */
+public abstract class MockArmService implements Interceptor {
+    /**
+     * The base URL of the REST clients of the services.
+     */
+    public static final String BASE_URL = "https://management.azure.com/";
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    /**
+     * @return a builder of a REST client whose requests are served by this service
+     */
+    public RestClient.Builder restClientBuilder() {
+        return new RestClient.Builder()
+                .withBaseUrl(BASE_URL)
+                .withSerializerAdapter(new AzureJacksonAdapter())
+                .withResponseBuilderFactory(new AzureResponseBuilder.Factory())
+                .withCredentials(new TokenCredentials("Bearer", "token"))
+                .withLogLevel(LogLevel.NONE)
+                .withInterceptor(this);
+    }
+
+    /**
+     * @return a REST client whose requests are served by this service
+     */
+    public RestClient restClient() {
+        return restClientBuilder().build();
+    }
+
+    /**
+     * Creates a JSON response to a request.
+     *
+     * @param chain the chain of the request
+     * @param code the status code
+     * @param content the JSON body
+     * @return the response
+     */
+    protected static Response response(Interceptor.Chain chain, int code, String content) {
+        return new Response.Builder()
+                .request(chain.request())
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("")
+                .body(ResponseBody.create(JSON, content))
+                .build();
+    }
+}
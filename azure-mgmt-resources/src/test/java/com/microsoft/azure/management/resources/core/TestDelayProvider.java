@@ -7,6 +7,7 @@
 package com.microsoft.azure.management.resources.core;
 
 import com.microsoft.azure.management.resources.fluentcore.utils.DelayProvider;
+import rx.Observable;
 
 public class TestDelayProvider extends DelayProvider {
     private boolean isRecordMode;
@@ -20,4 +21,9 @@ public class TestDelayProvider extends DelayProvider {
         }
     }
 
+    @Override
+    public <T> Observable<T> delayedEmitAsync(T event, int milliseconds) {
+        return super.delayedEmitAsync(event, isRecordMode ? milliseconds : 1);
+    }
+
 }
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.dag;
+
+import org.junit.Assert;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Action0;
+import rx.functions.Func0;
+import rx.schedulers.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BoundedTaskGroupSchedulerTests {
+    @Test
+    public void testMaxConcurrencyIsHonoured() {
+        final BoundedTaskGroupScheduler scheduler = new BoundedTaskGroupScheduler(3);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        List<Observable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tasks.add(scheduler.schedule(null, 0, delayedTask(i, running, maxRunning)));
+        }
+        List<Integer> results = Observable.merge(tasks).toList().toBlocking().single();
+        Assert.assertEquals(20, results.size());
+        Assert.assertTrue(maxRunning.get() <= 3);
+        Assert.assertEquals(0, scheduler.inFlightCount());
+        Assert.assertEquals(0, scheduler.queueDepth());
+    }
+
+    @Test
+    public void testMaxConcurrencyPerPartitionIsHonoured() {
+        final BoundedTaskGroupScheduler scheduler = new BoundedTaskGroupScheduler(10, 2);
+        final AtomicInteger runningA = new AtomicInteger();
+        final AtomicInteger maxRunningA = new AtomicInteger();
+        final AtomicInteger runningB = new AtomicInteger();
+        final AtomicInteger maxRunningB = new AtomicInteger();
+        List<Observable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(scheduler.schedule("A", 0, delayedTask(i, runningA, maxRunningA)));
+            tasks.add(scheduler.schedule("B", 0, delayedTask(i, runningB, maxRunningB)));
+        }
+        List<Integer> results = Observable.merge(tasks).toList().toBlocking().single();
+        Assert.assertEquals(20, results.size());
+        Assert.assertEquals(2, maxRunningA.get());
+        Assert.assertEquals(2, maxRunningB.get());
+        Assert.assertEquals(0, scheduler.inFlightCount("A"));
+        Assert.assertEquals(0, scheduler.inFlightCount("B"));
+    }
+
+    @Test
+    public void testHigherPriorityTasksAreAdmittedFirst() {
+        final BoundedTaskGroupScheduler scheduler = new BoundedTaskGroupScheduler(1);
+        final List<Integer> startOrder = Collections.synchronizedList(new ArrayList<Integer>());
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        // The first task occupies the only slot so that the rest gets queued
+        List<Observable<Integer>> tasks = new ArrayList<>();
+        tasks.add(scheduler.schedule(null, 0, delayedTask(0, running, maxRunning)));
+        for (int priority = 1; priority <= 5; priority++) {
+            final int p = priority;
+            tasks.add(scheduler.schedule(null, priority, Observable.just(p).doOnSubscribe(new Action0() {
+                @Override
+                public void call() {
+                    startOrder.add(p);
+                }
+            })));
+        }
+        Observable.merge(tasks).toBlocking().last();
+        Assert.assertEquals(5, startOrder.size());
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(5 - i, (int) startOrder.get(i));
+        }
+    }
+
+    private static Observable<Integer> delayedTask(final int value,
+                                                   final AtomicInteger running,
+                                                   final AtomicInteger maxRunning) {
+        return Observable.defer(new Func0<Observable<Integer>>() {
+            @Override
+            public Observable<Integer> call() {
+                int current = running.incrementAndGet();
+                synchronized (maxRunning) {
+                    if (current > maxRunning.get()) {
+                        maxRunning.set(current);
+                    }
+                }
+                return Observable.just(value)
+                        .delay(50, TimeUnit.MILLISECONDS, Schedulers.io())
+                        .doOnTerminate(new Action0() {
+                            @Override
+                            public void call() {
+                                running.decrementAndGet();
+                            }
+                        });
+            }
+        });
+    }
+}
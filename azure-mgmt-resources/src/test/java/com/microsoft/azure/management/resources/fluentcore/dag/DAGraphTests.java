@@ -143,6 +143,63 @@ public class DAGraphTests {
         }
     }
 
+    @Test
+    public void testDeepDAGraphTraversal() {
+        // A chain deeper than the call stack can hold if the graph is explored recursively
+        //
+        final int nodeCount = 100000;
+        ItemHolder[] nodes = new ItemHolder[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            nodes[i] = new ItemHolder("node" + i, "data" + i);
+            if (i > 0) {
+                nodes[i - 1].addDependency(nodes[i].key());
+            }
+        }
+        DAGraph<String, ItemHolder> dag = new DAGraph<>(nodes[0]);
+        for (int i = 1; i < nodeCount; i++) {
+            dag.addNode(nodes[i]);
+        }
+
+        // The second pass re-uses the dependents computed in the first pass
+        //
+        for (int pass = 0; pass < 2; pass++) {
+            dag.prepare();
+            ItemHolder nextNode = dag.getNext();
+            int i = nodeCount - 1;
+            while (nextNode != null) {
+                Assert.assertEquals(nodes[i].key(), nextNode.key());
+                dag.reportCompletion(nextNode);
+                nextNode = dag.getNext();
+                i--;
+            }
+            Assert.assertEquals(-1, i);
+        }
+    }
+
+    @Test
+    public void testDAGraphCircularDependency() {
+        ItemHolder nodeA = new ItemHolder("A", "dataA");
+        ItemHolder nodeB = new ItemHolder("B", "dataB");
+        ItemHolder nodeC = new ItemHolder("C", "dataC");
+        nodeA.addDependency(nodeB.key());
+        nodeB.addDependency(nodeC.key());
+
+        DAGraph<String, ItemHolder> dag = new DAGraph<>(nodeA);
+        dag.addNode(nodeB);
+        dag.addNode(nodeC);
+        dag.prepare();
+
+        // A dependency added after the previous preparation is detected
+        //
+        nodeC.addDependency(nodeA.key());
+        try {
+            dag.prepare();
+            Assert.fail("Expected circular dependency to be detected");
+        } catch (IllegalStateException exception) {
+            Assert.assertEquals("Detected circular dependency: A -> B -> C -> A", exception.getMessage());
+        }
+    }
+
     private DAGraph<String, ItemHolder> createGraph(String resourceName) {
         ItemHolder node = new ItemHolder(resourceName, "data" + resourceName);
         DAGraph<String, ItemHolder> graph = new DAGraph<>(node);
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Action0;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ChunkedOperationTests {
+    @Test
+    public void canSplitItemsInChunks() {
+        List<String> chunks = new ChunkedOperation<Integer, String>() {
+            @Override
+            protected Observable<String> executeChunkAsync(int index, int chunkCount, List<Integer> items) {
+                return Observable.just(index + "/" + chunkCount + ":" + items);
+            }
+        }.executeAsync(Arrays.asList(1, 2, 3, 4, 5), 2, 1).toList().toBlocking().single();
+
+        Assert.assertEquals(Arrays.asList("0/3:[1, 2]", "1/3:[3, 4]", "2/3:[5]"), chunks);
+    }
+
+    @Test
+    public void canBoundChunksInFlight() {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            items.add(i);
+        }
+        List<Integer> indexes = new ChunkedOperation<Integer, Integer>() {
+            @Override
+            protected Observable<Integer> executeChunkAsync(int index, int chunkCount, List<Integer> chunk) {
+                int count = inFlight.incrementAndGet();
+                synchronized (maxInFlight) {
+                    maxInFlight.set(Math.max(maxInFlight.get(), count));
+                }
+                return Observable.just(index)
+                        .delay(20, TimeUnit.MILLISECONDS)
+                        .doOnCompleted(new Action0() {
+                            @Override
+                            public void call() {
+                                inFlight.decrementAndGet();
+                            }
+                        });
+            }
+        }.executeAsync(items, 2, 3).toList().toBlocking().single();
+
+        Assert.assertEquals(10, indexes.size());
+        Assert.assertEquals(3, maxInFlight.get());
+    }
+
+    @Test
+    public void canStopOnFailedChunk() {
+        final AtomicInteger executed = new AtomicInteger();
+        try {
+            new ChunkedOperation<Integer, Integer>() {
+                @Override
+                protected Observable<Integer> executeChunkAsync(int index, int chunkCount, List<Integer> items) {
+                    executed.incrementAndGet();
+                    return index == 1 ? Observable.<Integer>error(new IllegalStateException("failed")) : Observable.just(index);
+                }
+            }.executeAsync(Arrays.asList(1, 2, 3, 4, 5, 6), 1, 1).toBlocking().last();
+            Assert.fail("Expected the chunk to fail");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(2, executed.get());
+        }
+        Assert.assertTrue(new ChunkedOperation<Integer, Integer>() {
+            @Override
+            protected Observable<Integer> executeChunkAsync(int index, int chunkCount, List<Integer> items) {
+                return Observable.just(index);
+            }
+        }.executeAsync(Collections.<Integer>emptyList(), 1, 1).isEmpty().toBlocking().single());
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Func0;
+import rx.schedulers.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ExpiringAsyncCacheTests {
+    @Test
+    public void canShareLookupInFlight() {
+        ExpiringAsyncCache<String> cache = new ExpiringAsyncCache<>(1, TimeUnit.HOURS);
+        Lookup lookup = new Lookup("value").withDelay(50);
+
+        List<Observable<String>> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            requests.add(cache.getAsync("key", lookup).subscribeOn(Schedulers.io()));
+        }
+        List<String> values = Observable.merge(requests).toList().toBlocking().single();
+
+        Assert.assertEquals(5, values.size());
+        Assert.assertEquals(1, lookup.count.get());
+        Assert.assertEquals("value", cache.getAsync("key", lookup).toBlocking().single());
+        Assert.assertEquals(1, lookup.count.get());
+    }
+
+    @Test
+    public void canExpireValues() throws Exception {
+        ExpiringAsyncCache<String> cache = new ExpiringAsyncCache<>(20, TimeUnit.MILLISECONDS);
+        Lookup lookup = new Lookup("value");
+
+        cache.getAsync("key", lookup).toBlocking().single();
+        cache.getAsync("key", lookup).toBlocking().single();
+        Assert.assertEquals(1, lookup.count.get());
+
+        Thread.sleep(50);
+        Assert.assertNull(cache.getIfPresent("key"));
+        cache.getAsync("key", lookup).toBlocking().single();
+        Assert.assertEquals(2, lookup.count.get());
+
+        // A lookup in flight is present and does not expire until it emits
+        Observable<String> inFlight = cache.withTimeToLive(0, TimeUnit.MILLISECONDS)
+                .getAsync("other", new Lookup("other").withDelay(50));
+        Thread.sleep(30);
+        Assert.assertSame(inFlight, cache.getIfPresent("other"));
+    }
+
+    @Test
+    public void canRetryFailedLookup() {
+        ExpiringAsyncCache<String> cache = new ExpiringAsyncCache<>(1, TimeUnit.HOURS);
+        Lookup lookup = new Lookup("value").withFailures(1);
+
+        try {
+            cache.getAsync("key", lookup).toBlocking().single();
+            Assert.fail("Expected the lookup to fail");
+        } catch (IllegalStateException e) {
+            Assert.assertNull(cache.getIfPresent("key"));
+        }
+        Assert.assertEquals("value", cache.getAsync("key", lookup).toBlocking().single());
+        Assert.assertEquals(2, lookup.count.get());
+    }
+
+    @Test
+    public void canSkipCachingNull() {
+        ExpiringAsyncCache<String> cache = new ExpiringAsyncCache<>(1, TimeUnit.HOURS);
+        Lookup lookup = new Lookup(null);
+
+        Assert.assertNull(cache.getAsync("key", lookup).toBlocking().single());
+        Assert.assertNull(cache.getIfPresent("key"));
+        Assert.assertNull(cache.getAsync("key", lookup).toBlocking().single());
+        Assert.assertEquals(2, lookup.count.get());
+    }
+
+    @Test
+    public void canPutAndInvalidate() {
+        ExpiringAsyncCache<String> cache = new ExpiringAsyncCache<>(1, TimeUnit.HOURS);
+        Lookup lookup = new Lookup("looked up");
+
+        cache.put("key", "put");
+        Assert.assertEquals("put", cache.getAsync("key", lookup).toBlocking().single());
+        Assert.assertEquals(0, lookup.count.get());
+
+        cache.invalidate("key");
+        Assert.assertEquals("looked up", cache.getAsync("key", lookup).toBlocking().single());
+        cache.put("other", "put");
+        cache.invalidateAll();
+        Assert.assertNull(cache.getIfPresent("key"));
+        Assert.assertNull(cache.getIfPresent("other"));
+    }
+
+    /**
+     * A lookup that counts its subscriptions.
+     */
+    private static class Lookup implements Func0<Observable<String>> {
+        private final String value;
+        private final AtomicInteger count = new AtomicInteger();
+        private long delayInMillis;
+        private int failures;
+
+        Lookup(String value) {
+            this.value = value;
+        }
+
+        Lookup withDelay(long delayInMillis) {
+            this.delayInMillis = delayInMillis;
+            return this;
+        }
+
+        Lookup withFailures(int failures) {
+            this.failures = failures;
+            return this;
+        }
+
+        @Override
+        public Observable<String> call() {
+            if (count.incrementAndGet() <= failures) {
+                return Observable.error(new IllegalStateException("failed"));
+            }
+            Observable<String> result = Observable.just(value);
+            return delayInMillis > 0 ? result.delay(delayInMillis, TimeUnit.MILLISECONDS) : result;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for
+ * license information.
+ */
+
+package com.microsoft.azure.management.resources.fluentcore.utils;
+
+import com.microsoft.azure.management.resources.core.MockArmService;
+import com.microsoft.azure.management.resources.core.TestDelayProvider;
+import com.microsoft.azure.management.resources.implementation.ResourceManager;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import rx.Observable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ProviderRegistrationCoordinatorTests {
+
+    private final List<Integer> delays = Collections.synchronizedList(new ArrayList<Integer>());
+
+    @Before
+    public void setup() {
+        SdkContext.setDelayProvider(new TestDelayProvider(false) {
+            @Override
+            public <T> Observable<T> delayedEmitAsync(T event, int milliseconds) {
+                delays.add(milliseconds);
+                return super.delayedEmitAsync(event, milliseconds);
+            }
+        });
+    }
+
+    @After
+    public void cleanup() {
+        SdkContext.setDelayProvider(new DelayProvider());
+    }
+
+    @Test
+    public void canShareRegistrationInProgress() {
+        ProviderService service = new ProviderService(0);
+        ProviderRegistrationCoordinator coordinator = new ProviderRegistrationCoordinator();
+        ResourceManager resourceManager = resourceManager(service, "sub1");
+
+        Observable<String> first = coordinator.registerAsync(resourceManager, "sub1", "Microsoft.Foo");
+        Observable<String> second = coordinator.registerAsync(resourceManager, "SUB1", "microsoft.foo");
+        List<String> namespaces = Observable.merge(first, second).toList().toBlocking().single();
+
+        Assert.assertEquals(Arrays.asList("Microsoft.Foo", "Microsoft.Foo"), namespaces);
+        Assert.assertEquals(1, service.registerCount.get());
+    }
+
+    @Test
+    public void canRegisterPerSubscriptionAndNamespace() {
+        ProviderService service = new ProviderService(0);
+        ProviderRegistrationCoordinator coordinator = new ProviderRegistrationCoordinator();
+
+        Observable.merge(
+                coordinator.registerAsync(resourceManager(service, "sub1"), "sub1", "Microsoft.Foo"),
+                coordinator.registerAsync(resourceManager(service, "sub2"), "sub2", "Microsoft.Foo"),
+                coordinator.registerAsync(resourceManager(service, "sub1"), "sub1", "Microsoft.Bar"))
+                .toList().toBlocking().single();
+
+        Assert.assertEquals(3, service.registerCount.get());
+        Assert.assertTrue(coordinator.isRegistered("sub1", "Microsoft.Foo"));
+        Assert.assertTrue(coordinator.isRegistered("sub2", "Microsoft.Foo"));
+        Assert.assertTrue(coordinator.isRegistered("sub1", "Microsoft.Bar"));
+        Assert.assertFalse(coordinator.isRegistered("sub2", "Microsoft.Bar"));
+    }
+
+    @Test
+    public void canSkipRememberedRegistration() {
+        ProviderService service = new ProviderService(0);
+        ProviderRegistrationCoordinator coordinator = new ProviderRegistrationCoordinator();
+        ResourceManager resourceManager = resourceManager(service, "sub1");
+
+        Assert.assertFalse(coordinator.isRegistered("sub1", "Microsoft.Foo"));
+        coordinator.registerAsync(resourceManager, "sub1", "Microsoft.Foo").toBlocking().last();
+        Assert.assertTrue(coordinator.isRegistered("sub1", "Microsoft.Foo"));
+        int requestCount = service.requestCount.get();
+
+        Assert.assertEquals("Microsoft.Foo",
+                coordinator.registerAsync(resourceManager, "sub1", "Microsoft.Foo").toBlocking().last());
+        Assert.assertEquals(requestCount, service.requestCount.get());
+        Assert.assertEquals(1, service.registerCount.get());
+    }
+
+    @Test
+    public void canPollRegistrationWithBackoff() {
+        // The provider reports Registering on the first 4 polls
+        ProviderService service = new ProviderService(4);
+        ProviderRegistrationCoordinator coordinator = new ProviderRegistrationCoordinator();
+
+        Assert.assertEquals("Microsoft.Foo",
+                coordinator.registerAsync(resourceManager(service, "sub1"), "sub1", "Microsoft.Foo").toBlocking().last());
+
+        Assert.assertEquals(1, service.registerCount.get());
+        Assert.assertEquals(5, service.getCount.get());
+        Assert.assertEquals(Arrays.asList(2000, 4000, 8000, 16000, 30000), delays);
+        Assert.assertTrue(coordinator.isRegistered("sub1", "Microsoft.Foo"));
+    }
+
+    @Test
+    public void canRetryFailedRegistration() {
+        ProviderService service = new ProviderService(0);
+        service.failRegister = true;
+        ProviderRegistrationCoordinator coordinator = new ProviderRegistrationCoordinator();
+        ResourceManager resourceManager = resourceManager(service, "sub1");
+
+        try {
+            coordinator.registerAsync(resourceManager, "sub1", "Microsoft.Foo").toBlocking().last();
+            Assert.fail("Expected the registration to fail");
+        } catch (RuntimeException e) {
+            Assert.assertFalse(coordinator.isRegistered("sub1", "Microsoft.Foo"));
+        }
+
+        // The failed registration is not shared with later requests
+        service.failRegister = false;
+        coordinator.registerAsync(resourceManager, "sub1", "Microsoft.Foo").toBlocking().last();
+        Assert.assertEquals(2, service.registerCount.get());
+        Assert.assertTrue(coordinator.isRegistered("sub1", "Microsoft.Foo"));
+    }
+
+    private static ResourceManager resourceManager(ProviderService service, String subscriptionId) {
+        return ResourceManager.authenticate(service.restClient())
+                .withSubscription(subscriptionId);
+    }
+
+    /**
+     * Serves the provider register and get requests, the provider is registering for the given
+     * number of gets after the register request.
+     */
+    private static class ProviderService extends MockArmService {
+        private final int registeringPollCount;
+        private final AtomicInteger requestCount = new AtomicInteger();
+        private final AtomicInteger registerCount = new AtomicInteger();
+        private final AtomicInteger getCount = new AtomicInteger();
+        private volatile boolean failRegister;
+
+        ProviderService(int registeringPollCount) {
+            this.registeringPollCount = registeringPollCount;
+        }
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            requestCount.incrementAndGet();
+            Request request = chain.request();
+            List<String> segments = request.url().pathSegments();
+            String namespace = segments.get(3);
+            if (request.method().equals("POST")) {
+                registerCount.incrementAndGet();
+                if (failRegister) {
+                    return response(chain, 409, "{\"error\":{\"code\":\"Conflict\",\"message\":\"failed\"}}");
+                }
+                return response(chain, 200, provider(namespace, registeringPollCount > 0 ? "Registering" : "Registered"));
+            }
+            int polls = getCount.incrementAndGet();
+            return response(chain, 200, provider(namespace, polls <= registeringPollCount ? "Registering" : "Registered"));
+        }
+
+        private static String provider(String namespace, String state) {
+            return "{\"id\":\"/subscriptions/sub/providers/" + namespace + "\",\"namespace\":\"" + namespace
+                    + "\",\"registrationState\":\"" + state + "\",\"resourceTypes\":[]}";
+        }
+    }
+}
@@ -7,9 +7,8 @@ package com.microsoft.azure.management.search.implementation;
 
 import com.microsoft.azure.PagedList;
 import com.microsoft.azure.management.apigeneration.LangDefinition;
-import com.microsoft.azure.management.resources.ResourceGroup;
 import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.GroupableResourcesImpl;
-import com.microsoft.azure.management.resources.fluentcore.arm.models.implementation.GroupPagedList;
+import com.microsoft.azure.management.resources.fluentcore.arm.collection.implementation.ResourceGroupFanOut;
 import com.microsoft.azure.management.search.AdminKeys;
 import com.microsoft.azure.management.search.AdminKeyKind;
 import com.microsoft.azure.management.search.CheckNameAvailabilityResult;
@@ -45,24 +44,12 @@ class SearchServicesImpl
 
   @Override
   public PagedList<SearchService> list() {
-    final SearchServicesImpl self = this;
-    return new GroupPagedList<SearchService>(this.manager().resourceManager().resourceGroups().list()) {
-      @Override
-      public List<SearchService> listNextGroup(String resourceGroupName) {
-        return wrapList(self.inner().listByResourceGroup(resourceGroupName));
-      }
-    };
+    return ResourceGroupFanOut.of(this.manager().resourceManager().resourceGroups(), this).ordered().list();
   }
 
   @Override
   public Observable<SearchService> listAsync() {
-    return this.manager().resourceManager().resourceGroups().listAsync()
-        .flatMap(new Func1<ResourceGroup, Observable<SearchService>>() {
-          @Override
-          public Observable<SearchService> call(ResourceGroup resourceGroup) {
-            return wrapListAsync(inner().listByResourceGroupAsync(resourceGroup.name()));
-          }
-        });
+    return ResourceGroupFanOut.of(this.manager().resourceManager().resourceGroups(), this).listAsync();
   }
 
   @Override